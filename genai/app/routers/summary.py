@@ -1,11 +1,13 @@
 from fastapi import APIRouter
-from app.models.schemas import SummaryRequest
+from app.models.schemas import SummaryRequest, SummaryResponse
 from app.services.summary_service import SummaryService
 from app.services.insights_service import InsightsService
+from app.services.review_service import ReviewService
 
 router = APIRouter(prefix="/api/genai")
 summary_service = SummaryService()
 insights_service = InsightsService()
+review_service = ReviewService()
 
 
 @router.post("/summary", response_model=dict)
@@ -17,4 +19,10 @@ async def get_summary(request: SummaryRequest):
 @router.post("/insights", response_model=dict)
 async def get_insights(request: SummaryRequest):
     """Get only the insights and analysis from journal snippets"""
-    return insights_service.process_insights(request)
\ No newline at end of file
+    return insights_service.process_insights(request)
+
+
+@router.post("/review", response_model=SummaryResponse)
+async def get_review(request: SummaryRequest):
+    """Get the summary, analysis and insights from journal snippets in a single LLM call"""
+    return review_service.process_review(request)
@@ -0,0 +1,92 @@
+"""Prompt fragments and the response parser shared by the summary, insights and review services"""
+
+SUMMARY = "Journal Summary:"
+ANALYSIS = "Analysis:"
+INSIGHTS = "Insights:"
+
+PREAMBLE = """
+You are a thoughtful journal assistant.
+
+Given the following snippets a user has recorded throughout their day:
+
+{input_text}
+"""
+
+# What the LLM is asked to write for each section
+SECTION_TASKS = {
+    SUMMARY: 'a concise and reflective Journal Summary as if the user wrote it themselves, using first-person language ("I", "my"). Use **only** the information in the snippets—do not add any thoughts, feelings, or actions not described.',
+    ANALYSIS: 'an Analysis section **addressed directly to the user**, using "you" and "your" (instead of "the user"). Provide insights about the emotions you might have felt based on the snippets, and suggest possible recommendations for how you could feel happier or improve your wellbeing.',
+    INSIGHTS: """specific Insights in the following four categories:
+   - Mood Pattern: Analyze the emotional patterns throughout the day
+   - Suggestion: Provide one actionable recommendation for improvement
+   - Achievement: Identify one positive accomplishment or strength shown
+   - Wellness Tip: Give one specific wellness or self-care recommendation""",
+}
+
+# How each section must be laid out in the response
+SECTION_FORMATS = {
+    SUMMARY: """Journal Summary:
+<summary here>""",
+    ANALYSIS: """Analysis:
+<analysis and recommendations here>""",
+    INSIGHTS: """Insights:
+Mood Pattern: <mood pattern analysis>
+Suggestion: <actionable suggestion>
+Achievement: <positive accomplishment>
+Wellness Tip: <wellness recommendation>""",
+}
+
+# Insight line labels and the keys they are parsed into
+INSIGHT_LABELS = {
+    "Mood Pattern:": "mood",
+    "Suggestion:": "suggestion",
+    "Achievement:": "achievement",
+    "Wellness Tip:": "wellness",
+}
+
+SECTION_COUNTS = {2: "two", 3: "three"}
+
+
+def build_template(*sections: str) -> str:
+    """Build a prompt template asking for the given sections, numbered when there are several"""
+    if len(sections) == 1:
+        tasks = f"Please provide {SECTION_TASKS[sections[0]]}"
+    else:
+        numbered = [
+            f"{i}. {SECTION_TASKS[section][0].upper()}{SECTION_TASKS[section][1:]}"
+            for i, section in enumerate(sections, start=1)
+        ]
+        tasks = f"Please provide {SECTION_COUNTS[len(sections)]} sections:\n\n" + "\n\n".join(numbered)
+
+    formats = "\n\n".join(SECTION_FORMATS[section] for section in sections)
+    return f"{PREAMBLE}\n{tasks}\n\nFormat your response exactly as:\n\n{formats}\n"
+
+
+def parse_sections(output: str, fallback: str = SUMMARY) -> dict:
+    """
+    Split an LLM response into its summary, analysis and insights.
+    Each section runs from its header to the next header; a response without any header
+    is taken as the fallback section as a whole.
+    """
+    positions = sorted(
+        (output.find(header), header) for header in (SUMMARY, ANALYSIS, INSIGHTS) if header in output
+    )
+    texts = {SUMMARY: "", ANALYSIS: "", INSIGHTS: ""}
+    if not positions:
+        texts[fallback] = output.strip()
+    for i, (start, header) in enumerate(positions):
+        end = positions[i + 1][0] if i + 1 < len(positions) else len(output)
+        texts[header] = output[start + len(header):end].strip()
+
+    insights = {key: "" for key in INSIGHT_LABELS.values()}
+    for line in texts[INSIGHTS].split("\n"):
+        line = line.strip()
+        for label, key in INSIGHT_LABELS.items():
+            if line.startswith(label):
+                insights[key] = line[len(label):].strip()
+
+    return {
+        "summary": texts[SUMMARY],
+        "analysis": texts[ANALYSIS],
+        "insights": insights,
+    }
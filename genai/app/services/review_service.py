@@ -0,0 +1,35 @@
+import traceback
+from fastapi import HTTPException
+from langchain.chains import LLMChain
+from langchain.prompts import PromptTemplate
+from app.models.schemas import SummaryRequest
+from app.services.llm_service import OpenWebUILLM
+from app.services.journal_prompts import ANALYSIS, INSIGHTS, SUMMARY, build_template, parse_sections
+
+
+class ReviewService:
+    """Service for generating summary, analysis and insights with a single LLM call"""
+
+    def __init__(self):
+        # Initialize the LLM
+        self.llm = OpenWebUILLM()
+
+        # One prompt covering everything the daily review shows, so the snippets are sent only once
+        self.review_prompt = PromptTemplate(
+            input_variables=["input_text"],
+            template=build_template(SUMMARY, ANALYSIS, INSIGHTS)
+        )
+        self.review_chain = LLMChain(llm=self.llm, prompt=self.review_prompt)
+
+    def process_review(self, request: SummaryRequest) -> dict:
+        """Process review request and return summary, analysis and insights"""
+        if not request.snippetContents:
+            raise HTTPException(status_code=400, detail="snippetContents list cannot be empty.")
+
+        try:
+            combined = "\n\n".join(request.snippetContents)
+            output = self.review_chain.run(combined)
+            return parse_sections(output)
+        except Exception as e:
+            traceback.print_exc()
+            raise HTTPException(status_code=500, detail=f"Review generation failed: {str(e)}")
@@ -190,3 +190,38 @@ class TestAPIEndpoints:
         
         # Verify service was called with correct data
         mock_process_insights.assert_called_once()
+
+    def test_review_endpoint_empty_snippets(self):
+        """Test review with empty snippets list."""
+        empty_request = {"snippetContents": []}
+
+        response = self.client.post("/api/genai/review", json=empty_request)
+
+        assert response.status_code == 400
+        assert "snippetContents list cannot be empty" in response.json()["detail"]
+
+    @patch('app.services.review_service.ReviewService.process_review')
+    def test_review_endpoint_success(self, mock_process_review):
+        """Test the combined review endpoint with mocked service."""
+        mock_process_review.return_value = {
+            "summary": "Test summary of the day's activities",
+            "analysis": "Test analysis of the journal entries",
+            "insights": {
+                "mood": "positive",
+                "suggestion": "Keep up the good work",
+                "achievement": "Productive day completed",
+                "wellness": "Maintain work-life balance"
+            }
+        }
+
+        response = self.client.post("/api/genai/review", json=self.sample_request)
+
+        assert response.status_code == 200
+        data = response.json()
+
+        # Summary, analysis and insights come from the same call
+        assert data["summary"] == "Test summary of the day's activities"
+        assert data["analysis"] == "Test analysis of the journal entries"
+        assert data["insights"]["mood"] == "positive"
+        assert data["insights"]["wellness"] == "Maintain work-life balance"
+        mock_process_review.assert_called_once()
@@ -1,4 +1,5 @@
 from app.models.schemas import SummaryResponse, InsightsResponse
+from app.services.journal_prompts import ANALYSIS, parse_sections
 
 
 class TestSummaryChain:
@@ -255,3 +256,29 @@ Wellness Tip:    Continue current routine    """
         assert summary_response.summary == "Today I focused on important work and felt calm throughout."
         assert summary_response.analysis == "You demonstrated excellent focus and self-awareness today."
         assert summary_response.insights.mood == "Calm and focused"
+
+    def test_review_parsing(self, sample_llm_response):
+        """Test that the combined review output is split into its three sections."""
+        result = parse_sections(sample_llm_response)
+
+        response = SummaryResponse(**result)
+        assert response.summary.startswith("Today I woke up feeling energetic")
+        assert response.analysis.startswith("You demonstrated excellent balance")
+        assert response.insights.mood == "Started energetic, maintained momentum, ended accomplished"
+        assert response.insights.wellness == "Keep prioritizing both physical activity and social interactions"
+
+    def test_review_parsing_without_sections(self):
+        """Test that unstructured review output is kept as the summary."""
+        result = parse_sections("Just a quiet day.")
+
+        assert result["summary"] == "Just a quiet day."
+        assert result["analysis"] == ""
+        assert result["insights"]["mood"] == ""
+
+    def test_insights_parsing_without_sections(self):
+        """Test that unstructured insights output is kept as the analysis."""
+        result = parse_sections("You had a calm day.", fallback=ANALYSIS)
+
+        assert result["summary"] == ""
+        assert result["analysis"] == "You had a calm day."
+        assert result["insights"]["suggestion"] == ""
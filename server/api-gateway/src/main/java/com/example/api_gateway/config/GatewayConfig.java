@@ -1,16 +1,47 @@
 package com.example.api_gateway.config;
 
 import com.example.api_gateway.filter.ClerkAuthenticationFilter;
+import com.example.api_gateway.filter.ConcurrencyLimitFilter;
+import com.example.api_gateway.filter.RateLimitFilter;
+import com.example.api_gateway.service.AdaptiveConcurrencyLimiter;
+import com.example.api_gateway.service.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.factory.RetryGatewayFilterFactory;
 import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.GatewayFilterSpec;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+
+/**
+ * Routes to the services. Every service route runs through its resilience4j circuit breaker,
+ * whose time limiter bounds the whole call including retries, and falls back to a fast 503
+ * while the breaker is open. Each attempt has its own response timeout, short for CRUD routes
+ * and long for routes that wait for the LLM. Only idempotent GETs on CRUD routes are retried.
+ * Snippet export and bulk import stream for as long as their data takes, so they have a route of
+ * their own with a long timeout, a fixed concurrency limit and no retries.
+ * Each user has a request budget per route class, a small one for the LLM routes and a larger one
+ * for the CRUD routes; requests over budget are answered with 429 before they reach a breaker.
+ * Queueing and polling analysis jobs does not wait for the LLM, so those calls count as CRUD.
+ * Each service route also has a concurrency limit of its own and sheds the requests beyond it with
+ * 503, before a slow backend fails its breaker. CRUD routes adapt their limit to their backend's
+ * latency. The LLM routes answer cached results in milliseconds and generated ones in seconds on
+ * the same paths, which would drive an adaptive limit to its minimum, so their limit is fixed.
+ */
 @Configuration
 public class GatewayConfig {
 
         private final ClerkAuthenticationFilter clerkAuthenticationFilter;
+        private final MeterRegistry meterRegistry;
 
         @Value("${user-service-url}")
         private String userServiceUri;
@@ -21,30 +52,144 @@ public class GatewayConfig {
         @Value("${genai-service-url}")
         private String genaiServiceUri;
 
-        public GatewayConfig(ClerkAuthenticationFilter clerkAuthenticationFilter) {
+        @Value("${gateway.timeouts.crud-response-ms:3000}")
+        private long crudResponseTimeoutMs;
+
+        @Value("${gateway.timeouts.llm-response-ms:90000}")
+        private long llmResponseTimeoutMs;
+
+        @Value("${gateway.timeouts.transfer-response-ms:300000}")
+        private long transferResponseTimeoutMs;
+
+        @Value("${gateway.retries.get-retries:2}")
+        private int getRetries;
+
+        @Value("${gateway.rate-limit.crud.capacity:60}")
+        private long crudCapacity;
+
+        @Value("${gateway.rate-limit.crud.refill-per-second:10}")
+        private double crudRefillPerSecond;
+
+        @Value("${gateway.rate-limit.llm.capacity:5}")
+        private long llmCapacity;
+
+        @Value("${gateway.rate-limit.llm.refill-per-second:0.2}")
+        private double llmRefillPerSecond;
+
+        @Value("${gateway.rate-limit.max-users:100000}")
+        private int rateLimitMaxUsers;
+
+        @Value("${gateway.rate-limit.idle-timeout-ms:600000}")
+        private long rateLimitIdleTimeoutMs;
+
+        @Value("${gateway.concurrency.crud.initial-limit:20}")
+        private int crudInitialLimit;
+
+        @Value("${gateway.concurrency.crud.max-limit:200}")
+        private int crudMaxLimit;
+
+        @Value("${gateway.concurrency.llm.max-in-flight:16}")
+        private int llmMaxInFlight;
+
+        @Value("${gateway.concurrency.transfer.max-in-flight:4}")
+        private int transferMaxInFlight;
+
+        @Value("${gateway.concurrency.min-limit:2}")
+        private int minConcurrencyLimit;
+
+        @Value("${gateway.concurrency.rtt-tolerance:1.5}")
+        private double rttTolerance;
+
+        @Value("${gateway.concurrency.smoothing:0.2}")
+        private double limitSmoothing;
+
+        @Value("${gateway.concurrency.min-rtt-window:1000}")
+        private int minRttWindow;
+
+        public GatewayConfig(ClerkAuthenticationFilter clerkAuthenticationFilter, MeterRegistry meterRegistry) {
                 this.clerkAuthenticationFilter = clerkAuthenticationFilter;
+                this.meterRegistry = meterRegistry;
         }
 
         @Bean
         public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+                RateLimitFilter crudRateLimit = rateLimitFilter("crud", crudCapacity, crudRefillPerSecond);
+                RateLimitFilter llmRateLimit = rateLimitFilter("llm", llmCapacity, llmRefillPerSecond);
+                ConcurrencyLimitFilter userServiceLimit = concurrencyLimitFilter("user-service",
+                                crudInitialLimit, crudMaxLimit);
+                ConcurrencyLimitFilter journalJobsLimit = concurrencyLimitFilter("journal-service-jobs",
+                                crudInitialLimit, crudMaxLimit);
+                ConcurrencyLimitFilter journalLlmLimit = concurrencyLimitFilter("journal-service-llm",
+                                llmMaxInFlight, llmMaxInFlight, llmMaxInFlight);
+                ConcurrencyLimitFilter journalServiceLimit = concurrencyLimitFilter("journal-service",
+                                crudInitialLimit, crudMaxLimit);
+                ConcurrencyLimitFilter genaiServiceLimit = concurrencyLimitFilter("genai-service",
+                                llmMaxInFlight, llmMaxInFlight, llmMaxInFlight);
+                // A transfer's latency follows its size rather than the backend's load, so its limit is fixed
+                ConcurrencyLimitFilter journalTransferLimit = concurrencyLimitFilter("journal-transfer",
+                                transferMaxInFlight, transferMaxInFlight, transferMaxInFlight);
+
                 return builder.routes()
                                 // User Service (with auth filter)
                                 .route("user-service", r -> r
                                                 .path("/api/users/**")
-                                                .filters(f -> f.filter(clerkAuthenticationFilter))
+                                                .filters(f -> resilient(f.filter(clerkAuthenticationFilter)
+                                                                .filter(crudRateLimit)
+                                                                .filter(userServiceLimit), "user-service-cb", true))
+                                                .metadata(RESPONSE_TIMEOUT_ATTR, crudResponseTimeoutMs)
                                                 .uri(userServiceUri))
 
+                                // Journal Service, queueing and polling analysis jobs returns right away (with auth filter)
+                                .route("journal-service-jobs", r -> r
+                                                .path("/api/summary/jobs/**", "/api/insights/jobs/**",
+                                                                "/api/summary/*/jobs", "/api/insights/*/jobs")
+                                                .filters(f -> resilient(f.filter(clerkAuthenticationFilter)
+                                                                .filter(crudRateLimit)
+                                                                .filter(journalJobsLimit), "journal-service-cb", true))
+                                                .metadata(RESPONSE_TIMEOUT_ATTR, crudResponseTimeoutMs)
+                                                .uri(journalServiceUri))
+
+                                // Journal Service, summaries and insights wait for the LLM (with auth filter)
+                                .route("journal-service-llm", r -> r
+                                                .path("/api/summary/**", "/api/insights/**", "/api/review/**")
+                                                .filters(f -> resilient(f.filter(clerkAuthenticationFilter)
+                                                                .filter(llmRateLimit)
+                                                                .filter(journalLlmLimit), "journal-llm-cb", false))
+                                                .metadata(RESPONSE_TIMEOUT_ATTR, llmResponseTimeoutMs)
+                                                .uri(journalServiceUri))
+
+                                // Journal Service, snippet export and bulk import (with auth filter)
+                                .route("journal-export", r -> r
+                                                .path("/api/snippets").and().method(HttpMethod.GET)
+                                                .filters(f -> resilient(f.filter(clerkAuthenticationFilter)
+                                                                .filter(crudRateLimit)
+                                                                .filter(journalTransferLimit), "journal-transfer-cb", false))
+                                                .metadata(RESPONSE_TIMEOUT_ATTR, transferResponseTimeoutMs)
+                                                .uri(journalServiceUri))
+                                .route("journal-import", r -> r
+                                                .path("/api/snippets/bulk").and().method(HttpMethod.POST)
+                                                .filters(f -> resilient(f.filter(clerkAuthenticationFilter)
+                                                                .filter(crudRateLimit)
+                                                                .filter(journalTransferLimit), "journal-transfer-cb", false))
+                                                .metadata(RESPONSE_TIMEOUT_ATTR, transferResponseTimeoutMs)
+                                                .uri(journalServiceUri))
+
                                 // Journal Service (with auth filter)
                                 .route("journal-service", r -> r
-                                                .path("/api/journalEntry/**", "/api/snippets/**", "/api/summary/**",
-                                                                "/api/insights/**")
-                                                .filters(f -> f.filter(clerkAuthenticationFilter))
+                                                .path("/api/journalEntry/**", "/api/snippets/**")
+                                                .filters(f -> resilient(f.filter(clerkAuthenticationFilter)
+                                                                .filter(crudRateLimit)
+                                                                .filter(journalServiceLimit), "journal-service-cb", true))
+                                                .metadata(RESPONSE_TIMEOUT_ATTR, crudResponseTimeoutMs)
                                                 .uri(journalServiceUri))
 
                                 // GenAI Service (with auth filter)
                                 .route("genai-service", r -> r
                                                 .path("/api/genai/**")
-                                                .filters(f -> f.filter(clerkAuthenticationFilter))
+                                                .filters(f -> resilient(f.filter(clerkAuthenticationFilter)
+                                                                .filter(llmRateLimit)
+                                                                .filter(genaiServiceLimit), "genai-service-cb", false))
+                                                .metadata(RESPONSE_TIMEOUT_ATTR, llmResponseTimeoutMs)
                                                 .uri(genaiServiceUri))
 
                                 .route("gateway-api-docs", r -> r
@@ -74,4 +219,45 @@ public class GatewayConfig {
 
                                 .build();
         }
-}
\ No newline at end of file
+
+        private RateLimitFilter rateLimitFilter(String routeClass, long capacity, double refillPerSecond) {
+                TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(capacity, refillPerSecond,
+                                rateLimitMaxUsers, Duration.ofMillis(rateLimitIdleTimeoutMs));
+                return new RateLimitFilter(routeClass, rateLimiter, meterRegistry);
+        }
+
+        private ConcurrencyLimitFilter concurrencyLimitFilter(String routeId, int initialLimit, int maxLimit) {
+                return concurrencyLimitFilter(routeId, initialLimit, minConcurrencyLimit, maxLimit);
+        }
+
+        private ConcurrencyLimitFilter concurrencyLimitFilter(String routeId, int initialLimit, int minLimit,
+                        int maxLimit) {
+                AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit,
+                                maxLimit, rttTolerance, limitSmoothing, minRttWindow);
+                return new ConcurrencyLimitFilter(routeId, limiter, meterRegistry);
+        }
+
+        /**
+         * Adds the route's circuit breaker and, for CRUD routes, retries of failed GETs.
+         * The breaker is added first, so it sees one call per request however often it was retried.
+         */
+        private GatewayFilterSpec resilient(GatewayFilterSpec filters, String circuitBreaker, boolean retryGets) {
+                filters.circuitBreaker(config -> config
+                                .setName(circuitBreaker)
+                                .setFallbackUri("forward:/fallback/" + circuitBreaker)
+                                .addStatusCode(String.valueOf(HttpStatus.BAD_GATEWAY.value()))
+                                .addStatusCode(String.valueOf(HttpStatus.SERVICE_UNAVAILABLE.value()))
+                                .addStatusCode(String.valueOf(HttpStatus.GATEWAY_TIMEOUT.value())));
+                if (retryGets) {
+                        filters.retry(config -> config
+                                        .setRetries(getRetries)
+                                        .setMethods(HttpMethod.GET)
+                                        .setStatuses(HttpStatus.BAD_GATEWAY, HttpStatus.SERVICE_UNAVAILABLE,
+                                                        HttpStatus.GATEWAY_TIMEOUT)
+                                        .setExceptions(IOException.class, TimeoutException.class)
+                                        .setBackoff(new RetryGatewayFilterFactory.BackoffConfig(
+                                                        Duration.ofMillis(50), Duration.ofMillis(500), 2, true)));
+                }
+                return filters;
+        }
+}
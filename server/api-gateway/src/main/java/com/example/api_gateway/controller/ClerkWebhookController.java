@@ -5,12 +5,14 @@ import java.util.Map;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.RestClient;
 
 import com.example.api_gateway.ClerkWebhookVerifier;
+import com.example.api_gateway.service.UserIdentitySigner;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -27,11 +29,16 @@ public class ClerkWebhookController {
   @Value("${user-service-url}")
   private String userServiceUrl;
 
+  @Value("${journal-service-url}")
+  private String journalServiceUrl;
+
   private final ClerkWebhookVerifier webhookVerifier;
+  private final UserIdentitySigner userIdentitySigner;
   private final Logger logger = org.slf4j.LoggerFactory.getLogger(ClerkWebhookController.class);
 
-  public ClerkWebhookController(ClerkWebhookVerifier webhookVerifier) {
+  public ClerkWebhookController(ClerkWebhookVerifier webhookVerifier, UserIdentitySigner userIdentitySigner) {
     this.webhookVerifier = webhookVerifier;
+    this.userIdentitySigner = userIdentitySigner;
   }
 
   @PostConstruct
@@ -52,7 +59,7 @@ public class ClerkWebhookController {
     try {
       RestClient restClient = RestClient.create();
       String response = restClient.get()
-          .uri(userServiceUrl + "/api/users")
+          .uri(userServiceUrl + "/api/health")
           .retrieve()
           .body(String.class);
       return ResponseEntity.ok("User service is reachable. Response: " + response.substring(0, Math.min(100, response.length())));
@@ -84,6 +91,12 @@ public class ClerkWebhookController {
     }
   }
 
+  // The user service only accepts changes to a user on behalf of that user
+  private void signAs(HttpHeaders headers, String userId) {
+    headers.set(UserIdentitySigner.USER_ID_HEADER, userId);
+    headers.set(UserIdentitySigner.SIGNATURE_HEADER, userIdentitySigner.sign(userId, System.currentTimeMillis() / 1000));
+  }
+
   private boolean verifyWebhookSignature(String payload, String signature,
       String timestamp, String id) {
     // Create the signed payload string
@@ -200,6 +213,7 @@ public class ClerkWebhookController {
           try {
             User responseUser = restClient.post()
                 .uri(userServiceUrl + "/api/users")
+                .headers(headers -> signAs(headers, userId))
                 .body(user)
                 .retrieve()
                 .body(User.class);
@@ -217,12 +231,28 @@ public class ClerkWebhookController {
           Map<String, Object> data = (Map<String, Object>) event.get("data");
           String userId = (String) data.get("id");
 
+          // Journal data is deleted by a background job in journal service, scheduling it returns immediately.
+          // It is scheduled first because deleting the user again on a retried webhook fails.
+          logger.info("Scheduling deletion of journal data at URL: {}", journalServiceUrl + "/api/user-data/" + userId);
+          try {
+            restClient.delete()
+                .uri(journalServiceUrl + "/api/user-data/" + userId)
+                .retrieve()
+                .toBodilessEntity();
+
+            logger.info("Journal data deletion scheduled in journal microservice");
+          } catch (Exception e) {
+            logger.error("Failed to schedule journal data deletion. URL: {}, Error: {}", journalServiceUrl + "/api/user-data/" + userId, e.getMessage(), e);
+            throw e;
+          }
+
           logger.info("Attempting to delete user in user service at URL: {}", userServiceUrl + "/api/users/" + userId);
 
           // Send http request to user microservice to create user (blocking)
           try {
             restClient.delete()
                 .uri(userServiceUrl + "/api/users/" + userId)
+                .headers(headers -> signAs(headers, userId))
                 .retrieve()
                 .toBodilessEntity();
 
@@ -257,6 +287,7 @@ public class ClerkWebhookController {
           try {
             User responseUser = restClient.put()
                 .uri(userServiceUrl + "/api/users/" + userId)
+                .headers(headers -> signAs(headers, userId))
                 .body(user)
                 .retrieve()
                 .body(User.class);
@@ -0,0 +1,54 @@
+package com.example.api_gateway.controller;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+
+/**
+ * Fallback of the route circuit breakers, answering right away instead of waiting for a service
+ * that is failing or too slow
+ */
+@RestController
+@RequestMapping("/fallback")
+public class FallbackController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FallbackController.class);
+
+    @RequestMapping("/{circuitBreaker}")
+    public ResponseEntity<Map<String, Object>> fallback(@PathVariable String circuitBreaker,
+            ServerWebExchange exchange) {
+        Throwable cause = exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        HttpStatus status = cause instanceof TimeoutException ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.SERVICE_UNAVAILABLE;
+        if (!(cause instanceof CallNotPermittedException)) {
+            logger.warn("Serving fallback of {}: {}", circuitBreaker, cause != null ? cause.toString() : "unknown cause");
+        }
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Service Unavailable");
+        errorResponse.put("message", message(cause));
+        errorResponse.put("status", status.value());
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+
+    private static String message(Throwable cause) {
+        if (cause instanceof CallNotPermittedException) {
+            return "Service is temporarily unavailable, please try again later";
+        }
+        if (cause instanceof TimeoutException) {
+            return "Service did not respond in time";
+        }
+        return "Service is currently failing, please try again later";
+    }
+}
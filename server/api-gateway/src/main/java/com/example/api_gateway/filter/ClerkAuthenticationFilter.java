@@ -1,6 +1,7 @@
 package com.example.api_gateway.filter;
 
 import com.example.api_gateway.service.ClerkJwtService;
+import com.example.api_gateway.service.UserIdentitySigner;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
@@ -16,28 +17,44 @@ import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class ClerkAuthenticationFilter implements GatewayFilter {
 
     private final ClerkJwtService clerkJwtService;
+    private final UserIdentitySigner userIdentitySigner;
     private final ObjectMapper objectMapper;
 
-    public ClerkAuthenticationFilter(ClerkJwtService clerkJwtService) {
+    public ClerkAuthenticationFilter(ClerkJwtService clerkJwtService, UserIdentitySigner userIdentitySigner) {
         this.clerkJwtService = clerkJwtService;
+        this.userIdentitySigner = userIdentitySigner;
         this.objectMapper = new ObjectMapper();
     }
 
+    /**
+     * Forwards authenticated requests with the user's id from the token as a signed X-User-Id header,
+     * replacing any identity headers sent by the client
+     */
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
-        return clerkJwtService.validateToken(request)
-            .flatMap(isAuthenticated -> {
-                if (isAuthenticated) {
-                    return chain.filter(exchange);
-                } else {
+        // Wrapped in Optional, as the completed chain is empty as well and must not be answered with a 401
+        return clerkJwtService.verifiedUserId(request)
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .flatMap(userId -> {
+                if (userId.isEmpty()) {
                     return onError(exchange, "Clerk auth failed, Invalid or expired token", HttpStatus.UNAUTHORIZED);
                 }
+                String signature = userIdentitySigner.sign(userId.get(), System.currentTimeMillis() / 1000);
+                ServerHttpRequest signedRequest = request.mutate()
+                    .headers(headers -> {
+                        headers.set(UserIdentitySigner.USER_ID_HEADER, userId.get());
+                        headers.set(UserIdentitySigner.SIGNATURE_HEADER, signature);
+                    })
+                    .build();
+                return chain.filter(exchange.mutate().request(signedRequest).build());
             });
     }
 
@@ -0,0 +1,89 @@
+package com.example.api_gateway.filter;
+
+import com.example.api_gateway.service.TokenBucketRateLimiter;
+import com.example.api_gateway.service.UserIdentitySigner;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Limits the requests of each authenticated user on a class of routes, e.g. the expensive LLM routes.
+ * Runs after {@link ClerkAuthenticationFilter}, which sets the verified user id, and answers with
+ * 429 and Retry-After once the user's budget is used up. Every response carries the
+ * RateLimit-Limit, RateLimit-Remaining and RateLimit-Reset headers.
+ */
+public class RateLimitFilter implements GatewayFilter {
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final Counter allowedCounter;
+    private final Counter rejectedCounter;
+
+    public RateLimitFilter(String routeClass, TokenBucketRateLimiter rateLimiter, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = new ObjectMapper();
+        this.allowedCounter = meterRegistry.counter("gateway.ratelimit.requests",
+                "class", routeClass, "outcome", "allowed");
+        this.rejectedCounter = meterRegistry.counter("gateway.ratelimit.requests",
+                "class", routeClass, "outcome", "rejected");
+        Gauge.builder("gateway.ratelimit.users", rateLimiter, TokenBucketRateLimiter::size)
+                .description("Users with a tracked rate limit bucket")
+                .tag("class", routeClass)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String userId = exchange.getRequest().getHeaders().getFirst(UserIdentitySigner.USER_ID_HEADER);
+        if (userId == null) {
+            return chain.filter(exchange);
+        }
+
+        TokenBucketRateLimiter.Decision decision = rateLimiter.tryAcquire(userId);
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.set("RateLimit-Limit", String.valueOf(decision.limit()));
+        headers.set("RateLimit-Remaining", String.valueOf(decision.remaining()));
+        headers.set("RateLimit-Reset", String.valueOf(decision.resetSeconds()));
+
+        if (decision.allowed()) {
+            allowedCounter.increment();
+            return chain.filter(exchange);
+        }
+        rejectedCounter.increment();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+        return onError(exchange, "Rate limit exceeded, retry in " + decision.retryAfterSeconds() + " s");
+    }
+
+    private Mono<Void> onError(ServerWebExchange exchange, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Too Many Requests");
+        errorResponse.put("message", message);
+        errorResponse.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+
+        try {
+            String body = objectMapper.writeValueAsString(errorResponse);
+            DataBuffer buffer = response.bufferFactory().wrap(body.getBytes());
+            return response.writeWith(Mono.just(buffer));
+        } catch (JsonProcessingException e) {
+            return response.setComplete();
+        }
+    }
+}
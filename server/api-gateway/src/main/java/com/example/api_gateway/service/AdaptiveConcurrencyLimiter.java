@@ -0,0 +1,116 @@
+package com.example.api_gateway.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit of one downstream route that adapts to its latency, following the gradient
+ * algorithm: the limit shrinks by the ratio of the minimum round trip time to the current one and
+ * grows by a small queue allowance while the two are close. Once the backend slows down the limit
+ * falls with it, so excess requests are shed right away instead of queueing in the gateway.
+ * The minimum is taken over the last one to two windows of samples, so it follows a backend whose
+ * normal latency changes. Failed calls shrink the limit by a fixed ratio.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  private static final double MIN_GRADIENT = 0.5;
+  private static final double BACKOFF_RATIO = 0.9;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double rttTolerance;
+  private final double smoothing;
+  private final int minRttWindow;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicLong rejected = new AtomicLong();
+  private volatile double limit;
+
+  // Guarded by this
+  private long windowMinRtt = Long.MAX_VALUE;
+  private long previousMinRtt = Long.MAX_VALUE;
+  private int windowSamples;
+
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double rttTolerance,
+      double smoothing, int minRttWindow) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.rttTolerance = rttTolerance;
+    this.smoothing = smoothing;
+    this.minRttWindow = minRttWindow;
+    this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+  }
+
+  /**
+   * Takes a slot if fewer calls than the limit are in flight
+   * @return Whether the call may proceed; if so, it must be released exactly once
+   */
+  public boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= getLimit()) {
+        rejected.incrementAndGet();
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Releases the slot of a completed call and adjusts the limit by how the call went
+   * @param rttNanos Time the call took
+   * @param dropped Whether the call failed or timed out, its time then says nothing about the backend
+   */
+  public void release(long rttNanos, boolean dropped) {
+    update(rttNanos, dropped, inFlight.getAndDecrement());
+  }
+
+  /**
+   * Releases the slot of a call that was cancelled, without adjusting the limit
+   */
+  public void release() {
+    inFlight.decrementAndGet();
+  }
+
+  public int getLimit() {
+    return (int) limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  public long getRejected() {
+    return rejected.get();
+  }
+
+  private synchronized void update(long rttNanos, boolean dropped, int inFlightAtEnd) {
+    double current = limit;
+    double target;
+    if (dropped) {
+      target = current * BACKOFF_RATIO;
+    } else {
+      long minRtt = recordRtt(rttNanos);
+      double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * minRtt / Math.max(1, rttNanos)));
+      // A route that uses less than half its limit gives no evidence that it could take more
+      if (gradient >= 1.0 && inFlightAtEnd * 2 < current) {
+        return;
+      }
+      target = current * gradient + Math.sqrt(current);
+    }
+    double smoothed = current * (1 - smoothing) + target * smoothing;
+    limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+  }
+
+  private long recordRtt(long rttNanos) {
+    windowMinRtt = Math.min(windowMinRtt, rttNanos);
+    if (++windowSamples >= minRttWindow) {
+      previousMinRtt = windowMinRtt;
+      windowMinRtt = Long.MAX_VALUE;
+      windowSamples = 0;
+    }
+    return Math.min(previousMinRtt, windowMinRtt);
+  }
+}
@@ -1,15 +1,44 @@
 package com.example.api_gateway.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import com.clerk.backend_api.helpers.jwks.AuthenticateRequest;
-import com.clerk.backend_api.helpers.jwks.AuthenticateRequestOptions;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 @Service
 public class ClerkJwtService {
@@ -17,55 +46,309 @@ public class ClerkJwtService {
   private static final Logger logger = LoggerFactory.getLogger(ClerkJwtService.class);
 
   // Reference:
-  // https://github.com/clerk/clerk-sdk-java?tab=readme-ov-file#request-authentication
+  // https://clerk.com/docs/backend-requests/handling/manual-jwt
+  // Tokens are verified locally against Clerk's JWKS, which is fetched once and refreshed
+  // in the background instead of being consulted on every request.
+
+  private static final String SESSION_COOKIE = "__session";
+  // An unknown key id may mean Clerk rotated its keys, but must not trigger a fetch per request
+  private static final long MIN_UNKNOWN_KEY_REFRESH_INTERVAL_MS = 30_000;
+  private static final Duration JWKS_FETCH_TIMEOUT = Duration.ofSeconds(5);
 
   @Value("${clerk.secret-key}")
   private String clerkSecretKey;
 
+  // Comma-separated origins a browser token's azp claim must match; blank disables the check
   @Value("${clerk.authorized-party:http://localhost:3000}")
   private String authorizedParty;
 
-  public ClerkJwtService(WebClient.Builder webClientBuilder) {
+  @Value("${clerk.jwks.url:https://api.clerk.com/v1/jwks}")
+  private String jwksUrl;
+
+  // Loads the keys from this file instead of Clerk, e.g. for offline tests
+  @Value("${clerk.jwks.file:}")
+  private String jwksFile;
+
+  @Value("${clerk.jwks.refresh-interval-ms:3600000}")
+  private long jwksRefreshIntervalMs;
+
+  @Value("${clerk.jwt.clock-skew-seconds:5}")
+  private long clockSkewSeconds;
+
+  @Value("${clerk.jwt.cache.max-size:10000}")
+  private int cacheMaxSize;
+
+  @Value("${clerk.jwt.negative-cache.ttl-ms:30000}")
+  private long negativeCacheTtlMs;
+
+  // Kept apart from the verified tokens, so a flood of bogus tokens cannot push out valid ones
+  @Value("${clerk.jwt.negative-cache.max-size:1000}")
+  private int negativeCacheMaxSize;
+
+  @Value("${clerk.jwt.cache.sweep-interval-ms:60000}")
+  private long cacheSweepIntervalMs;
+
+  private final WebClient webClient;
+  private final MeterRegistry meterRegistry;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final AtomicLong lastUnknownKeyRefresh = new AtomicLong();
+
+  private volatile Map<String, PublicKey> keys = Map.of();
+  private Set<String> authorizedParties;
+  private ExpiringCache<String> verifiedTokens;
+  private ExpiringCache<Boolean> invalidTokens;
+  private Disposable jwksRefresh;
+  private Disposable cacheSweep;
+
+  public ClerkJwtService(WebClient.Builder webClientBuilder, MeterRegistry meterRegistry) {
+    this.webClient = webClientBuilder.build();
+    this.meterRegistry = meterRegistry;
     logger.info("ClerkJwtService initialized");
   }
 
+  @PostConstruct
+  void init() {
+    verifiedTokens = new ExpiringCache<>(cacheMaxSize);
+    invalidTokens = new ExpiringCache<>(negativeCacheMaxSize);
+    authorizedParties = authorizedParty == null ? Set.of() : Arrays.stream(authorizedParty.split(","))
+        .map(String::trim)
+        .filter(party -> !party.isEmpty())
+        .collect(Collectors.toUnmodifiableSet());
+    Gauge.builder("gateway.jwt.cache.size", verifiedTokens, ExpiringCache::size)
+        .description("Verified tokens cached until they expire")
+        .register(meterRegistry);
+    Gauge.builder("gateway.jwt.negative-cache.size", invalidTokens, ExpiringCache::size)
+        .description("Rejected tokens remembered for the negative cache TTL")
+        .register(meterRegistry);
+
+    jwksRefresh = Flux.interval(Duration.ZERO, Duration.ofMillis(jwksRefreshIntervalMs))
+        .concatMap(tick -> refreshKeys())
+        .subscribe();
+    cacheSweep = Flux.interval(Duration.ofMillis(cacheSweepIntervalMs))
+        .subscribe(tick -> sweepCaches(System.currentTimeMillis()));
+  }
+
+  @PreDestroy
+  void stop() {
+    if (jwksRefresh != null) {
+      jwksRefresh.dispose();
+    }
+    if (cacheSweep != null) {
+      cacheSweep.dispose();
+    }
+  }
+
+  /**
+   * Drops the expired tokens of both caches, off the request path
+   */
+  void sweepCaches(long nowMillis) {
+    verifiedTokens.sweepExpired(nowMillis);
+    invalidTokens.sweepExpired(nowMillis);
+  }
+
   /**
    * Validates a Clerk JWT token by verifying its signature against Clerk's JWKS
    */
   public Mono<Boolean> validateToken(ServerHttpRequest request) {
+    return verifiedUserId(request)
+        .map(userId -> true)
+        .defaultIfEmpty(false);
+  }
+
+  /**
+   * Verifies the session token of the request
+   * @return The Clerk user id from the token's subject, or empty if the token is missing or invalid
+   */
+  public Mono<String> verifiedUserId(ServerHttpRequest request) {
+    String token = extractToken(request);
+    if (token == null) {
+      logger.debug("No session token on request to: {}", request.getPath().value());
+      return Mono.empty();
+    }
+
+    String tokenHash = sha256(token);
+    long now = System.currentTimeMillis();
+    String cachedUserId = verifiedTokens.get(tokenHash, now);
+    if (cachedUserId != null) {
+      recordLookup("hit");
+      return Mono.just(cachedUserId);
+    }
+    if (invalidTokens.get(tokenHash, now) != null) {
+      recordLookup("negative_hit");
+      return Mono.empty();
+    }
+    recordLookup("miss");
+
+    Timer.Sample sample = Timer.start(meterRegistry);
+    return keyFor(token, tokenHash)
+        .flatMap(key -> Mono.justOrEmpty(verify(token, key, tokenHash)))
+        .doOnSuccess(userId -> {
+          boolean valid = userId != null;
+          sample.stop(meterRegistry.timer("gateway.jwt.verification", "outcome", valid ? "valid" : "invalid"));
+          logger.debug("Token validation result: {} for path: {}", valid, request.getPath().value());
+        })
+        .onErrorResume(e -> {
+          logger.error("Error validating token for request to {}: {}",
+              request.getPath().value(), e.getMessage(), e);
+          return Mono.empty();
+        });
+  }
+
+  /**
+   * Looks up the signing key named by the token's header, refreshing the key set once
+   * if the key is unknown. A token with an unknown key is not remembered as invalid, as its
+   * key may only be missing until the next refresh after Clerk rotated its keys.
+   */
+  private Mono<PublicKey> keyFor(String token, String tokenHash) {
+    String keyId;
     try {
-      logger.debug("Validating token for request to: {}", request.getPath().value());
-
-      // Log headers for debugging (be careful not to log sensitive data in
-      // production)
-      logger.debug("Authorization header present: {}, Headers: {}",
-          request.getHeaders().containsKey("Authorization"), request.getHeaders());
-
-      // Check if secret key is configured
-      if (clerkSecretKey == null || clerkSecretKey.equals("your-clerk-secret-key")) {
-        logger.error("Clerk secret key not properly configured. Current value: {}",
-            clerkSecretKey != null ? "***masked***" : "null");
-        return Mono.just(false);
-      } else {
-        logger.debug("Using Clerk secret key: {}", clerkSecretKey);
+      JsonNode header = decodeSegment(token.split("\\.", -1)[0]);
+      if (!"RS256".equals(header.path("alg").asText())) {
+        rejectToken(tokenHash, System.currentTimeMillis());
+        return Mono.empty();
       }
+      keyId = header.path("kid").asText();
+    } catch (Exception e) {
+      rejectToken(tokenHash, System.currentTimeMillis());
+      return Mono.empty();
+    }
 
-      Boolean isSignedIn = AuthenticateRequest.authenticateRequest(
-          request.getHeaders(),
-          AuthenticateRequestOptions
-              .secretKey(clerkSecretKey)
-              // .authorizedParty(authorizedParty)
-              .build())
-          .isSignedIn();
+    PublicKey key = keys.get(keyId);
+    if (key != null) {
+      return Mono.just(key);
+    }
+    long last = lastUnknownKeyRefresh.get();
+    long now = System.currentTimeMillis();
+    if (now - last < MIN_UNKNOWN_KEY_REFRESH_INTERVAL_MS || !lastUnknownKeyRefresh.compareAndSet(last, now)) {
+      return Mono.empty();
+    }
+    logger.info("Unknown signing key {}, refreshing JWKS", keyId);
+    return refreshKeys().then(Mono.fromSupplier(() -> keys.get(keyId)));
+  }
+
+  /**
+   * Checks signature and time claims, and caches the outcome: valid tokens until they expire,
+   * invalid ones for a short while
+   * @return The token's subject, or null if the token is invalid
+   */
+  private String verify(String token, PublicKey key, String tokenHash) {
+    long now = System.currentTimeMillis();
+    try {
+      String[] parts = token.split("\\.", -1);
+      if (parts.length != 3) {
+        return rejectToken(tokenHash, now);
+      }
+      Signature signature = Signature.getInstance("SHA256withRSA");
+      signature.initVerify(key);
+      signature.update((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+      if (!signature.verify(Base64.getUrlDecoder().decode(parts[2]))) {
+        return rejectToken(tokenHash, now);
+      }
 
-      logger.debug("Token validation result: {} for path: {}", isSignedIn, request.getPath().value());
+      JsonNode claims = decodeSegment(parts[1]);
+      long nowSeconds = now / 1000;
+      long expiresAt = claims.path("exp").asLong(0);
+      long notBefore = claims.path("nbf").asLong(0);
+      String userId = claims.path("sub").asText(null);
+      if (expiresAt == 0 || userId == null
+          || nowSeconds - clockSkewSeconds >= expiresAt
+          || nowSeconds + clockSkewSeconds < notBefore) {
+        return rejectToken(tokenHash, now);
+      }
+      // Only browser tokens carry azp; it names the origin the token was issued to
+      String party = claims.path("azp").asText(null);
+      if (party != null && !authorizedParties.isEmpty() && !authorizedParties.contains(party)) {
+        logger.debug("Token issued to unauthorized party {}", party);
+        return rejectToken(tokenHash, now);
+      }
+      verifiedTokens.put(tokenHash, userId, (expiresAt + clockSkewSeconds) * 1000);
+      return userId;
+    } catch (Exception e) {
+      logger.debug("Malformed token: {}", e.getMessage());
+      return rejectToken(tokenHash, now);
+    }
+  }
 
-      return Mono.just(isSignedIn);
+  private String rejectToken(String tokenHash, long now) {
+    invalidTokens.put(tokenHash, Boolean.TRUE, now + negativeCacheTtlMs);
+    return null;
+  }
 
+  /**
+   * Reloads the signing keys from the configured file or from Clerk; keeps the current keys on failure
+   */
+  Mono<Void> refreshKeys() {
+    Mono<String> jwks;
+    if (jwksFile != null && !jwksFile.isBlank()) {
+      jwks = Mono.fromCallable(() -> Files.readString(Path.of(jwksFile)))
+          .subscribeOn(Schedulers.boundedElastic());
+    } else if (clerkSecretKey == null || clerkSecretKey.equals("your-clerk-secret-key")) {
+      logger.error("Clerk secret key not properly configured, cannot fetch JWKS");
+      return Mono.empty();
+    } else {
+      jwks = webClient.get()
+          .uri(jwksUrl)
+          .header(HttpHeaders.AUTHORIZATION, "Bearer " + clerkSecretKey)
+          .retrieve()
+          .bodyToMono(String.class)
+          .timeout(JWKS_FETCH_TIMEOUT);
+    }
+    return jwks
+        .map(this::parseKeys)
+        .doOnNext(loaded -> {
+          keys = loaded;
+          meterRegistry.counter("gateway.jwt.jwks.refreshes", "outcome", "success").increment();
+          logger.debug("Loaded {} JWKS signing keys", loaded.size());
+        })
+        .onErrorResume(e -> {
+          meterRegistry.counter("gateway.jwt.jwks.refreshes", "outcome", "failure").increment();
+          logger.error("Failed to refresh JWKS, keeping {} known keys: {}", keys.size(), e.getMessage());
+          return Mono.empty();
+        })
+        .then();
+  }
+
+  private Map<String, PublicKey> parseKeys(String jwks) {
+    try {
+      Map<String, PublicKey> parsed = new HashMap<>();
+      KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+      for (JsonNode jwk : objectMapper.readTree(jwks).path("keys")) {
+        if (!"RSA".equals(jwk.path("kty").asText()) || !"sig".equals(jwk.path("use").asText("sig"))) {
+          continue;
+        }
+        BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.path("n").asText()));
+        BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.path("e").asText()));
+        parsed.put(jwk.path("kid").asText(), keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+      }
+      return Map.copyOf(parsed);
     } catch (Exception e) {
-      logger.error("Error validating token for request to {}: {}",
-          request.getPath().value(), e.getMessage(), e);
-      return Mono.just(false);
+      throw new IllegalArgumentException("Invalid JWKS: " + e.getMessage(), e);
     }
   }
-}
\ No newline at end of file
+
+  private JsonNode decodeSegment(String segment) throws java.io.IOException {
+    return objectMapper.readTree(Base64.getUrlDecoder().decode(segment));
+  }
+
+  private static String extractToken(ServerHttpRequest request) {
+    String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+    if (authorization != null && authorization.startsWith("Bearer ")) {
+      return authorization.substring(7).trim();
+    }
+    HttpCookie sessionCookie = request.getCookies().getFirst(SESSION_COOKIE);
+    return sessionCookie != null ? sessionCookie.getValue() : null;
+  }
+
+  private static String sha256(String token) {
+    try {
+      return HexFormat.of().formatHex(
+          MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void recordLookup(String result) {
+    meterRegistry.counter("gateway.jwt.cache.lookups", "result", result).increment();
+  }
+}
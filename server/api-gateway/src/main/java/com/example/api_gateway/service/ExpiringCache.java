@@ -0,0 +1,58 @@
+package com.example.api_gateway.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded map whose entries expire at a time given per entry.
+ * Entries are kept in access order, and when the map is full the least recently used entry
+ * makes room for the new one, so a burst of new keys never keeps live ones from being cached.
+ * Every call holds the lock for constant time; expired entries are dropped when they are read
+ * and by {@link #sweepExpired}, which the owner runs on a timer rather than on the request path.
+ */
+public class ExpiringCache<V> {
+
+  private record Entry<V>(V value, long expiresAtMillis) {
+  }
+
+  private final Map<String, Entry<V>> entries;
+
+  public ExpiringCache(int maxSize) {
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * @return The cached value, or null if there is none or it has expired
+   */
+  public synchronized V get(String key, long nowMillis) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (entry.expiresAtMillis() <= nowMillis) {
+      entries.remove(key);
+      return null;
+    }
+    return entry.value();
+  }
+
+  public synchronized void put(String key, V value, long expiresAtMillis) {
+    entries.put(key, new Entry<>(value, expiresAtMillis));
+  }
+
+  /**
+   * Drops every entry that has expired
+   */
+  public synchronized void sweepExpired(long nowMillis) {
+    entries.values().removeIf(entry -> entry.expiresAtMillis() <= nowMillis);
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+}
@@ -0,0 +1,100 @@
+package com.example.api_gateway.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token bucket per key, e.g. per user.
+ * Each bucket is a single AtomicLong holding the time at which it will be full again
+ * (the generic cell rate algorithm), so taking a token is one compare-and-set without locks.
+ * A bucket that has been full for the idle timeout carries no state and is evicted; the number
+ * of buckets is bounded, and keys beyond the bound are let through rather than tracked.
+ */
+public class TokenBucketRateLimiter {
+
+  /**
+   * Outcome of taking a token, with the values for the RateLimit-* and Retry-After headers
+   */
+  public record Decision(boolean allowed, long limit, long remaining, long resetSeconds, long retryAfterSeconds) {
+  }
+
+  private final long capacity;
+  private final long refillIntervalNanos;
+  private final long burstNanos;
+  private final int maxKeys;
+  private final long idleNanos;
+  private final LongSupplier nanoClock;
+
+  private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+  private final AtomicLong lastSweep;
+
+  public TokenBucketRateLimiter(long capacity, double refillPerSecond, int maxKeys, Duration idleTimeout) {
+    this(capacity, refillPerSecond, maxKeys, idleTimeout, System::nanoTime);
+  }
+
+  public TokenBucketRateLimiter(long capacity, double refillPerSecond, int maxKeys, Duration idleTimeout,
+      LongSupplier nanoClock) {
+    this.capacity = capacity;
+    this.refillIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+    this.burstNanos = capacity * refillIntervalNanos;
+    this.maxKeys = maxKeys;
+    this.idleNanos = idleTimeout.toNanos();
+    this.nanoClock = nanoClock;
+    this.lastSweep = new AtomicLong(nanoClock.getAsLong());
+  }
+
+  /**
+   * Takes a token from the key's bucket if one is left
+   */
+  public Decision tryAcquire(String key) {
+    long now = nanoClock.getAsLong();
+    sweepIfDue(now);
+
+    AtomicLong bucket = buckets.get(key);
+    if (bucket == null) {
+      if (buckets.size() >= maxKeys) {
+        evictIdle(now);
+        if (buckets.size() >= maxKeys) {
+          return new Decision(true, capacity, capacity - 1, 0, 0);
+        }
+      }
+      bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    while (true) {
+      long fullAt = bucket.get();
+      long next = Math.max(fullAt, now) + refillIntervalNanos;
+      long debt = next - now;
+      if (debt > burstNanos) {
+        return new Decision(false, capacity, 0, toSeconds(fullAt - now), toSeconds(debt - burstNanos));
+      }
+      if (bucket.compareAndSet(fullAt, next)) {
+        return new Decision(true, capacity, (burstNanos - debt) / refillIntervalNanos, toSeconds(debt), 0);
+      }
+    }
+  }
+
+  public int size() {
+    return buckets.size();
+  }
+
+  private void sweepIfDue(long now) {
+    long last = lastSweep.get();
+    if (now - last > idleNanos && lastSweep.compareAndSet(last, now)) {
+      evictIdle(now);
+    }
+  }
+
+  // A request racing with the eviction of its bucket may get one extra token, which is harmless
+  private void evictIdle(long now) {
+    buckets.values().removeIf(bucket -> now - bucket.get() >= idleNanos);
+  }
+
+  private static long toSeconds(long nanos) {
+    return Math.max(0, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+  }
+}
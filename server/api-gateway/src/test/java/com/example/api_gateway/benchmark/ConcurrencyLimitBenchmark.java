@@ -0,0 +1,170 @@
+package com.example.api_gateway.benchmark;
+
+import com.example.api_gateway.filter.ConcurrencyLimitFilter;
+import com.example.api_gateway.service.AdaptiveConcurrencyLimiter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test of the adaptive concurrency limit against a local stand-in backend with a fixed number
+ * of workers, offered twice the load it can serve. Without a limit the backend's queue grows for
+ * as long as the overload lasts, and so does the latency of every request; with the limit the
+ * excess is shed with 503 and the requests that are let through keep a short latency.
+ * Run with ./gradlew benchmark
+ */
+@DisplayName("Concurrency Limit Benchmark")
+class ConcurrencyLimitBenchmark {
+
+    // The stand-in serves WORKERS requests at a time in SERVICE_MS each, 200 requests per second
+    private static final int WORKERS = 4;
+    private static final long SERVICE_MS = 20;
+    private static final int WARMUP_REQUESTS_PER_TICK = 1;
+    private static final int OVERLOAD_REQUESTS_PER_TICK = 4;
+    private static final Duration TICK = Duration.ofMillis(10);
+    private static final int WARMUP_TICKS = 100;
+    private static final int OVERLOAD_TICKS = 500;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverExecutor = Executors.newFixedThreadPool(WORKERS);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        server.createContext("/", this::handle);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        connectionProvider = ConnectionProvider.builder("benchmark")
+                .maxConnections(4096)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        connectionProvider.dispose();
+    }
+
+    @Test
+    @DisplayName("Should keep the tail latency of admitted requests bounded at twice the backend's capacity")
+    void compareUnlimitedWithAdaptiveLimit() {
+        // A limit that can never be reached behaves like the route without a limiter
+        Result unlimited = run(new AdaptiveConcurrencyLimiter(100_000, 100_000, 100_000, 1.5, 0.2, 1000));
+        Result adaptive = run(new AdaptiveConcurrencyLimiter(20, 2, 200, 1.5, 0.2, 1000));
+
+        System.out.printf("Overload at %d req/s against %d req/s of capacity:%n", OVERLOAD_REQUESTS_PER_TICK
+                * 1000 / TICK.toMillis(), WORKERS * 1000 / SERVICE_MS);
+        System.out.println("  unlimited: " + unlimited);
+        System.out.println("  adaptive:  " + adaptive);
+        assertTrue(adaptive.shed() > 0, "The adaptive limit should shed the excess load");
+        assertTrue(adaptive.p99Ms() < unlimited.p99Ms(), "The adaptive limit should bound the tail latency");
+    }
+
+    private Result run(AdaptiveConcurrencyLimiter limiter) {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter("benchmark", limiter, new SimpleMeterRegistry());
+        GatewayFilterChain backend = exchange -> webClient.get()
+                .uri("/work")
+                .retrieve()
+                .toBodilessEntity()
+                .doOnNext(response -> exchange.getResponse().setStatusCode(response.getStatusCode()))
+                .then();
+
+        // Below capacity first, so the limiter learns the backend's unloaded latency
+        load(filter, backend, WARMUP_TICKS, WARMUP_REQUESTS_PER_TICK, new ArrayList<>(), new AtomicInteger());
+
+        List<Long> latenciesMs = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger shed = new AtomicInteger();
+        load(filter, backend, OVERLOAD_TICKS, OVERLOAD_REQUESTS_PER_TICK, latenciesMs, shed);
+
+        List<Long> sorted = new ArrayList<>(latenciesMs);
+        Collections.sort(sorted);
+        return new Result(sorted.size(), shed.get(), percentile(sorted, 0.50), percentile(sorted, 0.99),
+                sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1), limiter.getLimit());
+    }
+
+    // Open loop: requests arrive on schedule whether or not earlier ones have completed
+    private void load(ConcurrencyLimitFilter filter, GatewayFilterChain backend, int ticks, int requestsPerTick,
+            List<Long> latenciesMs, AtomicInteger shed) {
+        Flux.interval(TICK)
+                .take(ticks)
+                .flatMap(tick -> Flux.range(0, requestsPerTick), Integer.MAX_VALUE)
+                .flatMap(i -> {
+                    MockServerWebExchange exchange = MockServerWebExchange.from(
+                            MockServerHttpRequest.get("/api/journalEntry/entry-1").build());
+                    long start = System.nanoTime();
+                    return filter.filter(exchange, backend)
+                            .onErrorResume(e -> Mono.empty())
+                            .doFinally(signal -> {
+                                if (HttpStatus.SERVICE_UNAVAILABLE.equals(exchange.getResponse().getStatusCode())) {
+                                    shed.incrementAndGet();
+                                } else {
+                                    latenciesMs.add((System.nanoTime() - start) / 1_000_000);
+                                }
+                            });
+                }, Integer.MAX_VALUE)
+                .blockLast(Duration.ofMinutes(2));
+    }
+
+    private static long percentile(List<Long> sorted, double quantile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        return sorted.get(Math.min(sorted.size() - 1, (int) Math.ceil(quantile * sorted.size()) - 1));
+    }
+
+    private record Result(int admitted, int shed, long p50Ms, long p99Ms, long maxMs, int finalLimit) {
+
+        @Override
+        public String toString() {
+            return String.format("%d admitted (p50 %d ms, p99 %d ms, max %d ms), %d shed, final limit %d",
+                    admitted, p50Ms, p99Ms, maxMs, shed, finalLimit);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        try {
+            Thread.sleep(SERVICE_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.sendResponseHeaders(200, -1);
+        exchange.close();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.api_gateway.benchmark;
+
+import com.example.api_gateway.filter.RateLimitFilter;
+import com.example.api_gateway.service.TokenBucketRateLimiter;
+import com.example.api_gateway.service.UserIdentitySigner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Measures what the rate limit filter adds to a request: the filter on a prepared exchange against
+ * a chain that does nothing, and the bucket lookup alone from one and from several threads.
+ * Budgets are large enough that every request is allowed, which is the common path.
+ * Run with ./gradlew benchmark
+ */
+@DisplayName("Rate Limit Filter Benchmark")
+class RateLimitFilterBenchmark {
+
+    private static final int USER_COUNT = 10_000;
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+    private static final int THREADS = 8;
+
+    private static final GatewayFilterChain NO_OP_CHAIN = exchange -> Mono.empty();
+
+    @Test
+    @DisplayName("Per-request overhead of the rate limit filter for 10,000 users")
+    void measureFilterOverhead() throws Exception {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1_000_000, 1_000_000, USER_COUNT * 2,
+                Duration.ofMinutes(10));
+        RateLimitFilter filter = new RateLimitFilter("crud", limiter, new SimpleMeterRegistry());
+        String[] users = new String[USER_COUNT];
+        for (int i = 0; i < USER_COUNT; i++) {
+            users[i] = "user_" + i;
+        }
+
+        double chainNanos = measure(i -> NO_OP_CHAIN.filter(exchange(users[i % USER_COUNT])).block());
+        double filterNanos = measure(i -> filter.filter(exchange(users[i % USER_COUNT]), NO_OP_CHAIN).block());
+        double limiterNanos = measure(i -> limiter.tryAcquire(users[i % USER_COUNT]));
+        double contendedNanos = measureConcurrently(limiter, users);
+
+        System.out.printf("Rate limit benchmark (%d users): chain only %.0f ns/op, filter %.0f ns/op "
+                        + "(overhead %.0f ns), bucket lookup %.0f ns/op, bucket lookup with %d threads %.0f ns/op%n",
+                USER_COUNT, chainNanos, filterNanos, filterNanos - chainNanos, limiterNanos, THREADS,
+                contendedNanos);
+    }
+
+    private double measure(IntConsumer operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.accept(i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            operation.accept(i);
+        }
+        return (System.nanoTime() - start) / (double) MEASURED_ITERATIONS;
+    }
+
+    // Threads share a small set of users, so they also race on the same buckets
+    private double measureConcurrently(TokenBucketRateLimiter limiter, String[] users) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t;
+            results.add(executor.submit(() -> {
+                start.await();
+                long begin = System.nanoTime();
+                for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                    limiter.tryAcquire(users[(i + offset) % 64]);
+                }
+                return System.nanoTime() - begin;
+            }));
+        }
+        start.countDown();
+        long totalNanos = 0;
+        for (Future<Long> result : results) {
+            totalNanos += result.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        return totalNanos / (double) (THREADS * (long) MEASURED_ITERATIONS);
+    }
+
+    private static MockServerWebExchange exchange(String userId) {
+        return MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/journalEntry/entry-1")
+                .header(UserIdentitySigner.USER_ID_HEADER, userId)
+                .build());
+    }
+}
@@ -76,7 +76,7 @@ class GatewayE2ETest {
     void setUp() {
         // Mock the ClerkJwtService to always return true for authentication
         // This allows us to test the routing and service availability aspects
-        when(clerkJwtService.validateToken(any())).thenReturn(Mono.just(true));
+        when(clerkJwtService.verifiedUserId(any())).thenReturn(Mono.just("user_123"));
     }
 
     @Test
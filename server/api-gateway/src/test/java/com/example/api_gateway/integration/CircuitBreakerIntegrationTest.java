@@ -0,0 +1,215 @@
+package com.example.api_gateway.integration;
+
+import com.example.api_gateway.service.ClerkJwtService;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Injects latency and errors into a WireMock journal service to check that the route's
+ * circuit breaker times out slow calls, opens, and then fails fast without calling the service,
+ * and that exports and job polls are held to their own budgets rather than those of their neighbours
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "gateway.timeouts.crud-response-ms=300",
+    "gateway.retries.get-retries=2",
+    "gateway.rate-limit.llm.capacity=2",
+    "resilience4j.timelimiter.instances.journal-service-cb.timeout-duration=1s",
+    "resilience4j.circuitbreaker.instances.journal-service-cb.sliding-window-size=4",
+    "resilience4j.circuitbreaker.instances.journal-service-cb.minimum-number-of-calls=2",
+    "resilience4j.circuitbreaker.instances.journal-service-cb.wait-duration-in-open-state=60s"
+})
+class CircuitBreakerIntegrationTest {
+
+    private static final String ENTRY_PATH = "/api/journalEntry/entry-1";
+    private static final String EXPORT_PATH = "/api/snippets";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @MockitoBean
+    private ClerkJwtService clerkJwtService;
+
+    private static WireMockServer journalServiceMock;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        if (journalServiceMock == null) {
+            journalServiceMock = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+            journalServiceMock.start();
+        }
+        registry.add("journal-service-url", () -> "http://localhost:" + journalServiceMock.port());
+    }
+
+    @BeforeEach
+    void setUp() {
+        journalServiceMock.resetAll();
+        circuitBreakerRegistry.circuitBreaker("journal-service-cb").reset();
+        circuitBreakerRegistry.circuitBreaker("journal-transfer-cb").reset();
+        when(clerkJwtService.verifiedUserId(any())).thenReturn(Mono.just("user_123"));
+    }
+
+    @AfterAll
+    static void tearDownAll() {
+        if (journalServiceMock != null && journalServiceMock.isRunning()) {
+            journalServiceMock.stop();
+        }
+    }
+
+    @Test
+    void shouldFailFastOnceTheBreakerOpened() {
+        // Given - a journal service that takes far longer than the response timeout
+        journalServiceMock.stubFor(get(urlPathEqualTo(ENTRY_PATH))
+            .willReturn(aResponse()
+                .withStatus(200)
+                .withFixedDelay(5000)
+                .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .withBody("{\"id\":\"entry-1\"}")));
+
+        // When - slow calls end in the fallback within the time budget instead of 5 s
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            getEntry().expectStatus().value(status ->
+                assertTrue(status == HttpStatus.SERVICE_UNAVAILABLE.value()
+                    || status == HttpStatus.GATEWAY_TIMEOUT.value()));
+            assertTrue(elapsedMs(start) < 3000, "A slow call should be cut off by the time budget");
+        }
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("journal-service-cb");
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        // Then - further calls are answered right away without reaching the service
+        int requestsBefore = journalServiceMock.getAllServeEvents().size();
+        long start = System.nanoTime();
+        getEntry()
+            .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+            .expectBody()
+            .jsonPath("$.error").isEqualTo("Service Unavailable");
+        assertTrue(elapsedMs(start) < 250, "An open breaker should answer without waiting");
+        assertEquals(requestsBefore, journalServiceMock.getAllServeEvents().size());
+    }
+
+    @Test
+    void shouldRetryGetsButNotWrites() {
+        // Given
+        journalServiceMock.stubFor(get(urlPathEqualTo(ENTRY_PATH))
+            .willReturn(aResponse().withStatus(503)));
+        journalServiceMock.stubFor(put(urlPathEqualTo(ENTRY_PATH))
+            .willReturn(aResponse().withStatus(503)));
+
+        // When
+        getEntry().expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        webTestClient.put()
+            .uri(ENTRY_PATH)
+            .header("Authorization", "Bearer valid-jwt-token")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue("{}")
+            .exchange()
+            .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        // Then - the GET was tried three times, the PUT once
+        journalServiceMock.verify(3, getRequestedFor(urlPathEqualTo(ENTRY_PATH)));
+        journalServiceMock.verify(1, putRequestedFor(urlPathEqualTo(ENTRY_PATH)));
+    }
+
+    @Test
+    void shouldNeitherCutOffNorRetryExports() {
+        // Given - an export that streams for longer than the CRUD response timeout
+        journalServiceMock.stubFor(get(urlPathEqualTo(EXPORT_PATH))
+            .willReturn(aResponse()
+                .withStatus(200)
+                .withFixedDelay(1000)
+                .withHeader("Content-Type", "application/x-ndjson")
+                .withBody("{\"id\":\"snippet-1\"}\n")));
+
+        // When - the export outlasts the CRUD budget
+        getExport().expectStatus().isOk();
+
+        // Then - it counted against its own breaker only
+        assertEquals(1, circuitBreakerRegistry.circuitBreaker("journal-transfer-cb").getMetrics().getNumberOfSuccessfulCalls());
+        assertEquals(0, circuitBreakerRegistry.circuitBreaker("journal-service-cb").getMetrics().getNumberOfBufferedCalls());
+
+        // When - the export fails
+        journalServiceMock.resetAll();
+        journalServiceMock.stubFor(get(urlPathEqualTo(EXPORT_PATH))
+            .willReturn(aResponse().withStatus(503)));
+        getExport().expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        // Then - it was tried once, a retry would stream the whole export again
+        journalServiceMock.verify(1, getRequestedFor(urlPathEqualTo(EXPORT_PATH)));
+    }
+
+    @Test
+    void shouldCountJobPollsAgainstTheCrudBudget() {
+        // Given
+        journalServiceMock.stubFor(get(urlPathMatching("/api/summary/.*"))
+            .willReturn(aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .withBody("{}")));
+
+        // When - a client polls its job more often than the LLM budget allows
+        for (int i = 0; i < 5; i++) {
+            getAuthorized("/api/summary/jobs/job-1").expectStatus().isOk();
+        }
+
+        // Then - only generating a summary draws on the LLM budget
+        getAuthorized("/api/summary/entry-1").expectStatus().isOk();
+        getAuthorized("/api/summary/entry-1").expectStatus().isOk();
+        getAuthorized("/api/summary/entry-1").expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    private WebTestClient.ResponseSpec getAuthorized(String path) {
+        return webTestClient.get()
+            .uri(path)
+            .header("Authorization", "Bearer valid-jwt-token")
+            .exchange();
+    }
+
+    private WebTestClient.ResponseSpec getExport() {
+        return webTestClient.mutate()
+            .responseTimeout(Duration.ofSeconds(10))
+            .build()
+            .get()
+            .uri(EXPORT_PATH)
+            .header("Authorization", "Bearer valid-jwt-token")
+            .exchange();
+    }
+
+    private WebTestClient.ResponseSpec getEntry() {
+        return webTestClient.mutate()
+            .responseTimeout(Duration.ofSeconds(10))
+            .build()
+            .get()
+            .uri(ENTRY_PATH)
+            .header("Authorization", "Bearer valid-jwt-token")
+            .exchange();
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
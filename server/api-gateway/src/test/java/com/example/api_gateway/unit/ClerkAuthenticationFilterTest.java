@@ -2,12 +2,15 @@ package com.example.api_gateway.unit;
 
 import com.example.api_gateway.filter.ClerkAuthenticationFilter;
 import com.example.api_gateway.service.ClerkJwtService;
+import com.example.api_gateway.service.UserIdentitySigner;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.web.server.MockServerWebExchange;
@@ -15,6 +18,11 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -31,20 +39,21 @@ class ClerkAuthenticationFilterTest {
 
     @BeforeEach
     void setUp() {
-        authenticationFilter = new ClerkAuthenticationFilter(clerkJwtService);
+        authenticationFilter = new ClerkAuthenticationFilter(clerkJwtService, new UserIdentitySigner("test-internal-auth-secret-0123456789"));
     }
 
     @Test
     void shouldAllowRequestWhenTokenIsValid() {
-        // Given
+        // Given - a client trying to pass another user's id
         MockServerHttpRequest request = MockServerHttpRequest
             .get("/api/users/profile")
             .header("Authorization", "Bearer valid-token")
+            .header(UserIdentitySigner.USER_ID_HEADER, "user_other")
             .build();
         ServerWebExchange exchange = MockServerWebExchange.from(request);
         
-        when(clerkJwtService.validateToken(any())).thenReturn(Mono.just(true));
-        when(filterChain.filter(exchange)).thenReturn(Mono.empty());
+        when(clerkJwtService.verifiedUserId(any())).thenReturn(Mono.just("user_123"));
+        when(filterChain.filter(any())).thenReturn(Mono.empty());
 
         // When
         Mono<Void> result = authenticationFilter.filter(exchange, filterChain);
@@ -53,8 +62,16 @@ class ClerkAuthenticationFilterTest {
         StepVerifier.create(result)
             .verifyComplete();
         
-        verify(filterChain).filter(exchange);
-        verify(clerkJwtService).validateToken(request);
+        ArgumentCaptor<ServerWebExchange> forwarded = ArgumentCaptor.forClass(ServerWebExchange.class);
+        verify(filterChain).filter(forwarded.capture());
+        verify(clerkJwtService).verifiedUserId(request);
+
+        // The completed chain must not be mistaken for a failed authentication
+        assertNotEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+
+        HttpHeaders headers = forwarded.getValue().getRequest().getHeaders();
+        assertEquals(List.of("user_123"), headers.get(UserIdentitySigner.USER_ID_HEADER));
+        assertTrue(headers.getFirst(UserIdentitySigner.SIGNATURE_HEADER).matches("t=\\d+,v1=[A-Za-z0-9_-]+"));
     }
 
     @Test
@@ -66,7 +83,7 @@ class ClerkAuthenticationFilterTest {
             .build();
         ServerWebExchange exchange = MockServerWebExchange.from(request);
         
-        when(clerkJwtService.validateToken(any())).thenReturn(Mono.just(false));
+        when(clerkJwtService.verifiedUserId(any())).thenReturn(Mono.empty());
 
         // When
         Mono<Void> result = authenticationFilter.filter(exchange, filterChain);
@@ -76,7 +93,7 @@ class ClerkAuthenticationFilterTest {
             .verifyComplete();
         
         verify(filterChain, never()).filter(any());
-        verify(clerkJwtService).validateToken(request);
+        verify(clerkJwtService).verifiedUserId(request);
         
         // Verify response status
         assert exchange.getResponse().getStatusCode() == HttpStatus.UNAUTHORIZED;
@@ -91,7 +108,7 @@ class ClerkAuthenticationFilterTest {
             .build();
         ServerWebExchange exchange = MockServerWebExchange.from(request);
         
-        when(clerkJwtService.validateToken(any())).thenReturn(Mono.error(new RuntimeException("Token validation error")));
+        when(clerkJwtService.verifiedUserId(any())).thenReturn(Mono.error(new RuntimeException("Token validation error")));
 
         // When
         Mono<Void> result = authenticationFilter.filter(exchange, filterChain);
@@ -101,7 +118,7 @@ class ClerkAuthenticationFilterTest {
             .verifyError();
         
         verify(filterChain, never()).filter(any());
-        verify(clerkJwtService).validateToken(request);
+        verify(clerkJwtService).verifiedUserId(request);
     }
 
     @Test
@@ -112,7 +129,7 @@ class ClerkAuthenticationFilterTest {
             .build(); // No Authorization header
         ServerWebExchange exchange = MockServerWebExchange.from(request);
         
-        when(clerkJwtService.validateToken(any())).thenReturn(Mono.just(false));
+        when(clerkJwtService.verifiedUserId(any())).thenReturn(Mono.empty());
 
         // When
         Mono<Void> result = authenticationFilter.filter(exchange, filterChain);
@@ -122,7 +139,7 @@ class ClerkAuthenticationFilterTest {
             .verifyComplete();
         
         verify(filterChain, never()).filter(any());
-        verify(clerkJwtService).validateToken(request);
+        verify(clerkJwtService).verifiedUserId(request);
         
         // Verify response status
         assert exchange.getResponse().getStatusCode() == HttpStatus.UNAUTHORIZED;
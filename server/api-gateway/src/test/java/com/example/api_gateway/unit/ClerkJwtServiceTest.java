@@ -0,0 +1,211 @@
+package com.example.api_gateway.unit;
+
+import com.example.api_gateway.service.ClerkJwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Verifies tokens signed with a locally generated key, loaded from a JWKS file instead of Clerk
+ */
+class ClerkJwtServiceTest {
+
+    private static final String KEY_ID = "ins_test";
+
+    private static KeyPair signingKey;
+    private static KeyPair otherKey;
+
+    @TempDir
+    Path tempDir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ClerkJwtService clerkJwtService;
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        signingKey = generator.generateKeyPair();
+        otherKey = generator.generateKeyPair();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        RSAPublicKey publicKey = (RSAPublicKey) signingKey.getPublic();
+        Path jwksFile = tempDir.resolve("jwks.json");
+        Files.writeString(jwksFile, "{\"keys\":[{\"kty\":\"RSA\",\"use\":\"sig\",\"alg\":\"RS256\",\"kid\":\"" + KEY_ID
+                + "\",\"n\":\"" + base64Url(unsigned(publicKey.getModulus().toByteArray()))
+                + "\",\"e\":\"" + base64Url(unsigned(publicKey.getPublicExponent().toByteArray())) + "\"}]}");
+
+        meterRegistry = new SimpleMeterRegistry();
+        clerkJwtService = new ClerkJwtService(WebClient.builder(), meterRegistry);
+        ReflectionTestUtils.setField(clerkJwtService, "jwksFile", jwksFile.toString());
+        ReflectionTestUtils.setField(clerkJwtService, "jwksRefreshIntervalMs", 3600000L);
+        ReflectionTestUtils.setField(clerkJwtService, "clockSkewSeconds", 5L);
+        ReflectionTestUtils.setField(clerkJwtService, "cacheMaxSize", 100);
+        ReflectionTestUtils.setField(clerkJwtService, "negativeCacheTtlMs", 30000L);
+        ReflectionTestUtils.setField(clerkJwtService, "negativeCacheMaxSize", 100);
+        ReflectionTestUtils.setField(clerkJwtService, "cacheSweepIntervalMs", 60000L);
+        ReflectionTestUtils.setField(clerkJwtService, "authorizedParty", "http://localhost:3000, https://zenai.example");
+        ReflectionTestUtils.invokeMethod(clerkJwtService, "init");
+        ReflectionTestUtils.<Mono<Void>>invokeMethod(clerkJwtService, "refreshKeys").block();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(clerkJwtService, "stop");
+    }
+
+    @Test
+    void shouldAcceptValidTokenAndServeRepeatsFromCache() throws Exception {
+        // Given
+        String token = token(signingKey.getPrivate(), KEY_ID, "user_123", nowSeconds() + 60);
+
+        // When & Then
+        StepVerifier.create(clerkJwtService.verifiedUserId(request(token)))
+            .expectNext("user_123")
+            .verifyComplete();
+        StepVerifier.create(clerkJwtService.validateToken(request(token)))
+            .expectNext(true)
+            .verifyComplete();
+
+        assertEquals(1.0, lookups("miss"));
+        assertEquals(1.0, lookups("hit"));
+        assertEquals(1, meterRegistry.get("gateway.jwt.verification").tag("outcome", "valid").timer().count());
+    }
+
+    @Test
+    void shouldRejectExpiredToken() throws Exception {
+        // Given
+        String token = token(signingKey.getPrivate(), KEY_ID, "user_123", nowSeconds() - 60);
+
+        // When & Then
+        StepVerifier.create(clerkJwtService.validateToken(request(token)))
+            .expectNext(false)
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectForgedTokenAndRememberIt() throws Exception {
+        // Given - signed with a key that is not in the JWKS, but claiming its key id
+        String token = token(otherKey.getPrivate(), KEY_ID, "user_123", nowSeconds() + 60);
+
+        // When & Then
+        StepVerifier.create(clerkJwtService.validateToken(request(token)))
+            .expectNext(false)
+            .verifyComplete();
+        StepVerifier.create(clerkJwtService.validateToken(request(token)))
+            .expectNext(false)
+            .verifyComplete();
+
+        assertEquals(1.0, lookups("negative_hit"));
+    }
+
+    @Test
+    void shouldCheckAuthorizedParty() throws Exception {
+        // Given
+        String allowed = token(signingKey.getPrivate(), KEY_ID, "user_123", nowSeconds() + 60, "https://zenai.example");
+        String foreign = token(signingKey.getPrivate(), KEY_ID, "user_123", nowSeconds() + 60, "https://evil.example");
+
+        // When & Then
+        StepVerifier.create(clerkJwtService.validateToken(request(allowed)))
+            .expectNext(true)
+            .verifyComplete();
+        StepVerifier.create(clerkJwtService.validateToken(request(foreign)))
+            .expectNext(false)
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldNotRememberTokenWithUnknownKeyId() throws Exception {
+        // Given - signed with a key Clerk may have just rotated to
+        String token = token(otherKey.getPrivate(), "rotated-key", "user_123", nowSeconds() + 60);
+
+        // When & Then - the second attempt is judged again instead of served from the negative cache
+        StepVerifier.create(clerkJwtService.validateToken(request(token)))
+            .expectNext(false)
+            .verifyComplete();
+        StepVerifier.create(clerkJwtService.validateToken(request(token)))
+            .expectNext(false)
+            .verifyComplete();
+
+        assertEquals(2.0, lookups("miss"));
+        assertNull(meterRegistry.find("gateway.jwt.cache.lookups").tag("result", "negative_hit").counter());
+    }
+
+    @Test
+    void shouldRejectMissingAndMalformedTokens() {
+        StepVerifier.create(clerkJwtService.validateToken(MockServerHttpRequest.get("/api/users").build()))
+            .expectNext(false)
+            .verifyComplete();
+        StepVerifier.create(clerkJwtService.validateToken(request("not-a-jwt")))
+            .expectNext(false)
+            .verifyComplete();
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("gateway.jwt.cache.lookups").tag("result", result).counter().count();
+    }
+
+    private static MockServerHttpRequest request(String token) {
+        return MockServerHttpRequest.get("/api/users")
+            .header("Authorization", "Bearer " + token)
+            .build();
+    }
+
+    private static String token(PrivateKey key, String keyId, String subject, long expiresAt) throws Exception {
+        return token(key, keyId, subject, expiresAt, null);
+    }
+
+    private static String token(PrivateKey key, String keyId, String subject, long expiresAt, String authorizedParty)
+            throws Exception {
+        String header = base64Url(("{\"alg\":\"RS256\",\"typ\":\"JWT\",\"kid\":\"" + keyId + "\"}")
+                .getBytes(StandardCharsets.UTF_8));
+        String azp = authorizedParty != null ? ",\"azp\":\"" + authorizedParty + "\"" : "";
+        String payload = base64Url(("{\"sub\":\"" + subject + "\",\"exp\":" + expiresAt + ",\"nbf\":"
+                + (nowSeconds() - 10) + azp + "}").getBytes(StandardCharsets.UTF_8));
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(key);
+        signature.update((header + "." + payload).getBytes(StandardCharsets.US_ASCII));
+        return header + "." + payload + "." + base64Url(signature.sign());
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    // BigInteger adds a leading zero byte for a set high bit, which JWKS leaves out
+    private static byte[] unsigned(byte[] bytes) {
+        if (bytes.length > 1 && bytes[0] == 0) {
+            byte[] trimmed = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, trimmed, 0, trimmed.length);
+            return trimmed;
+        }
+        return bytes;
+    }
+
+    private static String base64Url(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.api_gateway.unit;
+
+import com.example.api_gateway.filter.ConcurrencyLimitFilter;
+import com.example.api_gateway.service.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitFilterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long GENERATION = TimeUnit.SECONDS.toNanos(3);
+
+    @Mock
+    private GatewayFilterChain filterChain;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldGrowWhileLatencyStaysLowAndShrinkWhenItRises() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        // When - the route is fully used and the backend answers quickly
+        for (int i = 0; i < 50; i++) {
+            sampleAtFullUse(limiter, FAST);
+        }
+        int grownLimit = limiter.getLimit();
+
+        // Then - the limit grows, and falls once the backend takes far longer than its minimum
+        assertTrue(grownLimit > 10, "Limit should grow while latency is at its minimum");
+        for (int i = 0; i < 50; i++) {
+            sampleAtFullUse(limiter, SLOW);
+        }
+        assertTrue(limiter.getLimit() < 10, "Limit should shrink once latency rises, was " + limiter.getLimit());
+    }
+
+    @Test
+    void shouldKeepFastCallsApartFromLongRunningOnes() {
+        // Given - one route serving cache hits and generations, and the same calls on separate limiters
+        AdaptiveConcurrencyLimiter mixed = limiter(20);
+        AdaptiveConcurrencyLimiter fast = limiter(20);
+        AdaptiveConcurrencyLimiter fixed = new AdaptiveConcurrencyLimiter(16, 16, 16, 1.5, 0.2, 1000);
+
+        // When - one call in ten is a cache hit, the backend's load never changes
+        for (int round = 0; round < 30; round++) {
+            sampleAtFullUse(mixed, FAST);
+            sampleAtFullUse(fast, FAST);
+            for (int i = 0; i < 9; i++) {
+                sampleAtFullUse(mixed, GENERATION);
+                sampleAtFullUse(fixed, GENERATION);
+            }
+        }
+
+        // Then - the mixed limit falls to a handful, the separated ones keep their room
+        assertTrue(mixed.getLimit() <= 6, "Mixed latencies should drive the limit down, was " + mixed.getLimit());
+        assertTrue(fast.getLimit() > 20, "Fast calls alone should keep growing, was " + fast.getLimit());
+        assertEquals(16, fixed.getLimit());
+    }
+
+    @Test
+    void shouldNotGrowWhileTheRouteIsMostlyIdle() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        // When - a single request at a time
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST, false);
+        }
+
+        // Then
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void shouldBackOffOnFailedCalls() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        // When
+        assertTrue(limiter.tryAcquire());
+        limiter.release(FAST, true);
+
+        // Then
+        assertEquals(9, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void shouldShedRequestsOverTheLimitWith503() {
+        // Given - a route with both of its slots in flight
+        AdaptiveConcurrencyLimiter limiter = limiter(2);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter("journal-service", limiter, meterRegistry);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+
+        // When
+        MockServerWebExchange shed = exchange();
+        StepVerifier.create(filter.filter(shed, filterChain)).verifyComplete();
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shed.getResponse().getStatusCode());
+        assertEquals("1", shed.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("gateway.concurrency.rejected")
+            .tag("route", "journal-service").functionCounter().count());
+        verify(filterChain, never()).filter(any());
+        assertEquals(2.0, meterRegistry.get("gateway.concurrency.in.flight")
+            .tag("route", "journal-service").gauge().value());
+    }
+
+    @Test
+    void shouldReleaseTheSlotAndCountGatewayTimeoutsAsFailures() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter("genai-service", limiter, meterRegistry);
+        MockServerWebExchange exchange = exchange();
+        when(filterChain.filter(any())).thenReturn(Mono.fromRunnable(
+            () -> exchange.getResponse().setStatusCode(HttpStatus.GATEWAY_TIMEOUT)));
+
+        // When
+        StepVerifier.create(filter.filter(exchange, filterChain)).verifyComplete();
+
+        // Then
+        verify(filterChain).filter(exchange);
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(9, limiter.getLimit());
+        assertFalse(limiter.getRejected() > 0);
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, 2, 100, 1.5, 0.2, 1000);
+    }
+
+    // Takes slots up to the limit and completes one call while all of them are in flight
+    private static void sampleAtFullUse(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int taken = 0;
+        while (limiter.tryAcquire()) {
+            taken++;
+        }
+        limiter.release(rttNanos, false);
+        for (int i = 1; i < taken; i++) {
+            limiter.release();
+        }
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/journalEntry/entry-1").build());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.api_gateway.unit;
+
+import com.example.api_gateway.service.ExpiringCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ExpiringCacheTest {
+
+    private static final long NOW = 1_000_000;
+
+    @Test
+    void shouldEvictTheLeastRecentlyUsedEntryWhenFull() {
+        // Given - a full cache whose oldest entry was just read
+        ExpiringCache<String> cache = new ExpiringCache<>(2);
+        cache.put("a", "user_a", NOW + 60_000);
+        cache.put("b", "user_b", NOW + 60_000);
+        cache.get("a", NOW);
+
+        // When - live entries never keep a new one out
+        cache.put("c", "user_c", NOW + 60_000);
+
+        // Then
+        assertEquals(2, cache.size());
+        assertEquals("user_a", cache.get("a", NOW));
+        assertNull(cache.get("b", NOW));
+        assertEquals("user_c", cache.get("c", NOW));
+    }
+
+    @Test
+    void shouldDropExpiredEntriesOnReadAndSweep() {
+        // Given
+        ExpiringCache<String> cache = new ExpiringCache<>(10);
+        cache.put("expired", "user_a", NOW);
+        cache.put("stale", "user_b", NOW + 1_000);
+        cache.put("live", "user_c", NOW + 60_000);
+
+        // When
+        String expired = cache.get("expired", NOW);
+        cache.sweepExpired(NOW + 1_000);
+
+        // Then
+        assertNull(expired);
+        assertEquals(1, cache.size());
+        assertEquals("user_c", cache.get("live", NOW + 1_000));
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.api_gateway.unit;
+
+import com.example.api_gateway.filter.RateLimitFilter;
+import com.example.api_gateway.service.TokenBucketRateLimiter;
+import com.example.api_gateway.service.UserIdentitySigner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drives the token buckets with a manual clock, so refills and evictions happen exactly when expected
+ */
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Mock
+    private GatewayFilterChain filterChain;
+
+    private AtomicLong clock;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000 * SECOND);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldRejectWithRetryAfterOnceTheBudgetIsUsedUp() {
+        // Given - 3 requests of burst, one more every 2 seconds
+        RateLimitFilter filter = new RateLimitFilter("llm", limiter(3, 0.5, 100), meterRegistry);
+        when(filterChain.filter(any())).thenReturn(Mono.empty());
+
+        // When & Then
+        for (int remaining = 2; remaining >= 0; remaining--) {
+            MockServerWebExchange exchange = exchange("user_123");
+            StepVerifier.create(filter.filter(exchange, filterChain)).verifyComplete();
+            HttpHeaders headers = exchange.getResponse().getHeaders();
+            assertEquals("3", headers.getFirst("RateLimit-Limit"));
+            assertEquals(String.valueOf(remaining), headers.getFirst("RateLimit-Remaining"));
+            assertNull(exchange.getResponse().getStatusCode());
+        }
+
+        MockServerWebExchange rejected = exchange("user_123");
+        StepVerifier.create(filter.filter(rejected, filterChain)).verifyComplete();
+        HttpHeaders headers = rejected.getResponse().getHeaders();
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("0", headers.getFirst("RateLimit-Remaining"));
+        assertEquals("2", headers.getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("6", headers.getFirst("RateLimit-Reset"));
+
+        verify(filterChain, times(3)).filter(any());
+        assertEquals(1.0, meterRegistry.get("gateway.ratelimit.requests")
+            .tags("class", "llm", "outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void shouldRefillOverTimeAndKeepUsersApart() {
+        // Given
+        TokenBucketRateLimiter limiter = limiter(2, 1, 100);
+        limiter.tryAcquire("user_123");
+        limiter.tryAcquire("user_123");
+
+        // When & Then
+        assertFalse(limiter.tryAcquire("user_123").allowed());
+        assertTrue(limiter.tryAcquire("user_456").allowed());
+
+        clock.addAndGet(SECOND);
+        TokenBucketRateLimiter.Decision refilled = limiter.tryAcquire("user_123");
+        assertTrue(refilled.allowed());
+        assertEquals(0, refilled.remaining());
+    }
+
+    @Test
+    void shouldPassRequestsWithoutUserThrough() {
+        // Given
+        RateLimitFilter filter = new RateLimitFilter("crud", limiter(1, 1, 100), meterRegistry);
+        when(filterChain.filter(any())).thenReturn(Mono.empty());
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/health").build());
+
+        // When
+        StepVerifier.create(filter.filter(exchange, filterChain)).verifyComplete();
+
+        // Then
+        verify(filterChain).filter(exchange);
+        assertNull(exchange.getResponse().getHeaders().getFirst("RateLimit-Limit"));
+    }
+
+    @Test
+    void shouldEvictIdleBucketsToStayBounded() {
+        // Given - room for two users, idle after a minute
+        TokenBucketRateLimiter limiter = limiter(5, 1, 2);
+        limiter.tryAcquire("user_1");
+        limiter.tryAcquire("user_2");
+
+        // When - a third user comes while both buckets are still refilling
+        TokenBucketRateLimiter.Decision untracked = limiter.tryAcquire("user_3");
+
+        // Then - it is let through without a bucket, until the others have been idle
+        assertTrue(untracked.allowed());
+        assertEquals(2, limiter.size());
+
+        clock.addAndGet(61 * SECOND);
+        limiter.tryAcquire("user_3");
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void shouldNotHandOutMoreTokensThanCapacityUnderContention() throws Exception {
+        // Given - a frozen clock, so nothing is refilled while the threads race
+        TokenBucketRateLimiter limiter = limiter(100, 1, 100);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int allowed = 0;
+                for (int i = 0; i < 1_000; i++) {
+                    if (limiter.tryAcquire("user_123").allowed()) {
+                        allowed++;
+                    }
+                }
+                return allowed;
+            }));
+        }
+        start.countDown();
+        int allowed = 0;
+        for (Future<Integer> result : results) {
+            allowed += result.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(100, allowed);
+    }
+
+    private TokenBucketRateLimiter limiter(long capacity, double refillPerSecond, int maxKeys) {
+        return new TokenBucketRateLimiter(capacity, refillPerSecond, maxKeys, Duration.ofMinutes(1), clock::get);
+    }
+
+    private static MockServerWebExchange exchange(String userId) {
+        return MockServerWebExchange.from(MockServerHttpRequest
+            .get("/api/summary/entry-1")
+            .header(UserIdentitySigner.USER_ID_HEADER, userId)
+            .build());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.internal_auth;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Verifies the X-User-Id header the api-gateway adds after authenticating a request.
+ * Checking the signature takes microseconds and needs no JWT validation. A verified id is
+ * available to controllers as the request attribute {@link #AUTHENTICATED_USER_ID}; a forged or
+ * stale one is rejected. When the identity is required, only the service routes, which other
+ * services call without a user, are served without it.
+ */
+public class InternalIdentityFilter extends OncePerRequestFilter {
+
+    public static final String USER_ID_HEADER = UserIdentitySignature.USER_ID_HEADER;
+    public static final String SIGNATURE_HEADER = UserIdentitySignature.SIGNATURE_HEADER;
+    public static final String AUTHENTICATED_USER_ID = "authenticatedUserId";
+
+    private static final Logger logger = LoggerFactory.getLogger(InternalIdentityFilter.class);
+
+    private final UserIdentitySignature signature;
+    private final long maxAgeSeconds;
+    private final boolean required;
+    private final List<String> serviceRoutes;
+    private final Function<String, String> errorBody;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * @param serviceRoutes Ant patterns of the routes that are served without an identity
+     * @param errorBody Turns an error message into the service's JSON error body
+     */
+    public InternalIdentityFilter(String secret, long maxAgeSeconds, boolean required,
+            List<String> serviceRoutes, Function<String, String> errorBody) {
+        this.signature = new UserIdentitySignature(secret);
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.required = required;
+        this.serviceRoutes = List.copyOf(serviceRoutes);
+        this.errorBody = errorBody;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String userId = request.getHeader(USER_ID_HEADER);
+        if (userId == null) {
+            if (required && !isServiceRoute(request.getRequestURI())) {
+                reject(response, "Missing user identity");
+                return;
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!signature.isValid(userId, request.getHeader(SIGNATURE_HEADER), System.currentTimeMillis() / 1000,
+                maxAgeSeconds)) {
+            logger.warn("Rejected request to {} with invalid identity signature for user {}",
+                    request.getRequestURI(), userId);
+            reject(response, "Invalid user identity");
+            return;
+        }
+        request.setAttribute(AUTHENTICATED_USER_ID, userId);
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean isServiceRoute(String path) {
+        for (String pattern : serviceRoutes) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reject(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(errorBody.apply(message));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.internal_auth;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Checks the signature the api-gateway puts on the id of the authenticated user.
+ * The signature has the form t={epoch seconds},v1={base64url HMAC-SHA256 of "userId.t"}.
+ */
+public class UserIdentitySignature {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String SIGNATURE_HEADER = "X-User-Signature";
+    // Anything shorter is guessable enough to forge identities offline
+    public static final int MIN_SECRET_LENGTH = 32;
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    public UserIdentitySignature(String secret) {
+        if (secret == null || secret.length() < MIN_SECRET_LENGTH) {
+            throw new IllegalStateException(
+                    "internal-auth.secret must be set to at least " + MIN_SECRET_LENGTH + " characters");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    }
+
+    public String sign(String userId, long epochSeconds) {
+        return "t=" + epochSeconds + ",v1=" + Base64.getUrlEncoder().withoutPadding().encodeToString(hmac(userId, epochSeconds));
+    }
+
+    /**
+     * @return Whether the signature was made for this user no more than maxAgeSeconds from now
+     */
+    public boolean isValid(String userId, String signature, long nowSeconds, long maxAgeSeconds) {
+        if (signature == null || !signature.startsWith("t=")) {
+            return false;
+        }
+        int separator = signature.indexOf(",v1=");
+        if (separator < 0) {
+            return false;
+        }
+        long timestamp;
+        byte[] expected;
+        try {
+            timestamp = Long.parseLong(signature.substring(2, separator));
+            expected = Base64.getUrlDecoder().decode(signature.substring(separator + 4));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (Math.abs(nowSeconds - timestamp) > maxAgeSeconds) {
+            return false;
+        }
+        return MessageDigest.isEqual(hmac(userId, timestamp), expected);
+    }
+
+    private byte[] hmac(String userId, long epochSeconds) {
+        return macs.get().doFinal((userId + "." + epochSeconds).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign or verify user identities", e);
+        }
+    }
+}
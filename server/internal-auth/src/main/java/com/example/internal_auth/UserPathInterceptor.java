@@ -0,0 +1,48 @@
+package com.example.internal_auth;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Rejects requests whose {userId} path variable or userId parameter names another user than
+ * the one {@link InternalIdentityFilter} verified. Requests without an identity, i.e. calls
+ * from other services, are left alone.
+ */
+public class UserPathInterceptor implements HandlerInterceptor {
+
+    public static final String USER_ID_VARIABLE = "userId";
+
+    private final Function<String, String> errorBody;
+
+    public UserPathInterceptor(Function<String, String> errorBody) {
+        this.errorBody = errorBody;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        Object authenticated = request.getAttribute(InternalIdentityFilter.AUTHENTICATED_USER_ID);
+        if (authenticated == null) {
+            return true;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request
+                .getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String pathUserId = variables == null ? null : variables.get(USER_ID_VARIABLE);
+        String paramUserId = request.getParameter(USER_ID_VARIABLE);
+        if ((pathUserId != null && !pathUserId.equals(authenticated))
+                || (paramUserId != null && !paramUserId.equals(authenticated))) {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(errorBody.apply("Access to another user's data is not allowed"));
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.internal_auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("InternalIdentityFilter Unit Tests")
+class InternalIdentityFilterTest {
+
+    private static final String SECRET = "test-internal-auth-secret-0123456789";
+    private static final UserIdentitySignature SIGNATURE = new UserIdentitySignature(SECRET);
+
+    private final InternalIdentityFilter filter = filter(true);
+
+    @Test
+    @DisplayName("Should expose the user id of a correctly signed header")
+    void shouldAcceptSignedUserId() throws Exception {
+        // Given
+        MockHttpServletRequest request = request("/api/snippets/user_123", "user_123",
+                SIGNATURE.sign("user_123", nowSeconds()));
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertSame(request, chain.getRequest());
+        assertEquals("user_123", request.getAttribute(InternalIdentityFilter.AUTHENTICATED_USER_ID));
+    }
+
+    @Test
+    @DisplayName("Should reject a header signed for another user")
+    void shouldRejectForgedUserId() throws Exception {
+        // Given
+        MockHttpServletRequest request = request("/api/snippets/user_other", "user_other",
+                SIGNATURE.sign("user_123", nowSeconds()));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertEquals(401, response.getStatus());
+        assertEquals("{\"error\":\"Invalid user identity\"}", response.getContentAsString());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    @DisplayName("Should reject a signature older than the maximum age")
+    void shouldRejectStaleSignature() throws Exception {
+        // Given
+        MockHttpServletRequest request = request("/api/snippets/user_123", "user_123",
+                SIGNATURE.sign("user_123", nowSeconds() - 600));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, new MockFilterChain());
+
+        // Then
+        assertEquals(401, response.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should serve only service routes without identity when it is required")
+    void shouldRequireIdentityOutsideServiceRoutes() throws Exception {
+        // Given
+        MockFilterChain serviceChain = new MockFilterChain();
+        MockFilterChain optionalChain = new MockFilterChain();
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/api/user-data/user_123"),
+                new MockHttpServletResponse(), serviceChain);
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/snippets/user_123"), rejected, new MockFilterChain());
+        filter(false).doFilter(new MockHttpServletRequest("GET", "/api/snippets/user_123"),
+                new MockHttpServletResponse(), optionalChain);
+
+        // Then
+        assertNotNull(serviceChain.getRequest());
+        assertEquals(401, rejected.getStatus());
+        assertNotNull(optionalChain.getRequest());
+    }
+
+    @Test
+    @DisplayName("Should refuse to start with a missing or short secret")
+    void shouldRejectWeakSecret() {
+        assertThrows(IllegalStateException.class, () -> new UserIdentitySignature(""));
+        assertThrows(IllegalStateException.class, () -> new UserIdentitySignature("dev-internal-auth-secret"));
+    }
+
+    private static InternalIdentityFilter filter(boolean required) {
+        return new InternalIdentityFilter(SECRET, 300, required, List.of("/api/user-data/**"),
+                message -> "{\"error\":\"" + message + "\"}");
+    }
+
+    private static MockHttpServletRequest request(String path, String userId, String signature) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader(InternalIdentityFilter.USER_ID_HEADER, userId);
+        request.addHeader(InternalIdentityFilter.SIGNATURE_HEADER, signature);
+        return request;
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.internal_auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UserPathInterceptor Unit Tests")
+class UserPathInterceptorTest {
+
+    private final UserPathInterceptor interceptor = new UserPathInterceptor(message -> "{\"error\":\"" + message + "\"}");
+
+    @Test
+    @DisplayName("Should let a user access their own data")
+    void shouldAllowOwnUserId() throws Exception {
+        // Given
+        MockHttpServletRequest request = request("user_123", "user_123");
+        request.setParameter("userId", "user_123");
+
+        // When
+        boolean allowed = interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+
+        // Then
+        assertTrue(allowed);
+    }
+
+    @Test
+    @DisplayName("Should reject a path or parameter naming another user")
+    void shouldRejectOtherUserId() throws Exception {
+        // Given
+        MockHttpServletRequest pathRequest = request("user_123", "user_other");
+        MockHttpServletRequest paramRequest = request("user_123", null);
+        paramRequest.setParameter("userId", "user_other");
+        MockHttpServletResponse pathResponse = new MockHttpServletResponse();
+        MockHttpServletResponse paramResponse = new MockHttpServletResponse();
+
+        // When
+        boolean pathAllowed = interceptor.preHandle(pathRequest, pathResponse, new Object());
+        boolean paramAllowed = interceptor.preHandle(paramRequest, paramResponse, new Object());
+
+        // Then
+        assertFalse(pathAllowed);
+        assertFalse(paramAllowed);
+        assertEquals(403, pathResponse.getStatus());
+        assertEquals(403, paramResponse.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should leave requests without an identity to the filter")
+    void shouldIgnoreRequestsWithoutIdentity() throws Exception {
+        // Given
+        MockHttpServletRequest request = request(null, "user_other");
+
+        // When
+        boolean allowed = interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+
+        // Then
+        assertTrue(allowed);
+    }
+
+    private static MockHttpServletRequest request(String authenticatedUserId, String pathUserId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/snippets/" + pathUserId);
+        if (authenticatedUserId != null) {
+            request.setAttribute(InternalIdentityFilter.AUTHENTICATED_USER_ID, authenticatedUserId);
+        }
+        if (pathUserId != null) {
+            request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("userId", pathUserId));
+        }
+        return request;
+    }
+}
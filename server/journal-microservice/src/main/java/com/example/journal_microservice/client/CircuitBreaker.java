@@ -0,0 +1,72 @@
+package com.example.journal_microservice.client;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks the health of a remote service from the outcome of real calls instead of probing it.
+ * After a number of consecutive failures the circuit opens and calls are rejected without
+ * touching the network. Once the open duration has passed a single trial call is let through:
+ * its success closes the circuit again, its failure keeps it open for another period.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public CircuitBreaker(int failureThreshold, long openDurationMs) {
+        this(failureThreshold, openDurationMs, System::currentTimeMillis);
+    }
+
+    public CircuitBreaker(int failureThreshold, long openDurationMs, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Decides whether a call may go out; moves an expired open circuit to half-open
+     * and admits exactly one trial call while half-open
+     * @return true if the call may be made, false if it must be rejected
+     */
+    public synchronized boolean tryAcquire() {
+        return switch (state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> false; // The trial call is still in flight
+            case OPEN -> {
+                if (clock.getAsLong() - openedAt < openDurationMs) {
+                    yield false;
+                }
+                state = State.HALF_OPEN;
+                yield true;
+            }
+        };
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
@@ -2,140 +2,195 @@ package com.example.journal_microservice.client;
 
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.http.MediaType;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.core.ParameterizedTypeReference;
 
 import com.example.journal_microservice.dto.SnippetContentsRequest;
-
+import com.example.journal_microservice.dto.SnippetContentsResponse;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.IOException;
 import java.util.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * REST client for genai-microservice.
+ * Calls go through a pooled keep-alive HTTP client, so consecutive requests reuse their connections.
+ * The service's health is tracked from the outcome of the calls themselves: after repeated failures
+ * a circuit breaker rejects calls immediately until the service had time to recover.
+ */
 @Component
 public class LLMRestClient {
 
     private static final Logger logger = LoggerFactory.getLogger(LLMRestClient.class);
+    private static final ParameterizedTypeReference<Map<String, Object>> MAP_RESPONSE =
+            new ParameterizedTypeReference<Map<String, Object>>() {};
     private final RestTemplate restTemplate;
+    private final CloseableHttpClient httpClient;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
     private final String baseUrl;
 
-    public LLMRestClient(@Value("${llm.service.url:http://genai-microservice:8082}") String llmServiceUrl) {
-        this.restTemplate = new RestTemplate();
+    public LLMRestClient(@Value("${llm.service.url:http://genai-microservice:8082}") String llmServiceUrl,
+            @Value("${llm.client.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${llm.client.read-timeout-ms:60000}") long readTimeoutMs,
+            @Value("${llm.client.pool-timeout-ms:5000}") long poolTimeoutMs,
+            @Value("${llm.client.pool.max-total:50}") int maxTotalConnections,
+            @Value("${llm.client.pool.max-per-route:20}") int maxConnectionsPerRoute,
+            @Value("${llm.client.pool.idle-timeout-ms:30000}") long idleTimeoutMs,
+            @Value("${llm.client.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${llm.client.circuit.open-duration-ms:30000}") long openDurationMs,
+            MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotalConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        // Catches connections the server closed while they were idle in the pool
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleTimeoutMs))
+                .build();
+        this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDurationMs);
+        this.meterRegistry = meterRegistry;
         this.baseUrl = llmServiceUrl;
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "genai-microservice")
+                .bindTo(meterRegistry);
+        Gauge.builder("llm.client.circuit.open", circuitBreaker,
+                        breaker -> breaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("1 while calls to genai-microservice are rejected or on trial, 0 when closed")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        httpClient.close();
     }
 
     /**
-     * Test connectivity to the LLM service
+     * Whether genai-microservice is considered reachable, based on the outcome of recent calls
      */
-    public boolean testConnection() {
-        try {
-            String url = baseUrl + "/api/genai/health";
-            String response = restTemplate.getForObject(url, String.class);
+    public boolean isAvailable() {
+        return circuitBreaker.getState() == CircuitBreaker.State.CLOSED;
+    }
 
-            logger.info("Health check response: {}", response);
-            return true;
-        } catch (Exception e) {
-            logger.error("Health check failed: {}", e.getMessage());
-            return false;
-        }
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
     }
 
     /**
      * Generate only journal summary using the REST LLM service
-     * 
+     *
      * @param array of snippet's contents
      * @return JSON containing only the summary
      */
     public String generateJournalSummary(List<String> snippetContents) {
-        try {
-            // Test connection first
-            if (!testConnection()) {
-                logger.error("Cannot connect to LLM service");
-                return null;
-            }
-
-            SnippetContentsRequest request = new SnippetContentsRequest(snippetContents);
-
-            // Debug logging
-            logger.info("Sending summary request with {} snippet contents", snippetContents.size());
-            logger.info("Request object: {}", request);
-
-            // Create headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("Connection", "close");
-            headers.set("Accept", MediaType.APPLICATION_JSON_VALUE);
-
-            // Create the request entity
-            HttpEntity<SnippetContentsRequest> requestEntity = new HttpEntity<>(request, headers);
-
-            String url = baseUrl + "/api/genai/summary";
-            logger.info("Sending POST request to: {}", url);
-
-            ResponseEntity<Map<String, Object>> responseEntity = restTemplate.exchange(
-                url,
-                HttpMethod.POST,
-                requestEntity,
-                new ParameterizedTypeReference<Map<String, Object>>() {}
-            );
-
-            logger.info("Received summary response successfully with status: {}", responseEntity.getStatusCode());
-            Map<String, Object> responseBody = responseEntity.getBody();
-            return responseBody != null ? (String) responseBody.get("summary") : null;
-        } catch (Exception e) {
-            logger.error("Error calling LLM REST service for summary: {}", e.getMessage(), e);
-            return null;
-        }
+        Map<String, Object> responseBody = post("summary", snippetContents, MAP_RESPONSE);
+        return responseBody != null ? (String) responseBody.get("summary") : null;
     }
 
     /**
      * Generate only journal insights using the REST LLM service
-     * 
+     *
      * @param array of snippet's contents
      * @return JSON containing analysis and insights
      */
     public Map<String, Object> generateJournalInsights(List<String> snippetContents) {
-        try {
-            // Test connection first
-            if (!testConnection()) {
-                logger.error("Cannot connect to LLM service");
-                return null;
-            }
-
-            SnippetContentsRequest request = new SnippetContentsRequest(snippetContents);
-
-            // Debug logging
-            logger.info("Sending insights request with {} snippet contents", snippetContents.size());
-            logger.info("Request object: {}", request);
+        return post("insights", snippetContents, MAP_RESPONSE);
+    }
 
-            // Create headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("Connection", "close");
-            headers.set("Accept", MediaType.APPLICATION_JSON_VALUE);
+    /**
+     * Generate journal summary, analysis and insights with a single call to the REST LLM service,
+     * sending the snippets and paying the model latency only once
+     *
+     * @param array of snippet's contents
+     * @return Summary, analysis and insights, or null if the call failed
+     */
+    public SnippetContentsResponse generateJournalReview(List<String> snippetContents) {
+        return post("review", snippetContents, new ParameterizedTypeReference<SnippetContentsResponse>() {});
+    }
 
-            // Create the request entity
-            HttpEntity<SnippetContentsRequest> requestEntity = new HttpEntity<>(request, headers);
+    /**
+     * Posts the snippet contents to /api/genai/{operation} and records the outcome in the circuit breaker
+     * @return Response body, or null if the call was rejected or failed
+     */
+    private <T> T post(String operation, List<String> snippetContents, ParameterizedTypeReference<T> responseType) {
+        if (!circuitBreaker.tryAcquire()) {
+            logger.warn("Circuit to LLM service is open, skipping {} request", operation);
+            meterRegistry.counter("llm.client.requests.rejected", "operation", operation).increment();
+            return null;
+        }
 
-            String url = baseUrl + "/api/genai/insights";
-            logger.info("Sending POST request to: {}", url);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        HttpEntity<SnippetContentsRequest> requestEntity =
+                new HttpEntity<>(new SnippetContentsRequest(snippetContents), headers);
+        String url = baseUrl + "/api/genai/" + operation;
+        logger.debug("Sending {} request with {} snippet contents to {}", operation, snippetContents.size(), url);
 
-            ResponseEntity<Map<String, Object>> responseEntity = restTemplate.exchange(
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            ResponseEntity<T> responseEntity = restTemplate.exchange(
                 url,
                 HttpMethod.POST,
                 requestEntity,
-                new ParameterizedTypeReference<Map<String, Object>>() {}
+                responseType
             );
-
-            logger.info("Received insights response successfully with status: {}", responseEntity.getStatusCode());
+            circuitBreaker.onSuccess();
+            logger.debug("Received {} response with status: {}", operation, responseEntity.getStatusCode());
             return responseEntity.getBody();
+        } catch (HttpClientErrorException e) {
+            // The service answered, so a 4xx says nothing about its health
+            circuitBreaker.onSuccess();
+            outcome = "client_error";
+            logger.error("LLM service rejected {} request: {}", operation, e.getMessage());
+            return null;
         } catch (Exception e) {
-            logger.error("Error calling LLM REST service for insights: {}", e.getMessage(), e);
+            circuitBreaker.onFailure();
+            outcome = "error";
+            logger.error("Error calling LLM REST service for {}: {}", operation, e.getMessage(), e);
             return null;
+        } finally {
+            sample.stop(Timer.builder("llm.client.requests")
+                    .description("Latency of calls to genai-microservice")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
         }
     }
 }
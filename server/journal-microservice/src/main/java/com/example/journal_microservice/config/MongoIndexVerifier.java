@@ -0,0 +1,138 @@
+package com.example.journal_microservice.config;
+
+import com.example.journal_microservice.model.AnalysisJob;
+import com.example.journal_microservice.model.DeletionJob;
+import com.example.journal_microservice.model.JournalEntry;
+import com.example.journal_microservice.model.OutboxEvent;
+import com.example.journal_microservice.model.Snippet;
+import com.example.journal_microservice.service.JournalEntryDeduplicationService;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Ensures the indexes declared on the hot-path entities exist before the web server accepts
+ * requests, and reports any that are still missing afterwards. Without them the per-user and per-day
+ * lookups degrade to collection scans, and without the unique (userId, date) index concurrent
+ * snippet writes can create a second journal entry for a day. Duplicate entries that would fail
+ * that index are merged first. Missing indexes turn the health status DOWN.
+ */
+@Component
+public class MongoIndexVerifier implements HealthIndicator, SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexVerifier.class);
+
+    private static final List<Class<?>> INDEXED_ENTITIES =
+            List.of(JournalEntry.class, Snippet.class, OutboxEvent.class, DeletionJob.class, AnalysisJob.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private JournalEntryDeduplicationService journalEntryDeduplicationService;
+
+    // Null until the first verification finished
+    private volatile List<String> missingIndexes;
+
+    /**
+     * Runs once every singleton exists and before the web server is started, so no request is
+     * served while the indexes are still being built
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        verifyOnStartup();
+    }
+
+    public void verifyOnStartup() {
+        try {
+            journalEntryDeduplicationService.mergeDuplicateEntries();
+        } catch (Exception e) {
+            logger.error("Failed to merge duplicate journal entries: {}", e.getMessage(), e);
+        }
+        try {
+            ensureIndexes();
+            missingIndexes = findMissingIndexes();
+            if (missingIndexes.isEmpty()) {
+                logger.info("Verified MongoDB indexes for {} collections", INDEXED_ENTITIES.size());
+            } else {
+                logger.error("Missing MongoDB indexes: {}", missingIndexes);
+            }
+        } catch (Exception e) {
+            missingIndexes = List.of("unknown");
+            logger.error("Failed to verify MongoDB indexes: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Health health() {
+        List<String> missing = missingIndexes;
+        if (missing == null) {
+            return Health.unknown().build();
+        }
+        return missing.isEmpty()
+                ? Health.up().build()
+                : Health.down().withDetail("missingIndexes", missing).build();
+    }
+
+    /**
+     * Creates every index declared on the indexed entities if it does not exist yet.
+     * An index that cannot be built, e.g. a unique index over duplicate documents, does not
+     * keep the others from being created and is reported by {@link #findMissingIndexes()}.
+     */
+    public void ensureIndexes() {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            IndexOperations indexOperations = mongoTemplate.indexOps(entity);
+            for (IndexDefinition index : resolver.resolveIndexFor(entity)) {
+                try {
+                    indexOperations.ensureIndex(index);
+                } catch (Exception e) {
+                    logger.error("Failed to create index {} on {}: {}", index.getIndexOptions().getString("name"),
+                            mongoTemplate.getCollectionName(entity), e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares the declared indexes with the ones present in the database
+     * @return Declared indexes that do not exist, as "collection.indexName"
+     */
+    public List<String> findMissingIndexes() {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        List<String> missingIndexes = new ArrayList<>();
+
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            Set<String> existingIndexes = mongoTemplate.indexOps(entity).getIndexInfo().stream()
+                    .map(IndexInfo::getName)
+                    .collect(Collectors.toSet());
+            String collectionName = mongoTemplate.getCollectionName(entity);
+
+            for (IndexDefinition index : resolver.resolveIndexFor(entity)) {
+                Document options = index.getIndexOptions();
+                String indexName = options.getString("name");
+                if (indexName != null && !existingIndexes.contains(indexName)) {
+                    missingIndexes.add(collectionName + "." + indexName);
+                }
+            }
+        }
+        return missingIndexes;
+    }
+}
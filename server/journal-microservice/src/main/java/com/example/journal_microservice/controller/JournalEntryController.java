@@ -1,5 +1,7 @@
 package com.example.journal_microservice.controller;
 
+import com.example.journal_microservice.dto.ActivityHeatmap;
+import com.example.journal_microservice.dto.CursorPage;
 import com.example.journal_microservice.dto.wrapper.ApiResponse;
 import com.example.journal_microservice.model.JournalEntry;
 import com.example.journal_microservice.service.JournalEntryService;
@@ -40,13 +42,22 @@ public class JournalEntryController {
     @GetMapping("/{userId}")
     public ResponseEntity<ApiResponse<Object>> getUserJournals(@PathVariable("userId") String userId,
             @RequestParam(name = "journalId", required = false) String journalId,
-            @RequestParam(name = "date", required = false) String dateParam) {
+            @RequestParam(name = "date", required = false) String dateParam,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "cursor", required = false) String cursor) {
 
         if (journalId != null) {
             JournalEntry journalEntry = journalEntryService.getUserJournalById(userId, journalId);
             return ResponseEntity.ok(new ApiResponse<>("Journal entry retrieved successfully.", journalEntry));
         }
 
+        // Paginated listing, newest first; without limit or cursor the full history is returned
+        if (dateParam == null && (limit != null || cursor != null)) {
+            CursorPage<JournalEntry> page = journalEntryService.getUserJournalsPage(userId, cursor, limit);
+            return ResponseEntity.ok(new ApiResponse<>("Journal entries retrieved successfully.",
+                    page.items(), page.nextCursor()));
+        }
+
         LocalDate date = null;
         if (dateParam != null) {
             try {
@@ -66,6 +77,12 @@ public class JournalEntryController {
         return ResponseEntity.ok(new ApiResponse<>("Journal entries retrieved successfully.", journalEntries));
     }
 
+    @GetMapping("/{userId}/activity")
+    public ResponseEntity<ApiResponse<ActivityHeatmap>> getActivityHeatmap(@PathVariable("userId") String userId) {
+        ActivityHeatmap heatmap = journalEntryService.getActivityHeatmap(userId);
+        return ResponseEntity.ok(new ApiResponse<>("Activity retrieved successfully.", heatmap));
+    }
+
     @GetMapping("/{userId}/statistics")
     public ResponseEntity<Map<String, Object>> getStatistics(@PathVariable("userId") String userId) {
         Map<String, Object> stats = journalEntryService.getUserStatistics(userId);
@@ -3,110 +3,108 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
-import com.example.journal_microservice.client.LLMRestClient;
-import com.example.journal_microservice.model.JournalEntry;
-import com.example.journal_microservice.model.Snippet;
+import com.example.journal_microservice.dto.JournalReview;
+import com.example.journal_microservice.dto.wrapper.ApiResponse;
+import com.example.journal_microservice.model.AnalysisJob;
 import com.example.journal_microservice.model.Insights;
-import com.example.journal_microservice.repository.JournalEntryRepository;
-import com.example.journal_microservice.repository.SnippetRepository;
+import com.example.journal_microservice.service.AnalysisJobService;
+import com.example.journal_microservice.service.JournalAnalysisService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RequestMapping("/api")
 @RestController
 public class LLMController {
 
-    private static final Logger logger = LoggerFactory.getLogger(LLMController.class);
-
-    @Autowired
-    private SnippetRepository snippetRepository;
     @Autowired
-    private JournalEntryRepository journalEntryRepository;
+    private JournalAnalysisService journalAnalysisService;
+
     @Autowired
-    private LLMRestClient llmRestClient;
+    private AnalysisJobService analysisJobService;
 
+    /**
+     * Returns the stored summary while the entry's snippets are unchanged; force=true always generates a new one
+     */
     @GetMapping("/summary/{journalId}")
-    public ResponseEntity<Map<String, Object>> getSummary(@PathVariable String journalId) {
-        Optional<JournalEntry> optionalJournalEntry = journalEntryRepository.findById(journalId);
-        if (optionalJournalEntry.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-        JournalEntry journalEntry = optionalJournalEntry.get();
-
-        // Get the snippets associated with the journal entry
-        List<Snippet> snippets = snippetRepository.findByJournalEntryId(journalId);
-        List<String> snippetsContent = snippets.stream()
-                .map(snippet -> snippet.getContent())
-                .collect(Collectors.toList());
-
-        logger.info("Snippets content: {}", snippetsContent);
-        String summary = llmRestClient.generateJournalSummary(snippetsContent);
-        logger.info("LLM Summary Result: {}", summary);
-        
-        if (summary != null) {
-            journalEntry.setSummary(summary);
-            journalEntryRepository.save(journalEntry);
-        }
+    public ResponseEntity<Map<String, Object>> getSummary(@PathVariable String journalId,
+            @RequestParam(defaultValue = "false") boolean force) {
+        String summary = journalAnalysisService.getSummary(journalId, force);
 
         // Prepare summary response
         Map<String, Object> response = new HashMap<>();
         response.put("summary", summary != null ? summary : "No summary available");
-        
+
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Returns the stored insights while the entry's snippets are unchanged; force=true always generates new ones
+     */
     @GetMapping("/insights/{journalId}")
-    public ResponseEntity<Map<String, Object>> getInsights(@PathVariable String journalId) {
-        Optional<JournalEntry> optionalJournalEntry = journalEntryRepository.findById(journalId);
-        if (optionalJournalEntry.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-        JournalEntry journalEntry = optionalJournalEntry.get();
-
-        // Get the snippets associated with the journal entry
-        List<Snippet> snippets = snippetRepository.findByJournalEntryId(journalId);
-        List<String> snippetsContent = snippets.stream()
-                .map(snippet -> snippet.getContent())
-                .collect(Collectors.toList());
-
-        logger.info("Snippets content: {}", snippetsContent);
-        Map<String, Object> llmResult = llmRestClient.generateJournalInsights(snippetsContent);
-        logger.info("LLM Insights Result: {}", llmResult);
-        
-        if (llmResult != null) {
-            // Create and populate Insights object
-            Insights insights = new Insights();
-            insights.setAnalysis((String) llmResult.get("analysis"));
-            
-            @SuppressWarnings("unchecked")
-            Map<String, String> insightsData = (Map<String, String>) llmResult.get("insights");
-            if (insightsData != null) {
-                insights.setMoodPattern(insightsData.get("moodPattern"));
-                insights.setSuggestion(insightsData.get("suggestion"));
-                insights.setAchievement(insightsData.get("achievement"));
-                insights.setWellnessTip(insightsData.get("wellnessTip"));
-            }
-            
-            journalEntry.setInsights(insights);
-            journalEntryRepository.save(journalEntry);
-        }
+    public ResponseEntity<Map<String, Object>> getInsights(@PathVariable String journalId,
+            @RequestParam(defaultValue = "false") boolean force) {
+        Insights insights = journalAnalysisService.getInsights(journalId, force);
 
         // Prepare insights response
         Map<String, Object> response = new HashMap<>();
-        response.put("analysis", llmResult != null ? llmResult.get("analysis") : "No analysis available");
-        
-        // Include insights in the response
-        if (llmResult != null && llmResult.get("insights") != null) {
-            response.put("insights", llmResult.get("insights"));
-        } else {
-            response.put("insights", new HashMap<String, String>());
-        }
+        response.put("analysis", insights != null ? insights.getAnalysis() : "No analysis available");
+        response.put("insights", insights != null ? insightsData(insights) : new HashMap<String, String>());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Returns summary, analysis and insights together; when they need to be generated, all of them
+     * come from a single LLM call and are stored on the journal entry
+     */
+    @GetMapping("/review/{journalId}")
+    public ResponseEntity<Map<String, Object>> getReview(@PathVariable String journalId,
+            @RequestParam(defaultValue = "false") boolean force) {
+        JournalReview review = journalAnalysisService.getReview(journalId, force);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("summary", review != null && review.summary() != null ? review.summary() : "No summary available");
+        Insights insights = review != null ? review.insights() : null;
+        response.put("analysis", insights != null ? insights.getAnalysis() : "No analysis available");
+        response.put("insights", insights != null ? insightsData(insights) : new HashMap<String, String>());
 
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Queues the generation of the summary and returns immediately; the result is polled through the job
+     */
+    @PostMapping("/summary/{journalId}/jobs")
+    public ResponseEntity<ApiResponse<AnalysisJob>> enqueueSummary(@PathVariable String journalId,
+            @RequestParam(defaultValue = "false") boolean force) {
+        AnalysisJob job = analysisJobService.enqueue(journalId, AnalysisJob.Type.SUMMARY, force);
+        return ResponseEntity.accepted().body(new ApiResponse<>("Summary generation queued.", job));
+    }
+
+    /**
+     * Queues the generation of the insights and returns immediately; the result is polled through the job
+     */
+    @PostMapping("/insights/{journalId}/jobs")
+    public ResponseEntity<ApiResponse<AnalysisJob>> enqueueInsights(@PathVariable String journalId,
+            @RequestParam(defaultValue = "false") boolean force) {
+        AnalysisJob job = analysisJobService.enqueue(journalId, AnalysisJob.Type.INSIGHTS, force);
+        return ResponseEntity.accepted().body(new ApiResponse<>("Insights generation queued.", job));
+    }
+
+    @GetMapping({ "/summary/jobs/{jobId}", "/insights/jobs/{jobId}" })
+    public ResponseEntity<ApiResponse<AnalysisJob>> getJob(@PathVariable String jobId) {
+        AnalysisJob job = analysisJobService.getJob(jobId);
+        return ResponseEntity.ok(new ApiResponse<>("Analysis job retrieved successfully.", job));
+    }
+
+    private static Map<String, String> insightsData(Insights insights) {
+        Map<String, String> insightsData = new HashMap<>();
+        insightsData.put("moodPattern", insights.getMoodPattern());
+        insightsData.put("suggestion", insights.getSuggestion());
+        insightsData.put("achievement", insights.getAchievement());
+        insightsData.put("wellnessTip", insights.getWellnessTip());
+        return insightsData;
+    }
+}
@@ -1,9 +1,20 @@
 package com.example.journal_microservice.controller;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,34 +25,93 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.journal_microservice.dto.CursorPage;
+import com.example.journal_microservice.dto.SnippetImportSummary;
 import com.example.journal_microservice.dto.wrapper.ApiResponse;
 import com.example.journal_microservice.model.Snippet;
+import com.example.journal_microservice.service.SnippetImportService;
 import com.example.journal_microservice.service.SnippetService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 
 @RestController
 @RequestMapping("/api/snippets")
 public class SnippetController {
 
+    private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    private static final int FLUSH_INTERVAL = 500;
+
     @Autowired
     private SnippetService snippetService;
 
+    @Autowired
+    private SnippetImportService snippetImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Exports snippets as newline-delimited JSON, streamed from a MongoDB cursor
+     * so memory use stays constant regardless of the collection size
+     */
     @GetMapping
-    public ResponseEntity<List<Snippet>> getAllSnippets() {
-        List<Snippet> snippets = snippetService.getAllSnippets();
-        return ResponseEntity.ok(snippets);
+    public ResponseEntity<StreamingResponseBody> getAllSnippets(
+            @RequestParam(name = "userId", required = false) String userId,
+            @RequestParam(name = "since", required = false) String sinceParam) {
+        Date since = null;
+        if (sinceParam != null) {
+            try {
+                since = sinceParam.contains("T")
+                        ? Date.from(Instant.parse(sinceParam))
+                        : Date.from(LocalDate.parse(sinceParam).atStartOfDay(ZoneId.systemDefault()).toInstant());
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Invalid since format. Expected YYYY-MM-DD or an ISO timestamp.");
+            }
+        }
+
+        Date sinceDate = since;
+        StreamingResponseBody body = outputStream -> {
+            try (Stream<Snippet> snippets = snippetService.streamSnippets(userId, sinceDate);
+                    SequenceWriter writer = objectMapper.writer()
+                            .withRootValueSeparator("\n")
+                            .writeValues(outputStream)) {
+                Iterator<Snippet> iterator = snippets.iterator();
+                int written = 0;
+                while (iterator.hasNext()) {
+                    writer.write(iterator.next());
+                    // Push each batch to the client instead of buffering the whole export
+                    if (++written % FLUSH_INTERVAL == 0) {
+                        writer.flush();
+                    }
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+                .body(body);
     }
 
     @GetMapping("/{userId}")
     public ResponseEntity<?> getUserSnippets(@PathVariable("userId") String userId,
             @RequestParam(name = "snippetId", required = false) String snippetId,
-            @RequestParam(name = "date", required = false) String dateParam) {
+            @RequestParam(name = "date", required = false) String dateParam,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "cursor", required = false) String cursor) {
 
         if (snippetId != null) {
             Snippet snippet = snippetService.getUserSnippetById(userId, snippetId);
             return ResponseEntity.ok(snippet);
         }
 
+        // Paginated listing, newest first; without limit or cursor the full history is returned
+        if (dateParam == null && (limit != null || cursor != null)) {
+            CursorPage<Snippet> page = snippetService.getUserSnippetsPage(userId, cursor, limit);
+            return ResponseEntity.ok(new ApiResponse<>("Snippets retrieved successfully.",
+                    page.items(), page.nextCursor()));
+        }
+
         LocalDate date = null;
         if (dateParam != null) {
             try {
@@ -67,6 +137,17 @@ public class SnippetController {
         return ResponseEntity.ok(savedSnippet);
     }
 
+    /**
+     * Imports newline-delimited JSON snippets in bulk; every line gets its own result,
+     * so a malformed line does not fail the whole import
+     */
+    @PostMapping(value = "/bulk", consumes = NDJSON_MEDIA_TYPE)
+    public ResponseEntity<ApiResponse<SnippetImportSummary>> importSnippets(InputStream body) throws IOException {
+        SnippetImportSummary summary = snippetImportService.importSnippets(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)));
+        return ResponseEntity.ok(new ApiResponse<>("Snippets imported successfully.", summary));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<String>> deleteSnippet(@PathVariable String id) {
         snippetService.deleteSnippet(id);
@@ -0,0 +1,62 @@
+package com.example.journal_microservice.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.journal_microservice.dto.wrapper.ApiResponse;
+import com.example.journal_microservice.model.DeletionJob;
+import com.example.journal_microservice.model.UserStatistics;
+import com.example.journal_microservice.service.UserDataDeletionService;
+import com.example.journal_microservice.service.UserStatisticsService;
+
+@RestController
+@RequestMapping("/api/user-data")
+public class UserDataController {
+
+    @Autowired
+    private UserDataDeletionService userDataDeletionService;
+
+    @Autowired
+    private UserStatisticsService userStatisticsService;
+
+    /**
+     * Schedules the deletion of all journal data of a user and returns immediately;
+     * the job can be followed through its ID
+     */
+    @DeleteMapping("/{userId}")
+    public ResponseEntity<ApiResponse<DeletionJob>> deleteUserData(@PathVariable("userId") String userId) {
+        DeletionJob job = userDataDeletionService.requestDeletion(userId);
+        return ResponseEntity.accepted().body(new ApiResponse<>("User data deletion scheduled.", job));
+    }
+
+    @GetMapping("/deletions/{jobId}")
+    public ResponseEntity<ApiResponse<DeletionJob>> getDeletionJob(@PathVariable("jobId") String jobId) {
+        DeletionJob job = userDataDeletionService.getJob(jobId);
+        return ResponseEntity.ok(new ApiResponse<>("Deletion job retrieved successfully.", job));
+    }
+
+    /**
+     * Recomputes the statistics of a user from their journal entries and snippets, to repair drifted counters
+     */
+    @PostMapping("/{userId}/statistics/rebuild")
+    public ResponseEntity<ApiResponse<UserStatistics>> rebuildStatistics(@PathVariable("userId") String userId) {
+        UserStatistics statistics = userStatisticsService.rebuild(userId);
+        return ResponseEntity.ok(new ApiResponse<>("User statistics rebuilt successfully.", statistics));
+    }
+
+    /**
+     * Starts recomputing the statistics of all users in the background and returns immediately
+     */
+    @PostMapping("/statistics/rebuild")
+    public ResponseEntity<ApiResponse<Boolean>> rebuildAllStatistics() {
+        boolean started = userStatisticsService.rebuildAllInBackground();
+        String message = started ? "User statistics rebuild started." : "User statistics rebuild already running.";
+        return ResponseEntity.accepted().body(new ApiResponse<>(message, started));
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.journal_microservice.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Daily activity between two dates (inclusive), one flag per day starting at startDate.
+ */
+public record ActivityHeatmap(
+        LocalDate startDate,
+        LocalDate endDate,
+        boolean[] days
+) {
+}
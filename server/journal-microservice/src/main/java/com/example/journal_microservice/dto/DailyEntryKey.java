@@ -0,0 +1,12 @@
+package com.example.journal_microservice.dto;
+
+import java.util.Date;
+
+/**
+ * Identifies the journal entry of a user and day; date is the start of the day.
+ */
+public record DailyEntryKey(
+        String userId,
+        Date date
+) {
+}
@@ -0,0 +1,12 @@
+package com.example.journal_microservice.dto;
+
+import com.example.journal_microservice.model.Insights;
+
+/**
+ * Summary and insights of a journal entry, generated together from the same snippets.
+ */
+public record JournalReview(
+        String summary,
+        Insights insights
+) {
+}
@@ -0,0 +1,13 @@
+package com.example.journal_microservice.dto;
+
+/**
+ * Number of journal entries and the sum of their daily moods within a date window.
+ */
+public record MoodSummary(
+        long journalCount,
+        double moodSum
+) {
+    public double averageMood() {
+        return journalCount == 0 ? 0.0 : moodSum / journalCount;
+    }
+}
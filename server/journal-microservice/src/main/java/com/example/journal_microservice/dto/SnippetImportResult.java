@@ -0,0 +1,21 @@
+package com.example.journal_microservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one line of a bulk snippet import: the ID of the imported snippet or the error.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SnippetImportResult(
+        int line,
+        String snippetId,
+        String error
+) {
+    public static SnippetImportResult imported(int line, String snippetId) {
+        return new SnippetImportResult(line, snippetId, null);
+    }
+
+    public static SnippetImportResult failed(int line, String error) {
+        return new SnippetImportResult(line, null, error);
+    }
+}
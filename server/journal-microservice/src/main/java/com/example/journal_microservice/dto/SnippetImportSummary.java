@@ -0,0 +1,13 @@
+package com.example.journal_microservice.dto;
+
+import java.util.List;
+
+/**
+ * Result of a bulk snippet import, with one result per non-empty input line in line order.
+ */
+public record SnippetImportSummary(
+        int imported,
+        int failed,
+        List<SnippetImportResult> results
+) {
+}
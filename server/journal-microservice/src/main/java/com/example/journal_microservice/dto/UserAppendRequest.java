@@ -0,0 +1,12 @@
+package com.example.journal_microservice.dto;
+
+import java.util.List;
+
+/**
+ * Body of user-microservice's batch append endpoint.
+ */
+public record UserAppendRequest(
+        List<String> journalEntries,
+        List<String> snippets
+) {
+}
@@ -1,14 +1,26 @@
 package com.example.journal_microservice.dto.wrapper;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class ApiResponse<T> {
     private String message;
     private T data;
 
+    // Opaque cursor of the next page, only present on paginated responses
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     public ApiResponse(String message, T data) {
         this.message = message;
         this.data = data;
     }
 
+    public ApiResponse(String message, T data, String nextCursor) {
+        this.message = message;
+        this.data = data;
+        this.nextCursor = nextCursor;
+    }
+
     // Getters and setters
     public String getMessage() {
         return message;
@@ -25,4 +37,12 @@ public class ApiResponse<T> {
     public void setData(T data) {
         this.data = data;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
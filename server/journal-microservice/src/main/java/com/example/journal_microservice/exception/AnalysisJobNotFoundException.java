@@ -0,0 +1,7 @@
+package com.example.journal_microservice.exception;
+
+public class AnalysisJobNotFoundException extends RuntimeException {
+    public AnalysisJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.journal_microservice.exception;
+
+public class DeletionJobNotFoundException extends RuntimeException {
+    public DeletionJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.journal_microservice.exception;
+
+public class DuplicateJournalEntryException extends RuntimeException {
+    public DuplicateJournalEntryException(String message) {
+        super(message);
+    }
+}
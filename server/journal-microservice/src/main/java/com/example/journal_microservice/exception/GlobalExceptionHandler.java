@@ -1,6 +1,7 @@
 package com.example.journal_microservice.exception;
 
 import com.example.journal_microservice.dto.wrapper.ApiResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -21,6 +22,32 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    @ExceptionHandler(DeletionJobNotFoundException.class)
+    public ResponseEntity<ApiResponse<String>> handleDeletionJobNotFound(DeletionJobNotFoundException ex) {
+        ApiResponse<String> response = new ApiResponse<>(ex.getMessage(), null);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
+    @ExceptionHandler(AnalysisJobNotFoundException.class)
+    public ResponseEntity<ApiResponse<String>> handleAnalysisJobNotFound(AnalysisJobNotFoundException ex) {
+        ApiResponse<String> response = new ApiResponse<>(ex.getMessage(), null);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
+    @ExceptionHandler(DuplicateJournalEntryException.class)
+    public ResponseEntity<ApiResponse<String>> handleDuplicateJournalEntry(DuplicateJournalEntryException ex) {
+        ApiResponse<String> response = new ApiResponse<>(ex.getMessage(), null);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(LLMOverloadedException.class)
+    public ResponseEntity<ApiResponse<String>> handleLLMOverloaded(LLMOverloadedException ex) {
+        ApiResponse<String> response = new ApiResponse<>(ex.getMessage(), null);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
     @ExceptionHandler(UserServiceException.class)
     public ResponseEntity<ApiResponse<String>> handleUserServiceException(UserServiceException ex) {
         ApiResponse<String> response = new ApiResponse<>(ex.getMessage(), null);
@@ -0,0 +1,15 @@
+package com.example.journal_microservice.exception;
+
+public class LLMOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LLMOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
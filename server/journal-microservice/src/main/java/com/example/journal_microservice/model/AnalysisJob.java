@@ -0,0 +1,67 @@
+package com.example.journal_microservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Queued generation of the summary or insights of a journal entry, with its result.
+ * Persisted so queued and interrupted jobs survive a restart and any instance can run them.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "analysisJobs")
+// Serves the workers' "due jobs, oldest first" poll
+@CompoundIndex(name = "status_nextAttemptAt", def = "{'status': 1, 'nextAttemptAt': 1}")
+public class AnalysisJob {
+
+    public enum Type {
+        SUMMARY,
+        INSIGHTS
+    }
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED // Gave up after the maximum number of attempts
+    }
+
+    @Id
+    private String id;
+    private String journalEntryId;
+    private Type type;
+    private boolean force; // Regenerate even if the stored result is up to date
+    private Status status;
+    private int attempts; // Claims so far, including those of workers that stopped mid-run
+    private Date createdAt;
+    private Date startedAt;
+    // Finished jobs are removed a day later; their results live on the journal entry
+    @Indexed(name = "finishedAt_ttl", expireAfterSeconds = 86400)
+    private Date finishedAt;
+    private Date nextAttemptAt; // Also acts as the claim lease while a worker runs the job
+    // New on every claim; the writes of a worker whose lease was taken over match nothing
+    private String leaseToken;
+    private String summary;
+    private Insights insights;
+    private String lastError;
+
+    public AnalysisJob(String journalEntryId, Type type, boolean force) {
+        this.journalEntryId = journalEntryId;
+        this.type = type;
+        this.force = force;
+        this.status = Status.PENDING;
+        this.createdAt = new Date();
+        this.nextAttemptAt = this.createdAt;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.journal_microservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Background deletion of all journal data of a user, with its progress.
+ * Persisted so a deletion interrupted by a restart is resumed by the next poll.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "deletionJobs")
+// Serves the worker's "due jobs, oldest first" poll
+@CompoundIndex(name = "status_nextAttemptAt", def = "{'status': 1, 'nextAttemptAt': 1}")
+public class DeletionJob {
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED // Gave up after the maximum number of attempts, kept for inspection
+    }
+
+    @Id
+    private String id;
+    private String userId;
+    private Status status;
+    private long snippetsTotal; // Counted when the job first starts
+    private long snippetsDeleted;
+    private long journalEntriesTotal;
+    private long journalEntriesDeleted;
+    private int attempts;
+    private Date createdAt;
+    private Date startedAt;
+    private Date finishedAt;
+    private Date nextAttemptAt; // Also acts as the claim lease while a worker runs the job
+    private String lastError;
+
+    public DeletionJob(String userId) {
+        this.userId = userId;
+        this.status = Status.PENDING;
+        this.createdAt = new Date();
+        this.nextAttemptAt = this.createdAt;
+    }
+}
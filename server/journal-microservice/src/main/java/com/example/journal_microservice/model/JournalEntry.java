@@ -9,6 +9,8 @@ import java.util.ArrayList;
 import java.util.Date;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Setter
@@ -16,6 +18,12 @@ import org.springframework.data.mongodb.core.mapping.Document;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "journalEntries")
+@CompoundIndexes({
+        // A user has at most one journal entry per day; the daily upsert relies on it
+        @CompoundIndex(name = "userId_date", def = "{'userId': 1, 'date': 1}", unique = true),
+        // Serves per-day lookups as well as newest-first keyset pagination over (date, id)
+        @CompoundIndex(name = "userId_date_id", def = "{'userId': 1, 'date': 1, '_id': 1}")
+})
 public class JournalEntry {
     @Id
     private String id;
@@ -23,8 +31,14 @@ public class JournalEntry {
     private String summary;
     private Date date;
     private Double dailyMood;
+    // Running mood aggregate of the snippets; dailyMood is derived from it on every snippet change
+    private Double moodSum;
+    private Integer moodCount;
     private List<String> snippetIds = new ArrayList<>();
     private Insights insights;
+    // Fingerprints of the snippets the summary and insights were generated from, see SnippetFingerprint
+    private String summaryFingerprint;
+    private String insightsFingerprint;
     private Date updatedAt;
     private String userId;
 }
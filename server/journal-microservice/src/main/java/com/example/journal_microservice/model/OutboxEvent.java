@@ -0,0 +1,56 @@
+package com.example.journal_microservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Pending update of user-microservice, recorded while the snippet or journal entry is
+ * written and delivered later by the outbox relay.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "outbox")
+// Serves the relay's "due events, oldest first" poll
+@CompoundIndex(name = "status_nextAttemptAt", def = "{'status': 1, 'nextAttemptAt': 1}")
+public class OutboxEvent {
+
+    public enum Type {
+        JOURNAL_ENTRY_ADDED,
+        SNIPPET_ADDED
+    }
+
+    public enum Status {
+        PENDING,
+        FAILED // Gave up after the maximum number of attempts, kept for inspection
+    }
+
+    @Id
+    private String id;
+    private Type type;
+    private String userId;
+    private String targetId; // ID of the journal entry or snippet to append
+    private Status status;
+    private int attempts;
+    private Date createdAt;
+    private Date nextAttemptAt; // Also acts as the claim lease while a relay delivers the event
+    private String lastError;
+
+    public OutboxEvent(Type type, String userId, String targetId) {
+        this.type = type;
+        this.userId = userId;
+        this.targetId = targetId;
+        this.status = Status.PENDING;
+        this.createdAt = new Date();
+        this.nextAttemptAt = this.createdAt;
+    }
+}
@@ -9,6 +9,8 @@ import java.util.Date;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Setter
@@ -16,6 +18,8 @@ import org.springframework.data.mongodb.core.mapping.Document;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "snippets")
+// Serves per-day lookups as well as newest-first keyset pagination over (timestamp, id)
+@CompoundIndex(name = "userId_timestamp_id", def = "{'userId': 1, 'timestamp': 1, '_id': 1}")
 public class Snippet {
     @Id
     private String id;
@@ -24,8 +28,11 @@ public class Snippet {
     private Double mood;
     private List<String> tags;
     // The journalEntryID that contains this snippet
+    @Indexed(name = "journalEntryId")
     private String journalEntryId;
     private String userId; // The user ID of the user who created this snippet
     private Date updatedAt; // when updated
+    private Integer wordCount; // Computed from content on every write
+    private Integer charCount; // Computed from content on every write
 }
 
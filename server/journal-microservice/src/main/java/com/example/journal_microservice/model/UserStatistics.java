@@ -0,0 +1,41 @@
+package com.example.journal_microservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Per-user statistics read model, maintained incrementally on every snippet and
+ * journal entry write so that the statistics endpoint is a single point read.
+ * A document without rebuiltAt only holds the deltas written since the read model was
+ * introduced and is recomputed from the source collections on its next read.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "userStatistics")
+public class UserStatistics {
+    @Id
+    private String userId;
+    private long totalJournals;
+    private long totalWords;
+    private double moodSum; // Sum of the daily moods of all journal entries with a mood
+    private long moodCount; // Number of journal entries contributing to moodSum
+    private Date lastActiveDay; // Start of the most recent day with activity
+    private Long activityOrigin; // Epoch day of the first bit in activity
+    private byte[] activity; // One bit per day with a journal entry, see ActivityBitmap
+    private Date updatedAt;
+    private Date rebuiltAt; // Last recomputation from the source collections, null if never
+    private long version; // Incremented by every write, guards the conditional write of a rebuild
+
+    public UserStatistics(String userId) {
+        this.userId = userId;
+    }
+}
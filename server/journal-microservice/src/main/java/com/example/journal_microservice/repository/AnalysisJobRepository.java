@@ -0,0 +1,14 @@
+package com.example.journal_microservice.repository;
+
+import com.example.journal_microservice.model.AnalysisJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AnalysisJobRepository extends MongoRepository<AnalysisJob, String> {
+    long countByStatus(AnalysisJob.Status status);
+
+    Optional<AnalysisJob> findFirstByStatusOrderByCreatedAtAsc(AnalysisJob.Status status);
+}
@@ -0,0 +1,15 @@
+package com.example.journal_microservice.repository;
+
+import com.example.journal_microservice.model.DeletionJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface DeletionJobRepository extends MongoRepository<DeletionJob, String> {
+    Optional<DeletionJob> findFirstByUserIdAndStatusIn(String userId, Collection<DeletionJob.Status> statuses);
+
+    long countByStatusIn(Collection<DeletionJob.Status> statuses);
+}
@@ -9,10 +9,14 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface JournalEntryRepository extends MongoRepository<JournalEntry, String> {
+public interface JournalEntryRepository extends MongoRepository<JournalEntry, String>, JournalEntryRepositoryCustom {
     JournalEntry findByDateAndUserId(Date date, String userId);
 
     List<JournalEntry> findByUserId(String userId);
 
+    List<JournalEntry> findByUserIdAndDateGreaterThanEqualAndDateLessThan(String userId, Date from, Date to);
+
+    boolean existsByUserId(String userId);
+
     Optional<JournalEntry> findByUserIdAndId(String userId, String id);
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.example.journal_microservice.repository;
+
+import com.example.journal_microservice.dto.DailyEntryKey;
+import com.example.journal_microservice.dto.MoodSummary;
+import com.example.journal_microservice.dto.PageCursor;
+import com.example.journal_microservice.model.Insights;
+import com.example.journal_microservice.model.JournalEntry;
+import com.example.journal_microservice.model.Snippet;
+import org.bson.types.ObjectId;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregation-based queries and atomic updates on journal entries that are evaluated inside MongoDB,
+ * so that only the aggregated values are transferred to the service.
+ */
+public interface JournalEntryRepositoryCustom {
+
+    /**
+     * Counts the journal entries of a user in [from, to) and sums their daily moods
+     */
+    MoodSummary summarizeMood(String userId, Date from, Date to);
+
+    /**
+     * Returns up to limit journal entries of a user older than the cursor, newest first
+     */
+    List<JournalEntry> findPageByUserId(String userId, PageCursor cursor, int limit);
+
+    /**
+     * Atomically gets the journal entry of a user and day, creating it if it does not exist yet
+     * @param userId The user of the entry
+     * @param date Start of the day
+     * @param idIfCreated ID given to the entry if it is created, so callers can tell whether it was
+     * @return The existing or created journal entry
+     */
+    JournalEntry upsertDailyEntry(String userId, Date date, ObjectId idIfCreated);
+
+    /**
+     * Gets or creates the journal entries of many users and days with one unordered bulk upsert
+     * @param idsIfCreated ID given to each entry that is created, per user and day
+     * @return The entries of all requested days, with only userId and date populated
+     */
+    List<JournalEntry> upsertDailyEntries(Map<DailyEntryKey, ObjectId> idsIfCreated);
+
+    /**
+     * Appends many snippets to their journal entries with one unordered bulk write, adding the
+     * moods of each entry's snippets to its running aggregate in a single update
+     * @param snippetsByEntryId Snippets to append, per journal entry ID
+     */
+    void addSnippets(Map<String, List<Snippet>> snippetsByEntryId);
+
+    /**
+     * Atomically appends a snippet to a journal entry and adds its mood to the running aggregate
+     * @return The updated journal entry, or null if the entry does not exist
+     */
+    JournalEntry addSnippet(String entryId, String snippetId, Double mood);
+
+    /**
+     * Atomically removes a snippet from a journal entry and subtracts its mood from the running aggregate.
+     * The last remaining snippet of an entry is never removed.
+     * @return The updated journal entry, or null if the entry does not exist, does not contain the snippet
+     *         or the snippet is its last one
+     */
+    JournalEntry removeSnippet(String entryId, String snippetId, Double mood);
+
+    /**
+     * Atomically replaces the mood of one of the entry's snippets in the running aggregate
+     * @return The updated journal entry, or null if the entry does not contain the snippet
+     */
+    JournalEntry changeSnippetMood(String entryId, String snippetId, Double previousMood, Double newMood);
+
+    /**
+     * Atomically sets the title, summary, insights and daily mood of changes that are not null, and
+     * updatedAt, leaving the snippet list untouched. A new daily mood rescales the running mood aggregate
+     * from the stored mood count, so later snippet changes continue from the corrected mood.
+     * @return The journal entry as it was before the update, or null if the entry does not exist
+     */
+    JournalEntry updateEntry(String entryId, JournalEntry changes, Date updatedAt);
+
+    /**
+     * Stores a generated summary with the fingerprint of the snippets it was generated from,
+     * without touching the rest of the entry
+     */
+    void saveSummary(String entryId, String summary, String fingerprint);
+
+    /**
+     * Stores generated insights with the fingerprint of the snippets they were generated from,
+     * without touching the rest of the entry
+     */
+    void saveInsights(String entryId, Insights insights, String fingerprint);
+
+    /**
+     * Stores a summary and insights generated in one call, both with the fingerprint of the
+     * snippets they were generated from, without touching the rest of the entry
+     */
+    void saveReview(String entryId, String summary, Insights insights, String fingerprint);
+}
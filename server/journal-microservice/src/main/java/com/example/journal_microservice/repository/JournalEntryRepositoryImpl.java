@@ -0,0 +1,263 @@
+package com.example.journal_microservice.repository;
+
+import com.example.journal_microservice.dto.DailyEntryKey;
+import com.example.journal_microservice.dto.MoodSummary;
+import com.example.journal_microservice.dto.PageCursor;
+import com.example.journal_microservice.model.Insights;
+import com.example.journal_microservice.model.JournalEntry;
+import com.example.journal_microservice.model.Snippet;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MongoDB aggregation implementation of {@link JournalEntryRepositoryCustom}.
+ * Days are bucketed in the service's time zone, matching how entry dates are created.
+ * Snippet changes are applied with a single findAndModify using an update pipeline, so the
+ * snippet list, the running mood aggregate and the derived daily mood never diverge under
+ * concurrent writers.
+ */
+public class JournalEntryRepositoryImpl implements JournalEntryRepositoryCustom {
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private static final Document SNIPPET_IDS = new Document("$ifNull", Arrays.asList("$snippetIds", List.of()));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public MoodSummary summarizeMood(String userId, Date from, Date to) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(windowCriteria(userId, from, to)),
+                Aggregation.project("dailyMood"),
+                Aggregation.group()
+                        .count().as("journalCount")
+                        .sum("dailyMood").as("moodSum"));
+
+        Document result = mongoTemplate.aggregate(aggregation, JournalEntry.class, Document.class)
+                .getUniqueMappedResult();
+        if (result == null) {
+            return new MoodSummary(0, 0.0);
+        }
+        return new MoodSummary(
+                ((Number) result.get("journalCount")).longValue(),
+                ((Number) result.get("moodSum")).doubleValue());
+    }
+
+    @Override
+    public List<JournalEntry> findPageByUserId(String userId, PageCursor cursor, int limit) {
+        return mongoTemplate.find(KeysetQueries.newestFirst(userId, "date", cursor, limit), JournalEntry.class);
+    }
+
+    @Override
+    public JournalEntry upsertDailyEntry(String userId, Date date, ObjectId idIfCreated) {
+        Query query = dailyEntryQuery(userId, date);
+        Update update = newDailyEntry(idIfCreated, date);
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+        try {
+            return mongoTemplate.findAndModify(query, update, options, JournalEntry.class);
+        } catch (DuplicateKeyException e) {
+            // Lost the insert race on the unique (userId, date) index, so the entry exists now
+            return mongoTemplate.findAndModify(query, update, options, JournalEntry.class);
+        }
+    }
+
+    @Override
+    public List<JournalEntry> upsertDailyEntries(Map<DailyEntryKey, ObjectId> idsIfCreated) {
+        if (idsIfCreated.isEmpty()) {
+            return List.of();
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JournalEntry.class);
+        idsIfCreated.forEach((key, id) -> bulk.upsert(dailyEntryQuery(key.userId(), key.date()),
+                newDailyEntry(id, key.date())));
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            // Entries created concurrently by another writer exist now; anything else is a real failure
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY_ERROR)) {
+                throw e;
+            }
+        }
+
+        Query query = new Query(new Criteria().orOperator(idsIfCreated.keySet().stream()
+                .map(key -> Criteria.where("userId").is(key.userId()).and("date").is(key.date()))
+                .toArray(Criteria[]::new)));
+        query.fields().include("userId", "date");
+        return mongoTemplate.find(query, JournalEntry.class);
+    }
+
+    @Override
+    public JournalEntry addSnippet(String entryId, String snippetId, Double mood) {
+        Query query = new Query(Criteria.where("_id").is(entryId));
+        Object snippetIds = new Document("$concatArrays", List.of(SNIPPET_IDS, List.of(snippetId)));
+        return applySnippetChange(query, moodOf(mood), countOf(mood), snippetIds);
+    }
+
+    @Override
+    public JournalEntry removeSnippet(String entryId, String snippetId, Double mood) {
+        Query query = new Query(Criteria.where("_id").is(entryId)
+                .and("snippetIds").is(snippetId)
+                .and("snippetIds.1").exists(true));
+        Object snippetIds = new Document("$filter", new Document("input", SNIPPET_IDS)
+                .append("cond", new Document("$ne", Arrays.asList("$$this", snippetId))));
+        return applySnippetChange(query, -moodOf(mood), -countOf(mood), snippetIds);
+    }
+
+    @Override
+    public JournalEntry changeSnippetMood(String entryId, String snippetId, Double previousMood, Double newMood) {
+        Query query = new Query(Criteria.where("_id").is(entryId).and("snippetIds").is(snippetId));
+        return applySnippetChange(query, moodOf(newMood) - moodOf(previousMood),
+                countOf(newMood) - countOf(previousMood), SNIPPET_IDS);
+    }
+
+    @Override
+    public void addSnippets(Map<String, List<Snippet>> snippetsByEntryId) {
+        if (snippetsByEntryId.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JournalEntry.class);
+        snippetsByEntryId.forEach((entryId, snippets) -> {
+            double moodDelta = 0.0;
+            int countDelta = 0;
+            List<String> snippetIds = new ArrayList<>(snippets.size());
+            for (Snippet snippet : snippets) {
+                moodDelta += moodOf(snippet.getMood());
+                countDelta += countOf(snippet.getMood());
+                snippetIds.add(snippet.getId());
+            }
+            bulk.updateOne(new Query(Criteria.where("_id").is(entryId)), snippetChange(moodDelta, countDelta,
+                    new Document("$concatArrays", List.of(SNIPPET_IDS, snippetIds))));
+        });
+        bulk.execute();
+    }
+
+    @Override
+    public JournalEntry updateEntry(String entryId, JournalEntry changes, Date updatedAt) {
+        // Values are wrapped in $literal, so text starting with $ is not read as a field path
+        Document fields = new Document("updatedAt", literal(updatedAt));
+        if (changes.getTitle() != null) {
+            fields.append("title", literal(changes.getTitle()));
+        }
+        if (changes.getSummary() != null) {
+            fields.append("summary", literal(changes.getSummary()));
+        }
+        if (changes.getInsights() != null) {
+            Object insights = mongoTemplate.getConverter().convertToMongoType(changes.getInsights());
+            fields.append("insights", literal(insights));
+        }
+        if (changes.getDailyMood() != null) {
+            // Entries written before the aggregate existed have no mood count and are seeded on their next snippet change
+            Document noMoodCount = new Document("$eq", Arrays.asList(
+                    new Document("$ifNull", Arrays.asList("$moodCount", null)), null));
+            fields.append("dailyMood", literal(changes.getDailyMood()))
+                    .append("moodSum", new Document("$cond", Arrays.asList(
+                            noMoodCount,
+                            "$moodSum",
+                            new Document("$multiply", Arrays.asList("$moodCount", changes.getDailyMood())))));
+        }
+
+        AggregationOperation set = context -> new Document("$set", fields);
+        return mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(entryId)),
+                AggregationUpdate.from(List.of(set)), FindAndModifyOptions.options().returnNew(false),
+                JournalEntry.class);
+    }
+
+    @Override
+    public void saveSummary(String entryId, String summary, String fingerprint) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(entryId)),
+                new Update().set("summary", summary).set("summaryFingerprint", fingerprint), JournalEntry.class);
+    }
+
+    @Override
+    public void saveInsights(String entryId, Insights insights, String fingerprint) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(entryId)),
+                new Update().set("insights", insights).set("insightsFingerprint", fingerprint), JournalEntry.class);
+    }
+
+    @Override
+    public void saveReview(String entryId, String summary, Insights insights, String fingerprint) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(entryId)), new Update()
+                .set("summary", summary)
+                .set("summaryFingerprint", fingerprint)
+                .set("insights", insights)
+                .set("insightsFingerprint", fingerprint), JournalEntry.class);
+    }
+
+    private Query dailyEntryQuery(String userId, Date date) {
+        return new Query(Criteria.where("userId").is(userId).and("date").is(date));
+    }
+
+    private Update newDailyEntry(ObjectId id, Date date) {
+        return new Update()
+                .setOnInsert("_id", id)
+                .setOnInsert("snippetIds", List.of())
+                .setOnInsert("moodSum", 0.0)
+                .setOnInsert("moodCount", 0)
+                .setOnInsert("updatedAt", date);
+    }
+
+    private JournalEntry applySnippetChange(Query query, double moodDelta, int countDelta, Object snippetIds) {
+        return mongoTemplate.findAndModify(query, snippetChange(moodDelta, countDelta, snippetIds),
+                FindAndModifyOptions.options().returnNew(true), JournalEntry.class);
+    }
+
+    /**
+     * Applies a delta to the running mood aggregate and re-derives dailyMood in the same update.
+     * Entries written before the aggregate existed are seeded from their daily mood and snippet count.
+     */
+    private AggregationUpdate snippetChange(double moodDelta, int countDelta, Object snippetIds) {
+        Document snippetCount = new Document("$size", SNIPPET_IDS);
+        Document legacySum = new Document("$multiply",
+                Arrays.asList(new Document("$ifNull", Arrays.asList("$dailyMood", 0.0)), snippetCount));
+
+        AggregationOperation applyDelta = context -> new Document("$set", new Document()
+                .append("moodSum", new Document("$add", Arrays.asList(
+                        new Document("$ifNull", Arrays.asList("$moodSum", legacySum)), moodDelta)))
+                .append("moodCount", new Document("$add", Arrays.asList(
+                        new Document("$ifNull", Arrays.asList("$moodCount", snippetCount)), countDelta)))
+                .append("snippetIds", snippetIds));
+        AggregationOperation deriveDailyMood = context -> new Document("$set", new Document("dailyMood",
+                new Document("$cond", Arrays.asList(
+                        new Document("$gt", Arrays.asList("$moodCount", 0)),
+                        new Document("$divide", Arrays.asList("$moodSum", "$moodCount")),
+                        null))));
+
+        return AggregationUpdate.from(List.of(applyDelta, deriveDailyMood));
+    }
+
+    private static Document literal(Object value) {
+        return new Document("$literal", value);
+    }
+
+    // Snippets without a mood do not count towards the daily mood
+    private static double moodOf(Double mood) {
+        return mood != null ? mood : 0.0;
+    }
+
+    private static int countOf(Double mood) {
+        return mood != null ? 1 : 0;
+    }
+
+    private Criteria windowCriteria(String userId, Date from, Date to) {
+        return Criteria.where("userId").is(userId)
+                .and("date").gte(from).lt(to);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.journal_microservice.repository;
+
+import com.example.journal_microservice.dto.PageCursor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Builds keyset pagination queries over (dateField, id) in descending order.
+ * Each page is a bounded index range scan, so deep pages cost the same as the first one.
+ */
+final class KeysetQueries {
+
+    private KeysetQueries() {
+    }
+
+    /**
+     * @param userId Owner of the documents
+     * @param dateField Date field of the (userId, dateField, _id) index
+     * @param cursor Last item of the previous page, or null for the first page
+     * @param limit Maximum number of items to fetch
+     */
+    static Query newestFirst(String userId, String dateField, PageCursor cursor, int limit) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (cursor != null) {
+            criteria = criteria.orOperator(
+                    Criteria.where(dateField).lt(cursor.date()),
+                    Criteria.where(dateField).is(cursor.date()).and("id").lt(cursor.id()));
+        }
+        return new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, dateField, "id"))
+                .limit(limit);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.journal_microservice.repository;
+
+import com.example.journal_microservice.model.OutboxEvent;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends MongoRepository<OutboxEvent, String> {
+    long countByStatus(OutboxEvent.Status status);
+
+    Optional<OutboxEvent> findFirstByStatusOrderByCreatedAtAsc(OutboxEvent.Status status);
+}
@@ -4,16 +4,23 @@ import com.example.journal_microservice.model.Snippet;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface SnippetRepository extends MongoRepository<Snippet, String> {
+public interface SnippetRepository extends MongoRepository<Snippet, String>, SnippetRepositoryCustom {
 
     List<Snippet> findByUserId(String userId);
 
+    List<Snippet> findByUserIdAndTimestampGreaterThanEqualAndTimestampLessThan(String userId, Date from, Date to);
+
+    boolean existsByUserId(String userId);
+
     Optional<Snippet> findByUserIdAndId(String userId, String id);
 
     List<Snippet> findByJournalEntryId(String journalId);
 
+    long deleteByJournalEntryId(String journalEntryId);
+
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.journal_microservice.repository;
+
+import com.example.journal_microservice.dto.PageCursor;
+import com.example.journal_microservice.model.Snippet;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Custom snippet queries implemented with {@link org.springframework.data.mongodb.core.MongoTemplate}
+ */
+public interface SnippetRepositoryCustom {
+
+    /**
+     * Returns up to limit snippets of a user older than the cursor, newest first
+     */
+    List<Snippet> findPageByUserId(String userId, PageCursor cursor, int limit);
+
+    /**
+     * Streams snippets through a server-side cursor, optionally restricted to one user and
+     * to snippets with a timestamp at or after since. The stream must be closed by the caller.
+     */
+    Stream<Snippet> streamSnippets(String userId, Date since, int batchSize);
+
+    /**
+     * Returns the snippets of a journal entry with only their ID and word count loaded
+     */
+    List<Snippet> findWordCountsByJournalEntryId(String journalEntryId);
+}
@@ -0,0 +1,43 @@
+package com.example.journal_microservice.repository;
+
+import com.example.journal_microservice.dto.PageCursor;
+import com.example.journal_microservice.model.Snippet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class SnippetRepositoryImpl implements SnippetRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Snippet> findPageByUserId(String userId, PageCursor cursor, int limit) {
+        return mongoTemplate.find(KeysetQueries.newestFirst(userId, "timestamp", cursor, limit), Snippet.class);
+    }
+
+    @Override
+    public Stream<Snippet> streamSnippets(String userId, Date since, int batchSize) {
+        Criteria criteria = new Criteria();
+        if (userId != null) {
+            criteria = criteria.and("userId").is(userId);
+        }
+        if (since != null) {
+            criteria = criteria.and("timestamp").gte(since);
+        }
+        Query query = new Query(criteria).cursorBatchSize(batchSize);
+        return mongoTemplate.stream(query, Snippet.class);
+    }
+
+    @Override
+    public List<Snippet> findWordCountsByJournalEntryId(String journalEntryId) {
+        Query query = new Query(Criteria.where("journalEntryId").is(journalEntryId));
+        query.fields().include("wordCount");
+        return mongoTemplate.find(query, Snippet.class);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.journal_microservice.repository;
+
+import com.example.journal_microservice.model.UserStatistics;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserStatisticsRepository extends MongoRepository<UserStatistics, String> {
+}
@@ -0,0 +1,175 @@
+package com.example.journal_microservice.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Immutable day-activity bitmap with one bit per day, starting at the user's first active day.
+ * Bit {@code i} of the bitmap is day {@code origin + i}; it is stored as little-endian bytes
+ * so a year of activity fits in 46 bytes.
+ */
+public final class ActivityBitmap {
+
+    private static final ActivityBitmap EMPTY = new ActivityBitmap(0, new long[0]);
+
+    private final long origin; // Epoch day of bit 0
+    private final long[] words;
+
+    private ActivityBitmap(long origin, long[] words) {
+        this.origin = origin;
+        this.words = words;
+    }
+
+    public static ActivityBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Restores a bitmap from its stored form
+     * @param origin Epoch day of the first bit, may be null for users without activity
+     * @param bytes Little-endian bitmap bytes, may be null
+     * @return The bitmap
+     */
+    public static ActivityBitmap of(Long origin, byte[] bytes) {
+        if (origin == null || bytes == null || bytes.length == 0) {
+            return EMPTY;
+        }
+        long[] words = new long[(bytes.length + 7) / 8];
+        for (int i = 0; i < bytes.length; i++) {
+            words[i >>> 3] |= (bytes[i] & 0xFFL) << ((i & 7) * 8);
+        }
+        return new ActivityBitmap(origin, words);
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long origin() {
+        return origin;
+    }
+
+    /**
+     * Serializes the bitmap, dropping trailing bytes without any active day
+     */
+    public byte[] toBytes() {
+        int length = words.length * 8;
+        while (length > 0 && byteAt(length - 1) == 0) {
+            length--;
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = byteAt(i);
+        }
+        return bytes;
+    }
+
+    public boolean isActive(LocalDate day) {
+        long index = day.toEpochDay() - origin;
+        if (index < 0 || (index >>> 6) >= words.length) {
+            return false;
+        }
+        return (words[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    /**
+     * @return A bitmap with the given day marked active, or this bitmap if it already is
+     */
+    public ActivityBitmap with(LocalDate day) {
+        if (isActive(day)) {
+            return this;
+        }
+        long epochDay = day.toEpochDay();
+        ActivityBitmap base = isEmpty() ? new ActivityBitmap(epochDay, new long[0]) : this;
+        if (epochDay < base.origin) {
+            base = base.rebase(epochDay);
+        }
+        long index = epochDay - base.origin;
+        long[] updated = Arrays.copyOf(base.words, Math.max(base.words.length, (int) (index >>> 6) + 1));
+        updated[(int) (index >>> 6)] |= 1L << index;
+        return new ActivityBitmap(base.origin, updated);
+    }
+
+    /**
+     * @return A bitmap with the given day cleared, or this bitmap if it was not active
+     */
+    public ActivityBitmap without(LocalDate day) {
+        if (!isActive(day)) {
+            return this;
+        }
+        long index = day.toEpochDay() - origin;
+        long[] updated = words.clone();
+        updated[(int) (index >>> 6)] &= ~(1L << index);
+        return new ActivityBitmap(origin, updated);
+    }
+
+    /**
+     * Counts the consecutive active days ending at the given day, scanning a word at a time
+     * @param day The last day of the run
+     * @return Length of the run, 0 if the day itself is not active
+     */
+    public int runEndingAt(LocalDate day) {
+        long index = day.toEpochDay() - origin;
+        if (index < 0) {
+            return 0;
+        }
+        long wordIndex = index >>> 6;
+        int bit = (int) (index & 63);
+        int run = 0;
+        while (wordIndex >= 0) {
+            long word = wordIndex < words.length ? words[(int) wordIndex] : 0L;
+            // Move the bit of the current day to the top; the run is the number of leading ones
+            int ones = Long.numberOfLeadingZeros(~(word << (63 - bit)));
+            run += ones;
+            if (ones < bit + 1) {
+                return run;
+            }
+            wordIndex--;
+            bit = 63;
+        }
+        return run;
+    }
+
+    /**
+     * Current streak as shown to the user: the run ending today, or ending yesterday
+     * if nothing has been written yet today
+     */
+    public int currentStreak(LocalDate today) {
+        int streak = runEndingAt(today);
+        return streak > 0 ? streak : runEndingAt(today.minusDays(1));
+    }
+
+    /**
+     * @return Activity of {@code days} consecutive days starting at {@code from}
+     */
+    public boolean[] range(LocalDate from, int days) {
+        boolean[] active = new boolean[days];
+        for (int i = 0; i < days; i++) {
+            active[i] = isActive(from.plusDays(i));
+        }
+        return active;
+    }
+
+    private ActivityBitmap rebase(long newOrigin) {
+        long shift = origin - newOrigin;
+        long[] shifted = new long[(int) ((words.length * 64L + shift + 63) >>> 6)];
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                long index = w * 64L + Long.numberOfTrailingZeros(word) + shift;
+                shifted[(int) (index >>> 6)] |= 1L << index;
+                word &= word - 1;
+            }
+        }
+        return new ActivityBitmap(newOrigin, shifted);
+    }
+
+    private byte byteAt(int i) {
+        return (byte) (words[i >>> 3] >>> ((i & 7) * 8));
+    }
+}
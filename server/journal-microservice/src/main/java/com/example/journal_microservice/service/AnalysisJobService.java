@@ -0,0 +1,360 @@
+package com.example.journal_microservice.service;
+
+import com.example.journal_microservice.exception.AnalysisJobNotFoundException;
+import com.example.journal_microservice.exception.JournalEntryNotFoundException;
+import com.example.journal_microservice.exception.LLMOverloadedException;
+import com.example.journal_microservice.model.AnalysisJob;
+import com.example.journal_microservice.model.Insights;
+import com.example.journal_microservice.repository.AnalysisJobRepository;
+import com.example.journal_microservice.repository.JournalEntryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates summaries and insights in the background, so a request only enqueues a job
+ * instead of holding a servlet thread for the whole LLM round trip.
+ * Jobs are claimed from MongoDB with a lease on nextAttemptAt and run on a bounded worker pool.
+ * An instance only claims as many jobs as it has idle workers, so the queue is shared fairly
+ * between instances and a job of a crashed instance is picked up again once its lease expires.
+ * The lease of a running job is renewed periodically, so a long map-reduce summary that waits for
+ * bulkhead permits between its calls is never claimed a second time by another instance.
+ * Every claim counts as an attempt and carries a new lease token that all later writes of the
+ * worker match on, so a job that keeps crashing its worker is given up, and a worker whose lease
+ * was taken over cannot overwrite the new owner's result.
+ */
+@Service
+public class AnalysisJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisJobService.class);
+
+    private static final List<AnalysisJob.Status> ACTIVE_STATUSES =
+            List.of(AnalysisJob.Status.PENDING, AnalysisJob.Status.RUNNING);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private AnalysisJobRepository analysisJobRepository;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private JournalAnalysisService journalAnalysisService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${llm.jobs.enabled:true}")
+    private boolean enabled;
+
+    @Value("${llm.jobs.workers:4}")
+    private int workers;
+
+    @Value("${llm.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${llm.jobs.retry-delay-ms:10000}")
+    private long retryDelayMs;
+
+    // Renewed while the job runs, so it only expires if the instance stops renewing it
+    @Value("${llm.jobs.lease-ms:120000}")
+    private long leaseMs;
+
+    private ExecutorService executor;
+    private Semaphore idleWorkers;
+    private final Set<String> runningLeaseTokens = ConcurrentHashMap.newKeySet();
+    private final AtomicLong queuedJobs = new AtomicLong();
+    private final AtomicLong oldestQueuedAgeSeconds = new AtomicLong();
+    private Timer waitTimer;
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "analysis-job-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        idleWorkers = new Semaphore(workers);
+
+        Gauge.builder("llm.jobs.queued", queuedJobs, AtomicLong::get)
+                .description("Summary and insights jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("llm.jobs.queued.age.seconds", oldestQueuedAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest job waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("llm.jobs.running", idleWorkers, semaphore -> workers - semaphore.availablePermits())
+                .description("Jobs running on this instance's workers")
+                .register(meterRegistry);
+        waitTimer = Timer.builder("llm.jobs.wait")
+                .description("Time from enqueueing a job until a worker starts it")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Enqueues the generation of a journal entry's summary or insights and starts it right away
+     * if a worker is idle
+     * @param journalEntryId The journal entry to analyze
+     * @param type What to generate
+     * @param force Generate even if the stored result is up to date
+     * @return The queued job
+     */
+    public AnalysisJob enqueue(String journalEntryId, AnalysisJob.Type type, boolean force) {
+        if (!journalEntryRepository.existsById(journalEntryId)) {
+            throw new JournalEntryNotFoundException("Journal entry not found with ID: " + journalEntryId);
+        }
+        AnalysisJob job = analysisJobRepository.save(new AnalysisJob(journalEntryId, type, force));
+        queuedJobs.incrementAndGet();
+        logger.debug("Queued {} job {} for journal entry {}", type, job.getId(), journalEntryId);
+        dispatch();
+        return job;
+    }
+
+    public AnalysisJob getJob(String jobId) {
+        return analysisJobRepository.findById(jobId)
+                .orElseThrow(() -> new AnalysisJobNotFoundException("Analysis job not found with ID: " + jobId));
+    }
+
+    @Scheduled(fixedDelayString = "${llm.jobs.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            failAbandonedJobs();
+            dispatch();
+            updateQueueMetrics();
+        } catch (Exception e) {
+            logger.error("Analysis job dispatch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Extends the lease of every job running on this instance's workers
+     */
+    @Scheduled(fixedDelayString = "${llm.jobs.lease-renewal-interval-ms:30000}")
+    public void renewLeases() {
+        if (runningLeaseTokens.isEmpty()) {
+            return;
+        }
+        try {
+            Query running = new Query(Criteria.where("leaseToken").in(runningLeaseTokens)
+                    .and("status").is(AnalysisJob.Status.RUNNING));
+            mongoTemplate.updateMulti(running,
+                    new Update().set("nextAttemptAt", new Date(System.currentTimeMillis() + leaseMs)),
+                    AnalysisJob.class);
+        } catch (Exception e) {
+            logger.error("Renewing analysis job leases failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Claims due jobs while workers are idle and hands them to the workers
+     */
+    void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        while (idleWorkers.tryAcquire()) {
+            AnalysisJob job;
+            try {
+                job = claimJob();
+            } catch (RuntimeException e) {
+                idleWorkers.release();
+                throw e;
+            }
+            if (job == null) {
+                idleWorkers.release();
+                return;
+            }
+            runningLeaseTokens.add(job.getLeaseToken());
+            executor.execute(() -> {
+                try {
+                    run(job);
+                } finally {
+                    runningLeaseTokens.remove(job.getLeaseToken());
+                    idleWorkers.release();
+                }
+                // A finished worker immediately looks for the next job instead of waiting for the poll
+                try {
+                    dispatch();
+                } catch (Exception e) {
+                    logger.error("Analysis job dispatch failed: {}", e.getMessage(), e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Claims the oldest due job, including running jobs whose worker stopped before finishing them,
+     * as long as it has attempts left
+     * @return The claimed job, or null if no job is due
+     */
+    public AnalysisJob claimJob() {
+        Date now = new Date();
+        Query due = new Query(Criteria.where("status").in(ACTIVE_STATUSES)
+                .and("nextAttemptAt").lte(now)
+                .and("attempts").lt(maxAttempts))
+                .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"));
+        Update lease = new Update()
+                .set("status", AnalysisJob.Status.RUNNING)
+                .set("startedAt", now)
+                .set("nextAttemptAt", new Date(now.getTime() + leaseMs))
+                .set("leaseToken", UUID.randomUUID().toString())
+                .inc("attempts", 1);
+        return mongoTemplate.findAndModify(due, lease, FindAndModifyOptions.options().returnNew(true),
+                AnalysisJob.class);
+    }
+
+    /**
+     * Gives up on running jobs whose lease expired on their last attempt, i.e. whose workers
+     * stopped every time they ran them
+     */
+    public void failAbandonedJobs() {
+        Query abandoned = new Query(Criteria.where("status").is(AnalysisJob.Status.RUNNING)
+                .and("nextAttemptAt").lte(new Date())
+                .and("attempts").gte(maxAttempts));
+        long failed = mongoTemplate.updateMulti(abandoned, new Update()
+                .set("status", AnalysisJob.Status.FAILED)
+                .set("lastError", "Worker stopped before finishing the job")
+                .set("finishedAt", new Date())
+                .unset("leaseToken"), AnalysisJob.class).getModifiedCount();
+        if (failed > 0) {
+            logger.error("Gave up on {} analysis jobs whose workers stopped on every attempt", failed);
+        }
+    }
+
+    /**
+     * Generates the result of a claimed job and records it on the job
+     */
+    public void run(AnalysisJob job) {
+        if (job.getAttempts() == 1) {
+            waitTimer.record(job.getStartedAt().getTime() - job.getCreatedAt().getTime(), TimeUnit.MILLISECONDS);
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "completed";
+        try {
+            Update update = new Update()
+                    .set("status", AnalysisJob.Status.COMPLETED)
+                    .set("finishedAt", new Date())
+                    .unset("leaseToken");
+            switch (job.getType()) {
+                case SUMMARY -> {
+                    String summary = journalAnalysisService.getSummary(job.getJournalEntryId(), job.isForce(),
+                            Bulkhead.Priority.BACKGROUND);
+                    if (summary == null) {
+                        throw new IllegalStateException("LLM service returned no summary");
+                    }
+                    update.set("summary", summary);
+                }
+                case INSIGHTS -> {
+                    Insights insights = journalAnalysisService.getInsights(job.getJournalEntryId(), job.isForce(),
+                            Bulkhead.Priority.BACKGROUND);
+                    if (insights == null) {
+                        throw new IllegalStateException("LLM service returned no insights");
+                    }
+                    update.set("insights", insights);
+                }
+            }
+            if (!write(job, update)) {
+                outcome = "lost";
+            }
+        } catch (JournalEntryNotFoundException e) {
+            // Deleted while queued; retrying cannot help
+            outcome = finish(job, AnalysisJob.Status.FAILED, e) ? "failed" : "lost";
+        } catch (LLMOverloadedException e) {
+            // Shed to keep interactive requests responsive; not the job's fault, so no attempt is used up
+            outcome = defer(job, e) ? "deferred" : "lost";
+        } catch (Exception e) {
+            outcome = fail(job, e);
+        } finally {
+            sample.stop(meterRegistry.timer("llm.jobs.processing", "type", job.getType().name().toLowerCase(),
+                    "outcome", outcome));
+        }
+    }
+
+    private String fail(AnalysisJob job, Exception error) {
+        if (job.getAttempts() >= maxAttempts) {
+            logger.error("Giving up on {} job {} after {} attempts: {}", job.getType(), job.getId(),
+                    job.getAttempts(), error.getMessage());
+            return finish(job, AnalysisJob.Status.FAILED, error) ? "failed" : "lost";
+        }
+        logger.warn("{} job {} failed, retrying in {} ms: {}", job.getType(), job.getId(), retryDelayMs,
+                error.getMessage());
+        boolean written = write(job, new Update()
+                .set("status", AnalysisJob.Status.PENDING)
+                .set("lastError", error.getMessage())
+                .set("nextAttemptAt", new Date(System.currentTimeMillis() + retryDelayMs))
+                .unset("leaseToken"));
+        return written ? "retried" : "lost";
+    }
+
+    private boolean defer(AnalysisJob job, LLMOverloadedException overload) {
+        logger.debug("{} job {} deferred by {} s: {}", job.getType(), job.getId(), overload.getRetryAfterSeconds(),
+                overload.getMessage());
+        // Shedding is not the job's fault, so the claim's attempt is given back
+        return write(job, new Update()
+                .set("status", AnalysisJob.Status.PENDING)
+                .set("nextAttemptAt", new Date(System.currentTimeMillis()
+                        + TimeUnit.SECONDS.toMillis(overload.getRetryAfterSeconds())))
+                .inc("attempts", -1)
+                .unset("leaseToken"));
+    }
+
+    private boolean finish(AnalysisJob job, AnalysisJob.Status status, Exception error) {
+        return write(job, new Update()
+                .set("status", status)
+                .set("lastError", error.getMessage())
+                .set("finishedAt", new Date())
+                .unset("leaseToken"));
+    }
+
+    /**
+     * Applies the update only while the job is still held by this claim
+     * @return False if the lease expired and another worker claimed the job since
+     */
+    private boolean write(AnalysisJob job, Update update) {
+        Query claimed = new Query(Criteria.where("_id").is(job.getId()).and("leaseToken").is(job.getLeaseToken()));
+        if (mongoTemplate.updateFirst(claimed, update, AnalysisJob.class).getMatchedCount() == 0) {
+            logger.warn("Discarded the outcome of {} job {}, its lease was taken over", job.getType(), job.getId());
+            return false;
+        }
+        return true;
+    }
+
+    private void updateQueueMetrics() {
+        queuedJobs.set(analysisJobRepository.countByStatus(AnalysisJob.Status.PENDING));
+        oldestQueuedAgeSeconds.set(analysisJobRepository
+                .findFirstByStatusOrderByCreatedAtAsc(AnalysisJob.Status.PENDING)
+                .map(job -> (System.currentTimeMillis() - job.getCreatedAt().getTime()) / 1000)
+                .orElse(0L));
+    }
+}
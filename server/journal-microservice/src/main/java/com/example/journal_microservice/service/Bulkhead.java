@@ -0,0 +1,165 @@
+package com.example.journal_microservice.service;
+
+import com.example.journal_microservice.exception.LLMOverloadedException;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Limits how many calls run at once, so slow calls cannot take every request thread with them.
+ * Interactive calls may use all permits; background calls only up to their own limit and never
+ * while an interactive call is waiting. A call that finds no permit waits in a bounded queue
+ * for a limited time and is otherwise rejected right away with a hint when to retry.
+ */
+public class Bulkhead {
+
+    public enum Priority {
+        INTERACTIVE,
+        BACKGROUND
+    }
+
+    // Weight of the latest call in the average call duration used for the retry hint
+    private static final double DURATION_WEIGHT = 0.2;
+
+    private final int maxConcurrent;
+    private final int maxBackgroundConcurrent;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Priority, Condition> turns = new EnumMap<>(Priority.class);
+    private final Map<Priority, Integer> inFlight = new EnumMap<>(Priority.class);
+    private final Map<Priority, Integer> queued = new EnumMap<>(Priority.class);
+    private final Map<Priority, Long> rejected = new EnumMap<>(Priority.class);
+    private double averageCallMillis;
+
+    /**
+     * @param maxConcurrent Calls running at once
+     * @param maxBackgroundConcurrent Background calls running at once, at most maxConcurrent
+     * @param maxQueued Calls of each priority waiting for a permit
+     * @param maxWaitMs How long a call waits for a permit before it is rejected
+     */
+    public Bulkhead(int maxConcurrent, int maxBackgroundConcurrent, int maxQueued, long maxWaitMs) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxBackgroundConcurrent = Math.min(maxBackgroundConcurrent, maxConcurrent);
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        for (Priority priority : Priority.values()) {
+            turns.put(priority, lock.newCondition());
+            inFlight.put(priority, 0);
+            queued.put(priority, 0);
+            rejected.put(priority, 0L);
+        }
+    }
+
+    /**
+     * Runs the call once a permit is free
+     * @param priority Priority class of the call
+     * @param call The call to run
+     * @return The result of the call
+     * @throws LLMOverloadedException If the queue is full or no permit became free in time
+     */
+    public <T> T execute(Priority priority, Supplier<T> call) {
+        acquire(priority);
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            release(priority, System.nanoTime() - start);
+        }
+    }
+
+    public int getInFlight(Priority priority) {
+        return read(inFlight, priority);
+    }
+
+    public int getQueued(Priority priority) {
+        return read(queued, priority);
+    }
+
+    public long getRejected(Priority priority) {
+        return read(rejected, priority);
+    }
+
+    private void acquire(Priority priority) {
+        lock.lock();
+        try {
+            if (canStart(priority)) {
+                inFlight.merge(priority, 1, Integer::sum);
+                return;
+            }
+            if (queued.get(priority) >= maxQueued) {
+                throw reject(priority, "queue full");
+            }
+            queued.merge(priority, 1, Integer::sum);
+            try {
+                long remainingNanos = maxWaitNanos;
+                while (!canStart(priority)) {
+                    if (remainingNanos <= 0) {
+                        throw reject(priority, "no permit within " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms");
+                    }
+                    remainingNanos = turns.get(priority).awaitNanos(remainingNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject(priority, "interrupted while waiting");
+            } finally {
+                queued.merge(priority, -1, Integer::sum);
+                // Background calls may have been held back only by this interactive call waiting
+                if (priority == Priority.INTERACTIVE && queued.get(Priority.INTERACTIVE) == 0) {
+                    turns.get(Priority.BACKGROUND).signalAll();
+                }
+            }
+            inFlight.merge(priority, 1, Integer::sum);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(Priority priority, long durationNanos) {
+        lock.lock();
+        try {
+            inFlight.merge(priority, -1, Integer::sum);
+            double durationMillis = durationNanos / 1_000_000.0;
+            averageCallMillis = averageCallMillis == 0
+                    ? durationMillis
+                    : averageCallMillis + DURATION_WEIGHT * (durationMillis - averageCallMillis);
+            turns.get(queued.get(Priority.INTERACTIVE) > 0 ? Priority.INTERACTIVE : Priority.BACKGROUND).signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean canStart(Priority priority) {
+        int running = inFlight.get(Priority.INTERACTIVE) + inFlight.get(Priority.BACKGROUND);
+        if (running >= maxConcurrent) {
+            return false;
+        }
+        return priority == Priority.INTERACTIVE
+                || (inFlight.get(Priority.BACKGROUND) < maxBackgroundConcurrent
+                        && queued.get(Priority.INTERACTIVE) == 0);
+    }
+
+    private LLMOverloadedException reject(Priority priority, String reason) {
+        rejected.merge(priority, 1L, Long::sum);
+        // Roughly the time until the calls ahead of a retry have finished
+        int ahead = queued.get(Priority.INTERACTIVE) + queued.get(Priority.BACKGROUND) + 1;
+        long retryAfterSeconds = Math.max(1,
+                (long) Math.ceil(averageCallMillis * ahead / maxConcurrent / 1000));
+        return new LLMOverloadedException("LLM service is busy (" + reason + "), retry in "
+                + retryAfterSeconds + " s", retryAfterSeconds);
+    }
+
+    private <N extends Number> N read(Map<Priority, N> counts, Priority priority) {
+        lock.lock();
+        try {
+            return counts.get(priority);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.journal_microservice.service;
+
+import com.example.journal_microservice.client.LLMRestClient;
+import com.example.journal_microservice.dto.InsightsResponse;
+import com.example.journal_microservice.dto.JournalReview;
+import com.example.journal_microservice.dto.SnippetContentsResponse;
+import com.example.journal_microservice.exception.JournalEntryNotFoundException;
+import com.example.journal_microservice.model.Insights;
+import com.example.journal_microservice.model.JournalEntry;
+import com.example.journal_microservice.model.Snippet;
+import com.example.journal_microservice.repository.JournalEntryRepository;
+import com.example.journal_microservice.repository.SnippetRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Generates the summary and insights of a journal entry with the LLM service.
+ * Results are stored on the entry together with the fingerprint of the snippets they were
+ * generated from; as long as the snippets are unchanged the stored result is returned
+ * instead of calling the LLM again. Concurrent requests for the same entry and snippets share
+ * one LLM call, and LLM calls run through a bulkhead that keeps interactive requests ahead of
+ * background jobs and sheds load once the LLM service cannot keep up. Days with more snippet
+ * text than fits into one prompt are summarized chunk by chunk in parallel.
+ */
+@Service
+public class JournalAnalysisService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalAnalysisService.class);
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private SnippetRepository snippetRepository;
+
+    @Autowired
+    private LLMRestClient llmRestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${llm.single-flight.max-in-flight:1000}")
+    private int maxInFlight;
+
+    @Value("${llm.bulkhead.max-concurrent:8}")
+    private int maxConcurrent;
+
+    @Value("${llm.bulkhead.background-max-concurrent:4}")
+    private int maxBackgroundConcurrent;
+
+    @Value("${llm.bulkhead.max-queued:20}")
+    private int maxQueued;
+
+    @Value("${llm.bulkhead.max-wait-ms:2000}")
+    private long maxWaitMs;
+
+    @Value("${llm.summary.chunk-max-tokens:2000}")
+    private int chunkMaxTokens;
+
+    @Value("${llm.summary.fan-out:4}")
+    private int summaryFanOut;
+
+    private record LlmCall(String journalId, String fingerprint) {
+    }
+
+    private SingleFlight<LlmCall, String> summaryCalls;
+    private SingleFlight<LlmCall, Insights> insightsCalls;
+    private SingleFlight<LlmCall, JournalReview> reviewCalls;
+    private Bulkhead bulkhead;
+    private ExecutorService summaryExecutor;
+    private MapReduceSummarizer summarizer;
+
+    @PostConstruct
+    void createCallLimits() {
+        summaryCalls = new SingleFlight<>(maxInFlight,
+                meterRegistry.counter("llm.requests.coalesced", "operation", "summary"));
+        insightsCalls = new SingleFlight<>(maxInFlight,
+                meterRegistry.counter("llm.requests.coalesced", "operation", "insights"));
+        reviewCalls = new SingleFlight<>(maxInFlight,
+                meterRegistry.counter("llm.requests.coalesced", "operation", "review"));
+
+        bulkhead = new Bulkhead(maxConcurrent, maxBackgroundConcurrent, maxQueued, maxWaitMs);
+        for (Bulkhead.Priority priority : Bulkhead.Priority.values()) {
+            String tag = priority.name().toLowerCase();
+            Gauge.builder("llm.bulkhead.in.flight", bulkhead, b -> b.getInFlight(priority))
+                    .description("LLM calls currently running")
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+            Gauge.builder("llm.bulkhead.queued", bulkhead, b -> b.getQueued(priority))
+                    .description("LLM calls waiting for a permit")
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+            FunctionCounter.builder("llm.bulkhead.rejected", bulkhead, b -> b.getRejected(priority))
+                    .description("LLM calls rejected because the bulkhead was full")
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+        }
+
+        summaryExecutor = Executors.newFixedThreadPool(summaryFanOut, runnable -> {
+            Thread thread = new Thread(runnable, "summary-chunk-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        summarizer = new MapReduceSummarizer(chunkMaxTokens, summaryExecutor);
+    }
+
+    @PreDestroy
+    void stop() {
+        summaryExecutor.shutdownNow();
+    }
+
+    public String getSummary(String journalId, boolean force) {
+        return getSummary(journalId, force, Bulkhead.Priority.INTERACTIVE);
+    }
+
+    public Insights getInsights(String journalId, boolean force) {
+        return getInsights(journalId, force, Bulkhead.Priority.INTERACTIVE);
+    }
+
+    /**
+     * Returns the summary of a journal entry, generating it only if its snippets changed since the last one
+     * @param journalId The journal entry to summarize
+     * @param force Generate a new summary even if the stored one is up to date
+     * @param priority Priority of the LLM call in the bulkhead
+     * @return The summary, or null if none is stored and the LLM service could not generate one
+     */
+    public String getSummary(String journalId, boolean force, Bulkhead.Priority priority) {
+        JournalEntry journalEntry = findJournalEntry(journalId);
+        List<Snippet> snippets = SnippetFingerprint.ordered(snippetRepository.findByJournalEntryId(journalId));
+        String fingerprint = SnippetFingerprint.of(snippets);
+
+        if (!force && journalEntry.getSummary() != null && fingerprint.equals(journalEntry.getSummaryFingerprint())) {
+            recordLookup("summary", "hit");
+            return journalEntry.getSummary();
+        }
+        recordLookup("summary", "miss");
+
+        return summaryCalls.execute(new LlmCall(journalId, fingerprint), () -> {
+            // Every chunk call takes its own permit, the caller holds none while the chunks run
+            String summary = summarizer.summarize(contentsOf(snippets), contents -> bulkhead.execute(priority,
+                    () -> llmRestClient.generateJournalSummary(contents)));
+            if (summary == null) {
+                logger.warn("No summary generated for journal entry {}", journalId);
+                return null;
+            }
+            journalEntryRepository.saveSummary(journalId, summary, fingerprint);
+            return summary;
+        });
+    }
+
+    /**
+     * Returns the insights of a journal entry, generating them only if its snippets changed since the last ones
+     * @param journalId The journal entry to analyze
+     * @param force Generate new insights even if the stored ones are up to date
+     * @param priority Priority of the LLM call in the bulkhead
+     * @return The insights, or null if none are stored and the LLM service could not generate them
+     */
+    public Insights getInsights(String journalId, boolean force, Bulkhead.Priority priority) {
+        JournalEntry journalEntry = findJournalEntry(journalId);
+        List<Snippet> snippets = SnippetFingerprint.ordered(snippetRepository.findByJournalEntryId(journalId));
+        String fingerprint = SnippetFingerprint.of(snippets);
+
+        if (!force && journalEntry.getInsights() != null
+                && fingerprint.equals(journalEntry.getInsightsFingerprint())) {
+            recordLookup("insights", "hit");
+            return journalEntry.getInsights();
+        }
+        recordLookup("insights", "miss");
+
+        return insightsCalls.execute(new LlmCall(journalId, fingerprint), () -> {
+            List<String> contents = promptContents(snippets, priority);
+            Map<String, Object> llmResult = contents != null
+                    ? bulkhead.execute(priority, () -> llmRestClient.generateJournalInsights(contents))
+                    : null;
+            if (llmResult == null) {
+                logger.warn("No insights generated for journal entry {}", journalId);
+                return null;
+            }
+            Insights insights = toInsights(llmResult);
+            journalEntryRepository.saveInsights(journalId, insights, fingerprint);
+            return insights;
+        });
+    }
+
+    /**
+     * Returns the summary and insights of a journal entry, generating both with a single LLM call
+     * unless both stored ones are up to date
+     * @param journalId The journal entry to review
+     * @param force Generate new ones even if the stored ones are up to date
+     * @return The summary and insights, or null if the LLM service could not generate them
+     */
+    public JournalReview getReview(String journalId, boolean force) {
+        JournalEntry journalEntry = findJournalEntry(journalId);
+        List<Snippet> snippets = SnippetFingerprint.ordered(snippetRepository.findByJournalEntryId(journalId));
+        String fingerprint = SnippetFingerprint.of(snippets);
+
+        if (!force && journalEntry.getSummary() != null && journalEntry.getInsights() != null
+                && fingerprint.equals(journalEntry.getSummaryFingerprint())
+                && fingerprint.equals(journalEntry.getInsightsFingerprint())) {
+            recordLookup("review", "hit");
+            return new JournalReview(journalEntry.getSummary(), journalEntry.getInsights());
+        }
+        recordLookup("review", "miss");
+
+        return reviewCalls.execute(new LlmCall(journalId, fingerprint), () -> {
+            List<String> contents = promptContents(snippets, Bulkhead.Priority.INTERACTIVE);
+            SnippetContentsResponse llmResult = contents != null
+                    ? bulkhead.execute(Bulkhead.Priority.INTERACTIVE,
+                            () -> llmRestClient.generateJournalReview(contents))
+                    : null;
+            if (llmResult == null) {
+                logger.warn("No review generated for journal entry {}", journalId);
+                return null;
+            }
+            JournalReview review = new JournalReview(llmResult.summary(), toInsights(llmResult));
+            journalEntryRepository.saveReview(journalId, review.summary(), review.insights(), fingerprint);
+            return review;
+        });
+    }
+
+    private JournalEntry findJournalEntry(String journalId) {
+        return journalEntryRepository.findById(journalId)
+                .orElseThrow(() -> new JournalEntryNotFoundException("Journal entry not found with ID: " + journalId));
+    }
+
+    /**
+     * Returns the snippet contents, reduced to partial summaries first if they do not fit into one prompt
+     * @return The contents to send, or null if a partial summary could not be generated
+     */
+    private List<String> promptContents(List<Snippet> snippets, Bulkhead.Priority priority) {
+        return summarizer.reduce(contentsOf(snippets), contents -> bulkhead.execute(priority,
+                () -> llmRestClient.generateJournalSummary(contents)));
+    }
+
+    private static List<String> contentsOf(List<Snippet> snippets) {
+        return snippets.stream().map(Snippet::getContent).toList();
+    }
+
+    static Insights toInsights(Map<String, Object> llmResult) {
+        Insights insights = new Insights();
+        insights.setAnalysis((String) llmResult.get("analysis"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, String> insightsData = (Map<String, String>) llmResult.get("insights");
+        if (insightsData != null) {
+            insights.setMoodPattern(insightsData.get("moodPattern"));
+            insights.setSuggestion(insightsData.get("suggestion"));
+            insights.setAchievement(insightsData.get("achievement"));
+            insights.setWellnessTip(insightsData.get("wellnessTip"));
+        }
+        return insights;
+    }
+
+    static Insights toInsights(SnippetContentsResponse llmResult) {
+        Insights insights = new Insights();
+        insights.setAnalysis(llmResult.analysis());
+        InsightsResponse insightsData = llmResult.insights();
+        if (insightsData != null) {
+            insights.setMoodPattern(insightsData.mood());
+            insights.setSuggestion(insightsData.suggestion());
+            insights.setAchievement(insightsData.achievement());
+            insights.setWellnessTip(insightsData.wellness());
+        }
+        return insights;
+    }
+
+    private void recordLookup(String operation, String result) {
+        meterRegistry.counter("llm.cache.lookups", "operation", operation, "result", result).increment();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.journal_microservice.service;
+
+import com.example.journal_microservice.model.JournalEntry;
+import com.example.journal_microservice.model.Snippet;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Merges journal entries that share a user and day, left behind by concurrent snippet writes
+ * before the unique (userId, date) index existed. The index cannot be built while they exist.
+ * The oldest entry of a day keeps its ID and receives the snippets of the others; its mood
+ * aggregate is recomputed from the merged snippets and the other entries are deleted.
+ * The IDs of deleted entries stay listed in user-microservice, which has no removal endpoint.
+ */
+@Service
+public class JournalEntryDeduplicationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalEntryDeduplicationService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserStatisticsService userStatisticsService;
+
+    /**
+     * Merges every group of journal entries with the same user and date into one entry
+     * @return Number of entries merged into another and deleted
+     */
+    public int mergeDuplicateEntries() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("userId").ne(null).and("date").ne(null)),
+                Aggregation.group("userId", "date").push("_id").as("ids").count().as("count"),
+                Aggregation.match(Criteria.where("count").gt(1)))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        List<Document> groups = mongoTemplate.aggregate(aggregation, JournalEntry.class, Document.class)
+                .getMappedResults();
+
+        int merged = 0;
+        Set<String> users = new LinkedHashSet<>();
+        for (Document group : groups) {
+            List<?> ids = group.getList("ids", Object.class);
+            List<JournalEntry> entries = mongoTemplate.find(
+                    new Query(Criteria.where("_id").in(ids)).with(Sort.by("_id")), JournalEntry.class);
+            if (entries.size() < 2) {
+                continue;
+            }
+            merge(entries.get(0), entries.subList(1, entries.size()));
+            merged += entries.size() - 1;
+            users.add(entries.get(0).getUserId());
+        }
+
+        users.forEach(userStatisticsService::rebuild);
+        if (merged > 0) {
+            logger.warn("Merged {} duplicate journal entries of {} users", merged, users.size());
+        }
+        return merged;
+    }
+
+    private void merge(JournalEntry survivor, List<JournalEntry> duplicates) {
+        List<String> duplicateIds = duplicates.stream().map(JournalEntry::getId).toList();
+        mongoTemplate.updateMulti(new Query(Criteria.where("journalEntryId").in(duplicateIds)),
+                new Update().set("journalEntryId", survivor.getId()), Snippet.class);
+
+        Set<String> snippetIds = new LinkedHashSet<>();
+        if (survivor.getSnippetIds() != null) {
+            snippetIds.addAll(survivor.getSnippetIds());
+        }
+        for (JournalEntry duplicate : duplicates) {
+            if (duplicate.getSnippetIds() != null) {
+                snippetIds.addAll(duplicate.getSnippetIds());
+            }
+        }
+
+        Query snippetsQuery = new Query(Criteria.where("journalEntryId").is(survivor.getId()));
+        snippetsQuery.fields().include("mood");
+        double moodSum = 0.0;
+        int moodCount = 0;
+        for (Snippet snippet : mongoTemplate.find(snippetsQuery, Snippet.class)) {
+            if (snippet.getMood() != null) {
+                moodSum += snippet.getMood();
+                moodCount++;
+            }
+        }
+
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(survivor.getId())), new Update()
+                .set("snippetIds", new ArrayList<>(snippetIds))
+                .set("moodSum", moodSum)
+                .set("moodCount", moodCount)
+                .set("dailyMood", moodCount > 0 ? moodSum / moodCount : null), JournalEntry.class);
+        mongoTemplate.remove(new Query(Criteria.where("_id").in(duplicateIds)), JournalEntry.class);
+        logger.debug("Merged journal entries {} into {}", duplicateIds, survivor.getId());
+    }
+}
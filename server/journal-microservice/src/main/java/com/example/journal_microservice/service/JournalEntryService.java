@@ -1,15 +1,23 @@
 package com.example.journal_microservice.service;
 
+import com.example.journal_microservice.dto.ActivityHeatmap;
+import com.example.journal_microservice.dto.CursorPage;
+import com.example.journal_microservice.dto.MoodSummary;
+import com.example.journal_microservice.dto.PageCursor;
+import com.example.journal_microservice.exception.DuplicateJournalEntryException;
 import com.example.journal_microservice.exception.JournalEntryNotFoundException;
 import com.example.journal_microservice.model.JournalEntry;
 import com.example.journal_microservice.model.Snippet;
+import com.example.journal_microservice.model.UserStatistics;
 import com.example.journal_microservice.repository.JournalEntryRepository;
 import com.example.journal_microservice.repository.SnippetRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
@@ -19,6 +27,12 @@ public class JournalEntryService {
 
     private static final Logger logger = LoggerFactory.getLogger(JournalEntryService.class);
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    // Days covered by the activity heatmap, a full leap year
+    static final int HEATMAP_DAYS = 366;
+
     @Autowired
     private JournalEntryRepository journalEntryRepository;
 
@@ -26,18 +40,24 @@ public class JournalEntryService {
     private SnippetRepository snippetRepository;
 
     @Autowired
-    private UserService userService;
+    private OutboxService outboxService;
+
+    @Autowired
+    private UserStatisticsService userStatisticsService;
 
     public JournalEntry createJournalEntry(JournalEntry journalEntry) {
-        JournalEntry newEntry = journalEntryRepository.save(journalEntry);
+        JournalEntry newEntry;
+        try {
+            newEntry = journalEntryRepository.save(journalEntry);
+        } catch (DuplicateKeyException e) {
+            // The unique (userId, date) index allows one entry per user and day
+            throw new DuplicateJournalEntryException("Journal entry already exists for user "
+                    + journalEntry.getUserId() + " on " + journalEntry.getDate());
+        }
         
         if (newEntry != null && newEntry.getUserId() != null) {
-            try {
-                userService.addJournalEntryToUser(newEntry.getUserId(), newEntry.getId());
-            } catch (Exception e) {
-                logger.error("Failed to update user with new journal entry, but journal entry was created", e);
-                // Journal entry is already created, so we don't rollback
-            }
+            userStatisticsService.onJournalEntryCreated(newEntry);
+            outboxService.enqueueJournalEntryAdded(newEntry.getUserId(), newEntry.getId());
         }
         
         return newEntry;
@@ -47,24 +67,28 @@ public class JournalEntryService {
         JournalEntry journalEntryToDelete = journalEntryRepository.findById(id)
                 .orElseThrow(() -> new JournalEntryNotFoundException("Journal entry not found with ID: " + id));
         
-        List<String> snippetIds = journalEntryToDelete.getSnippetIds();
-        if (snippetIds != null) {
-            for (String snippetId : snippetIds) {
-                try {
-                    snippetRepository.deleteById(snippetId);
-                } catch (Exception e) {
-                    logger.warn("Failed to delete snippet with ID: {}", snippetId, e);
-                }
-            }
-        }
-        
+        // Only the word counts are needed for the statistics, not the snippet contents
+        List<Snippet> snippets = snippetRepository.findWordCountsByJournalEntryId(id);
+        // A single deleteMany instead of one round trip per snippet
+        long deletedSnippets = snippetRepository.deleteByJournalEntryId(id);
+        logger.debug("Deleted {} snippets of journal entry {}", deletedSnippets, id);
+
         journalEntryRepository.deleteById(id);
+        userStatisticsService.onJournalEntryDeleted(journalEntryToDelete, snippets);
     }
 
+    /**
+     * Updates the fields of a journal entry that are set in updatedJournalEntry. Only those fields are
+     * written, so snippets added or removed concurrently are kept.
+     */
     public JournalEntry updateJournalEntry(String id, JournalEntry updatedJournalEntry) {
-        JournalEntry journalEntry = journalEntryRepository.findById(id)
-                .orElseThrow(() -> new JournalEntryNotFoundException("Journal entry not found with ID: " + id));
+        Date updatedAt = new Date();
+        JournalEntry journalEntry = journalEntryRepository.updateEntry(id, updatedJournalEntry, updatedAt);
+        if (journalEntry == null) {
+            throw new JournalEntryNotFoundException("Journal entry not found with ID: " + id);
+        }
 
+        // Apply the same changes to the previous state for the response
         if (updatedJournalEntry.getTitle() != null) {
             journalEntry.setTitle(updatedJournalEntry.getTitle());
         }
@@ -73,16 +97,24 @@ public class JournalEntryService {
             journalEntry.setSummary(updatedJournalEntry.getSummary());
         }
 
+        Double previousMood = journalEntry.getDailyMood();
         if (updatedJournalEntry.getDailyMood() != null) {
             journalEntry.setDailyMood(updatedJournalEntry.getDailyMood());
+            if (journalEntry.getMoodCount() != null) {
+                journalEntry.setMoodSum(updatedJournalEntry.getDailyMood() * journalEntry.getMoodCount());
+            }
         }
 
         if (updatedJournalEntry.getInsights() != null) {
             journalEntry.setInsights(updatedJournalEntry.getInsights());
         }
-        
-        journalEntry.setUpdatedAt(new Date());
-        return journalEntryRepository.save(journalEntry);
+        journalEntry.setUpdatedAt(updatedAt);
+
+        if (!Objects.equals(previousMood, journalEntry.getDailyMood())) {
+            userStatisticsService.onJournalEntryUpdated(journalEntry.getUserId(), previousMood,
+                    journalEntry.getDailyMood());
+        }
+        return journalEntry;
     }
 
     public JournalEntry getUserJournalById(String userId, String journalId) {
@@ -92,56 +124,73 @@ public class JournalEntryService {
     }
 
     public List<JournalEntry> getUserJournals(String userId, LocalDate date) {
-        List<JournalEntry> journalEntries = journalEntryRepository.findByUserId(userId);
-        
-        if (journalEntries.isEmpty()) {
-            throw new JournalEntryNotFoundException("No journal entries found for user: " + userId);
-        }
+        List<JournalEntry> journalEntries = date != null
+                ? journalEntryRepository.findByUserIdAndDateGreaterThanEqualAndDateLessThan(userId,
+                        toDate(date), toDate(date.plusDays(1)))
+                : journalEntryRepository.findByUserId(userId);
 
-        if (date != null) {
-            journalEntries = journalEntries.stream()
-                    .filter(j -> j.getDate() != null &&
-                            j.getDate().toInstant()
-                                    .atZone(ZoneId.systemDefault())
-                                    .toLocalDate()
-                                    .isEqual(date))
-                    .toList();
+        // An empty day is a valid answer, an unknown user is not
+        if (journalEntries.isEmpty() && (date == null || !journalEntryRepository.existsByUserId(userId))) {
+            throw new JournalEntryNotFoundException("No journal entries found for user: " + userId);
         }
         
         return journalEntries;
     }
 
-    public Map<String, Object> getUserStatistics(String userId) {
-        List<JournalEntry> userJournalEntries = journalEntryRepository.findByUserId(userId);
-        List<Snippet> userSnippets = snippetRepository.findByUserId(userId);
+    /**
+     * Returns one page of the user's journal entries, newest first
+     * @param userId The user whose journal entries are listed
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param limit Requested page size, or null for the default page size
+     * @return The page and the cursor of the next page
+     */
+    public CursorPage<JournalEntry> getUserJournalsPage(String userId, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        PageCursor pageCursor = cursor != null ? PageCursor.decode(cursor) : null;
 
-        // Basic statistics calculation
-        StringBuilder wholeUserContent = new StringBuilder();
-        double sumRating = 0.0;
+        // Fetch one extra entry to find out whether there is a next page
+        List<JournalEntry> journalEntries = journalEntryRepository.findPageByUserId(userId, pageCursor, pageSize + 1);
+        if (journalEntries.isEmpty() && pageCursor == null) {
+            throw new JournalEntryNotFoundException("No journal entries found for user: " + userId);
+        }
 
-        for (Snippet userSnippet : userSnippets) {
-            if (userSnippet.getContent() != null) {
-                wholeUserContent.append(userSnippet.getContent().replaceAll("\\s+", ""));
-            }
+        if (journalEntries.size() <= pageSize) {
+            return new CursorPage<>(journalEntries, null);
         }
+        List<JournalEntry> page = journalEntries.subList(0, pageSize);
+        JournalEntry last = page.get(pageSize - 1);
+        String nextCursor = last.getDate() != null ? new PageCursor(last.getDate(), last.getId()).encode() : null;
+        return new CursorPage<>(page, nextCursor);
+    }
 
-        for (JournalEntry userJournalEntry : userJournalEntries) {
-            sumRating += userJournalEntry.getDailyMood() != null ? userJournalEntry.getDailyMood() : 0.0;
+    static int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
         }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1.");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    public Map<String, Object> getUserStatistics(String userId) {
+        UserStatistics userStatistics = userStatisticsService.getStatistics(userId);
 
         // Calculate weekly statistics
-        Map<String, Object> weeklyStats = calculateWeeklyStatistics(userJournalEntries);
+        Map<String, Object> weeklyStats = calculateWeeklyStatistics(userId);
         
         // Calculate streak
-        int currentStreak = calculateJournalStreak(userJournalEntries);
+        int currentStreak = calculateJournalStreak(userStatistics);
 
         // Build comprehensive statistics
         Map<String, Object> stats = new HashMap<>();
         
         // Overall statistics
-        stats.put("totalJournals", userJournalEntries.size());
-        stats.put("totalWords", wholeUserContent.length());
-        stats.put("avgMood", userJournalEntries.isEmpty() ? 0.0 : sumRating / userJournalEntries.size());
+        stats.put("totalJournals", (int) userStatistics.getTotalJournals());
+        stats.put("totalWords", (int) userStatistics.getTotalWords());
+        stats.put("avgMood", userStatistics.getMoodCount() == 0
+                ? 0.0
+                : userStatistics.getMoodSum() / userStatistics.getMoodCount());
         
         // Weekly statistics
         stats.put("weeklyJournalCount", weeklyStats.get("journalCount"));
@@ -156,93 +205,44 @@ public class JournalEntryService {
 
     /**
      * Calculates weekly statistics for the current week
-     * @param journalEntries List of user's journal entries
+     * @param userId The user to calculate the statistics for
      * @return Map containing weekly statistics
      */
-    private Map<String, Object> calculateWeeklyStatistics(List<JournalEntry> journalEntries) {
-        LocalDate now = LocalDate.now();
-        LocalDate startOfWeek = now.with(java.time.DayOfWeek.MONDAY);
-        LocalDate endOfWeek = startOfWeek.plusDays(6);
-
-        List<JournalEntry> weeklyEntries = journalEntries.stream()
-                .filter(entry -> entry.getUpdatedAt() != null)
-                .filter(entry -> {
-                    LocalDate entryDate = entry.getUpdatedAt().toInstant()
-                            .atZone(ZoneId.systemDefault())
-                            .toLocalDate();
-                    return !entryDate.isBefore(startOfWeek) && !entryDate.isAfter(endOfWeek);
-                })
-                .collect(java.util.stream.Collectors.toList());
+    private Map<String, Object> calculateWeeklyStatistics(String userId) {
+        LocalDate startOfWeek = LocalDate.now().with(DayOfWeek.MONDAY);
+        MoodSummary weeklySummary = journalEntryRepository.summarizeMood(userId,
+                toDate(startOfWeek), toDate(startOfWeek.plusWeeks(1)));
 
         Map<String, Object> weeklyStats = new HashMap<>();
-        weeklyStats.put("journalCount", weeklyEntries.size());
-        
-        if (weeklyEntries.isEmpty()) {
-            weeklyStats.put("avgMood", 0.0);
-        } else {
-            double weeklyMoodSum = weeklyEntries.stream()
-                    .mapToDouble(entry -> entry.getDailyMood() != null ? entry.getDailyMood() : 0.0)
-                    .sum();
-            weeklyStats.put("avgMood", weeklyMoodSum / weeklyEntries.size());
-        }
-
+        weeklyStats.put("journalCount", (int) weeklySummary.journalCount());
+        weeklyStats.put("avgMood", weeklySummary.averageMood());
         return weeklyStats;
     }
 
     /**
-     * Efficiently calculates the current journal streak
+     * Calculates the current journal streak from the activity bitmap of the statistics read model
      * A streak is defined as consecutive days with at least one journal entry
-     * @param journalEntries List of user's journal entries
+     * @param userStatistics The statistics document of the user, already read for the other figures
      * @return Current streak count in days
      */
-    private int calculateJournalStreak(List<JournalEntry> journalEntries) {
-        if (journalEntries.isEmpty()) {
-            return 0;
-        }
-
-        // Convert journal entries to unique dates and sort in descending order
-        Set<LocalDate> journalDates = journalEntries.stream()
-                .filter(entry -> entry.getUpdatedAt() != null)
-                .map(entry -> entry.getUpdatedAt().toInstant()
-                        .atZone(ZoneId.systemDefault())
-                        .toLocalDate())
-                .collect(java.util.stream.Collectors.toSet());
-
-        if (journalDates.isEmpty()) {
-            return 0;
-        }
-
-        List<LocalDate> sortedDates = journalDates.stream()
-                .sorted(java.util.Collections.reverseOrder())
-                .collect(java.util.stream.Collectors.toList());
-
-        LocalDate today = LocalDate.now();
-        LocalDate mostRecentDate = sortedDates.get(0);
-
-        // If the most recent entry is not today or yesterday, streak is 0
-        if (mostRecentDate.isBefore(today.minusDays(1))) {
-            return 0;
-        }
-
-        int streak = 0;
-        LocalDate currentDate = today;
-
-        // If there's no journal today, start checking from yesterday
-        if (!journalDates.contains(today)) {
-            currentDate = today.minusDays(1);
-        }
+    private int calculateJournalStreak(UserStatistics userStatistics) {
+        return ActivityBitmap.of(userStatistics.getActivityOrigin(), userStatistics.getActivity())
+                .currentStreak(LocalDate.now());
+    }
 
-        // Count consecutive days with journal entries
-        for (LocalDate date : sortedDates) {
-            if (date.equals(currentDate)) {
-                streak++;
-                currentDate = currentDate.minusDays(1);
-            } else if (date.isBefore(currentDate)) {
-                // Gap found, streak ends
-                break;
-            }
-        }
+    /**
+     * Returns the activity of the 366 days ending today, for the year heatmap
+     * @param userId The user to read the activity for
+     * @return One flag per day, oldest first
+     */
+    public ActivityHeatmap getActivityHeatmap(String userId) {
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(HEATMAP_DAYS - 1);
+        ActivityBitmap activity = userStatisticsService.getActivity(userId);
+        return new ActivityHeatmap(startDate, endDate, activity.range(startDate, HEATMAP_DAYS));
+    }
 
-        return streak;
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
     }
 }
@@ -0,0 +1,158 @@
+package com.example.journal_microservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Summarizes snippet contents that are too long for a single prompt.
+ * The contents are split into chunks of at most maxChunkTokens, the chunks are summarized in
+ * parallel on the given executor, whose size bounds the fan-out, and the partial summaries are
+ * summarized once more into the final one. Contents that fit into one chunk go out in one call.
+ * If the partial summaries still do not fit after {@value #MAX_MAP_ROUNDS} rounds, each of them is
+ * truncated to an equal share of the limit, so no call ever exceeds it. With more partial summaries
+ * than the limit has tokens, neighbouring ones are merged first so every share is at least a token.
+ */
+public class MapReduceSummarizer {
+
+    // Rough average for English text, good enough to keep prompts below the limit
+    private static final int CHARS_PER_TOKEN = 4;
+    // Stops reducing further if partial summaries do not get shorter
+    private static final int MAX_MAP_ROUNDS = 3;
+
+    private final int maxChunkTokens;
+    private final Executor executor;
+
+    public MapReduceSummarizer(int maxChunkTokens, Executor executor) {
+        this.maxChunkTokens = maxChunkTokens;
+        this.executor = executor;
+    }
+
+    /**
+     * Summarizes the contents, splitting them up first if they are too long
+     * @param contents Snippet contents in order
+     * @param summarizeCall Summarizes a list of texts with a single LLM call, returning null on failure
+     * @return The summary, or null if any of the calls returned none
+     */
+    public String summarize(List<String> contents, Function<List<String>, String> summarizeCall) {
+        List<String> parts = reduce(contents, summarizeCall);
+        return parts != null ? summarizeCall.apply(parts) : null;
+    }
+
+    /**
+     * Shortens the contents until they fit into a single prompt of at most maxChunkTokens
+     * @param contents Snippet contents in order
+     * @param summarizeCall Summarizes a list of texts with a single LLM call, returning null on failure
+     * @return The contents themselves if they already fit, otherwise partial summaries in order,
+     * or null if any of the calls returned none
+     */
+    public List<String> reduce(List<String> contents, Function<List<String>, String> summarizeCall) {
+        List<String> parts = contents;
+        for (int round = 0; round < MAX_MAP_ROUNDS && estimateTokens(parts) > maxChunkTokens; round++) {
+            parts = summarizeChunks(chunk(parts), summarizeCall);
+            if (parts == null) {
+                return null;
+            }
+        }
+        return estimateTokens(parts) > maxChunkTokens ? truncate(parts) : parts;
+    }
+
+    /**
+     * Splits the contents into chunks of at most maxChunkTokens, keeping their order.
+     * A single content that is longer than that is split at whitespace.
+     */
+    public List<List<String>> chunk(List<String> contents) {
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int currentTokens = 0;
+        for (String content : contents) {
+            for (String piece : split(content)) {
+                int tokens = estimateTokens(piece);
+                if (!current.isEmpty() && currentTokens + tokens > maxChunkTokens) {
+                    chunks.add(current);
+                    current = new ArrayList<>();
+                    currentTokens = 0;
+                }
+                current.add(piece);
+                currentTokens += tokens;
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    public static int estimateTokens(String text) {
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    private static int estimateTokens(List<String> texts) {
+        return texts.stream().mapToInt(MapReduceSummarizer::estimateTokens).sum();
+    }
+
+    private List<String> summarizeChunks(List<List<String>> chunks, Function<List<String>, String> summarizeCall) {
+        List<CompletableFuture<String>> partials = chunks.stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> summarizeCall.apply(chunk), executor))
+                .toList();
+        try {
+            CompletableFuture.allOf(partials.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        List<String> summaries = partials.stream().map(CompletableFuture::join).toList();
+        return summaries.contains(null) ? null : summaries;
+    }
+
+    /**
+     * Cuts every part to an equal share of the limit, so each part of the day stays represented
+     */
+    private List<String> truncate(List<String> parts) {
+        List<String> shares = parts.size() <= maxChunkTokens ? parts : merge(parts, maxChunkTokens);
+        int maxChars = maxChunkTokens / shares.size() * CHARS_PER_TOKEN;
+        return shares.stream()
+                .map(part -> part.length() <= maxChars ? part : split(part, maxChars).get(0))
+                .toList();
+    }
+
+    /**
+     * Joins neighbouring parts into the given number of groups of about equal size, keeping their order
+     */
+    private static List<String> merge(List<String> parts, int groups) {
+        List<String> merged = new ArrayList<>(groups);
+        for (int group = 0; group < groups; group++) {
+            int from = (int) ((long) parts.size() * group / groups);
+            int to = (int) ((long) parts.size() * (group + 1) / groups);
+            merged.add(String.join(" ", parts.subList(from, to)));
+        }
+        return merged;
+    }
+
+    private List<String> split(String content) {
+        return split(content, maxChunkTokens * CHARS_PER_TOKEN);
+    }
+
+    private static List<String> split(String content, int maxChars) {
+        if (content.length() <= maxChars) {
+            return List.of(content);
+        }
+        List<String> pieces = new ArrayList<>();
+        int start = 0;
+        while (content.length() - start > maxChars) {
+            int end = content.lastIndexOf(' ', start + maxChars);
+            if (end <= start) {
+                end = start + maxChars;
+            }
+            pieces.add(content.substring(start, end).strip());
+            start = end;
+        }
+        pieces.add(content.substring(start).strip());
+        return pieces;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.journal_microservice.service;
+
+import com.example.journal_microservice.model.OutboxEvent;
+import com.example.journal_microservice.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records user-microservice updates in the outbox collection instead of calling the service
+ * on the request path. {@link UserUpdateOutboxRelay} delivers them in the background.
+ */
+@Service
+public class OutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxService.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    public void enqueueJournalEntryAdded(String userId, String journalEntryId) {
+        enqueue(new OutboxEvent(OutboxEvent.Type.JOURNAL_ENTRY_ADDED, userId, journalEntryId));
+    }
+
+    public void enqueueSnippetAdded(String userId, String snippetId) {
+        enqueue(new OutboxEvent(OutboxEvent.Type.SNIPPET_ADDED, userId, snippetId));
+    }
+
+    /**
+     * Queues many appends of one user with a single insert
+     */
+    public void enqueueAll(String userId, List<String> journalEntryIds, List<String> snippetIds) {
+        if (userId == null) {
+            return;
+        }
+        List<OutboxEvent> events = new ArrayList<>(journalEntryIds.size() + snippetIds.size());
+        journalEntryIds.forEach(id -> events.add(new OutboxEvent(OutboxEvent.Type.JOURNAL_ENTRY_ADDED, userId, id)));
+        snippetIds.forEach(id -> events.add(new OutboxEvent(OutboxEvent.Type.SNIPPET_ADDED, userId, id)));
+        outboxEventRepository.insert(events);
+        logger.debug("Queued {} journal entries and {} snippets for user {}", journalEntryIds.size(),
+                snippetIds.size(), userId);
+    }
+
+    private void enqueue(OutboxEvent event) {
+        if (event.getUserId() == null || event.getTargetId() == null) {
+            return;
+        }
+        outboxEventRepository.save(event);
+        logger.debug("Queued {} of {} for user {}", event.getType(), event.getTargetId(), event.getUserId());
+    }
+}
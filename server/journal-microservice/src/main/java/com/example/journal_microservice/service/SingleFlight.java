@@ -0,0 +1,84 @@
+package com.example.journal_microservice.service;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key into one: the first caller runs the call and
+ * every caller that arrives while it is in flight waits for and shares its result or exception.
+ * A key is removed as soon as its call completes, so results are never cached here. When the
+ * number of distinct keys in flight reaches the limit, further calls simply run uncoalesced.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final int maxInFlight;
+    private final Counter coalescedCounter;
+
+    public SingleFlight(int maxInFlight, Counter coalescedCounter) {
+        this.maxInFlight = maxInFlight;
+        this.coalescedCounter = coalescedCounter;
+    }
+
+    /**
+     * Runs the call, or joins the identical call already in flight
+     * @param key Identifies identical calls
+     * @param call The call to run if none is in flight for the key
+     * @return The result of the call
+     */
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> existing = inFlight.get(key);
+        if (existing == null) {
+            if (inFlight.size() >= maxInFlight) {
+                return call.get();
+            }
+            CompletableFuture<V> created = new CompletableFuture<>();
+            existing = inFlight.putIfAbsent(key, created);
+            if (existing == null) {
+                return runAndPublish(key, created, call);
+            }
+        }
+        coalescedCounter.increment();
+        return await(existing);
+    }
+
+    /**
+     * Number of distinct calls currently in flight
+     */
+    public int size() {
+        return inFlight.size();
+    }
+
+    private V runAndPublish(K key, CompletableFuture<V> future, Supplier<V> call) {
+        try {
+            V result = call.get();
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Rethrow what the leading caller got, rather than the wrapper
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.journal_microservice.service;
+
+import com.example.journal_microservice.model.Snippet;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Fingerprint of the content of a journal entry's snippets. Generated summaries and insights
+ * store the fingerprint of the snippets they were generated from, so they are only regenerated
+ * once a snippet is added, edited or removed.
+ */
+public final class SnippetFingerprint {
+
+    private static final Comparator<Snippet> SNIPPET_ORDER = Comparator
+            .comparing(Snippet::getTimestamp, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Snippet::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private SnippetFingerprint() {
+    }
+
+    /**
+     * Sorts the snippets into the order they are sent to the LLM, i.e. by timestamp
+     */
+    public static List<Snippet> ordered(List<Snippet> snippets) {
+        return snippets.stream().sorted(SNIPPET_ORDER).toList();
+    }
+
+    /**
+     * SHA-256 over the IDs and contents of the snippets in the given order
+     * @return Hex encoded fingerprint
+     */
+    public static String of(List<Snippet> snippets) {
+        MessageDigest digest = sha256();
+        for (Snippet snippet : snippets) {
+            update(digest, snippet.getId());
+            update(digest, snippet.getContent());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        // Length-prefixed, so moving text from one snippet to the next changes the fingerprint
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        digest.update((bytes.length + ":").getBytes(StandardCharsets.US_ASCII));
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.journal_microservice.service;
+
+import com.example.journal_microservice.dto.DailyEntryKey;
+import com.example.journal_microservice.dto.SnippetImportResult;
+import com.example.journal_microservice.dto.SnippetImportSummary;
+import com.example.journal_microservice.model.JournalEntry;
+import com.example.journal_microservice.model.Snippet;
+import com.example.journal_microservice.repository.JournalEntryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports snippets in bulk, e.g. when migrating a user from another journaling app.
+ * Input is read in batches; per batch the day entries are upserted with one bulk write, the
+ * snippets are inserted with one unordered bulk insert and every entry receives all of its new
+ * snippets and their moods in a single update. The appends for user-microservice are queued in the
+ * outbox with one insert per user and batch, and the statistics of every imported user are rebuilt
+ * once at the end of the import.
+ */
+@Service
+public class SnippetImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnippetImportService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private UserStatisticsService userStatisticsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${snippets.import.batch-size:5000}")
+    private int batchSize;
+
+    private record ImportItem(int line, Snippet snippet) {
+    }
+
+    private record UserAppends(List<String> journalEntryIds, List<String> snippetIds) {
+    }
+
+    /**
+     * Imports newline-delimited JSON snippets. A malformed or incomplete line is reported
+     * in its result and does not stop the import.
+     * @param reader One JSON snippet per line
+     * @return Number of imported and failed snippets, and the result of every line
+     */
+    public SnippetImportSummary importSnippets(BufferedReader reader) throws IOException {
+        List<SnippetImportResult> results = new ArrayList<>();
+        Set<String> userIds = new LinkedHashSet<>();
+        List<ImportItem> batch = new ArrayList<>(batchSize);
+
+        int line = 0;
+        String json;
+        while ((json = reader.readLine()) != null) {
+            line++;
+            if (json.isBlank()) {
+                continue;
+            }
+            Snippet snippet;
+            try {
+                snippet = objectMapper.readValue(json, Snippet.class);
+            } catch (JsonProcessingException e) {
+                results.add(SnippetImportResult.failed(line, "Invalid JSON: " + e.getOriginalMessage()));
+                continue;
+            }
+            if (snippet.getUserId() == null || snippet.getContent() == null) {
+                results.add(SnippetImportResult.failed(line, "userId and content are required."));
+                continue;
+            }
+
+            batch.add(new ImportItem(line, snippet));
+            if (batch.size() == batchSize) {
+                importBatch(batch, results, userIds);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            importBatch(batch, results, userIds);
+        }
+
+        userIds.forEach(userStatisticsService::rebuild);
+
+        results.sort(Comparator.comparingInt(SnippetImportResult::line));
+        int imported = (int) results.stream().filter(result -> result.error() == null).count();
+        logger.info("Imported {} snippets for {} users, {} lines failed", imported, userIds.size(),
+                results.size() - imported);
+        return new SnippetImportSummary(imported, results.size() - imported, results);
+    }
+
+    private void importBatch(List<ImportItem> batch, List<SnippetImportResult> results, Set<String> userIds) {
+        Map<String, UserAppends> appends = new LinkedHashMap<>();
+        Map<DailyEntryKey, List<ImportItem>> itemsByDay = new LinkedHashMap<>();
+        for (ImportItem item : batch) {
+            Snippet snippet = item.snippet();
+            if (snippet.getTimestamp() == null) {
+                snippet.setTimestamp(new Date());
+            }
+            Date day = SnippetService.getDateOnly(snippet.getTimestamp());
+            // IDs are assigned up front so entries and user-microservice can reference them
+            snippet.setId(new ObjectId().toHexString());
+            snippet.setUpdatedAt(day);
+            snippet.setWordCount(SnippetMetrics.countWords(snippet.getContent()));
+            snippet.setCharCount(SnippetMetrics.countChars(snippet.getContent()));
+            itemsByDay.computeIfAbsent(new DailyEntryKey(snippet.getUserId(), day), key -> new ArrayList<>())
+                    .add(item);
+        }
+
+        // One bulk upsert makes sure every day of the batch has its journal entry
+        Map<DailyEntryKey, ObjectId> idsIfCreated = new HashMap<>();
+        itemsByDay.keySet().forEach(key -> idsIfCreated.put(key, new ObjectId()));
+        Map<DailyEntryKey, String> entryIds = new HashMap<>();
+        for (JournalEntry entry : journalEntryRepository.upsertDailyEntries(idsIfCreated)) {
+            entryIds.put(new DailyEntryKey(entry.getUserId(), entry.getDate()), entry.getId());
+        }
+
+        List<ImportItem> toInsert = new ArrayList<>(batch.size());
+        itemsByDay.forEach((key, items) -> {
+            String entryId = entryIds.get(key);
+            if (entryId == null) {
+                items.forEach(item -> results.add(SnippetImportResult.failed(item.line(),
+                        "Journal entry could not be created.")));
+                return;
+            }
+            if (idsIfCreated.get(key).toHexString().equals(entryId)) {
+                appendsOf(appends, key.userId()).journalEntryIds().add(entryId);
+            }
+            items.forEach(item -> item.snippet().setJournalEntryId(entryId));
+            toInsert.addAll(items);
+        });
+
+        Map<Integer, String> insertErrors = insertUnordered(toInsert);
+
+        // Only snippets that were stored are appended to their entries
+        Map<String, List<Snippet>> snippetsByEntryId = new LinkedHashMap<>();
+        for (int i = 0; i < toInsert.size(); i++) {
+            ImportItem item = toInsert.get(i);
+            String error = insertErrors.get(i);
+            if (error != null) {
+                results.add(SnippetImportResult.failed(item.line(), error));
+                continue;
+            }
+            Snippet snippet = item.snippet();
+            snippetsByEntryId.computeIfAbsent(snippet.getJournalEntryId(), id -> new ArrayList<>()).add(snippet);
+            appendsOf(appends, snippet.getUserId()).snippetIds().add(snippet.getId());
+            results.add(SnippetImportResult.imported(item.line(), snippet.getId()));
+        }
+        journalEntryRepository.addSnippets(snippetsByEntryId);
+
+        // Delivered by the outbox relay, so the import never waits on user-microservice
+        appends.forEach((userId, userAppends) ->
+                outboxService.enqueueAll(userId, userAppends.journalEntryIds(), userAppends.snippetIds()));
+        userIds.addAll(appends.keySet());
+    }
+
+    /**
+     * Inserts the snippets with one unordered bulk write, so one failing document does not stop the others
+     * @return Error message per index of a snippet that was not inserted
+     */
+    private Map<Integer, String> insertUnordered(List<ImportItem> items) {
+        if (items.isEmpty()) {
+            return Map.of();
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Snippet.class);
+        bulk.insert(items.stream().map(ImportItem::snippet).toList());
+        try {
+            bulk.execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            Map<Integer, String> errors = new HashMap<>();
+            for (BulkWriteError error : e.getErrors()) {
+                errors.put(error.getIndex(), error.getMessage());
+            }
+            return errors;
+        }
+    }
+
+    private UserAppends appendsOf(Map<String, UserAppends> appends, String userId) {
+        return appends.computeIfAbsent(userId, id -> new UserAppends(new ArrayList<>(), new ArrayList<>()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.journal_microservice.service;
+
+/**
+ * Allocation-free text metrics computed once when a snippet is written.
+ */
+public final class SnippetMetrics {
+
+    private SnippetMetrics() {
+    }
+
+    /**
+     * Counts whitespace-separated words
+     * @param content Snippet content, may be null
+     * @return Number of words
+     */
+    public static int countWords(CharSequence content) {
+        if (content == null) {
+            return 0;
+        }
+        int words = 0;
+        boolean inWord = false;
+        for (int i = 0; i < content.length(); i++) {
+            if (Character.isWhitespace(content.charAt(i))) {
+                inWord = false;
+            } else if (!inWord) {
+                inWord = true;
+                words++;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Counts characters as Unicode code points, so emoji and other supplementary characters count once
+     * @param content Snippet content, may be null
+     * @return Number of characters
+     */
+    public static int countChars(String content) {
+        return content == null ? 0 : content.codePointCount(0, content.length());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.journal_microservice.service;
+
+import com.example.journal_microservice.model.Snippet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Backfills {@code wordCount} and {@code charCount} on snippets written before the
+ * counts were stored. Snippets are read through a streaming cursor and updated with
+ * unordered bulk writes, so the job never holds more than one batch in memory.
+ * It runs as a startup task (snippets.metrics.backfill-on-startup) and is not exposed over HTTP.
+ */
+@Service
+public class SnippetMetricsBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnippetMetricsBackfillService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserStatisticsService userStatisticsService;
+
+    @Value("${snippets.metrics.backfill-batch-size:1000}")
+    private int batchSize;
+
+    @Value("${snippets.metrics.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        try {
+            backfill();
+        } catch (Exception e) {
+            logger.error("Failed to backfill snippet metrics: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Computes the stored counts for every snippet that is missing them, then rebuilds the
+     * user statistics so "totalWords" reports word counts for all snippets.
+     * @return Number of snippets updated
+     */
+    public long backfill() {
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("wordCount").exists(false),
+                Criteria.where("charCount").exists(false)));
+        query.fields().include("content");
+        query.cursorBatchSize(batchSize);
+
+        long updated = 0;
+        int pending = 0;
+        BulkOperations bulk = newBulk();
+        try (Stream<Snippet> snippets = mongoTemplate.stream(query, Snippet.class)) {
+            Iterator<Snippet> iterator = snippets.iterator();
+            while (iterator.hasNext()) {
+                Snippet snippet = iterator.next();
+                bulk.updateOne(
+                        new Query(Criteria.where("_id").is(snippet.getId())),
+                        new Update()
+                                .set("wordCount", SnippetMetrics.countWords(snippet.getContent()))
+                                .set("charCount", SnippetMetrics.countChars(snippet.getContent())));
+                if (++pending == batchSize) {
+                    updated += bulk.execute().getModifiedCount();
+                    bulk = newBulk();
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            updated += bulk.execute().getModifiedCount();
+        }
+
+        logger.info("Backfilled metrics for {} snippets", updated);
+        if (updated > 0) {
+            userStatisticsService.rebuildAll();
+        }
+        return updated;
+    }
+
+    private BulkOperations newBulk() {
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Snippet.class);
+    }
+}
@@ -1,21 +1,27 @@
 package com.example.journal_microservice.service;
 
+import com.example.journal_microservice.dto.CursorPage;
+import com.example.journal_microservice.dto.PageCursor;
 import com.example.journal_microservice.exception.InvalidSnippetOperationException;
+import com.example.journal_microservice.exception.JournalEntryNotFoundException;
 import com.example.journal_microservice.exception.SnippetNotFoundException;
 import com.example.journal_microservice.model.JournalEntry;
 import com.example.journal_microservice.model.Snippet;
 import com.example.journal_microservice.repository.JournalEntryRepository;
 import com.example.journal_microservice.repository.SnippetRepository;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 @Service
 public class SnippetService {
@@ -29,10 +35,22 @@ public class SnippetService {
     private JournalEntryRepository journalEntryRepository;
 
     @Autowired
-    private UserService userService;
+    private OutboxService outboxService;
 
-    public List<Snippet> getAllSnippets() {
-        return snippetRepository.findAll();
+    @Autowired
+    private UserStatisticsService userStatisticsService;
+
+    @Value("${snippets.export.batch-size:500}")
+    private int exportBatchSize;
+
+    /**
+     * Streams snippets for exports and backfills without materialising the collection
+     * @param userId Only export snippets of this user, or null for all users
+     * @param since Only export snippets with a timestamp at or after this date, or null for all
+     * @return Cursor-backed stream that the caller must close
+     */
+    public Stream<Snippet> streamSnippets(String userId, Date since) {
+        return snippetRepository.streamSnippets(userId, since, exportBatchSize);
     }
 
     public Snippet getUserSnippetById(String userId, String snippetId) {
@@ -42,24 +60,46 @@ public class SnippetService {
     }
 
     public List<Snippet> getUserSnippets(String userId, LocalDate date) {
-        List<Snippet> snippets = snippetRepository.findByUserId(userId);
+        List<Snippet> snippets = date != null
+                ? snippetRepository.findByUserIdAndTimestampGreaterThanEqualAndTimestampLessThan(userId,
+                        toDate(date), toDate(date.plusDays(1)))
+                : snippetRepository.findByUserId(userId);
 
-        if (snippets.isEmpty()) {
+        // An empty day is a valid answer, an unknown user is not
+        if (snippets.isEmpty() && (date == null || !snippetRepository.existsByUserId(userId))) {
             logger.debug("No snippets found for user: {}", userId);
             throw new SnippetNotFoundException("No snippets found for user: " + userId);
         }
 
-        if (date != null) {
-            snippets = snippets.stream()
-                    .filter(s -> s.getUpdatedAt() != null &&
-                            s.getUpdatedAt().toInstant()
-                                    .atZone(ZoneId.systemDefault())
-                                    .toLocalDate()
-                                    .isEqual(date))
-                    .toList();
+        return snippets;
+    }
+
+    /**
+     * Returns one page of the user's snippets, newest first
+     * @param userId The user whose snippets are listed
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param limit Requested page size, or null for the default page size
+     * @return The page and the cursor of the next page
+     */
+    public CursorPage<Snippet> getUserSnippetsPage(String userId, String cursor, Integer limit) {
+        int pageSize = JournalEntryService.resolvePageSize(limit);
+        PageCursor pageCursor = cursor != null ? PageCursor.decode(cursor) : null;
+
+        // Fetch one extra snippet to find out whether there is a next page
+        List<Snippet> snippets = snippetRepository.findPageByUserId(userId, pageCursor, pageSize + 1);
+        if (snippets.isEmpty() && pageCursor == null) {
+            throw new SnippetNotFoundException("No snippets found for user: " + userId);
         }
 
-        return snippets;
+        if (snippets.size() <= pageSize) {
+            return new CursorPage<>(snippets, null);
+        }
+        List<Snippet> page = snippets.subList(0, pageSize);
+        Snippet last = page.get(pageSize - 1);
+        String nextCursor = last.getTimestamp() != null
+                ? new PageCursor(last.getTimestamp(), last.getId()).encode()
+                : null;
+        return new CursorPage<>(page, nextCursor);
     }
 
     public Snippet createSnippet(Snippet snippet) {
@@ -69,106 +109,133 @@ public class SnippetService {
 
         Date snippetDate = getDateOnly(snippet.getTimestamp());
 
-        JournalEntry entry = journalEntryRepository.findByDateAndUserId(snippetDate, snippet.getUserId());
-        logger.debug("Found journal entry: {}", entry);
-
-        if (entry == null) {
-            logger.debug("No journal entry found for date: {} and userId: {}, creating a new one.", snippetDate,
-                    snippet.getUserId());
-            entry = createNewJournalEntry(snippetDate, snippet.getUserId());
+        // One round trip gets or creates the day's entry; the unique (userId, date) index rules out duplicates
+        ObjectId idIfCreated = new ObjectId();
+        JournalEntry entry = journalEntryRepository.upsertDailyEntry(snippet.getUserId(), snippetDate, idIfCreated);
+        boolean journalCreated = idIfCreated.toHexString().equals(entry.getId());
+        if (journalCreated) {
+            logger.debug("Created journal entry for date: {} and userId: {}", snippetDate, snippet.getUserId());
+            outboxService.enqueueJournalEntryAdded(snippet.getUserId(), entry.getId());
         }
 
         snippet.setJournalEntryId(entry.getId());
         snippet.setUpdatedAt(snippetDate);
+        applyContentMetrics(snippet);
         Snippet savedSnippet = snippetRepository.save(snippet);
 
-        updateJournalEntryWithSnippet(entry, savedSnippet);
+        JournalEntry updatedEntry = journalEntryRepository.addSnippet(entry.getId(), savedSnippet.getId(),
+                savedSnippet.getMood());
+        if (updatedEntry == null) {
+            throw new JournalEntryNotFoundException("Journal entry not found with ID: " + entry.getId());
+        }
+        userStatisticsService.onSnippetCreated(savedSnippet, journalCreated,
+                dailyMoodBefore(updatedEntry, null, savedSnippet.getMood()), updatedEntry.getDailyMood());
         updateUserWithSnippet(savedSnippet);
 
         return savedSnippet;
     }
 
-    private JournalEntry createNewJournalEntry(Date snippetDate, String userId) {
-        JournalEntry entry = new JournalEntry();
-        entry.setDate(snippetDate);
-        entry.setSnippetIds(new ArrayList<>());
-        entry.setUpdatedAt(snippetDate);
-        entry.setUserId(userId);
-        entry = journalEntryRepository.save(entry);
-
-        try {
-            logger.debug("Adding journal entry for user: {}", userId);
-            userService.addJournalEntryToUser(userId, entry.getId());
-        } catch (Exception e) {
-            logger.error("Failed to update user with new journal entry, but journal entry was created", e);
-        }
-
-        return entry;
-    }
-
-    private void updateJournalEntryWithSnippet(JournalEntry entry, Snippet snippet) {
-        int previousSnippetCount = entry.getSnippetIds().size();
-        entry.getSnippetIds().add(snippet.getId());
-
-        double currentMood = entry.getDailyMood() != null ? entry.getDailyMood() : 0.0;
-        double totalMoodSum = currentMood * previousSnippetCount + snippet.getMood();
-        entry.setDailyMood(totalMoodSum / entry.getSnippetIds().size());
-
-        journalEntryRepository.save(entry);
+    /**
+     * Reconstructs the daily mood before a snippet change from the updated running aggregate
+     * @param entry The journal entry after the change
+     * @param previousMood Mood of the snippet before the change, null if it was not counted
+     * @param newMood Mood of the snippet after the change, null if it is not counted
+     */
+    private Double dailyMoodBefore(JournalEntry entry, Double previousMood, Double newMood) {
+        double moodDelta = (newMood != null ? newMood : 0.0) - (previousMood != null ? previousMood : 0.0);
+        int countDelta = (newMood != null ? 1 : 0) - (previousMood != null ? 1 : 0);
+        int previousCount = entry.getMoodCount() - countDelta;
+        return previousCount > 0 ? (entry.getMoodSum() - moodDelta) / previousCount : null;
     }
 
     private void updateUserWithSnippet(Snippet snippet) {
-        try {
-            userService.addSnippetToUser(snippet.getUserId(), snippet.getId());
-        } catch (Exception e) {
-            logger.error("Failed to update user with new snippet, but snippet was created", e);
-        }
+        // Delivered to user-microservice by the outbox relay, off the request path
+        outboxService.enqueueSnippetAdded(snippet.getUserId(), snippet.getId());
     }
 
     public void deleteSnippet(String id) {
         Snippet snippet = snippetRepository.findById(id)
                 .orElseThrow(() -> new SnippetNotFoundException("Snippet not found with ID: " + id));
 
-        Date snippetDate = getDateOnly(snippet.getTimestamp());
-
-        JournalEntry entry = journalEntryRepository.findByDateAndUserId(snippetDate, snippet.getUserId());
-        if (entry != null) {
-            List<String> snippetIds = entry.getSnippetIds();
-
-            if (snippetIds.size() <= 1) {
+        Double previousMood = null;
+        Double newMood = null;
+        String entryId = snippet.getJournalEntryId();
+        if (entryId != null) {
+            JournalEntry entry = journalEntryRepository.removeSnippet(entryId, id, snippet.getMood());
+            if (entry != null) {
+                previousMood = dailyMoodBefore(entry, snippet.getMood(), null);
+                newMood = entry.getDailyMood();
+            } else if (journalEntryRepository.findById(entryId)
+                    .map(existing -> existing.getSnippetIds().contains(id))
+                    .orElse(false)) {
+                // The entry still holds the snippet, so it was kept back as the entry's last one
                 logger.debug("Cannot delete the last remaining snippet in a journal entry.");
                 throw new InvalidSnippetOperationException(
                         "Cannot delete the last remaining snippet in a journal entry.");
             }
-
-            entry.setDailyMood(
-                    (entry.getDailyMood() * snippetIds.size() - snippet.getMood()) / (snippetIds.size() - 1));
-
-            snippetIds.remove(snippet.getId());
-            journalEntryRepository.save(entry);
         }
 
         snippetRepository.deleteById(id);
+        userStatisticsService.onSnippetDeleted(snippet, previousMood, newMood);
     }
 
     public Snippet updateSnippet(String id, Snippet updatedSnippet) {
         Snippet snippet = snippetRepository.findById(id)
                 .orElseThrow(() -> new SnippetNotFoundException("Snippet not found with ID: " + id));
 
+        int previousWordCount = snippet.getWordCount() != null
+                ? snippet.getWordCount()
+                : SnippetMetrics.countWords(snippet.getContent());
         if (updatedSnippet.getContent() != null) {
             snippet.setContent(updatedSnippet.getContent());
         }
+        applyContentMetrics(snippet);
 
         if (updatedSnippet.getTags() != null) {
             snippet.setTags(updatedSnippet.getTags());
         }
 
+        Double previousMood = snippet.getMood();
+        if (updatedSnippet.getMood() != null) {
+            snippet.setMood(updatedSnippet.getMood());
+        }
+
         snippet.setUpdatedAt(new Date());
 
-        return snippetRepository.save(snippet);
+        Snippet savedSnippet = snippetRepository.save(snippet);
+        userStatisticsService.onSnippetUpdated(snippet.getUserId(), previousWordCount, snippet.getWordCount());
+        if (!Objects.equals(previousMood, snippet.getMood())) {
+            updateJournalEntryMood(snippet, previousMood);
+        }
+        return savedSnippet;
+    }
+
+    private void updateJournalEntryMood(Snippet snippet, Double previousMood) {
+        JournalEntry entry = journalEntryRepository.changeSnippetMood(snippet.getJournalEntryId(), snippet.getId(),
+                previousMood, snippet.getMood());
+        if (entry == null) {
+            logger.warn("Journal entry {} does not contain snippet {}, daily mood not updated",
+                    snippet.getJournalEntryId(), snippet.getId());
+            return;
+        }
+
+        userStatisticsService.onJournalEntryUpdated(snippet.getUserId(),
+                dailyMoodBefore(entry, previousMood, snippet.getMood()), entry.getDailyMood());
+    }
+
+    private void applyContentMetrics(Snippet snippet) {
+        snippet.setWordCount(SnippetMetrics.countWords(snippet.getContent()));
+        snippet.setCharCount(SnippetMetrics.countChars(snippet.getContent()));
+    }
+
+    private Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
     }
 
-    private Date getDateOnly(Date dateTime) {
+    /**
+     * Start of the day of a timestamp in the service's time zone, the date of the day's journal entry
+     */
+    static Date getDateOnly(Date dateTime) {
         return Date.from(dateTime.toInstant()
                 .atZone(ZoneId.systemDefault())
                 .toLocalDate()
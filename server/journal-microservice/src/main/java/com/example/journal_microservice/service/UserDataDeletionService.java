@@ -0,0 +1,242 @@
+package com.example.journal_microservice.service;
+
+import com.example.journal_microservice.exception.DeletionJobNotFoundException;
+import com.example.journal_microservice.model.DeletionJob;
+import com.example.journal_microservice.model.JournalEntry;
+import com.example.journal_microservice.model.OutboxEvent;
+import com.example.journal_microservice.model.Snippet;
+import com.example.journal_microservice.model.UserStatistics;
+import com.example.journal_microservice.repository.DeletionJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes all journal data of a user in the background. Snippets and journal entries are
+ * removed with deleteMany in bounded batches of IDs, so a user with a long history neither
+ * ties up a request thread nor issues one huge delete. Progress is recorded on the
+ * {@link DeletionJob} after every batch, which also renews the job's lease.
+ */
+@Service
+public class UserDataDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDataDeletionService.class);
+
+    private static final List<DeletionJob.Status> ACTIVE_STATUSES =
+            List.of(DeletionJob.Status.PENDING, DeletionJob.Status.RUNNING);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private DeletionJobRepository deletionJobRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${user-data.deletion.enabled:true}")
+    private boolean enabled;
+
+    @Value("${user-data.deletion.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${user-data.deletion.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${user-data.deletion.retry-delay-ms:30000}")
+    private long retryDelayMs;
+
+    @Value("${user-data.deletion.lease-ms:60000}")
+    private long leaseMs;
+
+    private final AtomicLong activeJobs = new AtomicLong();
+    private Counter completedCounter;
+    private Counter failedCounter;
+    private Timer jobTimer;
+    private DistributionSummary throughputSummary;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("deletion.jobs.active", activeJobs, AtomicLong::get)
+                .description("User data deletions waiting for or in progress")
+                .register(meterRegistry);
+        completedCounter = meterRegistry.counter("deletion.jobs.completed");
+        failedCounter = meterRegistry.counter("deletion.jobs.failed");
+        jobTimer = Timer.builder("deletion.job.duration")
+                .description("Run time of a user data deletion")
+                .register(meterRegistry);
+        throughputSummary = DistributionSummary.builder("deletion.job.throughput")
+                .description("Documents deleted per second of run time")
+                .baseUnit("documents")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Schedules the deletion of all journal data of a user.
+     * Requesting it again while a deletion is still active returns the active job.
+     * @param userId The user whose data is deleted
+     * @return The scheduled job
+     */
+    public DeletionJob requestDeletion(String userId) {
+        return deletionJobRepository.findFirstByUserIdAndStatusIn(userId, ACTIVE_STATUSES)
+                .orElseGet(() -> {
+                    DeletionJob job = deletionJobRepository.save(new DeletionJob(userId));
+                    activeJobs.incrementAndGet();
+                    logger.info("Scheduled deletion {} of the data of user {}", job.getId(), userId);
+                    return job;
+                });
+    }
+
+    public DeletionJob getJob(String jobId) {
+        return deletionJobRepository.findById(jobId)
+                .orElseThrow(() -> new DeletionJobNotFoundException("Deletion job not found with ID: " + jobId));
+    }
+
+    @Scheduled(fixedDelayString = "${user-data.deletion.interval-ms:1000}")
+    public void processJobs() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            DeletionJob job;
+            while ((job = claimJob()) != null) {
+                run(job);
+            }
+            activeJobs.set(deletionJobRepository.countByStatusIn(ACTIVE_STATUSES));
+        } catch (Exception e) {
+            logger.error("User data deletion failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Claims the oldest due job, including running jobs whose worker stopped renewing the lease
+     * @return The claimed job, or null if no job is due
+     */
+    public DeletionJob claimJob() {
+        Date now = new Date();
+        Query due = new Query(Criteria.where("status").in(ACTIVE_STATUSES)
+                .and("nextAttemptAt").lte(now))
+                .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"));
+        Update lease = new Update()
+                .set("status", DeletionJob.Status.RUNNING)
+                .set("nextAttemptAt", leaseUntil());
+        return mongoTemplate.findAndModify(due, lease, FindAndModifyOptions.options().returnNew(true),
+                DeletionJob.class);
+    }
+
+    /**
+     * Deletes the data of a claimed job and records the outcome on the job
+     */
+    public void run(DeletionJob job) {
+        long startNanos = System.nanoTime();
+        try {
+            Query ofUser = new Query(Criteria.where("userId").is(job.getUserId()));
+            if (job.getStartedAt() == null) {
+                mongoTemplate.updateFirst(byId(job), new Update()
+                        .set("startedAt", new Date())
+                        .set("snippetsTotal", mongoTemplate.count(ofUser, Snippet.class))
+                        .set("journalEntriesTotal", mongoTemplate.count(ofUser, JournalEntry.class)),
+                        DeletionJob.class);
+            }
+
+            long deleted = deleteInBatches(job, Snippet.class, "snippetsDeleted")
+                    + deleteInBatches(job, JournalEntry.class, "journalEntriesDeleted");
+            // The statistics read model and undelivered user-service updates go with the data
+            mongoTemplate.remove(new Query(Criteria.where("_id").is(job.getUserId())), UserStatistics.class);
+            mongoTemplate.remove(ofUser, OutboxEvent.class);
+
+            mongoTemplate.updateFirst(byId(job), new Update()
+                    .set("status", DeletionJob.Status.COMPLETED)
+                    .set("finishedAt", new Date()), DeletionJob.class);
+
+            long elapsedNanos = System.nanoTime() - startNanos;
+            jobTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            if (elapsedNanos > 0) {
+                throughputSummary.record(deleted * 1e9 / elapsedNanos);
+            }
+            completedCounter.increment();
+            logger.info("Deleted {} documents of user {} in {} ms", deleted, job.getUserId(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        } catch (Exception e) {
+            fail(job, e);
+        }
+    }
+
+    private long deleteInBatches(DeletionJob job, Class<?> entityClass, String progressField) {
+        String collection = mongoTemplate.getCollectionName(entityClass);
+        Counter deletedCounter = meterRegistry.counter("deletion.documents.deleted", "collection", collection);
+        Timer batchTimer = meterRegistry.timer("deletion.batch", "collection", collection);
+
+        long deleted = 0;
+        while (true) {
+            Query batch = new Query(Criteria.where("userId").is(job.getUserId())).limit(batchSize);
+            batch.fields().include("_id");
+            List<Object> ids = mongoTemplate.find(batch, Document.class, collection).stream()
+                    .map(document -> document.get("_id"))
+                    .toList();
+            if (ids.isEmpty()) {
+                return deleted;
+            }
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+            long removed = mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), entityClass)
+                    .getDeletedCount();
+            sample.stop(batchTimer);
+            deleted += removed;
+            deletedCounter.increment(removed);
+            mongoTemplate.updateFirst(byId(job), new Update()
+                    .inc(progressField, removed)
+                    .set("nextAttemptAt", leaseUntil()), DeletionJob.class);
+        }
+    }
+
+    private void fail(DeletionJob job, Exception error) {
+        int attempts = job.getAttempts() + 1;
+        Update update = new Update()
+                .set("attempts", attempts)
+                .set("lastError", error.getMessage());
+
+        if (attempts >= maxAttempts) {
+            update.set("status", DeletionJob.Status.FAILED).set("finishedAt", new Date());
+            failedCounter.increment();
+            logger.error("Giving up on deleting the data of user {} after {} attempts", job.getUserId(), attempts,
+                    error);
+        } else {
+            // Deleting is idempotent, so the retry simply continues with what is left
+            update.set("status", DeletionJob.Status.PENDING)
+                    .set("nextAttemptAt", new Date(System.currentTimeMillis() + retryDelayMs));
+            logger.warn("Failed to delete the data of user {}, retrying in {} ms: {}", job.getUserId(),
+                    retryDelayMs, error.getMessage());
+        }
+        mongoTemplate.updateFirst(byId(job), update, DeletionJob.class);
+    }
+
+    private Query byId(DeletionJob job) {
+        return new Query(Criteria.where("_id").is(job.getId()));
+    }
+
+    private Date leaseUntil() {
+        return new Date(System.currentTimeMillis() + leaseMs);
+    }
+}
@@ -1,6 +1,6 @@
 package com.example.journal_microservice.service;
 
-import java.util.Arrays;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 
+import com.example.journal_microservice.dto.UserAppendRequest;
 import com.example.journal_microservice.exception.UserServiceException;
 import com.example.journal_microservice.model.User;
 
@@ -67,19 +68,12 @@ public class UserService {
 
     public void addJournalEntryToUser(String userId, String journalEntryId) {
         try {
-            User user = getUserById(userId);
-            String[] currentEntries = user.getJournalEntries() != null ? user.getJournalEntries() : new String[0];
-
-            logger.debug("Current journal entries for user {}: {}", userId, Arrays.toString(currentEntries));
-
-            String[] updatedEntries = Arrays.copyOf(currentEntries, currentEntries.length + 1);
-            updatedEntries[currentEntries.length] = journalEntryId;
-            user.setJournalEntries(updatedEntries);
-
-            logger.debug("Updated journal entries for user {}: {}", userId, Arrays.toString(updatedEntries));
-
-            updateUser(userId, user);
-        } catch (Exception e) {
+            restClient.post()
+                    .uri(userServiceBaseUrl + "/" + userId + "/journal-entries/" + journalEntryId)
+                    .retrieve()
+                    .toBodilessEntity();
+            logger.debug("Added journal entry {} to user {}", journalEntryId, userId);
+        } catch (RestClientException e) {
             logger.error("Error adding journal entry {} to user {}", journalEntryId, userId, e);
             throw new UserServiceException("Failed to add journal entry to user", e);
         }
@@ -87,21 +81,35 @@ public class UserService {
 
     public void addSnippetToUser(String userId, String snippetId) {
         try {
-            User user = getUserById(userId);
-            String[] currentSnippets = user.getSnippets() != null ? user.getSnippets() : new String[0];
-
-            logger.debug("Current snippets for user {}: {}", userId, Arrays.toString(currentSnippets));
-
-            String[] updatedSnippets = Arrays.copyOf(currentSnippets, currentSnippets.length + 1);
-            updatedSnippets[currentSnippets.length] = snippetId;
-            user.setSnippets(updatedSnippets);
-
-            logger.debug("Updated snippets for user {}: {}", userId, Arrays.toString(updatedSnippets));
-
-            updateUser(userId, user);
-        } catch (Exception e) {
+            restClient.post()
+                    .uri(userServiceBaseUrl + "/" + userId + "/snippets/" + snippetId)
+                    .retrieve()
+                    .toBodilessEntity();
+            logger.debug("Added snippet {} to user {}", snippetId, userId);
+        } catch (RestClientException e) {
             logger.error("Error adding snippet {} to user {}", snippetId, userId, e);
             throw new UserServiceException("Failed to add snippet to user", e);
         }
     }
+
+    /**
+     * Appends journal entries and snippets to a user in a single call
+     * @param userId The user to append to
+     * @param journalEntryIds Journal entry IDs to append, may be empty
+     * @param snippetIds Snippet IDs to append, may be empty
+     */
+    public void appendToUser(String userId, List<String> journalEntryIds, List<String> snippetIds) {
+        try {
+            restClient.post()
+                    .uri(userServiceBaseUrl + "/" + userId + "/appends")
+                    .body(new UserAppendRequest(journalEntryIds, snippetIds))
+                    .retrieve()
+                    .toBodilessEntity();
+            logger.debug("Appended {} journal entries and {} snippets to user {}",
+                    journalEntryIds.size(), snippetIds.size(), userId);
+        } catch (RestClientException e) {
+            logger.error("Error appending to user {}", userId, e);
+            throw new UserServiceException("Failed to append to user with ID: " + userId, e);
+        }
+    }
 }
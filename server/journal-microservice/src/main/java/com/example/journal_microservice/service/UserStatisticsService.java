@@ -0,0 +1,418 @@
+package com.example.journal_microservice.service;
+
+import com.example.journal_microservice.model.JournalEntry;
+import com.example.journal_microservice.model.Snippet;
+import com.example.journal_microservice.model.UserStatistics;
+import com.example.journal_microservice.repository.UserStatisticsRepository;
+import com.mongodb.client.result.UpdateResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the per-user {@link UserStatistics} read model.
+ * Every write path applies its delta with a single atomic upsert, so reading the
+ * statistics never has to touch the journal entries or snippets of a user.
+ * Users whose statistics were never computed from their data, e.g. users created before the
+ * read model existed, are rebuilt once on their first read. Drifted statistics can be rebuilt
+ * for one user, or for all users in the background.
+ */
+@Service
+public class UserStatisticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatisticsService.class);
+
+    // Compare-and-set attempts when concurrent writes race on the activity bitmap
+    private static final int MAX_ACTIVITY_ATTEMPTS = 5;
+
+    // Attempts to store a rebuild while concurrent writes keep changing the document
+    private static final int MAX_REBUILD_ATTEMPTS = 5;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserStatisticsRepository userStatisticsRepository;
+
+    @Value("${statistics.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    private ExecutorService rebuildExecutor;
+    private final AtomicBoolean rebuildingAll = new AtomicBoolean();
+
+    @PostConstruct
+    void start() {
+        rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "statistics-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAllOnStartup() {
+        if (rebuildOnStartup) {
+            rebuildAllInBackground();
+        }
+    }
+
+    /**
+     * Starts recomputing the statistics of every user on a background thread
+     * @return Whether a run was started, false if the previous one is still in progress
+     */
+    public boolean rebuildAllInBackground() {
+        if (!rebuildingAll.compareAndSet(false, true)) {
+            return false;
+        }
+        rebuildExecutor.execute(() -> {
+            try {
+                rebuildAll();
+            } catch (Exception e) {
+                logger.error("Failed to rebuild user statistics: {}", e.getMessage(), e);
+            } finally {
+                rebuildingAll.set(false);
+            }
+        });
+        return true;
+    }
+
+    public UserStatistics getStatistics(String userId) {
+        return userStatisticsRepository.findById(userId)
+                .filter(statistics -> statistics.getRebuiltAt() != null)
+                .orElseGet(() -> rebuild(userId));
+    }
+
+    public void onSnippetCreated(Snippet snippet, boolean journalCreated, Double previousMood, Double newMood) {
+        Update update = new Update()
+                .inc("totalWords", wordsOf(snippet));
+        if (journalCreated) {
+            update.inc("totalJournals", 1);
+        }
+        applyMoodChange(update, previousMood, newMood);
+        applyActivity(update, snippet.getTimestamp());
+        upsert(snippet.getUserId(), update);
+        markActivity(snippet.getUserId(), snippet.getTimestamp(), true);
+    }
+
+    public void onSnippetUpdated(String userId, int previousWordCount, int newWordCount) {
+        Update update = new Update()
+                .inc("totalWords", newWordCount - previousWordCount);
+        applyActivity(update, new Date());
+        upsert(userId, update);
+    }
+
+    public void onSnippetDeleted(Snippet snippet, Double previousMood, Double newMood) {
+        Update update = new Update()
+                .inc("totalWords", -wordsOf(snippet));
+        applyMoodChange(update, previousMood, newMood);
+        upsert(snippet.getUserId(), update);
+    }
+
+    public void onJournalEntryCreated(JournalEntry entry) {
+        Update update = new Update().inc("totalJournals", 1);
+        applyMoodChange(update, null, entry.getDailyMood());
+        applyActivity(update, entry.getDate());
+        upsert(entry.getUserId(), update);
+        markActivity(entry.getUserId(), entry.getDate(), true);
+    }
+
+    public void onJournalEntryUpdated(String userId, Double previousMood, Double newMood) {
+        Update update = new Update();
+        applyMoodChange(update, previousMood, newMood);
+        upsert(userId, update);
+    }
+
+    public void onJournalEntryDeleted(JournalEntry entry, List<Snippet> snippets) {
+        long words = 0;
+        for (Snippet snippet : snippets) {
+            words += wordsOf(snippet);
+        }
+
+        Update update = new Update()
+                .inc("totalJournals", -1)
+                .inc("totalWords", -words);
+        applyMoodChange(update, entry.getDailyMood(), null);
+        upsert(entry.getUserId(), update);
+        if (entry.getDate() != null && !hasOtherEntryOnDay(entry)) {
+            markActivity(entry.getUserId(), entry.getDate(), false);
+        }
+    }
+
+    /**
+     * Reads only the activity bitmap of a user, a document of a few hundred bytes at most
+     * @param userId The user to read
+     * @return The bitmap, empty if the user has no recorded activity
+     */
+    public ActivityBitmap getActivity(String userId) {
+        Query query = new Query(Criteria.where("_id").is(userId));
+        query.fields().include("activityOrigin", "activity", "rebuiltAt");
+        UserStatistics statistics = mongoTemplate.findOne(query, UserStatistics.class);
+        if (statistics == null || statistics.getRebuiltAt() == null) {
+            statistics = rebuild(userId);
+        }
+        return statistics.getActivity() == null
+                ? ActivityBitmap.empty()
+                : ActivityBitmap.of(statistics.getActivityOrigin(), statistics.getActivity());
+    }
+
+    /**
+     * Recomputes the statistics document of a single user from the source collections.
+     * Used to repair drift and to backfill users created before the read model existed.
+     * The result is only stored if no write changed the document while it was computed,
+     * otherwise the rebuild starts over, so concurrent increments are never overwritten.
+     * A write whose document was already counted can still land its increment right after the
+     * store, so the version is read again afterwards and the rebuild starts over if it moved.
+     * @param userId The user to rebuild
+     * @return The rebuilt statistics
+     */
+    public UserStatistics rebuild(String userId) {
+        Query versionQuery = new Query(Criteria.where("_id").is(userId));
+        versionQuery.fields().include("version");
+
+        UserStatistics statistics = null;
+        boolean storedOnce = false;
+        for (int attempt = 0; attempt < MAX_REBUILD_ATTEMPTS; attempt++) {
+            UserStatistics current = mongoTemplate.findOne(versionQuery, UserStatistics.class);
+            long version = current != null ? current.getVersion() : 0;
+            statistics = compute(userId);
+
+            Criteria expected = Criteria.where("_id").is(userId);
+            if (current == null) {
+                expected = expected.and("version").exists(false);
+            } else if (version == 0) {
+                // Documents written before the version field existed have none
+                expected = expected.and("version").in(0L, null);
+            } else {
+                expected = expected.and("version").is(version);
+            }
+            Date now = new Date();
+            Update update = new Update()
+                    .set("totalJournals", statistics.getTotalJournals())
+                    .set("totalWords", statistics.getTotalWords())
+                    .set("moodSum", statistics.getMoodSum())
+                    .set("moodCount", statistics.getMoodCount())
+                    .set("lastActiveDay", statistics.getLastActiveDay())
+                    .set("activityOrigin", statistics.getActivityOrigin())
+                    .set("activity", statistics.getActivity())
+                    .set("updatedAt", now)
+                    .set("rebuiltAt", now)
+                    .setOnInsert("version", 0);
+            boolean stored;
+            try {
+                UpdateResult result = mongoTemplate.upsert(new Query(expected), update, UserStatistics.class);
+                stored = result.getMatchedCount() > 0 || result.getUpsertedId() != null;
+            } catch (DuplicateKeyException e) {
+                // A write created the document while we were computing; rebuild on top of it
+                stored = false;
+            }
+            if (!stored) {
+                continue;
+            }
+            storedOnce = true;
+
+            UserStatistics after = mongoTemplate.findOne(versionQuery, UserStatistics.class);
+            if (after != null && after.getVersion() == version) {
+                statistics.setVersion(version);
+                statistics.setUpdatedAt(now);
+                statistics.setRebuiltAt(now);
+                logger.debug("Rebuilt statistics for user {}: {} journals, {} words", userId,
+                        statistics.getTotalJournals(), statistics.getTotalWords());
+                return statistics;
+            }
+        }
+        if (storedOnce) {
+            // The stored totals may count a write twice; let the next read rebuild them again
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(userId)),
+                    new Update().unset("rebuiltAt"), UserStatistics.class);
+        }
+        logger.warn("Gave up storing rebuilt statistics of user {} after {} attempts",
+                userId, MAX_REBUILD_ATTEMPTS);
+        return statistics;
+    }
+
+    private UserStatistics compute(String userId) {
+        UserStatistics statistics = new UserStatistics(userId);
+        ActivityBitmap[] activity = { ActivityBitmap.empty() };
+
+        Query entriesQuery = new Query(Criteria.where("userId").is(userId));
+        entriesQuery.fields().include("dailyMood", "date");
+        try (Stream<JournalEntry> entries = mongoTemplate.stream(entriesQuery, JournalEntry.class)) {
+            entries.forEach(entry -> {
+                statistics.setTotalJournals(statistics.getTotalJournals() + 1);
+                if (entry.getDailyMood() != null) {
+                    statistics.setMoodSum(statistics.getMoodSum() + entry.getDailyMood());
+                    statistics.setMoodCount(statistics.getMoodCount() + 1);
+                }
+                statistics.setLastActiveDay(latest(statistics.getLastActiveDay(), entry.getDate()));
+                if (entry.getDate() != null) {
+                    activity[0] = activity[0].with(toLocalDate(entry.getDate()));
+                }
+            });
+        }
+        if (!activity[0].isEmpty()) {
+            statistics.setActivityOrigin(activity[0].origin());
+            statistics.setActivity(activity[0].toBytes());
+        }
+
+        Query snippetsQuery = new Query(Criteria.where("userId").is(userId));
+        snippetsQuery.fields().include("wordCount", "timestamp");
+        try (Stream<Snippet> snippets = mongoTemplate.stream(snippetsQuery, Snippet.class)) {
+            snippets.forEach(snippet -> {
+                statistics.setTotalWords(statistics.getTotalWords() + wordsOf(snippet));
+                statistics.setLastActiveDay(latest(statistics.getLastActiveDay(), snippet.getTimestamp()));
+            });
+        }
+        return statistics;
+    }
+
+    /**
+     * Recomputes the statistics documents of every user that owns at least one journal entry.
+     * @return Number of users rebuilt
+     */
+    public int rebuildAll() {
+        List<String> userIds = mongoTemplate.findDistinct(new Query(), "userId", JournalEntry.class, String.class);
+        for (String userId : userIds) {
+            rebuild(userId);
+        }
+        logger.info("Rebuilt statistics for {} users", userIds.size());
+        return userIds.size();
+    }
+
+    /**
+     * Uses the word count stored at write time and only falls back to counting
+     * the content for snippets that have not been backfilled yet.
+     */
+    private static long wordsOf(Snippet snippet) {
+        if (snippet.getWordCount() != null) {
+            return snippet.getWordCount();
+        }
+        return SnippetMetrics.countWords(snippet.getContent());
+    }
+
+    private void applyMoodChange(Update update, Double previousMood, Double newMood) {
+        double sumDelta = (newMood != null ? newMood : 0.0) - (previousMood != null ? previousMood : 0.0);
+        int countDelta = (newMood != null ? 1 : 0) - (previousMood != null ? 1 : 0);
+        if (sumDelta != 0.0) {
+            update.inc("moodSum", sumDelta);
+        }
+        if (countDelta != 0) {
+            update.inc("moodCount", countDelta);
+        }
+    }
+
+    private void applyActivity(Update update, Date date) {
+        if (date != null) {
+            update.max("lastActiveDay", startOfDay(date));
+        }
+    }
+
+    /**
+     * Sets or clears the bit of a day with a compare-and-set on the stored bytes, so that
+     * concurrent writers never lose each other's days and the counters are left untouched
+     */
+    private void markActivity(String userId, Date date, boolean active) {
+        if (userId == null || date == null) {
+            return;
+        }
+        LocalDate day = toLocalDate(date);
+        Query readQuery = new Query(Criteria.where("_id").is(userId));
+        readQuery.fields().include("activityOrigin", "activity");
+
+        for (int attempt = 0; attempt < MAX_ACTIVITY_ATTEMPTS; attempt++) {
+            UserStatistics current = mongoTemplate.findOne(readQuery, UserStatistics.class);
+            byte[] currentBytes = current != null ? current.getActivity() : null;
+            ActivityBitmap bitmap = current != null
+                    ? ActivityBitmap.of(current.getActivityOrigin(), currentBytes)
+                    : ActivityBitmap.empty();
+            ActivityBitmap updated = active ? bitmap.with(day) : bitmap.without(day);
+            if (updated == bitmap) {
+                return;
+            }
+
+            Criteria expected = Criteria.where("_id").is(userId);
+            expected = currentBytes == null
+                    ? expected.and("activity").exists(false)
+                    : expected.and("activity").is(currentBytes);
+            Update update = new Update()
+                    .set("activityOrigin", updated.origin())
+                    .set("activity", updated.toBytes())
+                    .inc("version", 1);
+            try {
+                UpdateResult result = mongoTemplate.upsert(new Query(expected), update, UserStatistics.class);
+                if (result.getMatchedCount() > 0 || result.getUpsertedId() != null) {
+                    return;
+                }
+            } catch (DuplicateKeyException e) {
+                // Another writer changed the bitmap between our read and write; retry on the new value
+            }
+        }
+        logger.warn("Gave up updating activity of user {} for {} after {} attempts",
+                userId, day, MAX_ACTIVITY_ATTEMPTS);
+    }
+
+    private boolean hasOtherEntryOnDay(JournalEntry entry) {
+        LocalDate day = toLocalDate(entry.getDate());
+        Query query = new Query(Criteria.where("userId").is(entry.getUserId())
+                .and("date").gte(toDate(day)).lt(toDate(day.plusDays(1)))
+                .and("_id").ne(entry.getId()));
+        return mongoTemplate.exists(query, JournalEntry.class);
+    }
+
+    private void upsert(String userId, Update update) {
+        if (userId == null) {
+            return;
+        }
+        update.set("updatedAt", new Date())
+                .inc("version", 1);
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(userId)), update, UserStatistics.class);
+    }
+
+    private static Date latest(Date current, Date candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        Date day = startOfDay(candidate);
+        return current == null || day.after(current) ? day : current;
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private static Date toDate(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static Date startOfDay(Date date) {
+        return Date.from(date.toInstant()
+                .atZone(ZoneId.systemDefault())
+                .toLocalDate()
+                .atStartOfDay(ZoneId.systemDefault())
+                .toInstant());
+    }
+}
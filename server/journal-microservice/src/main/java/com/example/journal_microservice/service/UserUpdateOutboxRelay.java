@@ -0,0 +1,206 @@
+package com.example.journal_microservice.service;
+
+import com.example.journal_microservice.model.OutboxEvent;
+import com.example.journal_microservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers outbox events to user-microservice in batches.
+ * Events are claimed with a lease on nextAttemptAt, so several instances can relay concurrently
+ * and an event whose relay crashed is picked up again once the lease expires. Failed deliveries
+ * are retried with exponential backoff until the maximum number of attempts is reached.
+ */
+@Component
+public class UserUpdateOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserUpdateOutboxRelay.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.relay.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${outbox.relay.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    @Value("${outbox.relay.lease-ms:60000}")
+    private long leaseMs;
+
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong oldestPendingAgeSeconds = new AtomicLong();
+    private Counter deliveredCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+    private Timer deliveryLagTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("outbox.events.pending", pendingEvents, AtomicLong::get)
+                .description("Outbox events waiting for delivery to user-microservice")
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag.seconds", oldestPendingAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest pending outbox event")
+                .register(meterRegistry);
+        deliveredCounter = meterRegistry.counter("outbox.events.delivered");
+        retriedCounter = meterRegistry.counter("outbox.events.retried");
+        failedCounter = meterRegistry.counter("outbox.events.failed");
+        deliveryLagTimer = Timer.builder("outbox.delivery.lag")
+                .description("Time from writing an outbox event to its delivery")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // Keep draining while full batches come back, so a backlog is not limited by the poll interval
+            while (relayBatch() == batchSize) {
+                logger.debug("Outbox batch full, relaying the next batch immediately");
+            }
+            updateBacklogMetrics();
+        } catch (Exception e) {
+            logger.error("Outbox relay failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Claims and delivers one batch of due events
+     * @return Number of events claimed
+     */
+    public int relayBatch() {
+        List<OutboxEvent> batch = claimBatch();
+        // One append call per user carries all of that user's journal entries and snippets
+        Map<String, List<OutboxEvent>> eventsByUser = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            eventsByUser.computeIfAbsent(event.getUserId(), userId -> new ArrayList<>()).add(event);
+        }
+        eventsByUser.forEach(this::deliver);
+        return batch.size();
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        List<OutboxEvent> batch = new ArrayList<>(batchSize);
+        Date now = new Date();
+        Query due = new Query(Criteria.where("status").is(OutboxEvent.Status.PENDING)
+                .and("nextAttemptAt").lte(now))
+                .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"));
+        Update lease = new Update().set("nextAttemptAt", new Date(now.getTime() + leaseMs));
+
+        while (batch.size() < batchSize) {
+            OutboxEvent claimed = mongoTemplate.findAndModify(due, lease,
+                    FindAndModifyOptions.options().returnNew(true), OutboxEvent.class);
+            if (claimed == null) {
+                break;
+            }
+            batch.add(claimed);
+        }
+        return batch;
+    }
+
+    private void deliver(String userId, List<OutboxEvent> events) {
+        List<String> journalEntryIds = new ArrayList<>();
+        List<String> snippetIds = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            switch (event.getType()) {
+                case JOURNAL_ENTRY_ADDED -> journalEntryIds.add(event.getTargetId());
+                case SNIPPET_ADDED -> snippetIds.add(event.getTargetId());
+            }
+        }
+
+        try {
+            userService.appendToUser(userId, journalEntryIds, snippetIds);
+        } catch (Exception e) {
+            events.forEach(event -> reschedule(event, e));
+            return;
+        }
+
+        outboxEventRepository.deleteAllById(events.stream().map(OutboxEvent::getId).toList());
+        long now = System.currentTimeMillis();
+        for (OutboxEvent event : events) {
+            deliveredCounter.increment();
+            deliveryLagTimer.record(Duration.ofMillis(now - event.getCreatedAt().getTime()));
+        }
+    }
+
+    private void reschedule(OutboxEvent event, Exception error) {
+        int attempts = event.getAttempts() + 1;
+        Update update = new Update()
+                .set("attempts", attempts)
+                .set("lastError", error.getMessage());
+
+        if (attempts >= maxAttempts) {
+            update.set("status", OutboxEvent.Status.FAILED);
+            failedCounter.increment();
+            logger.error("Giving up on {} of {} for user {} after {} attempts", event.getType(),
+                    event.getTargetId(), event.getUserId(), attempts, error);
+        } else {
+            long backoffMs = backoffMillis(attempts);
+            update.set("nextAttemptAt", new Date(System.currentTimeMillis() + backoffMs));
+            retriedCounter.increment();
+            logger.warn("Failed to deliver {} of {} for user {}, retrying in {} ms: {}", event.getType(),
+                    event.getTargetId(), event.getUserId(), backoffMs, error.getMessage());
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(event.getId())), update, OutboxEvent.class);
+    }
+
+    /**
+     * Exponential backoff: initial, 2x initial, 4x initial ... capped at the maximum
+     */
+    long backoffMillis(int attempts) {
+        int exponent = Math.min(attempts - 1, 30);
+        return Math.min(initialBackoffMs << exponent, maxBackoffMs);
+    }
+
+    private void updateBacklogMetrics() {
+        pendingEvents.set(outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING));
+        oldestPendingAgeSeconds.set(outboxEventRepository
+                .findFirstByStatusOrderByCreatedAtAsc(OutboxEvent.Status.PENDING)
+                .map(event -> (System.currentTimeMillis() - event.getCreatedAt().getTime()) / 1000)
+                .orElse(0L));
+    }
+}
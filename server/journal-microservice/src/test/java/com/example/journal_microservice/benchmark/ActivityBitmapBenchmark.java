@@ -0,0 +1,96 @@
+package com.example.journal_microservice.benchmark;
+
+import com.example.journal_microservice.service.ActivityBitmap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the streak computed by word-level scans over the stored activity bitmap with the
+ * previous computation that sorted the distinct days of all journal entries.
+ * Both sides start from their stored form: entry dates for the old path, bitmap bytes for the new one.
+ * Run with ./gradlew benchmark
+ */
+@DisplayName("Activity Bitmap Benchmark")
+class ActivityBitmapBenchmark {
+
+    private static final int DAY_COUNT = 5_000;
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 10_000;
+
+    @Test
+    @DisplayName("Bitmap vs sorted-dates streak for 5,000 active days")
+    void compareBitmapWithSortedDates() {
+        // One entry per day going back from today, so the whole history is a single streak
+        LocalDate today = LocalDate.now();
+        List<Date> entryDates = new ArrayList<>(DAY_COUNT);
+        ActivityBitmap activity = ActivityBitmap.empty();
+        for (int i = 0; i < DAY_COUNT; i++) {
+            LocalDate day = today.minusDays(i);
+            entryDates.add(Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant()));
+            activity = activity.with(day);
+        }
+        long origin = activity.origin();
+        byte[] bytes = activity.toBytes();
+
+        IntSupplier sortedDates = () -> sortedDatesStreak(entryDates, today);
+        IntSupplier bitmap = () -> ActivityBitmap.of(origin, bytes).currentStreak(today);
+
+        assertEquals(DAY_COUNT, sortedDates.getAsInt(), "Sorted-dates streak should cover every day");
+        assertEquals(sortedDates.getAsInt(), bitmap.getAsInt(), "Streak should match");
+
+        double sortedDatesMicros = measure(sortedDates);
+        double bitmapMicros = measure(bitmap);
+        System.out.printf("Streak benchmark (%d days, %d bytes): sorted dates %.2f us/op, bitmap %.2f us/op%n",
+                DAY_COUNT, bytes.length, sortedDatesMicros, bitmapMicros);
+    }
+
+    private double measure(IntSupplier operation) {
+        int sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += operation.getAsInt();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += operation.getAsInt();
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / MEASURED_ITERATIONS;
+        // Keep the results observable so the JIT cannot drop the work
+        if (sink == 42) {
+            System.out.println(sink);
+        }
+        return micros;
+    }
+
+    private int sortedDatesStreak(List<Date> entryDates, LocalDate today) {
+        Set<LocalDate> dates = entryDates.stream()
+                .map(date -> date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate())
+                .collect(Collectors.toSet());
+        List<LocalDate> sortedDates = dates.stream()
+                .sorted(Collections.reverseOrder())
+                .toList();
+
+        LocalDate currentDate = dates.contains(today) ? today : today.minusDays(1);
+        int streak = 0;
+        for (LocalDate date : sortedDates) {
+            if (date.equals(currentDate)) {
+                streak++;
+                currentDate = currentDate.minusDays(1);
+            } else if (date.isBefore(currentDate)) {
+                break;
+            }
+        }
+        return streak;
+    }
+}
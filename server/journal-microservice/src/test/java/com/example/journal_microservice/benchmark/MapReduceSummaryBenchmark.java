@@ -0,0 +1,109 @@
+package com.example.journal_microservice.benchmark;
+
+import com.example.journal_microservice.client.LLMRestClient;
+import com.example.journal_microservice.service.MapReduceSummarizer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares summarizing a heavy journaling day in one call with the map-reduce pipeline,
+ * against a local stand-in for genai-microservice whose latency grows with the prompt length.
+ * Run with ./gradlew benchmark
+ */
+@DisplayName("Map-Reduce Summary Benchmark")
+class MapReduceSummaryBenchmark {
+
+    private static final int SNIPPET_COUNT = 40;
+    private static final int SNIPPET_LENGTH = 2000;
+    private static final int CHUNK_MAX_TOKENS = 2000;
+    private static final int FAN_OUT = 4;
+    // Fixed overhead per call plus time per prompt character of the stand-in
+    private static final long BASE_LATENCY_MS = 100;
+    private static final int CHARS_PER_MS = 20;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ExecutorService summaryExecutor;
+    private LLMRestClient llmRestClient;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        llmRestClient = new LLMRestClient("http://localhost:" + server.getAddress().getPort(),
+                1000, 60000, 1000, 10, 10, 30000, 5, 30000, new SimpleMeterRegistry());
+        summaryExecutor = Executors.newFixedThreadPool(FAN_OUT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        summaryExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should summarize a heavy day faster in parallel chunks than in one call")
+    void compareSingleCallWithMapReduce() {
+        List<String> contents = new ArrayList<>();
+        for (int i = 0; i < SNIPPET_COUNT; i++) {
+            contents.add(("Snippet " + i + " about a long and eventful day. ").repeat(SNIPPET_LENGTH / 40));
+        }
+        MapReduceSummarizer summarizer = new MapReduceSummarizer(CHUNK_MAX_TOKENS, summaryExecutor);
+
+        long start = System.nanoTime();
+        assertNotNull(llmRestClient.generateJournalSummary(contents));
+        long singleCallMs = (System.nanoTime() - start) / 1_000_000;
+        calls.set(0);
+
+        start = System.nanoTime();
+        assertNotNull(summarizer.summarize(contents, llmRestClient::generateJournalSummary));
+        long mapReduceMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("Summarized %d snippets (%d tokens): single call %d ms, map-reduce %d ms with %d calls "
+                        + "and fan-out %d%n", SNIPPET_COUNT,
+                contents.stream().mapToInt(MapReduceSummarizer::estimateTokens).sum(),
+                singleCallMs, mapReduceMs, calls.get(), FAN_OUT);
+        assertTrue(mapReduceMs < singleCallMs, "Map-reduce should be faster than a single call");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        calls.incrementAndGet();
+        byte[] request = exchange.getRequestBody().readAllBytes();
+        try {
+            Thread.sleep(BASE_LATENCY_MS + request.length / CHARS_PER_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        byte[] bytes = ("{\"summary\":\"" + "A busy day with many events. ".repeat(10) + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
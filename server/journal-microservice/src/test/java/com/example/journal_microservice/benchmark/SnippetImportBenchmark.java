@@ -0,0 +1,113 @@
+package com.example.journal_microservice.benchmark;
+
+import com.example.journal_microservice.dto.SnippetImportSummary;
+import com.example.journal_microservice.repository.JournalEntryRepository;
+import com.example.journal_microservice.repository.OutboxEventRepository;
+import com.example.journal_microservice.repository.SnippetRepository;
+import com.example.journal_microservice.repository.UserStatisticsRepository;
+import com.example.journal_microservice.service.SnippetImportService;
+import com.example.journal_microservice.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures the throughput of the bulk snippet import for a migration-sized input:
+ * 50,000 snippets of 50 users spread over 200 days each.
+ * Run with ./gradlew benchmark
+ */
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+@Testcontainers
+@DisplayName("Snippet Import Benchmark")
+class SnippetImportBenchmark {
+
+    private static final int USER_COUNT = 50;
+    private static final int DAY_COUNT = 200;
+    private static final int SNIPPETS_PER_DAY = 5;
+    private static final int SNIPPET_COUNT = USER_COUNT * DAY_COUNT * SNIPPETS_PER_DAY;
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:6.0.2");
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+        registry.add("spring.data.mongodb.database", () -> "testdb");
+    }
+
+    @Autowired
+    private SnippetImportService snippetImportService;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private SnippetRepository snippetRepository;
+
+    @Autowired
+    private UserStatisticsRepository userStatisticsRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @MockitoBean
+    private UserService userService;
+
+    private String ndjson;
+
+    @BeforeEach
+    void setUp() {
+        journalEntryRepository.deleteAll();
+        snippetRepository.deleteAll();
+        userStatisticsRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+
+        // Lines are ordered by day rather than by user, like an export of several accounts
+        StringBuilder builder = new StringBuilder(SNIPPET_COUNT * 150);
+        LocalDate start = LocalDate.now().minusDays(DAY_COUNT);
+        for (int day = 0; day < DAY_COUNT; day++) {
+            for (int user = 0; user < USER_COUNT; user++) {
+                for (int i = 0; i < SNIPPETS_PER_DAY; i++) {
+                    long timestamp = start.plusDays(day).atTime(8 + i, 0)
+                            .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    builder.append("{\"userId\":\"benchmark-user-").append(user)
+                            .append("\",\"content\":\"Imported snippet number ").append(i)
+                            .append(" of the day\",\"mood\":").append((i + user) % 5 + 1)
+                            .append(",\"timestamp\":").append(timestamp).append("}\n");
+                }
+            }
+        }
+        ndjson = builder.toString();
+    }
+
+    @Test
+    @DisplayName("Bulk import of 50,000 snippets")
+    void measureImportThroughput() throws Exception {
+        long start = System.nanoTime();
+        SnippetImportSummary summary = snippetImportService.importSnippets(
+                new BufferedReader(new StringReader(ndjson)));
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        assertEquals(SNIPPET_COUNT, summary.imported());
+        assertEquals(SNIPPET_COUNT, snippetRepository.count());
+        assertEquals(USER_COUNT * DAY_COUNT, journalEntryRepository.count());
+
+        System.out.printf("Snippet import benchmark (%d snippets, %d journal entries): %.2f s, %.0f snippets/s%n",
+                SNIPPET_COUNT, USER_COUNT * DAY_COUNT, seconds, SNIPPET_COUNT / seconds);
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.journal_microservice.benchmark;
+
+import com.example.journal_microservice.dto.MoodSummary;
+import com.example.journal_microservice.model.JournalEntry;
+import com.example.journal_microservice.repository.JournalEntryRepository;
+import com.example.journal_microservice.service.UserService;
+import com.example.journal_microservice.testutil.TestDataFactory;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the server-side aggregation used for weekly statistics and streaks with the
+ * previous in-memory computation over all journal entries of a heavy user.
+ * The streak side is the day aggregation that preceded the activity bitmap, kept here as a baseline.
+ * Run with ./gradlew benchmark
+ */
+@SpringBootTest
+@Testcontainers
+@DisplayName("Statistics Aggregation Benchmark")
+class StatisticsAggregationBenchmark {
+
+    private static final int ENTRY_COUNT = 5_000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 20;
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:6.0.2");
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+        registry.add("spring.data.mongodb.database", () -> "testdb");
+    }
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @MockitoBean
+    private UserService userService;
+
+    private final String userId = "benchmark-user";
+
+    @BeforeEach
+    void setUp() {
+        journalEntryRepository.deleteAll();
+
+        // One entry per day going back from today, so the whole history is a single streak
+        List<JournalEntry> entries = new ArrayList<>(ENTRY_COUNT);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            JournalEntry entry = TestDataFactory.createJournalEntryWithSpecificDate(userId, today.minusDays(i));
+            entry.setUpdatedAt(entry.getDate());
+            entry.setDailyMood((double) (i % 5));
+            entries.add(entry);
+        }
+        mongoTemplate.insertAll(entries);
+    }
+
+    @Test
+    @DisplayName("Aggregation vs in-memory weekly statistics and streak for 5,000 entries")
+    void compareAggregationWithInMemory() {
+        LocalDate startOfWeek = LocalDate.now().with(DayOfWeek.MONDAY);
+        Date from = toDate(startOfWeek);
+        Date to = toDate(startOfWeek.plusWeeks(1));
+
+        Supplier<long[]> inMemory = () -> {
+            List<JournalEntry> all = journalEntryRepository.findByUserId(userId);
+            return new long[] { inMemoryWeeklyCount(all, startOfWeek), inMemoryStreak(all) };
+        };
+        Supplier<long[]> aggregation = () -> {
+            MoodSummary weekly = journalEntryRepository.summarizeMood(userId, from, to);
+            return new long[] { weekly.journalCount(), aggregationStreak() };
+        };
+
+        long[] expected = inMemory.get();
+        long[] actual = aggregation.get();
+        assertEquals(expected[0], actual[0], "Weekly journal count should match");
+        assertEquals(expected[1], actual[1], "Streak should match");
+
+        double inMemoryMillis = measure(inMemory);
+        double aggregationMillis = measure(aggregation);
+        System.out.printf("Statistics benchmark (%d entries): in-memory %.2f ms/op, aggregation %.2f ms/op%n",
+                ENTRY_COUNT, inMemoryMillis, aggregationMillis);
+    }
+
+    private double measure(Supplier<long[]> operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            operation.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ITERATIONS;
+    }
+
+    private long aggregationStreak() {
+        // The windowed walk JournalEntryService used before the activity bitmap
+        LocalDate today = LocalDate.now();
+        LocalDate windowEnd = today.plusDays(1);
+        LocalDate expectedDate = today;
+        long streak = 0;
+        while (true) {
+            LocalDate windowStart = windowEnd.minusDays(60);
+            for (LocalDate day : findActiveDays(toDate(windowStart), toDate(windowEnd))) {
+                if (!day.equals(expectedDate)) {
+                    return streak;
+                }
+                streak++;
+                expectedDate = expectedDate.minusDays(1);
+            }
+            if (!expectedDate.isBefore(windowStart)) {
+                return streak;
+            }
+            windowEnd = windowStart;
+        }
+    }
+
+    // Distinct days in [from, to) with a journal entry, most recent first
+    private List<LocalDate> findActiveDays(Date from, Date to) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("userId").is(userId).and("date").gte(from).lt(to)),
+                Aggregation.project()
+                        .and(DateOperators.DateToString.dateOf("date")
+                                .toString("%Y-%m-%d")
+                                .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId())))
+                        .as("day"),
+                Aggregation.group("day"),
+                Aggregation.sort(Sort.Direction.DESC, "_id"));
+
+        return mongoTemplate.aggregate(aggregation, JournalEntry.class, Document.class)
+                .getMappedResults()
+                .stream()
+                .map(day -> LocalDate.parse(day.getString("_id")))
+                .toList();
+    }
+
+    private long inMemoryWeeklyCount(List<JournalEntry> entries, LocalDate startOfWeek) {
+        LocalDate endOfWeek = startOfWeek.plusDays(6);
+        return entries.stream()
+                .filter(entry -> entry.getUpdatedAt() != null)
+                .map(entry -> entry.getUpdatedAt().toInstant().atZone(ZoneId.systemDefault()).toLocalDate())
+                .filter(date -> !date.isBefore(startOfWeek) && !date.isAfter(endOfWeek))
+                .count();
+    }
+
+    private long inMemoryStreak(List<JournalEntry> entries) {
+        Set<LocalDate> dates = entries.stream()
+                .filter(entry -> entry.getUpdatedAt() != null)
+                .map(entry -> entry.getUpdatedAt().toInstant().atZone(ZoneId.systemDefault()).toLocalDate())
+                .collect(Collectors.toSet());
+        List<LocalDate> sortedDates = dates.stream()
+                .sorted(Collections.reverseOrder())
+                .toList();
+
+        LocalDate currentDate = dates.contains(LocalDate.now()) ? LocalDate.now() : LocalDate.now().minusDays(1);
+        long streak = 0;
+        for (LocalDate date : sortedDates) {
+            if (date.equals(currentDate)) {
+                streak++;
+                currentDate = currentDate.minusDays(1);
+            } else if (date.isBefore(currentDate)) {
+                break;
+            }
+        }
+        return streak;
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.journal_microservice.integration;
+
+import com.example.journal_microservice.client.LLMRestClient;
+import com.example.journal_microservice.exception.JournalEntryNotFoundException;
+import com.example.journal_microservice.model.AnalysisJob;
+import com.example.journal_microservice.model.JournalEntry;
+import com.example.journal_microservice.model.Snippet;
+import com.example.journal_microservice.repository.AnalysisJobRepository;
+import com.example.journal_microservice.repository.JournalEntryRepository;
+import com.example.journal_microservice.repository.SnippetRepository;
+import com.example.journal_microservice.service.AnalysisJobService;
+import com.example.journal_microservice.service.SnippetService;
+import com.example.journal_microservice.service.UserService;
+import com.example.journal_microservice.testutil.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        // The workers are disabled so each test drives the job itself
+        "outbox.relay.enabled=false",
+        "llm.jobs.enabled=false",
+        "llm.jobs.max-attempts=2"
+})
+@Testcontainers
+@DisplayName("Analysis Job Integration Tests")
+class AnalysisJobIntegrationTest {
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:6.0.2");
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+        registry.add("spring.data.mongodb.database", () -> "testdb");
+    }
+
+    @Autowired
+    private AnalysisJobService analysisJobService;
+
+    @Autowired
+    private SnippetService snippetService;
+
+    @Autowired
+    private AnalysisJobRepository analysisJobRepository;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private SnippetRepository snippetRepository;
+
+    @MockitoBean
+    private LLMRestClient llmRestClient;
+
+    @MockitoBean
+    private UserService userService;
+
+    private String journalEntryId;
+
+    @BeforeEach
+    void setUp() {
+        analysisJobRepository.deleteAll();
+        journalEntryRepository.deleteAll();
+        snippetRepository.deleteAll();
+
+        Snippet snippet = snippetService.createSnippet(
+                TestDataFactory.createSnippet("test-user-jobs", "Went for a long walk", null));
+        journalEntryId = snippet.getJournalEntryId();
+    }
+
+    @Test
+    @DisplayName("Should queue a summary job and store its result on the job and the journal entry")
+    void shouldCompleteSummaryJob() {
+        // Given
+        when(llmRestClient.generateJournalSummary(anyList())).thenReturn("A calm day");
+
+        // When
+        AnalysisJob queued = analysisJobService.enqueue(journalEntryId, AnalysisJob.Type.SUMMARY, false);
+        assertEquals(AnalysisJob.Status.PENDING, queued.getStatus());
+        AnalysisJob claimed = analysisJobService.claimJob();
+        analysisJobService.run(claimed);
+
+        // Then
+        AnalysisJob job = analysisJobService.getJob(queued.getId());
+        assertEquals(AnalysisJob.Status.COMPLETED, job.getStatus());
+        assertEquals("A calm day", job.getSummary());
+        assertNotNull(job.getFinishedAt());
+        assertEquals("A calm day", journalEntryRepository.findById(journalEntryId).map(JournalEntry::getSummary)
+                .orElseThrow());
+        assertNull(analysisJobService.claimJob());
+    }
+
+    @Test
+    @DisplayName("Should renew the lease of a running job so no other worker claims it")
+    void shouldRenewLeaseOfRunningJob() {
+        // Given - a running job whose lease has just expired
+        AnalysisJob queued = analysisJobService.enqueue(journalEntryId, AnalysisJob.Type.SUMMARY, false);
+        AnalysisJob claimed = analysisJobService.claimJob();
+        claimed.setNextAttemptAt(new Date());
+        analysisJobRepository.save(claimed);
+        @SuppressWarnings("unchecked")
+        Set<String> runningLeaseTokens = (Set<String>) ReflectionTestUtils.getField(analysisJobService,
+                "runningLeaseTokens");
+        runningLeaseTokens.add(claimed.getLeaseToken());
+
+        try {
+            // When
+            analysisJobService.renewLeases();
+
+            // Then
+            assertTrue(analysisJobService.getJob(queued.getId()).getNextAttemptAt().after(new Date()));
+            assertNull(analysisJobService.claimJob());
+        } finally {
+            runningLeaseTokens.remove(claimed.getLeaseToken());
+        }
+    }
+
+    @Test
+    @DisplayName("Should retry a job after a delay and give up after the maximum number of attempts")
+    void shouldRetryAndFailInsightsJob() {
+        // Given - the LLM service returns nothing
+        when(llmRestClient.generateJournalInsights(anyList())).thenReturn(null);
+        AnalysisJob queued = analysisJobService.enqueue(journalEntryId, AnalysisJob.Type.INSIGHTS, false);
+
+        // When - first attempt
+        analysisJobService.run(analysisJobService.claimJob());
+
+        // Then - rescheduled, not claimable before the retry delay
+        AnalysisJob retried = analysisJobService.getJob(queued.getId());
+        assertEquals(AnalysisJob.Status.PENDING, retried.getStatus());
+        assertEquals(1, retried.getAttempts());
+        assertTrue(retried.getNextAttemptAt().after(new Date()));
+        assertNull(analysisJobService.claimJob());
+
+        // When - second and last attempt, once the retry is due
+        retried.setNextAttemptAt(new Date());
+        analysisJobRepository.save(retried);
+        analysisJobService.run(analysisJobService.claimJob());
+
+        // Then
+        AnalysisJob failed = analysisJobService.getJob(queued.getId());
+        assertEquals(AnalysisJob.Status.FAILED, failed.getStatus());
+        assertEquals(2, failed.getAttempts());
+        assertNotNull(failed.getLastError());
+    }
+
+    @Test
+    @DisplayName("Should count every claim as an attempt and give up on a job whose workers keep stopping")
+    void shouldGiveUpOnJobThatKeepsStoppingItsWorker() {
+        // Given - two claims whose workers stopped without finishing
+        AnalysisJob queued = analysisJobService.enqueue(journalEntryId, AnalysisJob.Type.SUMMARY, false);
+        expireLease(analysisJobService.claimJob());
+        AnalysisJob reclaimed = analysisJobService.claimJob();
+        expireLease(reclaimed);
+
+        // When
+        AnalysisJob claimedAgain = analysisJobService.claimJob();
+        analysisJobService.failAbandonedJobs();
+
+        // Then
+        assertEquals(2, reclaimed.getAttempts());
+        assertNull(claimedAgain);
+        AnalysisJob failed = analysisJobService.getJob(queued.getId());
+        assertEquals(AnalysisJob.Status.FAILED, failed.getStatus());
+        assertNotNull(failed.getFinishedAt());
+    }
+
+    @Test
+    @DisplayName("Should discard the result of a worker whose lease was taken over")
+    void shouldDiscardResultOfExpiredLease() {
+        // Given - the first worker's lease expired and another worker claimed the job
+        when(llmRestClient.generateJournalSummary(anyList())).thenReturn("A calm day");
+        AnalysisJob queued = analysisJobService.enqueue(journalEntryId, AnalysisJob.Type.SUMMARY, false);
+        AnalysisJob stale = analysisJobService.claimJob();
+        expireLease(stale);
+        AnalysisJob current = analysisJobService.claimJob();
+
+        // When
+        analysisJobService.run(stale);
+
+        // Then - the job still belongs to the second worker
+        AnalysisJob job = analysisJobService.getJob(queued.getId());
+        assertEquals(AnalysisJob.Status.RUNNING, job.getStatus());
+        assertEquals(current.getLeaseToken(), job.getLeaseToken());
+        assertNull(job.getSummary());
+
+        // When
+        analysisJobService.run(current);
+
+        // Then
+        assertEquals(AnalysisJob.Status.COMPLETED, analysisJobService.getJob(queued.getId()).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should complete an insights job with the generated insights")
+    void shouldCompleteInsightsJob() {
+        // Given
+        when(llmRestClient.generateJournalInsights(anyList())).thenReturn(Map.of(
+                "analysis", "Balanced",
+                "insights", Map.of("moodPattern", "Steady")));
+        AnalysisJob queued = analysisJobService.enqueue(journalEntryId, AnalysisJob.Type.INSIGHTS, true);
+
+        // When
+        analysisJobService.run(analysisJobService.claimJob());
+
+        // Then
+        AnalysisJob job = analysisJobService.getJob(queued.getId());
+        assertEquals(AnalysisJob.Status.COMPLETED, job.getStatus());
+        assertEquals("Balanced", job.getInsights().getAnalysis());
+        assertEquals("Steady", job.getInsights().getMoodPattern());
+    }
+
+    @Test
+    @DisplayName("Should reject a job for an unknown journal entry")
+    void shouldRejectUnknownJournalEntry() {
+        assertThrows(JournalEntryNotFoundException.class,
+                () -> analysisJobService.enqueue("unknown", AnalysisJob.Type.SUMMARY, false));
+        assertEquals(List.of(), analysisJobRepository.findAll());
+    }
+
+    private void expireLease(AnalysisJob job) {
+        job.setNextAttemptAt(new Date());
+        analysisJobRepository.save(job);
+    }
+}
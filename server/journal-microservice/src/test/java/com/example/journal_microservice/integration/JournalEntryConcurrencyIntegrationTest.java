@@ -0,0 +1,190 @@
+package com.example.journal_microservice.integration;
+
+import com.example.journal_microservice.config.MongoIndexVerifier;
+import com.example.journal_microservice.model.JournalEntry;
+import com.example.journal_microservice.model.Snippet;
+import com.example.journal_microservice.repository.JournalEntryRepository;
+import com.example.journal_microservice.repository.SnippetRepository;
+import com.example.journal_microservice.service.SnippetService;
+import com.example.journal_microservice.service.UserService;
+import com.example.journal_microservice.testutil.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+@Testcontainers
+@DisplayName("Journal Entry Concurrency Integration Tests")
+class JournalEntryConcurrencyIntegrationTest {
+
+    private static final int THREADS = 16;
+    private static final int SNIPPETS_PER_THREAD = 25;
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:6.0.2");
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+        registry.add("spring.data.mongodb.database", () -> "testdb");
+    }
+
+    @Autowired
+    private SnippetService snippetService;
+
+    @Autowired
+    private SnippetRepository snippetRepository;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private MongoIndexVerifier mongoIndexVerifier;
+
+    @MockitoBean
+    private UserService userService;
+
+    private final String userId = "test-user-concurrency";
+
+    @BeforeEach
+    void setUp() {
+        journalEntryRepository.deleteAll();
+        snippetRepository.deleteAll();
+        mongoIndexVerifier.ensureIndexes();
+    }
+
+    @Test
+    @DisplayName("Should keep an exact daily mood when many threads add snippets to the same entry")
+    void shouldKeepExactMoodUnderConcurrentCreates() throws Exception {
+        // Given - the day's entry exists, so every thread writes to the same document
+        Date now = new Date();
+        Snippet first = snippetService.createSnippet(snippetWithMood(now, 1.0));
+
+        // When
+        List<Snippet> created = runConcurrently(thread -> {
+            List<Snippet> snippets = new ArrayList<>();
+            for (int i = 0; i < SNIPPETS_PER_THREAD; i++) {
+                snippets.add(snippetService.createSnippet(snippetWithMood(now, 1.0 + (thread + i) % 5)));
+            }
+            return snippets;
+        });
+
+        // Then
+        double expectedSum = 1.0 + created.stream().mapToDouble(Snippet::getMood).sum();
+        int expectedCount = created.size() + 1;
+        JournalEntry entry = journalEntryRepository.findById(first.getJournalEntryId()).orElseThrow();
+        assertEquals(1, journalEntryRepository.count());
+        assertEquals(expectedCount, entry.getSnippetIds().size());
+        assertEquals(expectedCount, entry.getMoodCount());
+        assertEquals(expectedSum, entry.getMoodSum());
+        assertEquals(expectedSum / expectedCount, entry.getDailyMood());
+    }
+
+    @Test
+    @DisplayName("Should keep an exact daily mood when snippets are added and deleted concurrently")
+    void shouldKeepExactMoodUnderConcurrentCreatesAndDeletes() throws Exception {
+        // Given
+        Date now = new Date();
+        Snippet kept = snippetService.createSnippet(snippetWithMood(now, 5.0));
+        List<Snippet> toDelete = new ArrayList<>();
+        for (int i = 0; i < THREADS * SNIPPETS_PER_THREAD; i++) {
+            toDelete.add(snippetService.createSnippet(snippetWithMood(now, 1.0 + i % 5)));
+        }
+
+        // When - half of the threads delete while the other half add
+        List<Snippet> created = runConcurrently(thread -> {
+            List<Snippet> snippets = new ArrayList<>();
+            for (int i = 0; i < SNIPPETS_PER_THREAD * 2; i++) {
+                if (thread % 2 == 0) {
+                    snippets.add(snippetService.createSnippet(snippetWithMood(now, 2.0)));
+                } else {
+                    snippetService.deleteSnippet(toDelete.get((thread / 2) * SNIPPETS_PER_THREAD * 2 + i).getId());
+                }
+            }
+            return snippets;
+        });
+
+        // Then - only the kept snippet and the new ones remain
+        int expectedCount = created.size() + 1;
+        double expectedSum = 5.0 + 2.0 * created.size();
+        JournalEntry entry = journalEntryRepository.findById(kept.getJournalEntryId()).orElseThrow();
+        assertEquals(expectedCount, entry.getSnippetIds().size());
+        assertEquals(expectedCount, entry.getMoodCount());
+        assertEquals(expectedSum, entry.getMoodSum());
+        assertEquals(expectedSum / expectedCount, entry.getDailyMood());
+    }
+
+    @Test
+    @DisplayName("Should create exactly one journal entry when the first snippets of a day arrive concurrently")
+    void shouldCreateOneEntryForConcurrentFirstSnippets() throws Exception {
+        // Given
+        Date now = new Date();
+
+        // When
+        List<Snippet> created = runConcurrently(thread ->
+                List.of(snippetService.createSnippet(snippetWithMood(now, 3.0))));
+
+        // Then
+        assertEquals(1, journalEntryRepository.count());
+        assertEquals(1, created.stream().map(Snippet::getJournalEntryId).distinct().count());
+        JournalEntry entry = journalEntryRepository.findById(created.get(0).getJournalEntryId()).orElseThrow();
+        assertEquals(THREADS, entry.getSnippetIds().size());
+        assertEquals(3.0, entry.getDailyMood());
+    }
+
+    private Snippet snippetWithMood(Date timestamp, double mood) {
+        Snippet snippet = TestDataFactory.createSnippet(userId, "Concurrent snippet", null);
+        snippet.setTimestamp(timestamp);
+        snippet.setMood(mood);
+        return snippet;
+    }
+
+    private interface ThreadTask {
+        List<Snippet> run(int thread) throws Exception;
+    }
+
+    private List<Snippet> runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<Snippet>>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                Callable<List<Snippet>> worker = () -> {
+                    start.await();
+                    return task.run(thread);
+                };
+                futures.add(executor.submit(worker));
+            }
+            start.countDown();
+
+            List<Snippet> results = new ArrayList<>();
+            for (Future<List<Snippet>> future : futures) {
+                results.addAll(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.journal_microservice.integration;
 
 import com.example.journal_microservice.model.JournalEntry;
 import com.example.journal_microservice.repository.JournalEntryRepository;
+import com.example.journal_microservice.repository.UserStatisticsRepository;
 import com.example.journal_microservice.service.JournalEntryService;
 import com.example.journal_microservice.service.UserService;
 import com.example.journal_microservice.testutil.TestDataFactory;
@@ -45,6 +46,9 @@ class JournalEntryIntegrationTest {
     @Autowired
     private JournalEntryRepository journalEntryRepository;
 
+    @Autowired
+    private UserStatisticsRepository userStatisticsRepository;
+
     @MockitoBean
     private UserService userService;
 
@@ -54,6 +58,7 @@ class JournalEntryIntegrationTest {
     void setUp() {
         // Clean up database before each test
         journalEntryRepository.deleteAll();
+        userStatisticsRepository.deleteAll();
         
         // Mock user service calls
         doNothing().when(userService).addJournalEntryToUser(anyString(), anyString());
@@ -108,6 +113,33 @@ class JournalEntryIntegrationTest {
         assertEquals(3.0, retrievedEntry.getDailyMood());
     }
 
+    @Test
+    @DisplayName("Should keep snippets added concurrently when updating a journal entry")
+    void shouldKeepConcurrentSnippetChangesWhenUpdating() {
+        // Given - an entry with two snippets, and a third one appended after the client loaded it
+        JournalEntry entry = TestDataFactory.createJournalEntry(userId, "Original Title", "Original summary");
+        entry.setSnippetIds(List.of("snippet-1", "snippet-2"));
+        entry.setMoodSum(6.0);
+        entry.setMoodCount(2);
+        JournalEntry savedEntry = journalEntryRepository.save(entry);
+        journalEntryRepository.addSnippet(savedEntry.getId(), "snippet-3", 5.0);
+
+        // When
+        JournalEntry updateData = new JournalEntry();
+        updateData.setTitle("$title");
+        updateData.setDailyMood(4.0);
+        journalEntryService.updateJournalEntry(savedEntry.getId(), updateData);
+
+        // Then - the snippet survives and the mood aggregate is rescaled from the stored count
+        JournalEntry storedEntry = journalEntryRepository.findById(savedEntry.getId()).orElseThrow();
+        assertEquals(List.of("snippet-1", "snippet-2", "snippet-3"), storedEntry.getSnippetIds());
+        assertEquals(3, storedEntry.getMoodCount());
+        assertEquals(12.0, storedEntry.getMoodSum());
+        assertEquals(4.0, storedEntry.getDailyMood());
+        assertEquals("$title", storedEntry.getTitle());
+        assertEquals("Original summary", storedEntry.getSummary());
+    }
+
     @Test
     @DisplayName("Should delete journal entry from database")
     void shouldDeleteJournalEntryFromDatabase() {
@@ -183,6 +215,33 @@ class JournalEntryIntegrationTest {
         assertTrue(statistics.containsKey("currentStreak"));
     }
 
+    @Test
+    @DisplayName("Should rebuild statistics on first read for users written before the read model")
+    void shouldRebuildStatisticsOfExistingUsersOnFirstRead() {
+        // Given - two entries from before the read model, then one write that only records its own delta
+        List<JournalEntry> entries = TestDataFactory.createMultipleJournalEntries(userId, 3);
+        entries.get(0).setDailyMood(1.0);
+        entries.get(1).setDailyMood(2.0);
+        entries.get(2).setDailyMood(3.0);
+        journalEntryRepository.save(entries.get(1));
+        journalEntryRepository.save(entries.get(2));
+        journalEntryService.createJournalEntry(entries.get(0));
+        assertNull(userStatisticsRepository.findById(userId).orElseThrow().getRebuiltAt());
+
+        // When
+        Map<String, Object> statistics = journalEntryService.getUserStatistics(userId);
+
+        // Then - the totals cover all entries and later writes apply on top of them
+        assertEquals(3, statistics.get("totalJournals"));
+        assertEquals(2.0, statistics.get("avgMood"));
+        assertNotNull(userStatisticsRepository.findById(userId).orElseThrow().getRebuiltAt());
+
+        JournalEntry another = TestDataFactory.createJournalEntry(userId, "Entry 4", "Summary 4");
+        another.setDate(java.sql.Date.valueOf(LocalDate.now().minusDays(10)));
+        journalEntryService.createJournalEntry(another);
+        assertEquals(4, journalEntryService.getUserStatistics(userId).get("totalJournals"));
+    }
+
     @Test
     @DisplayName("Should handle MongoDB transactions correctly")
     void shouldHandleMongoDBTransactionsCorrectly() {
@@ -212,7 +271,7 @@ class JournalEntryIntegrationTest {
 
         // When - Create multiple entries
         for (int i = 0; i < 3; i++) {
-            JournalEntry entry = TestDataFactory.createJournalEntry(userId, "Entry " + i, "Summary " + i);
+            JournalEntry entry = TestDataFactory.createJournalEntryWithSpecificDate(userId, LocalDate.now().minusDays(i));
             journalEntryService.createJournalEntry(entry);
         }
 
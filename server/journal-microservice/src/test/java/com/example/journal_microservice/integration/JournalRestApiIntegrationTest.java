@@ -1,7 +1,9 @@
 package com.example.journal_microservice.integration;
 
 import com.example.journal_microservice.model.JournalEntry;
+import com.example.journal_microservice.model.UserStatistics;
 import com.example.journal_microservice.repository.JournalEntryRepository;
+import com.example.journal_microservice.repository.UserStatisticsRepository;
 import com.example.journal_microservice.service.UserService;
 import com.example.journal_microservice.testutil.TestDataFactory;
 import com.example.journal_microservice.testutil.TestMongoConfig;
@@ -50,6 +52,9 @@ class JournalRestApiIntegrationTest {
     @Autowired
     private JournalEntryRepository journalEntryRepository;
 
+    @Autowired
+    private UserStatisticsRepository userStatisticsRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -61,6 +66,7 @@ class JournalRestApiIntegrationTest {
     @BeforeEach
     void setUp() {
         journalEntryRepository.deleteAll();
+        userStatisticsRepository.deleteAll();
         doNothing().when(userService).addJournalEntryToUser(anyString(), anyString());
     }
 
@@ -87,6 +93,7 @@ class JournalRestApiIntegrationTest {
         // Given
         JournalEntry entry1 = TestDataFactory.createJournalEntry(userId, "Entry 1", "Summary 1");
         JournalEntry entry2 = TestDataFactory.createJournalEntry(userId, "Entry 2", "Summary 2");
+        entry2.setDate(java.sql.Date.valueOf(java.time.LocalDate.now().minusDays(1)));
         journalEntryRepository.save(entry1);
         journalEntryRepository.save(entry2);
 
@@ -185,10 +192,11 @@ class JournalRestApiIntegrationTest {
         entry1.setDailyMood(2.0);
         JournalEntry entry2 = TestDataFactory.createJournalEntry(userId, "Entry 2", "Summary 2");
         entry2.setDailyMood(4.0);
+        entry2.setDate(java.sql.Date.valueOf(java.time.LocalDate.now().minusDays(1)));
         journalEntryRepository.save(entry1);
         journalEntryRepository.save(entry2);
 
-        // When & Then
+        // When & Then - entries saved directly through the repository are picked up by the rebuild on first read
         mockMvc.perform(get("/api/journalEntry/{userId}/statistics", userId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.totalJournals").value(2))
@@ -197,6 +205,74 @@ class JournalRestApiIntegrationTest {
                 .andExpect(jsonPath("$.currentStreak").exists());
     }
 
+    @Test
+    @DisplayName("Should repair drifted statistics through the internal rebuild route")
+    void shouldRebuildDriftedStatisticsViaInternalRoute() throws Exception {
+        // Given - statistics that were computed once and then drifted
+        JournalEntry entry = TestDataFactory.createJournalEntry(userId, "Entry 1", "Summary 1");
+        entry.setDailyMood(4.0);
+        journalEntryRepository.save(entry);
+        mockMvc.perform(get("/api/journalEntry/{userId}/statistics", userId))
+                .andExpect(jsonPath("$.totalJournals").value(1));
+        UserStatistics drifted = userStatisticsRepository.findById(userId).orElseThrow();
+        drifted.setTotalJournals(7);
+        userStatisticsRepository.save(drifted);
+
+        // When
+        mockMvc.perform(post("/api/user-data/{userId}/statistics/rebuild", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalJournals").value(1));
+
+        // Then
+        mockMvc.perform(get("/api/journalEntry/{userId}/statistics", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalJournals").value(1))
+                .andExpect(jsonPath("$.avgMood").value(4.0));
+    }
+
+    @Test
+    @DisplayName("Should page through journal entries newest first via REST API")
+    void shouldPageThroughJournalEntriesViaRestApi() throws Exception {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            JournalEntry entry = TestDataFactory.createJournalEntryWithSpecificDate(userId,
+                    java.time.LocalDate.of(2024, 1, 10 + i));
+            entry.setTitle("Entry " + i);
+            journalEntryRepository.save(entry);
+        }
+
+        // When & Then - first page
+        String firstPage = mockMvc.perform(get("/api/journalEntry/{userId}", userId)
+                .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].title").value("Entry 4"))
+                .andExpect(jsonPath("$.data[1].title").value("Entry 3"))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        // Second page
+        String secondPage = mockMvc.perform(get("/api/journalEntry/{userId}", userId)
+                .param("limit", "2")
+                .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].title").value("Entry 2"))
+                .andExpect(jsonPath("$.data[1].title").value("Entry 1"))
+                .andReturn().getResponse().getContentAsString();
+        cursor = objectMapper.readTree(secondPage).get("nextCursor").asText();
+
+        // Last page has no next cursor
+        mockMvc.perform(get("/api/journalEntry/{userId}", userId)
+                .param("limit", "2")
+                .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].title").value("Entry 0"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
     @Test
     @DisplayName("Should handle invalid date format in REST API")
     void shouldHandleInvalidDateFormatInRestApi() throws Exception {
@@ -0,0 +1,114 @@
+package com.example.journal_microservice.integration;
+
+import com.example.journal_microservice.model.OutboxEvent;
+import com.example.journal_microservice.repository.OutboxEventRepository;
+import com.example.journal_microservice.service.OutboxService;
+import com.example.journal_microservice.service.UserService;
+import com.example.journal_microservice.service.UserUpdateOutboxRelay;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {
+        // The scheduled relay is disabled so each test drives relayBatch() itself
+        "outbox.relay.enabled=false",
+        "outbox.relay.max-attempts=2",
+        "outbox.relay.initial-backoff-ms=60000"
+})
+@Testcontainers
+@DisplayName("Outbox Relay Integration Tests")
+class OutboxRelayIntegrationTest {
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:6.0.2");
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+        registry.add("spring.data.mongodb.database", () -> "testdb");
+    }
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private UserUpdateOutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @MockitoBean
+    private UserService userService;
+
+    private final String userId = "test-user-outbox";
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should deliver queued events and remove them from the outbox")
+    void shouldDeliverQueuedEvents() {
+        // Given
+        outboxService.enqueueJournalEntryAdded(userId, "entry-1");
+        outboxService.enqueueSnippetAdded(userId, "snippet-1");
+        outboxService.enqueueSnippetAdded(userId, "snippet-2");
+        outboxService.enqueueSnippetAdded("other-user", "snippet-3");
+
+        // When
+        int relayed = outboxRelay.relayBatch();
+
+        // Then - one append call per user
+        assertEquals(4, relayed);
+        verify(userService).appendToUser(userId, List.of("entry-1"), List.of("snippet-1", "snippet-2"));
+        verify(userService).appendToUser("other-user", List.of(), List.of("snippet-3"));
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should back off after a failed delivery and give up after the maximum attempts")
+    void shouldBackOffAndGiveUp() {
+        // Given
+        doThrow(new RuntimeException("User service unavailable"))
+                .when(userService).appendToUser(userId, List.of(), List.of("snippet-1"));
+        outboxService.enqueueSnippetAdded(userId, "snippet-1");
+
+        // When - first attempt fails and schedules the retry a minute ahead
+        outboxRelay.relayBatch();
+
+        // Then
+        OutboxEvent event = outboxEventRepository.findAll().get(0);
+        assertEquals(1, event.getAttempts());
+        assertEquals(OutboxEvent.Status.PENDING, event.getStatus());
+        assertTrue(event.getNextAttemptAt().after(new Date(System.currentTimeMillis() + 30_000)));
+        assertEquals("User service unavailable", event.getLastError());
+        assertEquals(0, outboxRelay.relayBatch(), "Event should not be due before its backoff expires");
+
+        // When - the retry is due and fails again
+        event.setNextAttemptAt(new Date());
+        outboxEventRepository.save(event);
+        outboxRelay.relayBatch();
+
+        // Then
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertEquals(1, events.size());
+        assertEquals(OutboxEvent.Status.FAILED, events.get(0).getStatus());
+        assertEquals(0, outboxRelay.relayBatch());
+        verify(userService, times(2)).appendToUser(userId, List.of(), List.of("snippet-1"));
+    }
+}
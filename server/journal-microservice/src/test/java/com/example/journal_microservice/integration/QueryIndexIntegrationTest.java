@@ -0,0 +1,224 @@
+package com.example.journal_microservice.integration;
+
+import com.example.journal_microservice.config.MongoIndexVerifier;
+import com.example.journal_microservice.model.JournalEntry;
+import com.example.journal_microservice.model.Snippet;
+import com.example.journal_microservice.repository.JournalEntryRepository;
+import com.example.journal_microservice.repository.SnippetRepository;
+import com.example.journal_microservice.service.JournalEntryDeduplicationService;
+import com.example.journal_microservice.service.UserService;
+import com.example.journal_microservice.testutil.TestDataFactory;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies with explain() that the per-user and per-day lookups are served by the declared indexes
+ */
+@SpringBootTest
+@Testcontainers
+@DisplayName("Query Index Integration Tests")
+class QueryIndexIntegrationTest {
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:6.0.2");
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+        registry.add("spring.data.mongodb.database", () -> "testdb");
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoIndexVerifier mongoIndexVerifier;
+
+    @Autowired
+    private JournalEntryDeduplicationService journalEntryDeduplicationService;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private SnippetRepository snippetRepository;
+
+    @MockitoBean
+    private UserService userService;
+
+    private final String userId = "test-user-indexes";
+    private final LocalDate day = LocalDate.of(2024, 1, 15);
+
+    @BeforeEach
+    void setUp() {
+        journalEntryRepository.deleteAll();
+        snippetRepository.deleteAll();
+        mongoIndexVerifier.ensureIndexes();
+
+        // A few documents so the planner has something to choose between
+        for (int i = 0; i < 5; i++) {
+            journalEntryRepository.save(TestDataFactory.createJournalEntryWithSpecificDate(userId, day.minusDays(i)));
+            snippetRepository.save(TestDataFactory.createSnippet(userId, "Content " + i, "entry-" + i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should report no missing indexes after startup")
+    void shouldReportNoMissingIndexes() {
+        assertTrue(mongoIndexVerifier.findMissingIndexes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should verify the indexes while starting, before requests are served")
+    void shouldVerifyIndexesBeforeServing() {
+        // The context is started, so the verification no longer reports an unknown state
+        assertEquals(Status.UP, mongoIndexVerifier.health().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should use an index for journal entries of a user and day")
+    void shouldUseIndexForJournalEntriesOfDay() {
+        Document filter = new Document("userId", userId)
+                .append("date", new Document("$gte", startOfDay(day)).append("$lt", startOfDay(day.plusDays(1))));
+
+        assertNoCollectionScan(explain(JournalEntry.class, filter));
+    }
+
+    @Test
+    @DisplayName("Should use an index for the journal entry of a date and user")
+    void shouldUseIndexForJournalEntryOfDateAndUser() {
+        Document filter = new Document("date", startOfDay(day)).append("userId", userId);
+
+        assertNoCollectionScan(explain(JournalEntry.class, filter));
+    }
+
+    @Test
+    @DisplayName("Should reject a second journal entry for the same user and day")
+    void shouldRejectDuplicateJournalEntryOfDay() {
+        JournalEntry duplicate = TestDataFactory.createJournalEntryWithSpecificDate(userId, day);
+
+        assertThrows(DuplicateKeyException.class, () -> journalEntryRepository.save(duplicate));
+    }
+
+    @Test
+    @DisplayName("Should use an index for snippets of a user and day")
+    void shouldUseIndexForSnippetsOfDay() {
+        Document filter = new Document("userId", userId)
+                .append("timestamp", new Document("$gte", startOfDay(day)).append("$lt", startOfDay(day.plusDays(1))));
+
+        assertNoCollectionScan(explain(Snippet.class, filter));
+    }
+
+    @Test
+    @DisplayName("Should use an index for snippets of a journal entry")
+    void shouldUseIndexForSnippetsOfJournalEntry() {
+        Document filter = new Document("journalEntryId", "entry-1");
+
+        assertNoCollectionScan(explain(Snippet.class, filter));
+    }
+
+    @Test
+    @DisplayName("Should use an index for all entries of a user")
+    void shouldUseIndexForAllEntriesOfUser() {
+        Document filter = new Document("userId", userId);
+
+        assertNoCollectionScan(explain(JournalEntry.class, filter));
+        assertNoCollectionScan(explain(Snippet.class, filter));
+    }
+
+    @Test
+    @DisplayName("Should use an index for keyset pages of journal entries and snippets")
+    void shouldUseIndexForKeysetPages() {
+        JournalEntry newest = journalEntryRepository.findByUserId(userId).get(0);
+        Document journalFilter = new Document("userId", userId)
+                .append("$or", java.util.List.of(
+                        new Document("date", new Document("$lt", newest.getDate())),
+                        new Document("date", newest.getDate())
+                                .append("_id", new Document("$lt", new org.bson.types.ObjectId(newest.getId())))));
+        Document snippetFilter = new Document("userId", userId)
+                .append("timestamp", new Document("$lt", new Date()));
+
+        assertNoCollectionScan(mongoTemplate.getCollection(mongoTemplate.getCollectionName(JournalEntry.class))
+                .find(journalFilter)
+                .sort(new Document("date", -1).append("_id", -1))
+                .limit(21)
+                .explain());
+        assertNoCollectionScan(mongoTemplate.getCollection(mongoTemplate.getCollectionName(Snippet.class))
+                .find(snippetFilter)
+                .sort(new Document("timestamp", -1).append("_id", -1))
+                .limit(21)
+                .explain());
+    }
+
+    @Test
+    @DisplayName("Should merge duplicate entries of a day so the unique index can be built")
+    void shouldMergeDuplicateEntriesOfDay() {
+        // Given - two entries of the same user and day, written before the unique index existed
+        mongoTemplate.indexOps(JournalEntry.class).dropIndex("userId_date");
+        String otherUserId = "test-user-duplicates";
+        JournalEntry first = mongoTemplate.insert(TestDataFactory.createJournalEntryWithSpecificDate(otherUserId, day));
+        JournalEntry second = mongoTemplate.insert(TestDataFactory.createJournalEntryWithSpecificDate(otherUserId, day));
+        Snippet firstSnippet = TestDataFactory.createSnippet(otherUserId, "Morning", first.getId());
+        firstSnippet.setMood(2.0);
+        Snippet secondSnippet = TestDataFactory.createSnippet(otherUserId, "Evening", second.getId());
+        secondSnippet.setMood(4.0);
+        firstSnippet = snippetRepository.save(firstSnippet);
+        secondSnippet = snippetRepository.save(secondSnippet);
+        first.setSnippetIds(new ArrayList<>(List.of(firstSnippet.getId())));
+        second.setSnippetIds(new ArrayList<>(List.of(secondSnippet.getId())));
+        journalEntryRepository.save(first);
+        journalEntryRepository.save(second);
+
+        // When
+        int merged = journalEntryDeduplicationService.mergeDuplicateEntries();
+        mongoIndexVerifier.verifyOnStartup();
+
+        // Then - the older entry holds both snippets and their mood, and the index exists
+        assertEquals(1, merged);
+        assertFalse(journalEntryRepository.existsById(second.getId()));
+        JournalEntry survivor = journalEntryRepository.findById(first.getId()).orElseThrow();
+        assertEquals(List.of(firstSnippet.getId(), secondSnippet.getId()), survivor.getSnippetIds());
+        assertEquals(3.0, survivor.getDailyMood());
+        assertEquals(first.getId(), snippetRepository.findById(secondSnippet.getId()).orElseThrow().getJournalEntryId());
+        assertEquals(Status.UP, mongoIndexVerifier.health().getStatus());
+    }
+
+    private Document explain(Class<?> entity, Document filter) {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(entity))
+                .find(filter)
+                .explain();
+    }
+
+    private void assertNoCollectionScan(Document explain) {
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        assertNotNull(queryPlanner, "Explain output should contain a query planner section");
+        String winningPlan = queryPlanner.get("winningPlan", Document.class).toJson();
+        assertFalse(winningPlan.contains("COLLSCAN"), "Query should not scan the collection: " + winningPlan);
+        assertTrue(winningPlan.contains("IXSCAN"), "Query should use an index: " + winningPlan);
+    }
+
+    private Date startOfDay(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.journal_microservice.integration;
+
+import com.example.journal_microservice.dto.SnippetImportResult;
+import com.example.journal_microservice.dto.SnippetImportSummary;
+import com.example.journal_microservice.model.JournalEntry;
+import com.example.journal_microservice.model.OutboxEvent;
+import com.example.journal_microservice.model.Snippet;
+import com.example.journal_microservice.model.UserStatistics;
+import com.example.journal_microservice.repository.JournalEntryRepository;
+import com.example.journal_microservice.repository.OutboxEventRepository;
+import com.example.journal_microservice.repository.SnippetRepository;
+import com.example.journal_microservice.repository.UserStatisticsRepository;
+import com.example.journal_microservice.service.SnippetImportService;
+import com.example.journal_microservice.service.SnippetService;
+import com.example.journal_microservice.service.UserService;
+import com.example.journal_microservice.testutil.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {
+        "outbox.relay.enabled=false",
+        // Small batches so a single import spans several of them
+        "snippets.import.batch-size=3"
+})
+@Testcontainers
+@DisplayName("Snippet Import Integration Tests")
+class SnippetImportIntegrationTest {
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:6.0.2");
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+        registry.add("spring.data.mongodb.database", () -> "testdb");
+    }
+
+    @Autowired
+    private SnippetImportService snippetImportService;
+
+    @Autowired
+    private SnippetService snippetService;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private SnippetRepository snippetRepository;
+
+    @Autowired
+    private UserStatisticsRepository userStatisticsRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @MockitoBean
+    private UserService userService;
+
+    private final String userId = "test-user-import";
+    private final LocalDate day = LocalDate.of(2024, 1, 15);
+
+    @BeforeEach
+    void setUp() {
+        journalEntryRepository.deleteAll();
+        snippetRepository.deleteAll();
+        userStatisticsRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should import snippets grouped into one journal entry per user and day")
+    void shouldImportSnippetsPerDay() throws Exception {
+        // Given - the first day already has an entry with one snippet
+        Snippet existing = TestDataFactory.createSnippet(userId, "Written in the app", null);
+        existing.setTimestamp(at(day, 8));
+        existing.setMood(5.0);
+        snippetService.createSnippet(existing);
+
+        String ndjson = String.join("\n",
+                line(userId, day, 9, 1.0),
+                line(userId, day, 18, 3.0),
+                line(userId, day.plusDays(1), 9, 2.0),
+                line("other-user", day, 12, 4.0),
+                line(userId, day.plusDays(1), 20, 4.0));
+
+        // When
+        SnippetImportSummary summary = import_(ndjson);
+
+        // Then
+        assertEquals(5, summary.imported());
+        assertEquals(0, summary.failed());
+
+        JournalEntry firstDay = journalEntryRepository.findByDateAndUserId(startOf(day), userId);
+        assertEquals(3, firstDay.getSnippetIds().size());
+        assertEquals(3, firstDay.getMoodCount());
+        assertEquals(9.0, firstDay.getMoodSum());
+        assertEquals(3.0, firstDay.getDailyMood());
+
+        JournalEntry secondDay = journalEntryRepository.findByDateAndUserId(startOf(day.plusDays(1)), userId);
+        assertEquals(2, secondDay.getSnippetIds().size());
+        assertEquals(3.0, secondDay.getDailyMood());
+        assertEquals(1, journalEntryRepository.findByUserId("other-user").size());
+
+        for (SnippetImportResult result : summary.results()) {
+            Snippet snippet = snippetRepository.findById(result.snippetId()).orElseThrow();
+            assertNotNull(snippet.getJournalEntryId());
+            assertNotNull(snippet.getWordCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should report invalid lines without failing the import")
+    void shouldReportInvalidLines() throws Exception {
+        // Given
+        String ndjson = String.join("\n",
+                line(userId, day, 9, 2.0),
+                "{not json",
+                "",
+                "{\"content\":\"No user\"}",
+                line(userId, day, 10, 4.0));
+
+        // When
+        SnippetImportSummary summary = import_(ndjson);
+
+        // Then
+        assertEquals(2, summary.imported());
+        assertEquals(2, summary.failed());
+        assertEquals(List.of(1, 2, 4, 5), summary.results().stream().map(SnippetImportResult::line).toList());
+        assertNotNull(summary.results().get(1).error());
+        assertNotNull(summary.results().get(2).error());
+        assertEquals(2, snippetRepository.findByUserId(userId).size());
+    }
+
+    @Test
+    @DisplayName("Should queue the imported IDs in the outbox and rebuild the statistics")
+    void shouldQueueAppendsAndRebuildStatistics() throws Exception {
+        // Given
+        String ndjson = String.join("\n",
+                line(userId, day, 9, 2.0),
+                line(userId, day, 10, 4.0),
+                line(userId, day.plusDays(1), 9, 3.0),
+                line(userId, day.plusDays(2), 9, 3.0));
+
+        // When
+        SnippetImportSummary summary = import_(ndjson);
+
+        // Then - three journal entries and four snippets, without calling user-microservice
+        List<String> snippetIds = summary.results().stream().map(SnippetImportResult::snippetId).toList();
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertEquals(7, events.size());
+        assertEquals(3, events.stream().filter(event -> event.getType() == OutboxEvent.Type.JOURNAL_ENTRY_ADDED).count());
+        assertEquals(snippetIds, events.stream()
+                .filter(event -> event.getType() == OutboxEvent.Type.SNIPPET_ADDED)
+                .map(OutboxEvent::getTargetId)
+                .toList());
+        verifyNoInteractions(userService);
+
+        UserStatistics statistics = userStatisticsRepository.findById(userId).orElseThrow();
+        assertEquals(3, statistics.getTotalJournals());
+        assertEquals(3, statistics.getMoodCount());
+        assertEquals(9.0, statistics.getMoodSum());
+    }
+
+    private SnippetImportSummary import_(String ndjson) throws Exception {
+        return snippetImportService.importSnippets(new BufferedReader(new StringReader(ndjson)));
+    }
+
+    private String line(String user, LocalDate date, int hour, double mood) {
+        return "{\"userId\":\"" + user + "\",\"content\":\"Imported snippet\",\"mood\":" + mood
+                + ",\"timestamp\":" + at(date, hour).getTime() + "}";
+    }
+
+    private Date at(LocalDate date, int hour) {
+        return Date.from(date.atTime(hour, 0).atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private Date startOf(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.journal_microservice.integration;
+
+import com.example.journal_microservice.model.DeletionJob;
+import com.example.journal_microservice.model.Snippet;
+import com.example.journal_microservice.repository.DeletionJobRepository;
+import com.example.journal_microservice.repository.JournalEntryRepository;
+import com.example.journal_microservice.repository.OutboxEventRepository;
+import com.example.journal_microservice.repository.SnippetRepository;
+import com.example.journal_microservice.repository.UserStatisticsRepository;
+import com.example.journal_microservice.service.SnippetService;
+import com.example.journal_microservice.service.UserDataDeletionService;
+import com.example.journal_microservice.service.UserService;
+import com.example.journal_microservice.testutil.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        // The scheduled workers are disabled so each test drives the job itself
+        "outbox.relay.enabled=false",
+        "user-data.deletion.enabled=false",
+        "user-data.deletion.batch-size=7"
+})
+@Testcontainers
+@DisplayName("User Data Deletion Integration Tests")
+class UserDataDeletionIntegrationTest {
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:6.0.2");
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+        registry.add("spring.data.mongodb.database", () -> "testdb");
+    }
+
+    @Autowired
+    private UserDataDeletionService userDataDeletionService;
+
+    @Autowired
+    private SnippetService snippetService;
+
+    @Autowired
+    private DeletionJobRepository deletionJobRepository;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private SnippetRepository snippetRepository;
+
+    @Autowired
+    private UserStatisticsRepository userStatisticsRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @MockitoBean
+    private UserService userService;
+
+    private final String userId = "test-user-deletion";
+    private final String otherUserId = "test-user-kept";
+
+    @BeforeEach
+    void setUp() {
+        deletionJobRepository.deleteAll();
+        journalEntryRepository.deleteAll();
+        snippetRepository.deleteAll();
+        userStatisticsRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should delete all data of a user in batches and record the progress")
+    void shouldDeleteAllDataOfUser() {
+        // Given - 20 days with 3 snippets each, more than fit into one batch
+        createHistory(userId, 20, 3);
+        createHistory(otherUserId, 2, 2);
+
+        // When
+        DeletionJob requested = userDataDeletionService.requestDeletion(userId);
+        DeletionJob claimed = userDataDeletionService.claimJob();
+        userDataDeletionService.run(claimed);
+
+        // Then
+        DeletionJob job = userDataDeletionService.getJob(requested.getId());
+        assertEquals(DeletionJob.Status.COMPLETED, job.getStatus());
+        assertEquals(60, job.getSnippetsTotal());
+        assertEquals(60, job.getSnippetsDeleted());
+        assertEquals(20, job.getJournalEntriesTotal());
+        assertEquals(20, job.getJournalEntriesDeleted());
+        assertNotNull(job.getFinishedAt());
+
+        assertFalse(snippetRepository.existsByUserId(userId));
+        assertFalse(journalEntryRepository.existsByUserId(userId));
+        assertFalse(userStatisticsRepository.existsById(userId));
+        assertEquals(0, outboxEventRepository.findAll().stream()
+                .filter(event -> userId.equals(event.getUserId()))
+                .count());
+
+        // The other user's data is untouched
+        assertEquals(4, snippetRepository.findByUserId(otherUserId).size());
+        assertEquals(2, journalEntryRepository.findByUserId(otherUserId).size());
+    }
+
+    @Test
+    @DisplayName("Should return the active job when a deletion is requested twice")
+    void shouldReuseActiveJob() {
+        // When
+        DeletionJob first = userDataDeletionService.requestDeletion(userId);
+        DeletionJob second = userDataDeletionService.requestDeletion(userId);
+
+        // Then
+        assertEquals(first.getId(), second.getId());
+        assertEquals(1, deletionJobRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should not claim a running job while its lease is valid")
+    void shouldNotClaimLeasedJob() {
+        // Given
+        userDataDeletionService.requestDeletion(userId);
+
+        // When
+        DeletionJob claimed = userDataDeletionService.claimJob();
+
+        // Then
+        assertEquals(DeletionJob.Status.RUNNING, claimed.getStatus());
+        assertNull(userDataDeletionService.claimJob());
+    }
+
+    private void createHistory(String user, int days, int snippetsPerDay) {
+        LocalDate today = LocalDate.now();
+        for (int day = 0; day < days; day++) {
+            Date timestamp = Date.from(today.minusDays(day).atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant());
+            for (int i = 0; i < snippetsPerDay; i++) {
+                Snippet snippet = TestDataFactory.createSnippet(user, "Snippet " + i + " of day " + day, null);
+                snippet.setTimestamp(timestamp);
+                snippetService.createSnippet(snippet);
+            }
+        }
+    }
+}
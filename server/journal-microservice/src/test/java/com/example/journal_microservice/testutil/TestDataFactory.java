@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.ArrayList;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 
 public class TestDataFactory {
 
@@ -62,7 +63,10 @@ public class TestDataFactory {
     public static List<JournalEntry> createMultipleJournalEntries(String userId, int count) {
         List<JournalEntry> entries = new ArrayList<>();
         for (int i = 0; i < count; i++) {
-            entries.add(createJournalEntry(userId, "Entry " + (i + 1), "Summary " + (i + 1)));
+            // One entry per day, as a user cannot have two entries on the same day
+            JournalEntry entry = createJournalEntry(userId, "Entry " + (i + 1), "Summary " + (i + 1));
+            entry.setDate(Date.from(entry.getDate().toInstant().minus(i, ChronoUnit.DAYS)));
+            entries.add(entry);
         }
         return entries;
     }
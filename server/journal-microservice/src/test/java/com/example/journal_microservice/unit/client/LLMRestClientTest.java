@@ -0,0 +1,114 @@
+package com.example.journal_microservice.unit.client;
+
+import com.example.journal_microservice.client.CircuitBreaker;
+import com.example.journal_microservice.client.LLMRestClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the client against a local HTTP server standing in for genai-microservice
+ */
+@DisplayName("LLMRestClient Unit Tests")
+class LLMRestClientTest {
+
+    private HttpServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private LLMRestClient llmRestClient;
+
+    private final List<String> requestedPaths = new CopyOnWriteArrayList<>();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private volatile int status = 200;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        llmRestClient = new LLMRestClient("http://localhost:" + server.getAddress().getPort(),
+                1000, 5000, 1000, 10, 10, 30000, 3, 60000, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should reuse one connection and not probe the health endpoint")
+    void shouldReuseConnectionWithoutHealthProbe() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals("A calm day", llmRestClient.generateJournalSummary(List.of("Went for a walk")));
+        }
+        assertEquals("Balanced", llmRestClient.generateJournalInsights(List.of("Went for a walk")).get("analysis"));
+
+        assertEquals(6, requestedPaths.size());
+        assertTrue(requestedPaths.stream().noneMatch(path -> path.endsWith("/health")));
+        assertEquals(1, clientPorts.size(), "All calls should share one keep-alive connection");
+        assertEquals(5, meterRegistry.get("llm.client.requests")
+                .tags("operation", "summary", "outcome", "success").timer().count());
+        assertNotNull(meterRegistry.find("httpcomponents.httpclient.pool.total.max").gauge());
+    }
+
+    @Test
+    @DisplayName("Should open the circuit after repeated server errors and reject further calls")
+    void shouldOpenCircuitAfterServerErrors() {
+        status = 503;
+        for (int i = 0; i < 3; i++) {
+            assertNull(llmRestClient.generateJournalSummary(List.of("Snippet")));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, llmRestClient.getCircuitState());
+        assertFalse(llmRestClient.isAvailable());
+
+        assertNull(llmRestClient.generateJournalSummary(List.of("Snippet")));
+        assertEquals(3, requestedPaths.size(), "A rejected call should not reach the service");
+        assertEquals(1.0, meterRegistry.get("llm.client.requests.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("llm.client.circuit.open").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should keep the circuit closed when the service rejects a request")
+    void shouldNotCountClientErrorsAsFailures() {
+        status = 400;
+        for (int i = 0; i < 5; i++) {
+            assertNull(llmRestClient.generateJournalInsights(List.of("Snippet")));
+        }
+
+        assertTrue(llmRestClient.isAvailable());
+        assertEquals(5, requestedPaths.size());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestedPaths.add(exchange.getRequestURI().getPath());
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        exchange.getRequestBody().readAllBytes();
+
+        String body = exchange.getRequestURI().getPath().endsWith("/summary")
+                ? "{\"summary\":\"A calm day\"}"
+                : "{\"analysis\":\"Balanced\",\"insights\":{}}";
+        byte[] bytes = status == 200 ? body.getBytes(StandardCharsets.UTF_8) : "{}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
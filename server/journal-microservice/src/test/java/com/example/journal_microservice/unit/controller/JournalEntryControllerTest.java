@@ -1,6 +1,7 @@
 package com.example.journal_microservice.unit.controller;
 
 import com.example.journal_microservice.controller.JournalEntryController;
+import com.example.journal_microservice.dto.ActivityHeatmap;
 import com.example.journal_microservice.exception.JournalEntryNotFoundException;
 import com.example.journal_microservice.model.JournalEntry;
 import com.example.journal_microservice.service.JournalEntryService;
@@ -202,6 +203,27 @@ class JournalEntryControllerTest {
         verify(journalEntryService).getUserStatistics(userId);
     }
 
+    @Test
+    @DisplayName("Should return activity heatmap successfully")
+    void shouldGetActivityHeatmap() throws Exception {
+        // Given
+        LocalDate today = LocalDate.of(2025, 6, 15);
+        boolean[] days = new boolean[366];
+        days[365] = true;
+        when(journalEntryService.getActivityHeatmap(userId))
+                .thenReturn(new ActivityHeatmap(today.minusDays(365), today, days));
+
+        // When & Then
+        mockMvc.perform(get("/api/journalEntry/{userId}/activity", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.startDate").value("2024-06-15"))
+                .andExpect(jsonPath("$.data.endDate").value("2025-06-15"))
+                .andExpect(jsonPath("$.data.days.length()").value(366))
+                .andExpect(jsonPath("$.data.days[365]").value(true));
+
+        verify(journalEntryService).getActivityHeatmap(userId);
+    }
+
     @Test
     @DisplayName("Should handle service exceptions properly")
     void shouldHandleServiceExceptions() throws Exception {
@@ -0,0 +1,74 @@
+package com.example.journal_microservice.unit.service;
+
+import com.example.journal_microservice.service.ActivityBitmap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ActivityBitmap Unit Tests")
+class ActivityBitmapTest {
+
+    private final LocalDate today = LocalDate.of(2025, 6, 15);
+
+    @Test
+    @DisplayName("Should set and clear days and survive a round trip through bytes")
+    void shouldRoundTripThroughBytes() {
+        ActivityBitmap bitmap = ActivityBitmap.empty()
+                .with(today)
+                .with(today.minusDays(70))
+                .without(today);
+
+        ActivityBitmap restored = ActivityBitmap.of(bitmap.origin(), bitmap.toBytes());
+
+        assertTrue(restored.isActive(today.minusDays(70)));
+        assertFalse(restored.isActive(today));
+        assertEquals(today.minusDays(70).toEpochDay(), restored.origin());
+        assertEquals(1, restored.toBytes().length);
+    }
+
+    @Test
+    @DisplayName("Should rebase when a day before the first active day is set")
+    void shouldRebaseForEarlierDay() {
+        ActivityBitmap bitmap = ActivityBitmap.empty()
+                .with(today)
+                .with(today.minusDays(1))
+                .with(today.minusDays(200));
+
+        assertEquals(today.minusDays(200).toEpochDay(), bitmap.origin());
+        assertTrue(bitmap.isActive(today));
+        assertTrue(bitmap.isActive(today.minusDays(1)));
+        assertTrue(bitmap.isActive(today.minusDays(200)));
+        assertFalse(bitmap.isActive(today.minusDays(2)));
+    }
+
+    @Test
+    @DisplayName("Should count runs across word boundaries")
+    void shouldCountRunsAcrossWords() {
+        ActivityBitmap bitmap = ActivityBitmap.empty();
+        for (int i = 0; i < 150; i++) {
+            bitmap = bitmap.with(today.minusDays(i));
+        }
+        bitmap = bitmap.with(today.minusDays(151));
+
+        assertEquals(150, bitmap.runEndingAt(today));
+        assertEquals(1, bitmap.runEndingAt(today.minusDays(151)));
+        assertEquals(0, bitmap.runEndingAt(today.minusDays(150)));
+        assertEquals(0, bitmap.runEndingAt(today.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Should keep a streak alive until the end of the next day")
+    void shouldComputeCurrentStreak() {
+        ActivityBitmap bitmap = ActivityBitmap.empty()
+                .with(today.minusDays(1))
+                .with(today.minusDays(2));
+
+        assertEquals(2, bitmap.currentStreak(today));
+        assertEquals(3, bitmap.with(today).currentStreak(today));
+        assertEquals(0, bitmap.currentStreak(today.plusDays(1)));
+        assertEquals(0, ActivityBitmap.empty().currentStreak(today));
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.journal_microservice.unit.service;
+
+import com.example.journal_microservice.exception.LLMOverloadedException;
+import com.example.journal_microservice.service.Bulkhead;
+import com.example.journal_microservice.service.Bulkhead.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Bulkhead Unit Tests")
+class BulkheadTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should reject a call right away once the wait queue of its priority is full")
+    void shouldRejectWhenQueueFull() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, 1, 1, 5000);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> running = executor.submit(() -> bulkhead.execute(Priority.INTERACTIVE, () -> {
+            await(release);
+            return "first";
+        }));
+        waitUntil(() -> bulkhead.getInFlight(Priority.INTERACTIVE) == 1);
+        Future<String> waiting = executor.submit(() -> bulkhead.execute(Priority.INTERACTIVE, () -> "second"));
+        waitUntil(() -> bulkhead.getQueued(Priority.INTERACTIVE) == 1);
+
+        LLMOverloadedException e = assertThrows(LLMOverloadedException.class,
+                () -> bulkhead.execute(Priority.INTERACTIVE, () -> "third"));
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+        assertEquals(1, bulkhead.getRejected(Priority.INTERACTIVE));
+
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("second", waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(0, bulkhead.getInFlight(Priority.INTERACTIVE));
+    }
+
+    @Test
+    @DisplayName("Should reject a waiting call when no permit becomes free in time")
+    void shouldRejectAfterMaxWait() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, 1, 5, 50);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> running = executor.submit(() -> bulkhead.execute(Priority.INTERACTIVE, () -> {
+            await(release);
+            return "first";
+        }));
+        waitUntil(() -> bulkhead.getInFlight(Priority.INTERACTIVE) == 1);
+
+        assertThrows(LLMOverloadedException.class, () -> bulkhead.execute(Priority.INTERACTIVE, () -> "second"));
+        assertEquals(0, bulkhead.getQueued(Priority.INTERACTIVE));
+
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should keep permits beyond the background limit for interactive calls")
+    void shouldLimitBackgroundCalls() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(2, 1, 0, 0);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> background = executor.submit(() -> bulkhead.execute(Priority.BACKGROUND, () -> {
+            await(release);
+            return "background";
+        }));
+        waitUntil(() -> bulkhead.getInFlight(Priority.BACKGROUND) == 1);
+
+        assertThrows(LLMOverloadedException.class, () -> bulkhead.execute(Priority.BACKGROUND, () -> "rejected"));
+        assertEquals("interactive", bulkhead.execute(Priority.INTERACTIVE, () -> "interactive"));
+        assertEquals(1, bulkhead.getRejected(Priority.BACKGROUND));
+        assertEquals(0, bulkhead.getRejected(Priority.INTERACTIVE));
+
+        release.countDown();
+        assertEquals("background", background.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should hand a freed permit to waiting interactive calls before waiting background calls")
+    void shouldPreferInteractiveCalls() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, 1, 5, 5000);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Priority> order = new CopyOnWriteArrayList<>();
+
+        Future<?> running = executor.submit(() -> bulkhead.execute(Priority.INTERACTIVE, () -> {
+            await(release);
+            return null;
+        }));
+        waitUntil(() -> bulkhead.getInFlight(Priority.INTERACTIVE) == 1);
+        Future<?> background = executor.submit(() -> bulkhead.execute(Priority.BACKGROUND,
+                () -> order.add(Priority.BACKGROUND)));
+        waitUntil(() -> bulkhead.getQueued(Priority.BACKGROUND) == 1);
+        Future<?> interactive = executor.submit(() -> bulkhead.execute(Priority.INTERACTIVE,
+                () -> order.add(Priority.INTERACTIVE)));
+        waitUntil(() -> bulkhead.getQueued(Priority.INTERACTIVE) == 1);
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        interactive.get(5, TimeUnit.SECONDS);
+        background.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(Priority.INTERACTIVE, Priority.BACKGROUND), order);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
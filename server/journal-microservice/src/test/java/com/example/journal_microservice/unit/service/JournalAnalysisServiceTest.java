@@ -0,0 +1,234 @@
+package com.example.journal_microservice.unit.service;
+
+import com.example.journal_microservice.client.LLMRestClient;
+import com.example.journal_microservice.dto.InsightsResponse;
+import com.example.journal_microservice.dto.JournalReview;
+import com.example.journal_microservice.dto.SnippetContentsResponse;
+import com.example.journal_microservice.exception.JournalEntryNotFoundException;
+import com.example.journal_microservice.model.Insights;
+import com.example.journal_microservice.model.JournalEntry;
+import com.example.journal_microservice.model.Snippet;
+import com.example.journal_microservice.repository.JournalEntryRepository;
+import com.example.journal_microservice.repository.SnippetRepository;
+import com.example.journal_microservice.service.JournalAnalysisService;
+import com.example.journal_microservice.service.SnippetFingerprint;
+import com.example.journal_microservice.testutil.TestDataFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JournalAnalysisService Unit Tests")
+class JournalAnalysisServiceTest {
+
+    @Mock
+    private JournalEntryRepository journalEntryRepository;
+
+    @Mock
+    private SnippetRepository snippetRepository;
+
+    @Mock
+    private LLMRestClient llmRestClient;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private JournalAnalysisService journalAnalysisService;
+
+    private final String journalEntryId = "test-entry-1";
+    private JournalEntry testEntry;
+    private List<Snippet> snippets;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(journalAnalysisService, "maxInFlight", 100);
+        ReflectionTestUtils.setField(journalAnalysisService, "maxConcurrent", 4);
+        ReflectionTestUtils.setField(journalAnalysisService, "maxBackgroundConcurrent", 2);
+        ReflectionTestUtils.setField(journalAnalysisService, "maxQueued", 10);
+        ReflectionTestUtils.setField(journalAnalysisService, "maxWaitMs", 1000L);
+        ReflectionTestUtils.setField(journalAnalysisService, "chunkMaxTokens", 2000);
+        ReflectionTestUtils.setField(journalAnalysisService, "summaryFanOut", 2);
+        ReflectionTestUtils.invokeMethod(journalAnalysisService, "createCallLimits");
+
+        testEntry = TestDataFactory.createSampleJournalEntry();
+        testEntry.setId(journalEntryId);
+        snippets = TestDataFactory.createMultipleSnippets("test-user-1", journalEntryId, 3);
+        for (int i = 0; i < snippets.size(); i++) {
+            snippets.get(i).setId("snippet-" + i);
+        }
+        lenient().when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(testEntry));
+        lenient().when(snippetRepository.findByJournalEntryId(journalEntryId)).thenReturn(snippets);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(journalAnalysisService, "stop");
+    }
+
+    @Test
+    @DisplayName("Should return the stored summary without calling the LLM while the snippets are unchanged")
+    void shouldReturnStoredSummaryOnFingerprintMatch() {
+        // Given
+        testEntry.setSummary("Stored summary");
+        testEntry.setSummaryFingerprint(SnippetFingerprint.of(SnippetFingerprint.ordered(snippets)));
+
+        // When
+        String summary = journalAnalysisService.getSummary(journalEntryId, false);
+
+        // Then
+        assertEquals("Stored summary", summary);
+        verifyNoInteractions(llmRestClient);
+        verify(journalEntryRepository, never()).saveSummary(any(), any(), any());
+        assertEquals(1.0, meterRegistry.get("llm.cache.lookups")
+                .tags("operation", "summary", "result", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should regenerate the summary once a snippet changed")
+    void shouldRegenerateSummaryWhenSnippetsChanged() {
+        // Given
+        testEntry.setSummary("Stored summary");
+        testEntry.setSummaryFingerprint(SnippetFingerprint.of(SnippetFingerprint.ordered(snippets)));
+        snippets.get(1).setContent("Edited content");
+        String newFingerprint = SnippetFingerprint.of(SnippetFingerprint.ordered(snippets));
+        when(llmRestClient.generateJournalSummary(anyList())).thenReturn("New summary");
+
+        // When
+        String summary = journalAnalysisService.getSummary(journalEntryId, false);
+
+        // Then
+        assertEquals("New summary", summary);
+        verify(journalEntryRepository).saveSummary(journalEntryId, "New summary", newFingerprint);
+        assertEquals(1.0, meterRegistry.get("llm.cache.lookups")
+                .tags("operation", "summary", "result", "miss").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should bypass the stored insights when forced")
+    void shouldBypassStoredInsightsWhenForced() {
+        // Given
+        Insights stored = new Insights("Stored analysis", null, null, null, null);
+        testEntry.setInsights(stored);
+        testEntry.setInsightsFingerprint(SnippetFingerprint.of(SnippetFingerprint.ordered(snippets)));
+        when(llmRestClient.generateJournalInsights(anyList())).thenReturn(Map.of(
+                "analysis", "Fresh analysis",
+                "insights", Map.of("moodPattern", "Steady", "wellnessTip", "Sleep well")));
+
+        // When
+        Insights insights = journalAnalysisService.getInsights(journalEntryId, true);
+
+        // Then
+        assertEquals("Fresh analysis", insights.getAnalysis());
+        assertEquals("Steady", insights.getMoodPattern());
+        assertEquals("Sleep well", insights.getWellnessTip());
+        verify(journalEntryRepository).saveInsights(eq(journalEntryId), same(insights), eq(testEntry.getInsightsFingerprint()));
+    }
+
+    @Test
+    @DisplayName("Should not store anything when the LLM service returns no summary")
+    void shouldNotStoreMissingSummary() {
+        // Given
+        when(llmRestClient.generateJournalSummary(anyList())).thenReturn(null);
+
+        // When
+        String summary = journalAnalysisService.getSummary(journalEntryId, false);
+
+        // Then
+        assertNull(summary);
+        verify(journalEntryRepository, never()).saveSummary(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return the stored summary and insights together when both are up to date")
+    void shouldReturnStoredReviewOnFingerprintMatch() {
+        // Given
+        String fingerprint = SnippetFingerprint.of(SnippetFingerprint.ordered(snippets));
+        Insights stored = new Insights("Stored analysis", null, null, null, null);
+        testEntry.setSummary("Stored summary");
+        testEntry.setSummaryFingerprint(fingerprint);
+        testEntry.setInsights(stored);
+        testEntry.setInsightsFingerprint(fingerprint);
+
+        // When
+        JournalReview review = journalAnalysisService.getReview(journalEntryId, false);
+
+        // Then
+        assertEquals("Stored summary", review.summary());
+        assertSame(stored, review.insights());
+        verifyNoInteractions(llmRestClient);
+    }
+
+    @Test
+    @DisplayName("Should generate and store summary and insights with one LLM call when only one of them is stale")
+    void shouldGenerateReviewInOneCall() {
+        // Given - the summary is up to date, the insights are missing
+        String fingerprint = SnippetFingerprint.of(SnippetFingerprint.ordered(snippets));
+        testEntry.setSummary("Stored summary");
+        testEntry.setSummaryFingerprint(fingerprint);
+        when(llmRestClient.generateJournalReview(anyList())).thenReturn(new SnippetContentsResponse(
+                "New summary", "New analysis",
+                new InsightsResponse("Upbeat", "Keep walking", "Finished the project", "Drink water")));
+
+        // When
+        JournalReview review = journalAnalysisService.getReview(journalEntryId, false);
+
+        // Then
+        assertEquals("New summary", review.summary());
+        assertEquals("New analysis", review.insights().getAnalysis());
+        assertEquals("Upbeat", review.insights().getMoodPattern());
+        assertEquals("Drink water", review.insights().getWellnessTip());
+        verify(journalEntryRepository).saveReview(eq(journalEntryId), eq("New summary"), same(review.insights()),
+                eq(fingerprint));
+        verify(llmRestClient, never()).generateJournalSummary(anyList());
+        verify(llmRestClient, never()).generateJournalInsights(anyList());
+        assertEquals(1.0, meterRegistry.get("llm.cache.lookups")
+                .tags("operation", "review", "result", "miss").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should reduce a day that does not fit into one prompt to partial summaries before the review call")
+    void shouldReduceOversizedDayBeforeReview() {
+        // Given - 750 tokens per snippet, more than the 2000 token limit in total
+        snippets.forEach(snippet -> snippet.setContent("word ".repeat(600)));
+        when(llmRestClient.generateJournalSummary(anyList())).thenReturn("Partial summary");
+        when(llmRestClient.generateJournalReview(anyList())).thenReturn(new SnippetContentsResponse(
+                "New summary", "New analysis",
+                new InsightsResponse("Upbeat", "Keep walking", "Finished the project", "Drink water")));
+
+        // When
+        JournalReview review = journalAnalysisService.getReview(journalEntryId, false);
+
+        // Then - two chunks of snippets are summarized, the review only sees their summaries
+        assertEquals("New summary", review.summary());
+        verify(llmRestClient, times(2)).generateJournalSummary(anyList());
+        verify(llmRestClient).generateJournalReview(List.of("Partial summary", "Partial summary"));
+    }
+
+    @Test
+    @DisplayName("Should throw when the journal entry does not exist")
+    void shouldThrowForUnknownJournalEntry() {
+        // Given
+        when(journalEntryRepository.findById("missing")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(JournalEntryNotFoundException.class, () -> journalAnalysisService.getSummary("missing", false));
+    }
+}
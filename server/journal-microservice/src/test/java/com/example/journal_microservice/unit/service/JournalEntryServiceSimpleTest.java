@@ -1,11 +1,14 @@
 package com.example.journal_microservice.unit.service;
 
+import com.example.journal_microservice.dto.MoodSummary;
 import com.example.journal_microservice.exception.JournalEntryNotFoundException;
 import com.example.journal_microservice.model.JournalEntry;
+import com.example.journal_microservice.model.UserStatistics;
 import com.example.journal_microservice.repository.JournalEntryRepository;
 import com.example.journal_microservice.repository.SnippetRepository;
 import com.example.journal_microservice.service.JournalEntryService;
-import com.example.journal_microservice.service.UserService;
+import com.example.journal_microservice.service.OutboxService;
+import com.example.journal_microservice.service.UserStatisticsService;
 import com.example.journal_microservice.testutil.TestDataFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -32,7 +35,10 @@ class JournalEntryServiceSimpleTest {
     private SnippetRepository snippetRepository;
 
     @Mock
-    private UserService userService;
+    private OutboxService outboxService;
+
+    @Mock
+    private UserStatisticsService userStatisticsService;
 
     @InjectMocks
     private JournalEntryService journalEntryService;
@@ -52,7 +58,6 @@ class JournalEntryServiceSimpleTest {
     void shouldCreateJournalEntry() {
         // Given
         when(journalEntryRepository.save(any(JournalEntry.class))).thenReturn(testEntry);
-        doNothing().when(userService).addJournalEntryToUser(anyString(), anyString());
 
         // When
         JournalEntry result = journalEntryService.createJournalEntry(testEntry);
@@ -62,7 +67,7 @@ class JournalEntryServiceSimpleTest {
         assertEquals(testEntry.getId(), result.getId());
         assertEquals(testEntry.getTitle(), result.getTitle());
         verify(journalEntryRepository).save(testEntry);
-        verify(userService).addJournalEntryToUser(testEntry.getUserId(), testEntry.getId());
+        verify(outboxService).enqueueJournalEntryAdded(testEntry.getUserId(), testEntry.getId());
     }
 
     @Test
@@ -101,16 +106,15 @@ class JournalEntryServiceSimpleTest {
         // Given
         JournalEntry updatedEntry = TestDataFactory.createJournalEntry(userId, "Updated Title", "Updated Summary");
         updatedEntry.setId(entryId);
-        when(journalEntryRepository.findById(entryId)).thenReturn(Optional.of(testEntry));
-        when(journalEntryRepository.save(any(JournalEntry.class))).thenReturn(testEntry);
+        when(journalEntryRepository.updateEntry(eq(entryId), eq(updatedEntry), any(Date.class))).thenReturn(testEntry);
 
         // When
         JournalEntry result = journalEntryService.updateJournalEntry(entryId, updatedEntry);
 
         // Then
         assertNotNull(result);
-        verify(journalEntryRepository).findById(entryId);
-        verify(journalEntryRepository).save(any(JournalEntry.class));
+        verify(journalEntryRepository).updateEntry(eq(entryId), eq(updatedEntry), any(Date.class));
+        verify(journalEntryRepository, never()).save(any());
     }
 
     @Test
@@ -161,10 +165,9 @@ class JournalEntryServiceSimpleTest {
     @DisplayName("Should get user statistics")
     void shouldGetUserStatistics() {
         // Given
-        List<JournalEntry> entries = TestDataFactory.createMultipleJournalEntries(userId, 3);
-        entries.forEach(entry -> entry.setDailyMood(3.0));
-        when(journalEntryRepository.findByUserId(userId)).thenReturn(entries);
-        when(snippetRepository.findByUserId(userId)).thenReturn(new ArrayList<>());
+        when(userStatisticsService.getStatistics(userId)).thenReturn(new UserStatistics(userId));
+        when(journalEntryRepository.summarizeMood(eq(userId), any(Date.class), any(Date.class)))
+                .thenReturn(new MoodSummary(3, 9.0));
 
         // When
         Map<String, Object> statistics = journalEntryService.getUserStatistics(userId);
@@ -175,7 +178,6 @@ class JournalEntryServiceSimpleTest {
         assertTrue(statistics.containsKey("avgMood"));
         assertTrue(statistics.containsKey("weeklyJournalCount"));
         assertTrue(statistics.containsKey("currentStreak"));
-        verify(journalEntryRepository).findByUserId(userId);
-        verify(snippetRepository).findByUserId(userId);
+        verify(userStatisticsService).getStatistics(userId);
     }
 }
@@ -1,11 +1,19 @@
 package com.example.journal_microservice.unit.service;
 
+import com.example.journal_microservice.dto.ActivityHeatmap;
+import com.example.journal_microservice.dto.CursorPage;
+import com.example.journal_microservice.dto.MoodSummary;
+import com.example.journal_microservice.dto.PageCursor;
+import com.example.journal_microservice.exception.DuplicateJournalEntryException;
 import com.example.journal_microservice.exception.JournalEntryNotFoundException;
 import com.example.journal_microservice.model.JournalEntry;
+import com.example.journal_microservice.model.UserStatistics;
 import com.example.journal_microservice.repository.JournalEntryRepository;
 import com.example.journal_microservice.repository.SnippetRepository;
+import com.example.journal_microservice.service.ActivityBitmap;
 import com.example.journal_microservice.service.JournalEntryService;
-import com.example.journal_microservice.service.UserService;
+import com.example.journal_microservice.service.OutboxService;
+import com.example.journal_microservice.service.UserStatisticsService;
 import com.example.journal_microservice.testutil.TestDataFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,6 +22,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -34,7 +43,10 @@ class JournalEntryServiceTest {
   private SnippetRepository snippetRepository;
 
   @Mock
-  private UserService userService;
+  private OutboxService outboxService;
+
+  @Mock
+  private UserStatisticsService userStatisticsService;
 
   @InjectMocks
   private JournalEntryService journalEntryService;
@@ -54,7 +66,6 @@ class JournalEntryServiceTest {
   void shouldCreateJournalEntry() {
     // Given
     when(journalEntryRepository.save(any(JournalEntry.class))).thenReturn(testEntry);
-    doNothing().when(userService).addJournalEntryToUser(anyString(), anyString());
 
     // When
     JournalEntry result = journalEntryService.createJournalEntry(testEntry);
@@ -64,16 +75,15 @@ class JournalEntryServiceTest {
     assertEquals(testEntry.getId(), result.getId());
     assertEquals(testEntry.getTitle(), result.getTitle());
     verify(journalEntryRepository).save(testEntry);
-    verify(userService).addJournalEntryToUser(testEntry.getUserId(), testEntry.getId());
+    verify(outboxService).enqueueJournalEntryAdded(testEntry.getUserId(), testEntry.getId());
   }
 
   @Test
-  @DisplayName("Should create journal entry even when user service fails")
-  void shouldCreateJournalEntryWhenUserServiceFails() {
+  @DisplayName("Should not queue a user update for journal entries without a user")
+  void shouldNotQueueUserUpdateWithoutUser() {
     // Given
+    testEntry.setUserId(null);
     when(journalEntryRepository.save(any(JournalEntry.class))).thenReturn(testEntry);
-    doThrow(new RuntimeException("User service error")).when(userService)
-        .addJournalEntryToUser(anyString(), anyString());
 
     // When
     JournalEntry result = journalEntryService.createJournalEntry(testEntry);
@@ -82,6 +92,19 @@ class JournalEntryServiceTest {
     assertNotNull(result);
     assertEquals(testEntry.getId(), result.getId());
     verify(journalEntryRepository).save(testEntry);
+    verifyNoInteractions(outboxService);
+  }
+
+  @Test
+  @DisplayName("Should report a conflict when the user already has an entry for the day")
+  void shouldRejectDuplicateDailyEntry() {
+    // Given
+    when(journalEntryRepository.save(any(JournalEntry.class)))
+        .thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+    // When & Then
+    assertThrows(DuplicateJournalEntryException.class, () -> journalEntryService.createJournalEntry(testEntry));
+    verifyNoInteractions(userStatisticsService, outboxService);
   }
 
   @Test
@@ -91,15 +114,18 @@ class JournalEntryServiceTest {
     List<String> snippetIds = List.of("snippet1", "snippet2");
     testEntry.setSnippetIds(snippetIds);
     when(journalEntryRepository.findById(entryId)).thenReturn(Optional.of(testEntry));
-    doNothing().when(snippetRepository).deleteById(anyString());
+    when(snippetRepository.deleteByJournalEntryId(entryId)).thenReturn(2L);
     doNothing().when(journalEntryRepository).deleteById(entryId);
 
     // When
     journalEntryService.deleteJournalEntry(entryId);
 
-    // Then
+    // Then - only the word counts are read and the snippets are removed with one deleteMany
     verify(journalEntryRepository).findById(entryId);
-    verify(snippetRepository, times(2)).deleteById(anyString());
+    verify(snippetRepository).findWordCountsByJournalEntryId(entryId);
+    verify(snippetRepository, never()).findAllById(any());
+    verify(snippetRepository).deleteByJournalEntryId(entryId);
+    verify(snippetRepository, never()).deleteById(anyString());
     verify(journalEntryRepository).deleteById(entryId);
   }
 
@@ -121,32 +147,33 @@ class JournalEntryServiceTest {
   void shouldUpdateJournalEntry() {
     // Given
     JournalEntry updatedEntry = TestDataFactory.createJournalEntry(userId, "Updated Title", "Updated Summary");
-    updatedEntry.setId(entryId);
-    when(journalEntryRepository.findById(entryId)).thenReturn(Optional.of(testEntry));
-    when(journalEntryRepository.save(any(JournalEntry.class))).thenReturn(updatedEntry);
+    updatedEntry.setDailyMood(4.0);
+    testEntry.setMoodCount(2);
+    when(journalEntryRepository.updateEntry(eq(entryId), eq(updatedEntry), any(Date.class))).thenReturn(testEntry);
 
     // When
     JournalEntry result = journalEntryService.updateJournalEntry(entryId, updatedEntry);
 
-    // Then
+    // Then - only the changed fields are written, never the whole document
     assertNotNull(result);
     assertEquals("Updated Title", result.getTitle());
     assertEquals("Updated Summary", result.getSummary());
-    verify(journalEntryRepository).findById(entryId);
-    verify(journalEntryRepository).save(any(JournalEntry.class));
+    assertEquals(8.0, result.getMoodSum());
+    verify(journalEntryRepository, never()).findById(any());
+    verify(journalEntryRepository, never()).save(any());
+    verify(userStatisticsService).onJournalEntryUpdated(userId, 3.5, 4.0);
   }
 
   @Test
   @DisplayName("Should throw exception when updating non-existent journal entry")
   void shouldThrowExceptionWhenUpdatingNonExistentEntry() {
     // Given
-    when(journalEntryRepository.findById(entryId)).thenReturn(Optional.empty());
+    when(journalEntryRepository.updateEntry(eq(entryId), eq(testEntry), any(Date.class))).thenReturn(null);
 
     // When & Then
     assertThrows(JournalEntryNotFoundException.class,
         () -> journalEntryService.updateJournalEntry(entryId, testEntry));
-    verify(journalEntryRepository).findById(entryId);
-    verify(journalEntryRepository, never()).save(any());
+    verifyNoInteractions(userStatisticsService);
   }
 
   @Test
@@ -170,19 +197,14 @@ class JournalEntryServiceTest {
   void shouldGetUserJournalsByUserIdAndDate() {
     // Given
     LocalDate testDate = LocalDate.now();
-    
-    // Create test entry with the specific date
+    Date startOfDay = Date.from(testDate.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    Date startOfNextDay = Date.from(testDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+
     JournalEntry entryWithDate = TestDataFactory.createSampleJournalEntry();
     entryWithDate.setId("entry-with-date");
-    entryWithDate.setDate(Date.from(testDate.atStartOfDay(ZoneId.systemDefault()).toInstant()));
-    
-    // Create entry with different date
-    JournalEntry entryWithOtherDate = TestDataFactory.createSampleJournalEntry();
-    entryWithOtherDate.setId("entry-other-date");
-    entryWithOtherDate.setDate(Date.from(testDate.minusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant()));
-    
-    List<JournalEntry> allEntries = List.of(entryWithDate, entryWithOtherDate);
-    when(journalEntryRepository.findByUserId(userId)).thenReturn(allEntries);
+    entryWithDate.setDate(startOfDay);
+    when(journalEntryRepository.findByUserIdAndDateGreaterThanEqualAndDateLessThan(userId, startOfDay, startOfNextDay))
+        .thenReturn(List.of(entryWithDate));
 
     // When
     List<JournalEntry> result = journalEntryService.getUserJournals(userId, testDate);
@@ -190,7 +212,80 @@ class JournalEntryServiceTest {
     // Then
     assertEquals(1, result.size());
     assertEquals(entryWithDate.getId(), result.get(0).getId());
-    verify(journalEntryRepository).findByUserId(userId);
+    verify(journalEntryRepository, never()).findByUserId(anyString());
+  }
+
+  @Test
+  @DisplayName("Should return empty list for a day without entries of a known user")
+  void shouldReturnEmptyListForDayWithoutEntries() {
+    // Given
+    LocalDate testDate = LocalDate.now();
+    when(journalEntryRepository.findByUserIdAndDateGreaterThanEqualAndDateLessThan(eq(userId), any(Date.class),
+        any(Date.class))).thenReturn(List.of());
+    when(journalEntryRepository.existsByUserId(userId)).thenReturn(true);
+
+    // When
+    List<JournalEntry> result = journalEntryService.getUserJournals(userId, testDate);
+
+    // Then
+    assertTrue(result.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should throw exception for a day query of an unknown user")
+  void shouldThrowExceptionForDayQueryOfUnknownUser() {
+    // Given
+    when(journalEntryRepository.findByUserIdAndDateGreaterThanEqualAndDateLessThan(eq(userId), any(Date.class),
+        any(Date.class))).thenReturn(List.of());
+    when(journalEntryRepository.existsByUserId(userId)).thenReturn(false);
+
+    // When & Then
+    assertThrows(JournalEntryNotFoundException.class,
+        () -> journalEntryService.getUserJournals(userId, LocalDate.now()));
+  }
+
+  @Test
+  @DisplayName("Should return a page with next cursor when more journal entries exist")
+  void shouldReturnPageWithNextCursor() {
+    // Given
+    List<JournalEntry> entries = TestDataFactory.createMultipleJournalEntries(userId, 3);
+    for (int i = 0; i < entries.size(); i++) {
+      entries.get(i).setId("entry-" + i);
+    }
+    when(journalEntryRepository.findPageByUserId(userId, null, 3)).thenReturn(entries);
+
+    // When
+    CursorPage<JournalEntry> page = journalEntryService.getUserJournalsPage(userId, null, 2);
+
+    // Then
+    assertEquals(2, page.items().size());
+    assertNotNull(page.nextCursor());
+    PageCursor cursor = PageCursor.decode(page.nextCursor());
+    assertEquals("entry-1", cursor.id());
+    assertEquals(entries.get(1).getDate(), cursor.date());
+  }
+
+  @Test
+  @DisplayName("Should return last page without next cursor")
+  void shouldReturnLastPageWithoutNextCursor() {
+    // Given
+    PageCursor cursor = new PageCursor(new Date(), "entry-1");
+    List<JournalEntry> entries = TestDataFactory.createMultipleJournalEntries(userId, 1);
+    when(journalEntryRepository.findPageByUserId(eq(userId), any(PageCursor.class), eq(3))).thenReturn(entries);
+
+    // When
+    CursorPage<JournalEntry> page = journalEntryService.getUserJournalsPage(userId, cursor.encode(), 2);
+
+    // Then
+    assertEquals(1, page.items().size());
+    assertNull(page.nextCursor());
+  }
+
+  @Test
+  @DisplayName("Should reject invalid cursor")
+  void shouldRejectInvalidCursor() {
+    assertThrows(IllegalArgumentException.class,
+        () -> journalEntryService.getUserJournalsPage(userId, "not-a-cursor", 10));
   }
 
   @Test
@@ -226,10 +321,20 @@ class JournalEntryServiceTest {
   @DisplayName("Should get user statistics")
   void shouldGetUserStatistics() {
     // Given
-    List<JournalEntry> entries = TestDataFactory.createMultipleJournalEntries(userId, 5);
-    entries.forEach(entry -> entry.setDailyMood(3.0));
-    when(journalEntryRepository.findByUserId(userId)).thenReturn(entries);
-    when(snippetRepository.findByUserId(userId)).thenReturn(new ArrayList<>());
+    UserStatistics userStatistics = new UserStatistics(userId);
+    userStatistics.setTotalJournals(5);
+    userStatistics.setTotalWords(42);
+    userStatistics.setMoodSum(15.0);
+    userStatistics.setMoodCount(5);
+    ActivityBitmap activity = ActivityBitmap.empty()
+        .with(LocalDate.now())
+        .with(LocalDate.now().minusDays(1))
+        .with(LocalDate.now().minusDays(3));
+    userStatistics.setActivityOrigin(activity.origin());
+    userStatistics.setActivity(activity.toBytes());
+    when(userStatisticsService.getStatistics(userId)).thenReturn(userStatistics);
+    when(journalEntryRepository.summarizeMood(eq(userId), any(Date.class), any(Date.class)))
+        .thenReturn(new MoodSummary(2, 7.0));
 
     // When
     Map<String, Object> statistics = journalEntryService.getUserStatistics(userId);
@@ -237,19 +342,23 @@ class JournalEntryServiceTest {
     // Then
     assertNotNull(statistics);
     assertEquals(5, statistics.get("totalJournals"));
+    assertEquals(42, statistics.get("totalWords"));
     assertEquals(3.0, statistics.get("avgMood"));
-    assertTrue(statistics.containsKey("weeklyJournalCount"));
-    assertTrue(statistics.containsKey("currentStreak"));
-    verify(journalEntryRepository).findByUserId(userId);
-    verify(snippetRepository).findByUserId(userId);
+    assertEquals(2, statistics.get("weeklyJournalCount"));
+    assertEquals(3.5, statistics.get("weeklyAvgMood"));
+    assertEquals(2, statistics.get("currentStreak"));
+    verify(userStatisticsService).getStatistics(userId);
+    verify(journalEntryRepository, never()).findByUserId(anyString());
+    verify(snippetRepository, never()).findByUserId(anyString());
   }
 
   @Test
   @DisplayName("Should handle empty journal list for statistics")
   void shouldHandleEmptyJournalListForStatistics() {
     // Given
-    when(journalEntryRepository.findByUserId(userId)).thenReturn(new ArrayList<>());
-    when(snippetRepository.findByUserId(userId)).thenReturn(new ArrayList<>());
+    when(userStatisticsService.getStatistics(userId)).thenReturn(new UserStatistics(userId));
+    when(journalEntryRepository.summarizeMood(eq(userId), any(Date.class), any(Date.class)))
+        .thenReturn(new MoodSummary(0, 0.0));
 
     // When
     Map<String, Object> statistics = journalEntryService.getUserStatistics(userId);
@@ -260,7 +369,63 @@ class JournalEntryServiceTest {
     assertEquals(0.0, statistics.get("avgMood"));
     assertEquals(0, statistics.get("weeklyJournalCount"));
     assertEquals(0, statistics.get("currentStreak"));
-    verify(journalEntryRepository).findByUserId(userId);
-    verify(snippetRepository).findByUserId(userId);
+    verify(userStatisticsService).getStatistics(userId);
+    verify(snippetRepository, never()).findByUserId(anyString());
+  }
+
+  @Test
+  @DisplayName("Should compute a long streak from the activity bitmap")
+  void shouldComputeLongStreakFromActivityBitmap() {
+    // Given - one active day for each of the last 100 days, ending yesterday
+    LocalDate today = LocalDate.now();
+    ActivityBitmap activity = ActivityBitmap.empty();
+    for (int i = 1; i <= 100; i++) {
+      activity = activity.with(today.minusDays(i));
+    }
+    UserStatistics userStatistics = new UserStatistics(userId);
+    userStatistics.setActivityOrigin(activity.origin());
+    userStatistics.setActivity(activity.toBytes());
+    when(userStatisticsService.getStatistics(userId)).thenReturn(userStatistics);
+    when(journalEntryRepository.summarizeMood(eq(userId), any(Date.class), any(Date.class)))
+        .thenReturn(new MoodSummary(0, 0.0));
+
+    // When
+    Map<String, Object> statistics = journalEntryService.getUserStatistics(userId);
+
+    // Then
+    assertEquals(100, statistics.get("currentStreak"));
+  }
+
+  @Test
+  @DisplayName("Should return a year of activity for the heatmap")
+  void shouldReturnActivityHeatmap() {
+    // Given
+    LocalDate today = LocalDate.now();
+    when(userStatisticsService.getActivity(userId))
+        .thenReturn(ActivityBitmap.empty().with(today).with(today.minusDays(365)).with(today.minusDays(400)));
+
+    // When
+    ActivityHeatmap heatmap = journalEntryService.getActivityHeatmap(userId);
+
+    // Then
+    assertEquals(today, heatmap.endDate());
+    assertEquals(today.minusDays(365), heatmap.startDate());
+    assertEquals(366, heatmap.days().length);
+    assertTrue(heatmap.days()[0]);
+    assertTrue(heatmap.days()[365]);
+    assertFalse(heatmap.days()[1]);
+  }
+
+  @Test
+  @DisplayName("Should update statistics read model when journal entry is created")
+  void shouldUpdateStatisticsWhenJournalEntryIsCreated() {
+    // Given
+    when(journalEntryRepository.save(any(JournalEntry.class))).thenReturn(testEntry);
+
+    // When
+    journalEntryService.createJournalEntry(testEntry);
+
+    // Then
+    verify(userStatisticsService).onJournalEntryCreated(testEntry);
   }
 }
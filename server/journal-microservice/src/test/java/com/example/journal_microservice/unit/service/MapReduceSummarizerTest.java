@@ -0,0 +1,121 @@
+package com.example.journal_microservice.unit.service;
+
+import com.example.journal_microservice.service.MapReduceSummarizer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MapReduceSummarizer Unit Tests")
+class MapReduceSummarizerTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    // 10 tokens, about 40 characters
+    private final MapReduceSummarizer summarizer = new MapReduceSummarizer(10, executor);
+    private final List<List<String>> calls = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should summarize short contents with a single call")
+    void shouldSendShortContentsInOneCall() {
+        String summary = summarizer.summarize(List.of("Short walk", "Tea"), this::summarize);
+
+        assertEquals("S2", summary);
+        assertEquals(List.of(List.of("Short walk", "Tea")), calls);
+    }
+
+    @Test
+    @DisplayName("Should summarize each chunk and then reduce the partial summaries in a final call")
+    void shouldMapAndReduceLongContents() {
+        // Two contents of 4 tokens fit into one chunk
+        List<String> contents = List.of(
+                "a".repeat(15), "b".repeat(15), "c".repeat(15), "d".repeat(15));
+
+        String summary = summarizer.summarize(contents, this::summarize);
+
+        assertEquals("a2", summary);
+        assertEquals(3, calls.size());
+        assertEquals(List.of("a2", "c2"), calls.get(2), "The partial summaries should be reduced in order");
+    }
+
+    @Test
+    @DisplayName("Should split chunks at the token limit and split a single long content at whitespace")
+    void shouldChunkByTokens() {
+        List<List<String>> chunks = summarizer.chunk(List.of(
+                "a".repeat(20), "b".repeat(20), "one two three four five six seven eight nine ten"));
+
+        assertEquals(List.of("a".repeat(20), "b".repeat(20)), chunks.get(0));
+        assertTrue(chunks.stream().flatMap(List::stream)
+                .allMatch(piece -> MapReduceSummarizer.estimateTokens(piece) <= 10));
+        assertEquals("one two three four five six seven eight nine ten",
+                String.join(" ", chunks.stream().skip(1).flatMap(List::stream).toList()));
+    }
+
+    @Test
+    @DisplayName("Should give up when a chunk gets no summary")
+    void shouldReturnNullWhenAChunkFails() {
+        List<String> contents = List.of("a".repeat(30), "b".repeat(30));
+
+        String summary = summarizer.summarize(contents,
+                texts -> texts.get(0).startsWith("b") ? null : summarize(texts));
+
+        assertNull(summary);
+    }
+
+    @Test
+    @DisplayName("Should truncate the partial summaries if they still do not fit after the last round")
+    void shouldTruncateWhenSummariesDoNotShrink() {
+        // Given - every call returns its first text unchanged, so the contents never get shorter
+        List<String> contents = List.of(
+                "a".repeat(40), "b".repeat(40), "c".repeat(40), "d".repeat(40), "e".repeat(40));
+
+        // When
+        String summary = summarizer.summarize(contents, texts -> {
+            calls.add(texts);
+            return texts.get(0);
+        });
+
+        // Then - the final call stays within the limit and still covers every part
+        List<String> lastCall = calls.get(calls.size() - 1);
+        assertEquals("a".repeat(8), summary);
+        assertEquals(5, lastCall.size());
+        assertTrue(lastCall.stream().mapToInt(MapReduceSummarizer::estimateTokens).sum() <= 10);
+    }
+
+    @Test
+    @DisplayName("Should merge partial summaries before truncating if there are more of them than tokens")
+    void shouldStayWithinLimitWithMorePartsThanTokens() {
+        // Given - twelve parts of a full chunk each that never get shorter, with a limit of ten tokens
+        List<String> contents = IntStream.range(0, 12)
+                .mapToObj(i -> String.valueOf((char) ('a' + i)).repeat(40))
+                .toList();
+
+        // When
+        summarizer.summarize(contents, texts -> {
+            calls.add(texts);
+            return texts.get(0);
+        });
+
+        // Then - neighbours share a token instead of each getting one the limit does not have
+        List<String> lastCall = calls.get(calls.size() - 1);
+        assertEquals(10, lastCall.size());
+        assertTrue(lastCall.stream().mapToInt(MapReduceSummarizer::estimateTokens).sum() <= 10);
+    }
+
+    // Names a summary after the first letter and the number of its texts
+    private String summarize(List<String> texts) {
+        calls.add(texts);
+        return texts.get(0).charAt(0) + String.valueOf(texts.size());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.journal_microservice.unit.service;
+
+import com.example.journal_microservice.service.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SingleFlight Unit Tests")
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final Counter coalesced = new SimpleMeterRegistry().counter("coalesced");
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should run one call for concurrent callers with the same key and share its result")
+    void shouldCoalesceConcurrentCalls() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(10, coalesced);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("entry-1", () -> {
+                calls.incrementAndGet();
+                await(release);
+                return "summary";
+            })));
+        }
+        // Hold the leading call until every other caller has joined it
+        waitUntil(() -> coalesced.count() == CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("summary", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    @DisplayName("Should pass the exception of the call to every waiting caller and forget the key")
+    void shouldShareException() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(10, coalesced);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("entry-1", () -> {
+            await(release);
+            throw new IllegalStateException("LLM unavailable");
+        }));
+        waitUntil(() -> singleFlight.size() == 1);
+        Future<String> follower = executor.submit(() -> singleFlight.execute("entry-1", () -> "never"));
+        waitUntil(() -> coalesced.count() == 1);
+        release.countDown();
+
+        for (Future<String> result : List.of(leader, follower)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+        assertEquals(0, singleFlight.size());
+        assertEquals("retried", singleFlight.execute("entry-1", () -> "retried"));
+    }
+
+    @Test
+    @DisplayName("Should run calls uncoalesced once the in-flight limit is reached")
+    void shouldBypassWhenFull() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(1, coalesced);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> blocking = executor.submit(() -> singleFlight.execute("entry-1", () -> {
+            await(release);
+            return "first";
+        }));
+        waitUntil(() -> singleFlight.size() == 1);
+
+        assertEquals("second", singleFlight.execute("entry-2", () -> "second"));
+        assertEquals(1, singleFlight.size());
+
+        release.countDown();
+        assertEquals("first", blocking.get(5, TimeUnit.SECONDS));
+        assertEquals(0.0, coalesced.count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.journal_microservice.unit.service;
+
+import com.example.journal_microservice.service.SnippetMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("SnippetMetrics Unit Tests")
+class SnippetMetricsTest {
+
+    @Test
+    @DisplayName("Should count words separated by any whitespace")
+    void shouldCountWords() {
+        assertEquals(4, SnippetMetrics.countWords("Today was\ta  good\nday"));
+        assertEquals(2, SnippetMetrics.countWords("  padded words  "));
+        assertEquals(0, SnippetMetrics.countWords("   \n\t "));
+        assertEquals(0, SnippetMetrics.countWords(""));
+        assertEquals(0, SnippetMetrics.countWords(null));
+    }
+
+    @Test
+    @DisplayName("Should count characters as code points")
+    void shouldCountChars() {
+        assertEquals(11, SnippetMetrics.countChars("Great day! "));
+        assertEquals(2, SnippetMetrics.countChars("😀!"));
+        assertEquals(0, SnippetMetrics.countChars(null));
+    }
+}
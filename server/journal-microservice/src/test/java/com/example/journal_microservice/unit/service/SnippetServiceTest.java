@@ -1,12 +1,14 @@
 package com.example.journal_microservice.unit.service;
 
+import com.example.journal_microservice.exception.InvalidSnippetOperationException;
 import com.example.journal_microservice.exception.SnippetNotFoundException;
 import com.example.journal_microservice.model.JournalEntry;
 import com.example.journal_microservice.model.Snippet;
 import com.example.journal_microservice.repository.JournalEntryRepository;
 import com.example.journal_microservice.repository.SnippetRepository;
+import com.example.journal_microservice.service.OutboxService;
 import com.example.journal_microservice.service.SnippetService;
-import com.example.journal_microservice.service.UserService;
+import com.example.journal_microservice.service.UserStatisticsService;
 import com.example.journal_microservice.testutil.TestDataFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,8 +22,10 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,7 +39,10 @@ class SnippetServiceTest {
     private JournalEntryRepository journalEntryRepository;
 
     @Mock
-    private UserService userService;
+    private OutboxService outboxService;
+
+    @Mock
+    private UserStatisticsService userStatisticsService;
 
     @InjectMocks
     private SnippetService snippetService;
@@ -55,19 +62,21 @@ class SnippetServiceTest {
     }
 
     @Test
-    @DisplayName("Should get all snippets successfully")
-    void shouldGetAllSnippets() {
+    @DisplayName("Should stream snippets without loading the whole collection")
+    void shouldStreamSnippets() {
         // Given
         List<Snippet> expectedSnippets = TestDataFactory.createMultipleSnippets(userId, journalEntryId, 3);
-        when(snippetRepository.findAll()).thenReturn(expectedSnippets);
+        when(snippetRepository.streamSnippets(eq(userId), isNull(), anyInt())).thenReturn(expectedSnippets.stream());
 
         // When
-        List<Snippet> result = snippetService.getAllSnippets();
+        List<Snippet> result;
+        try (Stream<Snippet> snippets = snippetService.streamSnippets(userId, null)) {
+            result = snippets.toList();
+        }
 
         // Then
-        assertEquals(3, result.size());
         assertEquals(expectedSnippets, result);
-        verify(snippetRepository).findAll();
+        verify(snippetRepository, never()).findAll();
     }
 
     @Test
@@ -132,18 +141,103 @@ class SnippetServiceTest {
     void shouldGetUserSnippetsByDate() {
         // Given
         LocalDate testDate = LocalDate.now();
-        List<Snippet> allSnippets = TestDataFactory.createMultipleSnippets(userId, journalEntryId, 5);
-        // Set dates for filtering
-        allSnippets.get(0).setTimestamp(java.sql.Date.valueOf(testDate));
-        allSnippets.get(1).setTimestamp(java.sql.Date.valueOf(testDate));
-        
-        when(snippetRepository.findByUserId(userId)).thenReturn(allSnippets);
+        List<Snippet> snippetsOfDay = TestDataFactory.createMultipleSnippets(userId, journalEntryId, 2);
+        snippetsOfDay.forEach(s -> s.setTimestamp(java.sql.Date.valueOf(testDate)));
+
+        when(snippetRepository.findByUserIdAndTimestampGreaterThanEqualAndTimestampLessThan(
+                userId, java.sql.Date.valueOf(testDate), java.sql.Date.valueOf(testDate.plusDays(1))))
+                .thenReturn(snippetsOfDay);
 
         // When
         List<Snippet> result = snippetService.getUserSnippets(userId, testDate);
 
         // Then
-        assertTrue(result.size() >= 2); // At least the ones we set with test date
-        verify(snippetRepository).findByUserId(userId);
+        assertEquals(2, result.size());
+        verify(snippetRepository, never()).findByUserId(anyString());
+    }
+
+    @Test
+    @DisplayName("Should recompute word and character counts when content is updated")
+    void shouldRecomputeMetricsOnUpdate() {
+        // Given
+        testSnippet.setWordCount(3);
+        testSnippet.setCharCount(22);
+        Snippet update = new Snippet();
+        update.setContent("A much longer day than expected");
+        when(snippetRepository.findById(snippetId)).thenReturn(Optional.of(testSnippet));
+        when(snippetRepository.save(testSnippet)).thenReturn(testSnippet);
+
+        // When
+        Snippet result = snippetService.updateSnippet(snippetId, update);
+
+        // Then
+        assertEquals(6, result.getWordCount());
+        assertEquals(31, result.getCharCount());
+        verify(userStatisticsService).onSnippetUpdated(userId, 3, 6);
+    }
+
+    @Test
+    @DisplayName("Should add the snippet mood to the journal entry aggregate atomically")
+    void shouldAddSnippetMoodAtomically() {
+        // Given
+        testSnippet.setMood(4.0);
+        testEntry.setMoodSum(6.0);
+        testEntry.setMoodCount(2);
+        testEntry.setDailyMood(3.0);
+        JournalEntry updatedEntry = TestDataFactory.createSampleJournalEntry();
+        updatedEntry.setId(journalEntryId);
+        updatedEntry.setMoodSum(10.0);
+        updatedEntry.setMoodCount(3);
+        updatedEntry.setDailyMood(10.0 / 3);
+        when(journalEntryRepository.upsertDailyEntry(eq(userId), any(), any())).thenReturn(testEntry);
+        when(snippetRepository.save(testSnippet)).thenReturn(testSnippet);
+        when(journalEntryRepository.addSnippet(journalEntryId, snippetId, 4.0)).thenReturn(updatedEntry);
+
+        // When
+        snippetService.createSnippet(testSnippet);
+
+        // Then
+        verify(journalEntryRepository, never()).save(any());
+        verify(userStatisticsService).onSnippetCreated(testSnippet, false, 3.0, 10.0 / 3);
+        verify(outboxService).enqueueSnippetAdded(userId, snippetId);
+        verify(outboxService, never()).enqueueJournalEntryAdded(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should update the journal entry aggregate when the snippet mood changes")
+    void shouldUpdateDailyMoodOnMoodChange() {
+        // Given
+        testSnippet.setJournalEntryId(journalEntryId);
+        testSnippet.setMood(2.0);
+        Snippet update = new Snippet();
+        update.setMood(5.0);
+        testEntry.setMoodSum(9.0);
+        testEntry.setMoodCount(2);
+        testEntry.setDailyMood(4.5);
+        when(snippetRepository.findById(snippetId)).thenReturn(Optional.of(testSnippet));
+        when(snippetRepository.save(testSnippet)).thenReturn(testSnippet);
+        when(journalEntryRepository.changeSnippetMood(journalEntryId, snippetId, 2.0, 5.0)).thenReturn(testEntry);
+
+        // When
+        Snippet result = snippetService.updateSnippet(snippetId, update);
+
+        // Then
+        assertEquals(5.0, result.getMood());
+        verify(userStatisticsService).onJournalEntryUpdated(userId, 3.0, 4.5);
+    }
+
+    @Test
+    @DisplayName("Should not delete the last remaining snippet of a journal entry")
+    void shouldNotDeleteLastRemainingSnippet() {
+        // Given
+        testSnippet.setJournalEntryId(journalEntryId);
+        testEntry.setSnippetIds(new ArrayList<>(List.of(snippetId)));
+        when(snippetRepository.findById(snippetId)).thenReturn(Optional.of(testSnippet));
+        when(journalEntryRepository.removeSnippet(journalEntryId, snippetId, testSnippet.getMood())).thenReturn(null);
+        when(journalEntryRepository.findById(journalEntryId)).thenReturn(Optional.of(testEntry));
+
+        // When & Then
+        assertThrows(InvalidSnippetOperationException.class, () -> snippetService.deleteSnippet(snippetId));
+        verify(snippetRepository, never()).deleteById(anyString());
     }
 }
@@ -0,0 +1,44 @@
+package com.example.user_microservice.config;
+
+import com.example.internal_auth.InternalIdentityFilter;
+import com.example.internal_auth.UserPathInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Verifies the user identity the api-gateway signs and checks it against the user in the path.
+ */
+@Configuration
+public class InternalAuthConfig implements WebMvcConfigurer {
+
+    // Called by the journal service's outbox relay, probes and tooling without a user identity
+    private static final List<String> SERVICE_ROUTES = List.of(
+            "/api/users/*/appends",
+            "/api/users/*/journal-entries/*",
+            "/api/users/*/snippets/*",
+            "/api/health/**",
+            "/actuator/**",
+            "/v3/api-docs/**",
+            "/swagger-ui/**");
+
+    @Bean
+    public InternalIdentityFilter internalIdentityFilter(@Value("${internal-auth.secret:}") String secret,
+            @Value("${internal-auth.max-age-seconds:300}") long maxAgeSeconds,
+            @Value("${internal-auth.required:true}") boolean required) {
+        return new InternalIdentityFilter(secret, maxAgeSeconds, required, SERVICE_ROUTES, InternalAuthConfig::errorBody);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new UserPathInterceptor(InternalAuthConfig::errorBody));
+    }
+
+    private static String errorBody(String message) {
+        return "{\"error\":\"" + message + "\"}";
+    }
+}
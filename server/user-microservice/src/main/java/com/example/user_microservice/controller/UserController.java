@@ -1,9 +1,13 @@
 package com.example.user_microservice.controller;
 
+import com.example.internal_auth.InternalIdentityFilter;
+import com.example.user_microservice.dto.AppendAcknowledgement;
+import com.example.user_microservice.dto.AppendRequest;
 import com.example.user_microservice.model.User;
 import com.example.user_microservice.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import java.util.List;
 
@@ -34,32 +38,46 @@ public class UserController {
     }
 
     @PostMapping()
-    public User createUser(@RequestBody User user) {
-        return userService.createUser(user);
+    public ResponseEntity<User> createUser(@RequestBody User user,
+            @RequestAttribute(name = InternalIdentityFilter.AUTHENTICATED_USER_ID, required = false) String authenticatedUserId) {
+        // The new user's id is in the body, where the path check does not see it
+        if (authenticatedUserId != null && !authenticatedUserId.equals(user.getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(userService.createUser(user));
     }
 
-    @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(@PathVariable("id") String id) {
-        if (userService.deleteUser(id)) {
+    @DeleteMapping("/{userId}")
+    public ResponseEntity<Void> deleteUser(@PathVariable("userId") String userId) {
+        if (userService.deleteUser(userId)) {
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.notFound().build();
     }
 
     @PostMapping("/{userId}/journal-entries/{journalEntryId}")
-    public ResponseEntity<User> addJournalEntry(@PathVariable("userId") String userId, @PathVariable("journalEntryId") String journalEntryId) {
-        User updatedUser = userService.addJournalEntry(userId, journalEntryId);
-        if (updatedUser != null) {
-            return ResponseEntity.ok(updatedUser);
+    public ResponseEntity<AppendAcknowledgement> addJournalEntry(@PathVariable("userId") String userId, @PathVariable("journalEntryId") String journalEntryId) {
+        AppendAcknowledgement acknowledgement = userService.addJournalEntry(userId, journalEntryId);
+        if (acknowledgement != null) {
+            return ResponseEntity.ok(acknowledgement);
         }
         return ResponseEntity.notFound().build();
     }
 
     @PostMapping("/{userId}/snippets/{snippetId}")
-    public ResponseEntity<User> addSnippet(@PathVariable("userId") String userId, @PathVariable("snippetId") String snippetId) {
-        User updatedUser = userService.addSnippet(userId, snippetId);
-        if (updatedUser != null) {
-            return ResponseEntity.ok(updatedUser);
+    public ResponseEntity<AppendAcknowledgement> addSnippet(@PathVariable("userId") String userId, @PathVariable("snippetId") String snippetId) {
+        AppendAcknowledgement acknowledgement = userService.addSnippet(userId, snippetId);
+        if (acknowledgement != null) {
+            return ResponseEntity.ok(acknowledgement);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/{userId}/appends")
+    public ResponseEntity<AppendAcknowledgement> append(@PathVariable("userId") String userId, @RequestBody AppendRequest request) {
+        AppendAcknowledgement acknowledgement = userService.append(userId, request.journalEntries(), request.snippets());
+        if (acknowledgement != null) {
+            return ResponseEntity.ok(acknowledgement);
         }
         return ResponseEntity.notFound().build();
     }
@@ -0,0 +1,11 @@
+package com.example.user_microservice.dto;
+
+/**
+ * Returned by the append endpoints instead of the whole user document.
+ * modified is false when every ID was already present, which makes retried appends harmless.
+ */
+public record AppendAcknowledgement(
+        String userId,
+        boolean modified
+) {
+}
@@ -0,0 +1,12 @@
+package com.example.user_microservice.dto;
+
+import java.util.List;
+
+/**
+ * Journal entry and snippet IDs to append to a user in one call.
+ */
+public record AppendRequest(
+        List<String> journalEntries,
+        List<String> snippets
+) {
+}
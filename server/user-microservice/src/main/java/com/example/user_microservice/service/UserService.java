@@ -1,8 +1,14 @@
 package com.example.user_microservice.service;
 
+import com.example.user_microservice.dto.AppendAcknowledgement;
 import com.example.user_microservice.model.User;
 import com.example.user_microservice.repository.UserRepository;
+import com.mongodb.client.result.UpdateResult;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,6 +20,9 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -49,37 +58,39 @@ public class UserService {
         return false;
     }
     
-    public User addJournalEntry(String userId, String journalEntryId) {
-        return userRepository.findById(userId)
-                .map(user -> {
-                    String[] currentEntries = user.getJournalEntries();
-                    String[] newEntries = new String[currentEntries != null ? currentEntries.length + 1 : 1];
-                    
-                    if (currentEntries != null) {
-                        System.arraycopy(currentEntries, 0, newEntries, 0, currentEntries.length);
-                    }
-                    newEntries[newEntries.length - 1] = journalEntryId;
-                    
-                    user.setJournalEntries(newEntries);
-                    return userRepository.save(user);
-                })
-                .orElse(null);
+    public AppendAcknowledgement addJournalEntry(String userId, String journalEntryId) {
+        return append(userId, List.of(journalEntryId), List.of());
     }
     
-    public User addSnippet(String userId, String snippetId) {
-        return userRepository.findById(userId)
-                .map(user -> {
-                    String[] currentSnippets = user.getSnippets();
-                    String[] newSnippets = new String[currentSnippets != null ? currentSnippets.length + 1 : 1];
-                    
-                    if (currentSnippets != null) {
-                        System.arraycopy(currentSnippets, 0, newSnippets, 0, currentSnippets.length);
-                    }
-                    newSnippets[newSnippets.length - 1] = snippetId;
-                    
-                    user.setSnippets(newSnippets);
-                    return userRepository.save(user);
-                })
-                .orElse(null);
+    public AppendAcknowledgement addSnippet(String userId, String snippetId) {
+        return append(userId, List.of(), List.of(snippetId));
+    }
+    
+    /**
+     * Appends journal entry and snippet IDs with a single $addToSet update, so the stored
+     * arrays are never read or rewritten and concurrent appends cannot lose each other
+     * @param userId The user to append to
+     * @param journalEntryIds Journal entry IDs to append, may be empty
+     * @param snippetIds Snippet IDs to append, may be empty
+     * @return Acknowledgement of the update, or null if the user does not exist
+     */
+    public AppendAcknowledgement append(String userId, List<String> journalEntryIds, List<String> snippetIds) {
+        Update update = new Update();
+        if (journalEntryIds != null && !journalEntryIds.isEmpty()) {
+            update.addToSet("journalEntries").each(journalEntryIds.toArray());
+        }
+        if (snippetIds != null && !snippetIds.isEmpty()) {
+            update.addToSet("snippets").each(snippetIds.toArray());
+        }
+        if (update.getUpdateObject().isEmpty()) {
+            return userRepository.existsById(userId) ? new AppendAcknowledgement(userId, false) : null;
+        }
+    
+        UpdateResult result = mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(userId)), update, User.class);
+        if (result.getMatchedCount() == 0) {
+            return null;
+        }
+        return new AppendAcknowledgement(userId, result.getModifiedCount() > 0);
     }
 }
@@ -1,5 +1,8 @@
 package com.example.user_microservice.controller;
 
+import com.example.internal_auth.InternalIdentityFilter;
+import com.example.internal_auth.UserIdentitySignature;
+import com.example.user_microservice.dto.AppendAcknowledgement;
 import com.example.user_microservice.model.User;
 import com.example.user_microservice.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -173,19 +176,17 @@ class UserControllerTest {
     }
 
     @Test
-    void addJournalEntry_WhenUserExists_ShouldReturnUpdatedUser() throws Exception {
+    void addJournalEntry_WhenUserExists_ShouldReturnAcknowledgement() throws Exception {
         // Given
-        User updatedUser = new User("1", "John Doe", "john@example.com", 
-                                   new String[]{"journal1", "journal2"}, new String[]{"snippet1"});
-        when(userService.addJournalEntry("1", "journal2")).thenReturn(updatedUser);
+        when(userService.addJournalEntry("1", "journal2")).thenReturn(new AppendAcknowledgement("1", true));
 
         // When & Then
         mockMvc.perform(post("/api/users/1/journal-entries/journal2"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.id").value("1"))
-                .andExpect(jsonPath("$.journalEntries.length()").value(2))
-                .andExpect(jsonPath("$.journalEntries[1]").value("journal2"));
+                .andExpect(jsonPath("$.userId").value("1"))
+                .andExpect(jsonPath("$.modified").value(true))
+                .andExpect(jsonPath("$.journalEntries").doesNotExist());
 
         verify(userService).addJournalEntry("1", "journal2");
     }
@@ -203,19 +204,16 @@ class UserControllerTest {
     }
 
     @Test
-    void addSnippet_WhenUserExists_ShouldReturnUpdatedUser() throws Exception {
+    void addSnippet_WhenUserExists_ShouldReturnAcknowledgement() throws Exception {
         // Given
-        User updatedUser = new User("1", "John Doe", "john@example.com", 
-                                   new String[]{"journal1"}, new String[]{"snippet1", "snippet2"});
-        when(userService.addSnippet("1", "snippet2")).thenReturn(updatedUser);
+        when(userService.addSnippet("1", "snippet2")).thenReturn(new AppendAcknowledgement("1", true));
 
         // When & Then
         mockMvc.perform(post("/api/users/1/snippets/snippet2"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.id").value("1"))
-                .andExpect(jsonPath("$.snippets.length()").value(2))
-                .andExpect(jsonPath("$.snippets[1]").value("snippet2"));
+                .andExpect(jsonPath("$.userId").value("1"))
+                .andExpect(jsonPath("$.modified").value(true));
 
         verify(userService).addSnippet("1", "snippet2");
     }
@@ -231,4 +229,62 @@ class UserControllerTest {
 
         verify(userService).addSnippet("999", "snippet2");
     }
+
+    @Test
+    void append_WhenUserExists_ShouldAppendAllIdsInOneCall() throws Exception {
+        // Given
+        when(userService.append("1", List.of("journal2"), List.of("snippet2", "snippet3")))
+                .thenReturn(new AppendAcknowledgement("1", true));
+
+        // When & Then
+        mockMvc.perform(post("/api/users/1/appends")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"journalEntries\":[\"journal2\"],\"snippets\":[\"snippet2\",\"snippet3\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.modified").value(true));
+
+        verify(userService).append("1", List.of("journal2"), List.of("snippet2", "snippet3"));
+    }
+
+    @Test
+    void append_WhenUserNotExists_ShouldReturnNotFound() throws Exception {
+        // Given
+        when(userService.append(eq("999"), any(), any())).thenReturn(null);
+
+        // When & Then
+        mockMvc.perform(post("/api/users/999/appends")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"snippets\":[\"snippet2\"]}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getUser_WithIdentityOfAnotherUser_ShouldReturnForbidden() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/users/2")
+                .header(InternalIdentityFilter.USER_ID_HEADER, "1")
+                .header(InternalIdentityFilter.SIGNATURE_HEADER, sign("1")))
+                .andExpect(status().isForbidden());
+
+        verify(userService, never()).getUserById(any());
+    }
+
+    @Test
+    void createUser_WithIdentityOfAnotherUser_ShouldReturnForbidden() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/users")
+                .header(InternalIdentityFilter.USER_ID_HEADER, "2")
+                .header(InternalIdentityFilter.SIGNATURE_HEADER, sign("2"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testUser)))
+                .andExpect(status().isForbidden());
+
+        verify(userService, never()).createUser(any(User.class));
+    }
+
+    // Same secret as the test task's INTERNAL_AUTH_SECRET
+    private static String sign(String userId) {
+        return new UserIdentitySignature("test-internal-auth-secret-0123456789")
+                .sign(userId, System.currentTimeMillis() / 1000);
+    }
 }
@@ -218,7 +218,7 @@ class UserMicroserviceE2ETest extends BaseIntegrationTest {
     }
 
     @Test
-    void addJournalEntry_WhenUserExists_ShouldReturnUpdatedUser() {
+    void addJournalEntry_WhenUserExists_ShouldAppendEntry() {
         // Create a user
         User testUser = new User(null, "John Doe", "john@example.com", 
                                 new String[]{"journal1"}, new String[]{"snippet1"});
@@ -241,7 +241,15 @@ class UserMicroserviceE2ETest extends BaseIntegrationTest {
         .then()
             .statusCode(200)
             .contentType(ContentType.JSON)
-            .body("id", equalTo(userId))
+            .body("userId", equalTo(userId))
+            .body("modified", equalTo(true));
+
+        given()
+            .pathParam("userId", userId)
+        .when()
+            .get("/api/users/{userId}")
+        .then()
+            .statusCode(200)
             .body("journalEntries", hasSize(2))
             .body("journalEntries", hasItems("journal1", "journal2"));
     }
@@ -258,7 +266,7 @@ class UserMicroserviceE2ETest extends BaseIntegrationTest {
     }
 
     @Test
-    void addSnippet_WhenUserExists_ShouldReturnUpdatedUser() {
+    void addSnippet_WhenUserExists_ShouldAppendSnippet() {
         // Create a user
         User testUser = new User(null, "John Doe", "john@example.com", 
                                 new String[]{"journal1"}, new String[]{"snippet1"});
@@ -281,7 +289,15 @@ class UserMicroserviceE2ETest extends BaseIntegrationTest {
         .then()
             .statusCode(200)
             .contentType(ContentType.JSON)
-            .body("id", equalTo(userId))
+            .body("userId", equalTo(userId))
+            .body("modified", equalTo(true));
+
+        given()
+            .pathParam("userId", userId)
+        .when()
+            .get("/api/users/{userId}")
+        .then()
+            .statusCode(200)
             .body("snippets", hasSize(2))
             .body("snippets", hasItems("snippet1", "snippet2"));
     }
@@ -329,7 +345,7 @@ class UserMicroserviceE2ETest extends BaseIntegrationTest {
             .post("/api/users/{userId}/journal-entries/{journalEntryId}")
         .then()
             .statusCode(200)
-            .body("journalEntries", hasSize(1));
+            .body("modified", equalTo(true));
 
         given()
             .pathParam("userId", userId)
@@ -338,7 +354,7 @@ class UserMicroserviceE2ETest extends BaseIntegrationTest {
             .post("/api/users/{userId}/journal-entries/{journalEntryId}")
         .then()
             .statusCode(200)
-            .body("journalEntries", hasSize(2));
+            .body("modified", equalTo(true));
 
         // 4. Add multiple snippets
         given()
@@ -348,7 +364,7 @@ class UserMicroserviceE2ETest extends BaseIntegrationTest {
             .post("/api/users/{userId}/snippets/{snippetId}")
         .then()
             .statusCode(200)
-            .body("snippets", hasSize(1));
+            .body("modified", equalTo(true));
 
         given()
             .pathParam("userId", userId)
@@ -357,7 +373,7 @@ class UserMicroserviceE2ETest extends BaseIntegrationTest {
             .post("/api/users/{userId}/snippets/{snippetId}")
         .then()
             .statusCode(200)
-            .body("snippets", hasSize(2));
+            .body("modified", equalTo(true));
 
         // 5. Update user information
         User updateData = new User(null, "Updated Workflow User", "updated.workflow@example.com", 
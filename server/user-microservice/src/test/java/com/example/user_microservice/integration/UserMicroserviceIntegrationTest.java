@@ -1,5 +1,6 @@
 package com.example.user_microservice.integration;
 
+import com.example.user_microservice.dto.AppendAcknowledgement;
 import com.example.user_microservice.model.User;
 import com.example.user_microservice.repository.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -171,18 +172,19 @@ class UserMicroserviceIntegrationTest extends BaseIntegrationTest {
     }
 
     @Test
-    void addJournalEntry_WhenUserExists_ShouldReturnUpdatedUser() {
+    void addJournalEntry_WhenUserExists_ShouldReturnAcknowledgement() {
         // Given
         User createdUser = restTemplate.postForObject(baseUrl, testUser, User.class);
 
         // When
-        ResponseEntity<User> response = restTemplate.postForEntity(
+        ResponseEntity<AppendAcknowledgement> response = restTemplate.postForEntity(
                 baseUrl + "/" + createdUser.getId() + "/journal-entries/journal2", 
-                null, User.class);
+                null, AppendAcknowledgement.class);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        User updatedUser = response.getBody();
+        assertTrue(response.getBody().modified());
+        User updatedUser = restTemplate.getForObject(baseUrl + "/" + createdUser.getId(), User.class);
         assertNotNull(updatedUser);
         assertEquals(2, updatedUser.getJournalEntries().length);
         assertEquals("journal2", updatedUser.getJournalEntries()[1]);
@@ -191,27 +193,28 @@ class UserMicroserviceIntegrationTest extends BaseIntegrationTest {
     @Test
     void addJournalEntry_WhenUserNotExists_ShouldReturnNotFound() {
         // When
-        ResponseEntity<User> response = restTemplate.postForEntity(
+        ResponseEntity<AppendAcknowledgement> response = restTemplate.postForEntity(
                 baseUrl + "/nonexistent/journal-entries/journal1", 
-                null, User.class);
+                null, AppendAcknowledgement.class);
 
         // Then
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
     @Test
-    void addSnippet_WhenUserExists_ShouldReturnUpdatedUser() {
+    void addSnippet_WhenUserExists_ShouldReturnAcknowledgement() {
         // Given
         User createdUser = restTemplate.postForObject(baseUrl, testUser, User.class);
 
         // When
-        ResponseEntity<User> response = restTemplate.postForEntity(
+        ResponseEntity<AppendAcknowledgement> response = restTemplate.postForEntity(
                 baseUrl + "/" + createdUser.getId() + "/snippets/snippet2", 
-                null, User.class);
+                null, AppendAcknowledgement.class);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        User updatedUser = response.getBody();
+        assertTrue(response.getBody().modified());
+        User updatedUser = restTemplate.getForObject(baseUrl + "/" + createdUser.getId(), User.class);
         assertNotNull(updatedUser);
         assertEquals(2, updatedUser.getSnippets().length);
         assertEquals("snippet2", updatedUser.getSnippets()[1]);
@@ -220,9 +223,9 @@ class UserMicroserviceIntegrationTest extends BaseIntegrationTest {
     @Test
     void addSnippet_WhenUserNotExists_ShouldReturnNotFound() {
         // When
-        ResponseEntity<User> response = restTemplate.postForEntity(
+        ResponseEntity<AppendAcknowledgement> response = restTemplate.postForEntity(
                 baseUrl + "/nonexistent/snippets/snippet1", 
-                null, User.class);
+                null, AppendAcknowledgement.class);
 
         // Then
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -252,19 +255,19 @@ class UserMicroserviceIntegrationTest extends BaseIntegrationTest {
         assertEquals(HttpStatus.OK, updateResponse.getStatusCode());
 
         // Add journal entry
-        ResponseEntity<User> addJournalResponse = restTemplate.postForEntity(
+        ResponseEntity<AppendAcknowledgement> addJournalResponse = restTemplate.postForEntity(
                 baseUrl + "/" + createdUser.getId() + "/journal-entries/journal3", 
-                null, User.class);
+                null, AppendAcknowledgement.class);
         assertEquals(HttpStatus.OK, addJournalResponse.getStatusCode());
 
         // Add snippet
-        ResponseEntity<User> addSnippetResponse = restTemplate.postForEntity(
+        ResponseEntity<AppendAcknowledgement> addSnippetResponse = restTemplate.postForEntity(
                 baseUrl + "/" + createdUser.getId() + "/snippets/snippet2", 
-                null, User.class);
+                null, AppendAcknowledgement.class);
         assertEquals(HttpStatus.OK, addSnippetResponse.getStatusCode());
 
         // Verify final state
-        User finalUser = addSnippetResponse.getBody();
+        User finalUser = restTemplate.getForObject(baseUrl + "/" + createdUser.getId(), User.class);
         assertNotNull(finalUser);
         assertEquals("John Updated", finalUser.getName());
         assertEquals(3, finalUser.getJournalEntries().length);
@@ -1,5 +1,6 @@
 package com.example.user_microservice.integration;
 
+import com.example.user_microservice.dto.AppendAcknowledgement;
 import com.example.user_microservice.model.User;
 import com.example.user_microservice.repository.UserRepository;
 import com.example.user_microservice.service.UserService;
@@ -14,8 +15,13 @@ import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -145,12 +151,11 @@ class UserServiceIntegrationTest {
         assertEquals(1, createdUser.getJournalEntries().length);
 
         // When
-        User updatedUser = userService.addJournalEntry(createdUser.getId(), "journal2");
+        AppendAcknowledgement acknowledgement = userService.addJournalEntry(createdUser.getId(), "journal2");
 
         // Then
-        assertNotNull(updatedUser);
-        assertEquals(2, updatedUser.getJournalEntries().length);
-        assertEquals("journal2", updatedUser.getJournalEntries()[1]);
+        assertNotNull(acknowledgement);
+        assertTrue(acknowledgement.modified());
 
         // Verify persistence
         Optional<User> persistedUser = userRepository.findById(createdUser.getId());
@@ -166,12 +171,11 @@ class UserServiceIntegrationTest {
         assertEquals(1, createdUser.getSnippets().length);
 
         // When
-        User updatedUser = userService.addSnippet(createdUser.getId(), "snippet2");
+        AppendAcknowledgement acknowledgement = userService.addSnippet(createdUser.getId(), "snippet2");
 
         // Then
-        assertNotNull(updatedUser);
-        assertEquals(2, updatedUser.getSnippets().length);
-        assertEquals("snippet2", updatedUser.getSnippets()[1]);
+        assertNotNull(acknowledgement);
+        assertTrue(acknowledgement.modified());
 
         // Verify persistence
         Optional<User> persistedUser = userRepository.findById(createdUser.getId());
@@ -187,10 +191,11 @@ class UserServiceIntegrationTest {
         User createdUser = userService.createUser(userWithoutEntries);
 
         // When
-        User updatedUser = userService.addJournalEntry(createdUser.getId(), "journal1");
+        AppendAcknowledgement acknowledgement = userService.addJournalEntry(createdUser.getId(), "journal1");
 
         // Then
-        assertNotNull(updatedUser);
+        assertNotNull(acknowledgement);
+        User updatedUser = userRepository.findById(createdUser.getId()).orElseThrow();
         assertEquals(1, updatedUser.getJournalEntries().length);
         assertEquals("journal1", updatedUser.getJournalEntries()[0]);
     }
@@ -203,14 +208,58 @@ class UserServiceIntegrationTest {
         User createdUser = userService.createUser(userWithoutSnippets);
 
         // When
-        User updatedUser = userService.addSnippet(createdUser.getId(), "snippet1");
+        AppendAcknowledgement acknowledgement = userService.addSnippet(createdUser.getId(), "snippet1");
 
         // Then
-        assertNotNull(updatedUser);
+        assertNotNull(acknowledgement);
+        User updatedUser = userRepository.findById(createdUser.getId()).orElseThrow();
         assertEquals(1, updatedUser.getSnippets().length);
         assertEquals("snippet1", updatedUser.getSnippets()[0]);
     }
 
+    @Test
+    @DisplayName("Should not lose concurrent appends")
+    void concurrentAppends_ShouldAllBePersisted() throws Exception {
+        // Given
+        User createdUser = userService.createUser(testUser);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<AppendAcknowledgement>> results = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String snippetId = "concurrent-" + i;
+            results.add(executor.submit(() -> userService.addSnippet(createdUser.getId(), snippetId)));
+        }
+        for (Future<AppendAcknowledgement> result : results) {
+            assertNotNull(result.get(10, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // Then
+        User persistedUser = userRepository.findById(createdUser.getId()).orElseThrow();
+        assertEquals(51, persistedUser.getSnippets().length);
+    }
+
+    @Test
+    @DisplayName("Should append journal entries and snippets in one call without duplicates")
+    void append_ShouldAddAllIdsOnce() {
+        // Given
+        User createdUser = userService.createUser(testUser);
+
+        // When
+        AppendAcknowledgement first = userService.append(createdUser.getId(),
+                List.of("journal2", "journal3"), List.of("snippet1", "snippet2"));
+        AppendAcknowledgement retried = userService.append(createdUser.getId(),
+                List.of("journal2", "journal3"), List.of("snippet1", "snippet2"));
+
+        // Then
+        assertTrue(first.modified());
+        assertFalse(retried.modified());
+        User persistedUser = userRepository.findById(createdUser.getId()).orElseThrow();
+        assertArrayEquals(new String[]{"journal1", "journal2", "journal3"}, persistedUser.getJournalEntries());
+        assertArrayEquals(new String[]{"snippet1", "snippet2"}, persistedUser.getSnippets());
+    }
+
     @Test
     @DisplayName("Should handle operations on non-existent user gracefully")
     void operationsOnNonExistentUser_ShouldHandleGracefully() {
@@ -224,10 +273,10 @@ class UserServiceIntegrationTest {
         boolean deleteResult = userService.deleteUser("nonexistent");
         assertFalse(deleteResult);
 
-        User addJournalResult = userService.addJournalEntry("nonexistent", "journal1");
+        AppendAcknowledgement addJournalResult = userService.addJournalEntry("nonexistent", "journal1");
         assertNull(addJournalResult);
 
-        User addSnippetResult = userService.addSnippet("nonexistent", "snippet1");
+        AppendAcknowledgement addSnippetResult = userService.addSnippet("nonexistent", "snippet1");
         assertNull(addSnippetResult);
     }
 }
@@ -1,14 +1,19 @@
 package com.example.user_microservice.integration;
 
+import com.example.user_microservice.dto.AppendAcknowledgement;
 import com.example.user_microservice.model.User;
 import com.example.user_microservice.repository.UserRepository;
 import com.example.user_microservice.service.UserService;
+import com.mongodb.client.result.UpdateResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.util.Arrays;
 import java.util.List;
@@ -16,6 +21,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -29,6 +35,9 @@ class UserServiceIntegrationTestEmbedded {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private MongoTemplate mongoTemplate;
+
     @InjectMocks
     private UserService userService;
 
@@ -121,41 +130,35 @@ class UserServiceIntegrationTestEmbedded {
     @Test
     void addJournalEntry_ShouldPersistNewEntry() {
         // Given
-        User updatedSavedUser = new User("1", "John Doe", "john@example.com", 
-                                        new String[]{"journal1", "journal2"}, new String[]{"snippet1"});
-        when(userRepository.findById("1")).thenReturn(Optional.of(savedUser));
-        when(userRepository.save(any(User.class))).thenReturn(updatedSavedUser);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(User.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
 
         // When
-        User updatedUser = userService.addJournalEntry("1", "journal2");
+        AppendAcknowledgement acknowledgement = userService.addJournalEntry("1", "journal2");
 
         // Then
-        assertNotNull(updatedUser);
-        assertEquals(2, updatedUser.getJournalEntries().length);
-        assertEquals("journal2", updatedUser.getJournalEntries()[1]);
+        assertNotNull(acknowledgement);
+        assertTrue(acknowledgement.modified());
 
-        verify(userRepository).findById("1");
-        verify(userRepository).save(any(User.class));
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(User.class));
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
     void addSnippet_ShouldPersistNewSnippet() {
         // Given
-        User updatedSavedUser = new User("1", "John Doe", "john@example.com", 
-                                        new String[]{"journal1"}, new String[]{"snippet1", "snippet2"});
-        when(userRepository.findById("1")).thenReturn(Optional.of(savedUser));
-        when(userRepository.save(any(User.class))).thenReturn(updatedSavedUser);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(User.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
 
         // When
-        User updatedUser = userService.addSnippet("1", "snippet2");
+        AppendAcknowledgement acknowledgement = userService.addSnippet("1", "snippet2");
 
         // Then
-        assertNotNull(updatedUser);
-        assertEquals(2, updatedUser.getSnippets().length);
-        assertEquals("snippet2", updatedUser.getSnippets()[1]);
+        assertNotNull(acknowledgement);
+        assertTrue(acknowledgement.modified());
 
-        verify(userRepository).findById("1");
-        verify(userRepository).save(any(User.class));
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(User.class));
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -163,6 +166,8 @@ class UserServiceIntegrationTestEmbedded {
         // Given
         when(userRepository.findById("nonexistent")).thenReturn(Optional.empty());
         when(userRepository.existsById("nonexistent")).thenReturn(false);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(User.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
 
         // When/Then
         Optional<User> nonExistentUser = userService.getUserById("nonexistent");
@@ -174,10 +179,10 @@ class UserServiceIntegrationTestEmbedded {
         boolean deleteResult = userService.deleteUser("nonexistent");
         assertFalse(deleteResult);
 
-        User addJournalResult = userService.addJournalEntry("nonexistent", "journal1");
+        AppendAcknowledgement addJournalResult = userService.addJournalEntry("nonexistent", "journal1");
         assertNull(addJournalResult);
 
-        User addSnippetResult = userService.addSnippet("nonexistent", "snippet1");
+        AppendAcknowledgement addSnippetResult = userService.addSnippet("nonexistent", "snippet1");
         assertNull(addSnippetResult);
 
         // Verify that methods were called appropriately
@@ -1,13 +1,19 @@
 package com.example.user_microservice.service;
 
+import com.example.user_microservice.dto.AppendAcknowledgement;
 import com.example.user_microservice.model.User;
 import com.example.user_microservice.repository.UserRepository;
+import com.mongodb.client.result.UpdateResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.util.Arrays;
 import java.util.List;
@@ -16,6 +22,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +31,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private MongoTemplate mongoTemplate;
+
     @InjectMocks
     private UserService userService;
 
@@ -155,86 +165,108 @@ class UserServiceTest {
     }
 
     @Test
-    void addJournalEntry_WhenUserExists_ShouldAddEntryAndReturnUser() {
+    void addJournalEntry_WhenUserExists_ShouldAddEntryAndReturnAcknowledgement() {
         // Given
-        User userWithNewEntry = new User("1", "John Doe", "john@example.com", 
-                                        new String[]{"journal1", "journal2"}, new String[]{"snippet1"});
-        when(userRepository.findById("1")).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenReturn(userWithNewEntry);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(User.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
 
         // When
-        User result = userService.addJournalEntry("1", "journal2");
+        AppendAcknowledgement result = userService.addJournalEntry("1", "journal2");
 
         // Then
         assertNotNull(result);
-        assertEquals(2, result.getJournalEntries().length);
-        assertEquals("journal2", result.getJournalEntries()[1]);
-        verify(userRepository).findById("1");
-        verify(userRepository).save(any(User.class));
+        assertEquals("1", result.userId());
+        assertTrue(result.modified());
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(User.class));
+        assertTrue(update.getValue().getUpdateObject().containsKey("$addToSet"));
+        verify(userRepository, never()).findById(anyString());
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
     void addJournalEntry_WhenUserNotExists_ShouldReturnNull() {
         // Given
-        when(userRepository.findById("999")).thenReturn(Optional.empty());
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(User.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
 
         // When
-        User result = userService.addJournalEntry("999", "journal2");
+        AppendAcknowledgement result = userService.addJournalEntry("999", "journal2");
 
         // Then
         assertNull(result);
-        verify(userRepository).findById("999");
         verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
-    void addJournalEntry_WhenUserHasNoEntries_ShouldCreateNewArray() {
+    void addJournalEntry_WhenEntryAlreadyPresent_ShouldReportUnmodified() {
         // Given
-        User userWithoutEntries = new User("1", "John Doe", "john@example.com", null, null);
-        User userWithEntry = new User("1", "John Doe", "john@example.com", 
-                                     new String[]{"journal1"}, null);
-        when(userRepository.findById("1")).thenReturn(Optional.of(userWithoutEntries));
-        when(userRepository.save(any(User.class))).thenReturn(userWithEntry);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(User.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 0L, null));
 
         // When
-        User result = userService.addJournalEntry("1", "journal1");
+        AppendAcknowledgement result = userService.addJournalEntry("1", "journal1");
 
         // Then
         assertNotNull(result);
-        assertEquals(1, result.getJournalEntries().length);
-        assertEquals("journal1", result.getJournalEntries()[0]);
+        assertFalse(result.modified());
     }
 
     @Test
-    void addSnippet_WhenUserExists_ShouldAddSnippetAndReturnUser() {
+    void addSnippet_WhenUserExists_ShouldAddSnippetAndReturnAcknowledgement() {
         // Given
-        User userWithNewSnippet = new User("1", "John Doe", "john@example.com", 
-                                          new String[]{"journal1"}, new String[]{"snippet1", "snippet2"});
-        when(userRepository.findById("1")).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenReturn(userWithNewSnippet);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(User.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
 
         // When
-        User result = userService.addSnippet("1", "snippet2");
+        AppendAcknowledgement result = userService.addSnippet("1", "snippet2");
 
         // Then
         assertNotNull(result);
-        assertEquals(2, result.getSnippets().length);
-        assertEquals("snippet2", result.getSnippets()[1]);
-        verify(userRepository).findById("1");
-        verify(userRepository).save(any(User.class));
+        assertTrue(result.modified());
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
     void addSnippet_WhenUserNotExists_ShouldReturnNull() {
         // Given
-        when(userRepository.findById("999")).thenReturn(Optional.empty());
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(User.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
 
         // When
-        User result = userService.addSnippet("999", "snippet2");
+        AppendAcknowledgement result = userService.addSnippet("999", "snippet2");
 
         // Then
         assertNull(result);
-        verify(userRepository).findById("999");
-        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void append_WithJournalEntriesAndSnippets_ShouldUseSingleUpdate() {
+        // Given
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(User.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // When
+        AppendAcknowledgement result = userService.append("1",
+                List.of("journal2", "journal3"), List.of("snippet2"));
+
+        // Then
+        assertNotNull(result);
+        assertTrue(result.modified());
+        verify(mongoTemplate, times(1)).updateFirst(any(Query.class), any(Update.class), eq(User.class));
+    }
+
+    @Test
+    void append_WithNothingToAppend_ShouldOnlyCheckUserExists() {
+        // Given
+        when(userRepository.existsById("1")).thenReturn(true);
+
+        // When
+        AppendAcknowledgement result = userService.append("1", List.of(), List.of());
+
+        // Then
+        assertNotNull(result);
+        assertFalse(result.modified());
+        verifyNoInteractions(mongoTemplate);
     }
 }